@@ -46,6 +46,12 @@ public interface Constants {
      */
     String ROW_LOCK_KEY_SPLIT_CHAR = ";";
 
+    /**
+     * The constant TABLE_LOCK_PK, the pk of the lock on a whole table, whose lock key has no pk, such as "t_user:".
+     * The pks of a lock key are split by ',', so no real pk is equal to it.
+     */
+    String TABLE_LOCK_PK = ",";
+
     /**
      * the start time of transaction
      */
@@ -23,6 +23,7 @@ public interface DefaultValues {
     int DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES = 10;
     int DEFAULT_CLIENT_LOCK_RETRY_TIMES = 30;
     boolean DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = true;
+    int DEFAULT_CLIENT_LOCK_ESCALATION_THRESHOLD = 0;
     int DEFAULT_LOG_EXCEPTION_RATE = 100;
     int DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = 10000;
     int DEFAULT_TM_DEGRADE_CHECK_PERIOD = 2000;
@@ -51,6 +52,7 @@ public interface DefaultValues {
     String DEFAULT_BOSS_THREAD_PREFIX = "NettyBoss";
     String DEFAULT_NIO_WORKER_THREAD_PREFIX = "NettyServerNIOWorker";
     String DEFAULT_EXECUTOR_THREAD_PREFIX = "NettyServerBizHandler";
+    boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST = false;
 
     boolean DEFAULT_TRANSPORT_HEARTBEAT = true;
     boolean DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION = true;
@@ -75,6 +77,37 @@ public interface DefaultValues {
      */
     String DEFAULT_LOCK_DB_TABLE = "lock_table";
 
+    /**
+     * The constant DEFAULT_STORE_DB_NODE_TABLE.
+     */
+    String DEFAULT_STORE_DB_NODE_TABLE = "node_table";
+
+    /**
+     * The constant DEFAULT_LOCK_DB_ACQUIRE_MODE, the locks are queried before inserted.
+     */
+    String DEFAULT_LOCK_DB_ACQUIRE_MODE = "query";
+
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE, every session write is committed on its own.
+     */
+    boolean DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE = false;
+
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_MAX_SIZE.
+     */
+    int DEFAULT_STORE_DB_GROUP_COMMIT_MAX_SIZE = 128;
+
+    /**
+     * The constant DEFAULT_STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS, a group is formed by the writes arrived while the
+     * last group is being committed.
+     */
+    long DEFAULT_STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS = 0L;
+
+    /**
+     * The constant DEFAULT_STORE_REDIS_QUERY_LIMIT.
+     */
+    int DEFAULT_STORE_REDIS_QUERY_LIMIT = 100;
+
     int DEFAULT_TM_COMMIT_RETRY_COUNT = 5;
     int DEFAULT_TM_ROLLBACK_RETRY_COUNT = 5;
     int DEFAULT_GLOBAL_TRANSACTION_TIMEOUT = 60000;
@@ -117,6 +150,112 @@ public interface DefaultValues {
      */
     int DEFAULT_RETRY_DEAD_THRESHOLD = 2 * 60 * 1000 + 10 * 1000;
 
+    /**
+     * the constant DEFAULT_RECOVERY_PHASE_TWO_WORKER_SIZE
+     */
+    int DEFAULT_RECOVERY_PHASE_TWO_WORKER_SIZE = 8;
+
+    /**
+     * the constant DEFAULT_RECOVERY_PHASE_TWO_QUEUE_SIZE
+     */
+    int DEFAULT_RECOVERY_PHASE_TWO_QUEUE_SIZE = 10000;
+
+    /**
+     * the constant DEFAULT_TIMEOUT_FULL_SCAN_PERIOD, the period depends on the store mode
+     */
+    long DEFAULT_TIMEOUT_FULL_SCAN_PERIOD = -1L;
+
+    /**
+     * the constant DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_FILE, all the sessions are in the timeout wheel in file mode
+     */
+    long DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_FILE = 60000L;
+
+    /**
+     * the constant DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_SHARED_STORE, the sessions begun on the other servers are only
+     * found by the full scan in db and redis mode
+     */
+    long DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_SHARED_STORE = 10000L;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_BASE_MILLS, the failed sessions are retried at every retry period
+     */
+    long DEFAULT_RETRY_BACKOFF_BASE_MILLS = 0L;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_MAX_MILLS
+     */
+    long DEFAULT_RETRY_BACKOFF_MAX_MILLS = 60000L;
+
+    /**
+     * the constant DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD, the circuits of the resources are never opened
+     */
+    int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 0;
+
+    /**
+     * the constant DEFAULT_CIRCUIT_BREAKER_OPEN_MILLS
+     */
+    long DEFAULT_CIRCUIT_BREAKER_OPEN_MILLS = 10000L;
+
+    /**
+     * the constant DEFAULT_RECOVERY_PARTITION_ENABLE, every server retries all the transactions
+     */
+    boolean DEFAULT_RECOVERY_PARTITION_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_RECOVERY_HEARTBEAT_PERIOD
+     */
+    long DEFAULT_RECOVERY_HEARTBEAT_PERIOD = 5000L;
+
+    /**
+     * the constant DEFAULT_RECOVERY_HEARTBEAT_TIMEOUT
+     */
+    long DEFAULT_RECOVERY_HEARTBEAT_TIMEOUT = 15000L;
+
+    /**
+     * the constant DEFAULT_ENABLE_PARALLEL_PHASE_TWO
+     */
+    boolean DEFAULT_ENABLE_PARALLEL_PHASE_TWO = false;
+
+    /**
+     * the constant DEFAULT_PARALLEL_PHASE_TWO_THREAD_SIZE
+     */
+    int DEFAULT_PARALLEL_PHASE_TWO_THREAD_SIZE = 64;
+
+    /**
+     * the constant DEFAULT_SERVER_LOCK_WAIT_TIMEOUT, the lock conflict is returned to the client at once if it is 0
+     */
+    long DEFAULT_SERVER_LOCK_WAIT_TIMEOUT = 0L;
+
+    /**
+     * the constant DEFAULT_SERVER_EVENT_BUS_BUFFER_SIZE
+     */
+    int DEFAULT_SERVER_EVENT_BUS_BUFFER_SIZE = 16384;
+
+    /**
+     * the constant DEFAULT_SERVER_EVENT_BUS_OVERFLOW_POLICY, the event is dropped when the buffer is full
+     */
+    String DEFAULT_SERVER_EVENT_BUS_OVERFLOW_POLICY = "drop";
+
+    /**
+     * the constant DEFAULT_SESSION_RELOAD_PARALLELISM, the number of processors is used if it is not greater than 0
+     */
+    int DEFAULT_SESSION_RELOAD_PARALLELISM = 0;
+
+    /**
+     * the constant DEFAULT_RAFT_ELECTION_TIMEOUT, a follower starts an election if it hears no leader in the timeout
+     */
+    long DEFAULT_RAFT_ELECTION_TIMEOUT = 1000L;
+
+    /**
+     * the constant DEFAULT_RAFT_WRITE_TIMEOUT, the time a session write waits for the majority of the cluster
+     */
+    long DEFAULT_RAFT_WRITE_TIMEOUT = 3000L;
+
+    /**
+     * the constant DEFAULT_RAFT_SNAPSHOT_LOG_SIZE, the number of the applied log entries kept before a snapshot
+     */
+    int DEFAULT_RAFT_SNAPSHOT_LOG_SIZE = 10000;
+
     /**
      * the constant TM_INTERCEPTOR_ORDER
      */
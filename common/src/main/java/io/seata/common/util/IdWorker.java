@@ -121,6 +121,49 @@ public class IdWorker {
         return workerId | timestampWithSequence;
     }
 
+    /**
+     * get the workerId of this IdWorker
+     * @return workerId
+     */
+    public long getWorkerId() {
+        return workerId >>> (timestampBits + sequenceBits);
+    }
+
+    /**
+     * get the workerId of an id generated by an IdWorker
+     * @param id the id
+     * @return workerId
+     */
+    public long getWorkerId(long id) {
+        return (id >>> (timestampBits + sequenceBits)) & maxWorkerId;
+    }
+
+    /**
+     * get the max workerId supported
+     * @return the max workerId
+     */
+    public long getMaxWorkerId() {
+        return maxWorkerId;
+    }
+
+    /**
+     * get the min id which may be generated by an IdWorker of the workerId
+     * @param workerId the workerId
+     * @return the min id
+     */
+    public long getMinId(long workerId) {
+        return workerId << (timestampBits + sequenceBits);
+    }
+
+    /**
+     * get the max id which may be generated by an IdWorker of the workerId
+     * @param workerId the workerId
+     * @return the max id
+     */
+    public long getMaxId(long workerId) {
+        return getMinId(workerId) | timestampAndSequenceMask;
+    }
+
     /**
      * block current thread if the QPS of acquiring UUID is too high
      * that current sequence space is exhausted
@@ -0,0 +1,47 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.common.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type CompletableFuture utils test.
+ */
+public class CompletableFutureUtilsTest {
+
+    @Test
+    public void testFailedFuture() {
+        IllegalStateException ex = new IllegalStateException("failed");
+        CompletableFuture<Object> future = CompletableFutureUtils.failedFuture(ex);
+        Assertions.assertTrue(future.isCompletedExceptionally());
+        CompletionException thrown = Assertions.assertThrows(CompletionException.class, future::join);
+        Assertions.assertSame(ex, thrown.getCause());
+    }
+
+    @Test
+    public void testUnwrap() {
+        IllegalStateException ex = new IllegalStateException("failed");
+        Assertions.assertSame(ex, CompletableFutureUtils.unwrap(ex));
+        Assertions.assertSame(ex, CompletableFutureUtils.unwrap(new CompletionException(new ExecutionException(ex))));
+        CompletionException withoutCause = new CompletionException("no cause", null);
+        Assertions.assertSame(withoutCause, CompletableFutureUtils.unwrap(withoutCause));
+    }
+}
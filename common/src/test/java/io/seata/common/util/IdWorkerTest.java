@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IdWorkerTest {
 
@@ -43,4 +44,22 @@ class IdWorkerTest {
         long id2 = worker.nextId();
         assertEquals(1L, id2 - id1, "increment step should be 1");
     }
+
+    @Test
+    void testGetWorkerId() {
+        IdWorker worker = new IdWorker(1023L);
+        assertEquals(1023L, worker.getWorkerId());
+        assertEquals(1023L, worker.getWorkerId(worker.nextId()));
+        assertEquals(5L, worker.getWorkerId(new IdWorker(5L).nextId()));
+    }
+
+    @Test
+    void testGetIdRange() {
+        IdWorker worker = new IdWorker(5L);
+        long id = worker.nextId();
+        assertTrue(id >= worker.getMinId(5L) && id <= worker.getMaxId(5L));
+        assertEquals(worker.getMaxId(4L) + 1, worker.getMinId(5L));
+        assertEquals(0L, worker.getMinId(0L));
+        assertEquals(Long.MAX_VALUE, worker.getMaxId(worker.getMaxWorkerId()));
+    }
 }
\ No newline at end of file
@@ -15,14 +15,15 @@
  */
 package io.seata.compressor.deflater;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
-import io.seata.core.compressor.Compressor;
+import io.seata.core.compressor.StreamingCompressor;
 
 /**
  * @author dongzl
  */
 @LoadLevel(name = "DEFLATER")
-public class DeflaterCompressor implements Compressor {
+public class DeflaterCompressor implements StreamingCompressor {
 
     @Override
     public byte[] compress(byte[] bytes) {
@@ -34,4 +35,14 @@ public class DeflaterCompressor implements Compressor {
         return DeflaterUtil.decompress(bytes);
     }
 
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        DeflaterUtil.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        DeflaterUtil.decompress(in, out);
+    }
+
 }
@@ -20,6 +20,9 @@ import java.io.IOException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * @author dongzl
  */
@@ -75,4 +78,70 @@ public class DeflaterUtil {
         }
     }
 
+    public static void compress(ByteBuf in, ByteBuf out) {
+        Deflater deflater = new Deflater();
+        try {
+            setInput(in, deflater::setInput);
+            deflater.finish();
+            // a heap buffer is deflated into in place, a direct one through a chunk
+            byte[] outputBytes = out.hasArray() ? null : new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                if (outputBytes == null) {
+                    out.ensureWritable(BUFFER_SIZE);
+                    int length = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                        out.writableBytes());
+                    out.writerIndex(out.writerIndex() + length);
+                } else {
+                    int length = deflater.deflate(outputBytes);
+                    out.writeBytes(outputBytes, 0, length);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        Inflater inflater = new Inflater();
+        try {
+            setInput(in, inflater::setInput);
+            byte[] outputBytes = out.hasArray() ? null : new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length;
+                if (outputBytes == null) {
+                    out.ensureWritable(BUFFER_SIZE);
+                    length = inflater.inflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                        out.writableBytes());
+                    out.writerIndex(out.writerIndex() + length);
+                } else {
+                    length = inflater.inflate(outputBytes);
+                    out.writeBytes(outputBytes, 0, length);
+                }
+                if (length == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Deflater decompress error", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void setInput(ByteBuf in, InputSetter setter) {
+        int length = in.readableBytes();
+        if (in.hasArray()) {
+            // the backing array of a heap buffer is read without copy
+            setter.setInput(in.array(), in.arrayOffset() + in.readerIndex(), length);
+        } else {
+            setter.setInput(ByteBufUtil.getBytes(in), 0, length);
+        }
+        in.skipBytes(length);
+    }
+
+    @FunctionalInterface
+    private interface InputSetter {
+        void setInput(byte[] bytes, int offset, int length);
+    }
+
 }
@@ -15,6 +15,10 @@
  */
 package io.seata.compressor.deflater;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -31,4 +35,31 @@ public class DeflaterCompressorTest {
         bytes = compressor.decompress(bytes);
         Assertions.assertEquals(new String(bytes), "seata");
     }
+
+    @Test
+    public void testStreamingCompressAndDecompress() {
+        DeflaterCompressor compressor = new DeflaterCompressor();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("seata").append(i);
+        }
+        byte[] bytes = content.toString().getBytes();
+        ByteBuf[] buffers = {Unpooled.wrappedBuffer(bytes), PooledByteBufAllocator.DEFAULT.directBuffer(),
+            PooledByteBufAllocator.DEFAULT.heapBuffer(), PooledByteBufAllocator.DEFAULT.directBuffer()};
+        try {
+            compressor.compress(buffers[0], buffers[1]);
+            Assertions.assertEquals(0, buffers[0].readableBytes());
+            // readable by the byte[] variant
+            Assertions.assertArrayEquals(bytes, compressor.decompress(ByteBufUtil.getBytes(buffers[1])));
+
+            // through a heap buffer too
+            buffers[2].writeBytes(buffers[1]);
+            compressor.decompress(buffers[2], buffers[3]);
+            Assertions.assertArrayEquals(bytes, ByteBufUtil.getBytes(buffers[3]));
+        } finally {
+            for (ByteBuf buffer : buffers) {
+                buffer.release();
+            }
+        }
+    }
 }
@@ -15,8 +15,9 @@
  */
 package io.seata.compressor.lz4;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
-import io.seata.core.compressor.Compressor;
+import io.seata.core.compressor.StreamingCompressor;
 
 /**
  * the Lz4 Compressor
@@ -24,7 +25,7 @@ import io.seata.core.compressor.Compressor;
  * @author diguage
  */
 @LoadLevel(name = "LZ4")
-public class Lz4Compressor implements Compressor {
+public class Lz4Compressor implements StreamingCompressor {
     @Override
     public byte[] compress(byte[] bytes) {
         return Lz4Util.compress(bytes);
@@ -34,4 +35,14 @@ public class Lz4Compressor implements Compressor {
     public byte[] decompress(byte[] bytes) {
         return Lz4Util.decompress(bytes);
     }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        Lz4Util.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        Lz4Util.decompress(in, out);
+    }
 }
@@ -19,6 +19,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
 import net.jpountz.lz4.LZ4Compressor;
@@ -72,4 +75,27 @@ public class Lz4Util {
         }
         return outputStream.toByteArray();
     }
+
+    public static void compress(ByteBuf in, ByteBuf out) {
+        LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+        // the same block stream as the byte[] one, so either side may use either of them
+        try (LZ4BlockOutputStream lz4BlockOutputStream
+                     = new LZ4BlockOutputStream(new ByteBufOutputStream(out), ARRAY_SIZE, compressor)) {
+            in.readBytes(lz4BlockOutputStream, in.readableBytes());
+        } catch (IOException e) {
+            throw new RuntimeException("Lz4 compress error", e);
+        }
+    }
+
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+        try (LZ4BlockInputStream decompressedInputStream
+                     = new LZ4BlockInputStream(new ByteBufInputStream(in), decompressor)) {
+            while (out.writeBytes(decompressedInputStream, ARRAY_SIZE) != -1) {
+                // until the end of the stream
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Lz4 decompress error", e);
+        }
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.compressor;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The compressor reading from and writing to the netty buffers directly, so the protocol codec needs no intermediate
+ * byte[] of the message body.
+ *
+ * @since 1.5.0
+ */
+public interface StreamingCompressor extends Compressor {
+
+    /**
+     * compress all the readable bytes of a buffer into another one.
+     * @param in the buffer read from
+     * @param out the buffer written to
+     */
+    void compress(ByteBuf in, ByteBuf out);
+
+    /**
+     * decompress all the readable bytes of a buffer into another one.
+     * @param in the buffer read from
+     * @param out the buffer written to
+     */
+    void decompress(ByteBuf in, ByteBuf out);
+
+}
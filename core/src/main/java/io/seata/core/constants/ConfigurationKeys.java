@@ -131,6 +131,10 @@ public interface ConfigurationKeys {
      * The constant CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT.
      */
     String CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = CLIENT_RM_LOCK_PREFIX + "retryPolicyBranchRollbackOnConflict";
+    /**
+     * The constant CLIENT_LOCK_ESCALATION_THRESHOLD.
+     */
+    String CLIENT_LOCK_ESCALATION_THRESHOLD = CLIENT_RM_LOCK_PREFIX + "escalationThreshold";
 
 
     /**
@@ -138,6 +142,11 @@ public interface ConfigurationKeys {
      */
     String SERVICE_SESSION_RELOAD_READ_SIZE = STORE_FILE_PREFIX + "sessionReloadReadSize";
 
+    /**
+     * The constant SERVICE_SESSION_RELOAD_PARALLELISM
+     */
+    String SERVICE_SESSION_RELOAD_PARALLELISM = STORE_FILE_PREFIX + "sessionReloadParallelism";
+
     /**
      * The constant CLIENT_REPORT_SUCCESS_ENABLE.
      */
@@ -289,6 +298,31 @@ public interface ConfigurationKeys {
      */
     String LOCK_DB_TABLE = STORE_DB_PREFIX + "lockTable";
 
+    /**
+     * The constant STORE_DB_NODE_TABLE.
+     */
+    String STORE_DB_NODE_TABLE = STORE_DB_PREFIX + "nodeTable";
+
+    /**
+     * The constant LOCK_DB_ACQUIRE_MODE.
+     */
+    String LOCK_DB_ACQUIRE_MODE = STORE_DB_PREFIX + "lockAcquireMode";
+
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_ENABLE.
+     */
+    String STORE_DB_GROUP_COMMIT_ENABLE = STORE_DB_PREFIX + "groupCommitEnable";
+
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_MAX_SIZE.
+     */
+    String STORE_DB_GROUP_COMMIT_MAX_SIZE = STORE_DB_PREFIX + "groupCommitMaxSize";
+
+    /**
+     * The constant STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS.
+     */
+    String STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS = STORE_DB_PREFIX + "groupCommitMaxDelayMills";
+
     /**
      * The constant SERVER_RPC_PORT.
      */
@@ -318,6 +352,56 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant RECOVERY_PHASE_TWO_WORKER_SIZE.
+     */
+    String RECOVERY_PHASE_TWO_WORKER_SIZE = RECOVERY_PREFIX + "phaseTwoWorkerSize";
+
+    /**
+     * The constant RECOVERY_PHASE_TWO_QUEUE_SIZE.
+     */
+    String RECOVERY_PHASE_TWO_QUEUE_SIZE = RECOVERY_PREFIX + "phaseTwoQueueSize";
+
+    /**
+     * The constant TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    String TIMEOUT_FULL_SCAN_PERIOD = RECOVERY_PREFIX + "timeoutFullScanPeriod";
+
+    /**
+     * The constant RETRY_BACKOFF_BASE_MILLS.
+     */
+    String RETRY_BACKOFF_BASE_MILLS = RECOVERY_PREFIX + "retryBackoffBaseMills";
+
+    /**
+     * The constant RETRY_BACKOFF_MAX_MILLS.
+     */
+    String RETRY_BACKOFF_MAX_MILLS = RECOVERY_PREFIX + "retryBackoffMaxMills";
+
+    /**
+     * The constant CIRCUIT_BREAKER_FAILURE_THRESHOLD.
+     */
+    String CIRCUIT_BREAKER_FAILURE_THRESHOLD = RECOVERY_PREFIX + "circuitBreakerFailureThreshold";
+
+    /**
+     * The constant CIRCUIT_BREAKER_OPEN_MILLS.
+     */
+    String CIRCUIT_BREAKER_OPEN_MILLS = RECOVERY_PREFIX + "circuitBreakerOpenMills";
+
+    /**
+     * The constant RECOVERY_PARTITION_ENABLE.
+     */
+    String RECOVERY_PARTITION_ENABLE = RECOVERY_PREFIX + "partitionEnable";
+
+    /**
+     * The constant RECOVERY_HEARTBEAT_PERIOD.
+     */
+    String RECOVERY_HEARTBEAT_PERIOD = RECOVERY_PREFIX + "heartbeatPeriod";
+
+    /**
+     * The constant RECOVERY_HEARTBEAT_TIMEOUT.
+     */
+    String RECOVERY_HEARTBEAT_TIMEOUT = RECOVERY_PREFIX + "heartbeatTimeout";
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -435,6 +519,31 @@ public interface ConfigurationKeys {
      */
     String DISTRIBUTED_LOCK_EXPIRE_TIME = SERVER_PREFIX + "distributedLockExpireTime";
 
+    /**
+     * The constant ENABLE_PARALLEL_PHASE_TWO.
+     */
+    String ENABLE_PARALLEL_PHASE_TWO = SERVER_PREFIX + "enableParallelPhaseTwo";
+
+    /**
+     * The constant PARALLEL_PHASE_TWO_THREAD_SIZE.
+     */
+    String PARALLEL_PHASE_TWO_THREAD_SIZE = SERVER_PREFIX + "parallelPhaseTwoThreadSize";
+
+    /**
+     * The constant SERVER_LOCK_WAIT_TIMEOUT.
+     */
+    String SERVER_LOCK_WAIT_TIMEOUT = SERVER_PREFIX + "lockWaitTimeout";
+
+    /**
+     * The constant SERVER_EVENT_BUS_BUFFER_SIZE.
+     */
+    String SERVER_EVENT_BUS_BUFFER_SIZE = SERVER_PREFIX + "eventBusBufferSize";
+
+    /**
+     * The constant SERVER_EVENT_BUS_OVERFLOW_POLICY.
+     */
+    String SERVER_EVENT_BUS_OVERFLOW_POLICY = SERVER_PREFIX + "eventBusOverflowPolicy";
+
     /**
      * The constant MIN_SERVER_POOL_SIZE.
      */
@@ -535,6 +644,11 @@ public interface ConfigurationKeys {
      */
     String ENABLE_CLIENT_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableClientBatchSendRequest";
 
+    /**
+     * The constant ENABLE_TC_SERVER_BATCH_SEND_REQUEST
+     */
+    String ENABLE_TC_SERVER_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableTcServerBatchSendRequest";
+
     /**
      * The constant DISABLE_GLOBAL_TRANSACTION.
      */
@@ -630,6 +744,36 @@ public interface ConfigurationKeys {
      */
     String STORE_REDIS_SENTINEL_HOST = STORE_REDIS_SENTINEL_PREFIX + "sentinelHosts";
 
+    /**
+     * The constant STORE_RAFT_PREFIX.
+     */
+    String STORE_RAFT_PREFIX = STORE_PREFIX + "raft.";
+
+    /**
+     * The constant STORE_RAFT_SERVER_ADDR, the raft addresses of all the servers of the cluster.
+     */
+    String STORE_RAFT_SERVER_ADDR = STORE_RAFT_PREFIX + "serverAddr";
+
+    /**
+     * The constant STORE_RAFT_NODE_ADDR, the raft address of this server, one of the STORE_RAFT_SERVER_ADDR.
+     */
+    String STORE_RAFT_NODE_ADDR = STORE_RAFT_PREFIX + "nodeAddr";
+
+    /**
+     * The constant STORE_RAFT_ELECTION_TIMEOUT.
+     */
+    String STORE_RAFT_ELECTION_TIMEOUT = STORE_RAFT_PREFIX + "electionTimeout";
+
+    /**
+     * The constant STORE_RAFT_WRITE_TIMEOUT.
+     */
+    String STORE_RAFT_WRITE_TIMEOUT = STORE_RAFT_PREFIX + "writeTimeout";
+
+    /**
+     * The constant STORE_RAFT_SNAPSHOT_LOG_SIZE.
+     */
+    String STORE_RAFT_SNAPSHOT_LOG_SIZE = STORE_RAFT_PREFIX + "snapshotLogSize";
+
     /**
      * The constant CLIENT_DEGRADE_CHECK_PERIOD.
      */
@@ -192,4 +192,14 @@ public interface ServerTableColumnsName {
      * The constant lock_table column name gmt_modified
      */
     String LOCK_TABLE_GMT_MODIFIED = "gmt_modified";
+
+    /**
+     * The constant node_table column name node_id
+     */
+    String NODE_TABLE_NODE_ID = "node_id";
+
+    /**
+     * The constant node_table column name heartbeat_time
+     */
+    String NODE_TABLE_HEARTBEAT_TIME = "heartbeat_time";
 }
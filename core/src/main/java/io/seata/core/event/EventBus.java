@@ -15,6 +15,8 @@
  */
 package io.seata.core.event;
 
+import io.seata.core.model.GlobalStatus;
+
 /**
  * The interface for event bus.
  *
@@ -26,4 +28,21 @@ public interface EventBus {
     void unregister(Object subscriber);
 
     void post(Event event);
+
+    /**
+     * Post a global transaction event, the implementation may fill a reused event instead of creating one.
+     *
+     * @param id            the transaction id
+     * @param role          the source role
+     * @param name          the transaction name
+     * @param applicationId the application id
+     * @param group         the transaction service group
+     * @param beginTime     the begin time
+     * @param endTime       the end time, null if the transaction is not ended
+     * @param status        the status
+     */
+    default void postGlobalTransactionEvent(long id, String role, String name, String applicationId, String group,
+        Long beginTime, Long endTime, GlobalStatus status) {
+        post(new GlobalTransactionEvent(id, role, name, applicationId, group, beginTime, endTime, status));
+    }
 }
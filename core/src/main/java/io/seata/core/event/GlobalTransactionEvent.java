@@ -19,6 +19,9 @@ import io.seata.core.model.GlobalStatus;
 
 /**
  * Event data for global transaction.
+ * <p>
+ * The events published through a {@link RingBufferEventBus} are reused, so a subscriber must not keep them after the
+ * dispatch.
  *
  * @author zhengyangyong
  */
@@ -37,12 +40,12 @@ public class GlobalTransactionEvent implements Event {
     /**
      * Source Role
      */
-    private final String role;
+    private String role;
 
     /**
      * Transaction Name
      */
-    private final String name;
+    private String name;
 
     /**
      * business applicationId
@@ -57,17 +60,17 @@ public class GlobalTransactionEvent implements Event {
     /**
      * Transaction Begin Time
      */
-    private final Long beginTime;
+    private Long beginTime;
 
     /**
      * Transaction End Time (If Transaction do not committed or rollbacked, null)
      */
-    private final Long endTime;
+    private Long endTime;
 
     /**
      * Transaction Status
      */
-    private final GlobalStatus status;
+    private GlobalStatus status;
 
     public long getId() {
         return id;
@@ -112,4 +115,25 @@ public class GlobalTransactionEvent implements Event {
         this.endTime = endTime;
         this.status = status;
     }
+
+    /**
+     * Instantiates a new event preallocated in a ring buffer.
+     */
+    GlobalTransactionEvent() {
+    }
+
+    /**
+     * Fill the event for a new publish.
+     */
+    void reset(long id, String role, String name, String applicationId, String group, Long beginTime, Long endTime,
+        GlobalStatus status) {
+        this.id = id;
+        this.role = role;
+        this.name = name;
+        this.applicationId = applicationId;
+        this.group = group;
+        this.beginTime = beginTime;
+        this.endTime = endTime;
+        this.status = status;
+    }
 }
@@ -0,0 +1,297 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.rpc.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The event bus dispatching the events on its own thread through a preallocated ring buffer.
+ * <p>
+ * The publishers claim the slots of the ring by a CAS on the publish cursor and never block, and a single consumer
+ * thread drains all the published slots at a time, dispatching them in the publish order to the subscribers through
+ * a synchronous Guava EventBus. The global transaction events are filled into the events preallocated in the slots,
+ * so publishing them allocates nothing. When the ring is full, the event is dropped or dispatched on the publisher
+ * thread, by the overflow policy. Once destroyed, the consumer dispatches the events already published and stops, and
+ * the events posted later are dispatched on the publisher thread.
+ *
+ * @since 1.5.0
+ */
+public class RingBufferEventBus implements EventBus, Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RingBufferEventBus.class);
+
+    /**
+     * the max time the consumer parks without being woken, in case a wake up is missed
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
+
+    private final String identifier;
+
+    private final com.google.common.eventbus.EventBus dispatcher;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int mask;
+
+    /**
+     * the sequence of every slot, equals to the position to publish if the slot is free, and to the position plus one
+     * if the slot is published
+     */
+    private final AtomicLongArray sequences;
+
+    private final Event[] events;
+
+    private final GlobalTransactionEvent[] globalTransactionEvents;
+
+    private final AtomicLong publishCursor = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Thread consumer;
+
+    private volatile boolean consumerWaiting;
+
+    private volatile boolean stopping;
+
+    /**
+     * Instantiates a new ring buffer event bus.
+     *
+     * @param identifier     the identifier
+     * @param bufferSize     the number of the slots, rounded up to a power of two
+     * @param overflowPolicy the overflow policy
+     */
+    public RingBufferEventBus(String identifier, int bufferSize, OverflowPolicy overflowPolicy) {
+        this.identifier = identifier;
+        this.dispatcher = new com.google.common.eventbus.EventBus(identifier);
+        this.overflowPolicy = overflowPolicy;
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.events = new Event[capacity];
+        this.globalTransactionEvents = new GlobalTransactionEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+            globalTransactionEvents[i] = new GlobalTransactionEvent();
+        }
+        this.consumer = new NamedThreadFactory(identifier + "EventBus", 1, true).newThread(this::consume);
+        this.consumer.start();
+    }
+
+    @Override
+    public void register(Object subscriber) {
+        dispatcher.register(subscriber);
+    }
+
+    @Override
+    public void unregister(Object subscriber) {
+        dispatcher.unregister(subscriber);
+    }
+
+    @Override
+    public void post(Event event) {
+        if (stopping) {
+            dispatcher.post(event);
+            return;
+        }
+        long position = claim();
+        if (position < 0) {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                dispatcher.post(event);
+            } else {
+                drop();
+            }
+            return;
+        }
+        events[index(position)] = event;
+        publish(position);
+    }
+
+    @Override
+    public void postGlobalTransactionEvent(long id, String role, String name, String applicationId, String group,
+        Long beginTime, Long endTime, GlobalStatus status) {
+        long position = stopping ? -1 : claim();
+        if (position < 0) {
+            if (stopping || overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                dispatcher.post(
+                    new GlobalTransactionEvent(id, role, name, applicationId, group, beginTime, endTime, status));
+            } else {
+                drop();
+            }
+            return;
+        }
+        int index = index(position);
+        GlobalTransactionEvent event = globalTransactionEvents[index];
+        event.reset(id, role, name, applicationId, group, beginTime, endTime, status);
+        events[index] = event;
+        publish(position);
+    }
+
+    /**
+     * Stop the consumer thread after it dispatches the events already published.
+     */
+    @Override
+    public void destroy() {
+        stopping = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(MAX_WAIT_FOR_CLOSE_TIME_MILLS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            LOGGER.warn("The consumer of the event bus[{}] is not stopped within {} ms", identifier,
+                MAX_WAIT_FOR_CLOSE_TIME_MILLS);
+            consumer.interrupt();
+        }
+    }
+
+    /**
+     * The number of the events dropped since the ring buffer was full.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Claim a free slot.
+     *
+     * @return the position of the slot, -1 if the ring is full
+     */
+    private long claim() {
+        while (true) {
+            long position = publishCursor.get();
+            long sequence = sequences.get(index(position));
+            if (sequence == position) {
+                if (publishCursor.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                // the slot of the last round is not consumed yet
+                return -1;
+            }
+            // else claimed by another publisher, try the next position
+        }
+    }
+
+    private void publish(long position) {
+        sequences.set(index(position), position + 1);
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void drop() {
+        long dropped = droppedCount.incrementAndGet();
+        // logged at the powers of two, not to flood the log while the consumer falls behind
+        if ((dropped & (dropped - 1)) == 0) {
+            LOGGER.warn("The ring buffer of the event bus[{}] is full, {} events dropped", identifier, dropped);
+        }
+    }
+
+    private void consume() {
+        int capacity = mask + 1;
+        long position = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int index = index(position);
+            if (sequences.get(index) != position + 1) {
+                if (stopping) {
+                    // all the published events are dispatched
+                    return;
+                }
+                await(index, position + 1);
+                continue;
+            }
+            // drain all the published slots as a batch before waiting again
+            do {
+                Event event = events[index];
+                events[index] = null;
+                try {
+                    dispatcher.post(event);
+                } catch (Throwable t) {
+                    LOGGER.error("Failed to dispatch the event {} of the event bus[{}]", event, identifier, t);
+                }
+                sequences.lazySet(index, position + capacity);
+                index = index(++position);
+            } while (sequences.get(index) == position + 1);
+        }
+    }
+
+    private void await(int index, long sequence) {
+        consumerWaiting = true;
+        try {
+            // check again after announcing the wait, so a publish in between is not missed
+            if (sequences.get(index) != sequence) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            consumerWaiting = false;
+        }
+    }
+
+    private int index(long position) {
+        return (int)position & mask;
+    }
+
+    /**
+     * The policy when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drop the event.
+         */
+        DROP("drop"),
+
+        /**
+         * Dispatch the event on the publisher thread.
+         */
+        CALLER_RUNS("callerRuns");
+
+        private final String name;
+
+        OverflowPolicy(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the policy by its name, ignoring case.
+         *
+         * @param name the name
+         * @return the policy, DROP if the name is unknown
+         */
+        public static OverflowPolicy get(String name) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name.equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            return DROP;
+        }
+    }
+}
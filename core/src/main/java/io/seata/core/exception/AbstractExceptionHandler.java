@@ -15,6 +15,7 @@
  */
 package io.seata.core.exception;
 
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.protocol.ResultCode;
@@ -23,6 +24,9 @@ import io.seata.core.protocol.transaction.AbstractTransactionResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * The type Abstract exception handler.
  *
@@ -53,6 +57,22 @@ public abstract class AbstractExceptionHandler {
          */
         void execute(T request, S response) throws TransactionException;
 
+        /**
+         * Execute without blocking the caller thread, executes synchronously by default.
+         *
+         * @param request  the request
+         * @param response the response
+         * @return the future completed when the execution is done, exceptionally if it fails
+         */
+        default CompletableFuture<Void> executeAsync(T request, S response) {
+            try {
+                execute(request, response);
+                return CompletableFuture.completedFuture(null);
+            } catch (TransactionException | RuntimeException e) {
+                return CompletableFutureUtils.failedFuture(e);
+            }
+        }
+
         /**
          * On success.
          *
@@ -132,4 +152,40 @@ public abstract class AbstractExceptionHandler {
         }
     }
 
+    /**
+     * Exception handle template without blocking the caller thread until the callback is executed.
+     *
+     * @param <T>      the type parameter
+     * @param <S>      the type parameter
+     * @param callback the callback
+     * @param request  the request
+     * @param response the response
+     * @return the future of the response
+     */
+    public <T extends AbstractTransactionRequest, S extends AbstractTransactionResponse> CompletableFuture<S> exceptionHandleTemplateAsync(Callback<T, S> callback, T request, S response) {
+        CompletableFuture<Void> future;
+        try {
+            future = callback.executeAsync(request, response);
+        } catch (RuntimeException rex) {
+            future = CompletableFutureUtils.failedFuture(rex);
+        }
+        return future.handle((v, ex) -> {
+            if (ex == null) {
+                callback.onSuccess(request, response);
+                return response;
+            }
+            Throwable cause = CompletableFutureUtils.unwrap(ex);
+            if (cause instanceof TransactionException) {
+                LOGGER.error("Catch TransactionException while do RPC, request: {}", request, cause);
+                callback.onTransactionException(request, response, (TransactionException) cause);
+            } else if (cause instanceof RuntimeException) {
+                LOGGER.error("Catch RuntimeException while do RPC, request: {}", request, cause);
+                callback.onException(request, response, (RuntimeException) cause);
+            } else {
+                throw new CompletionException(cause);
+            }
+            return response;
+        });
+    }
+
 }
@@ -15,6 +15,7 @@
  */
 package io.seata.core.protocol;
 
+import io.netty.util.Timeout;
 import io.seata.common.exception.ShouldNeverHappenException;
 
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +33,7 @@ public class MessageFuture {
     private long timeout;
     private long start = System.currentTimeMillis();
     private transient CompletableFuture<Object> origin = new CompletableFuture<>();
+    private transient volatile Timeout timeoutTask;
 
     /**
      * Is timeout boolean.
@@ -57,6 +59,9 @@ public class MessageFuture {
         try {
             result = origin.get(timeout, unit);
         } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException)e.getCause();
+            }
             throw new ShouldNeverHappenException("Should not get results in a multi-threaded environment", e);
         } catch (TimeoutException e) {
             throw new TimeoutException("cost " + (System.currentTimeMillis() - start) + " ms");
@@ -71,6 +76,29 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * Gets the result asynchronously. The future is completed exceptionally if the result is a throwable,
+     * or with a TimeoutException if the message future is cleared without result.
+     *
+     * @return the completable future of the result
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        origin.whenComplete((result, ex) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else if (result instanceof Throwable) {
+                future.completeExceptionally((Throwable)result);
+            } else if (result == null) {
+                future.completeExceptionally(
+                    new TimeoutException("cost " + (System.currentTimeMillis() - start) + " ms"));
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
     /**
      * Sets result message.
      *
@@ -78,6 +106,34 @@ public class MessageFuture {
      */
     public void setResultMessage(Object obj) {
         origin.complete(obj);
+        cancelTimeoutTask();
+    }
+
+    /**
+     * Time out the message future, the callers waiting for the result get a TimeoutException.
+     */
+    public void timeout() {
+        origin.completeExceptionally(
+            new TimeoutException("cost " + (System.currentTimeMillis() - start) + " ms"));
+    }
+
+    /**
+     * Sets the task timing out the message future, which is cancelled once the result is set.
+     *
+     * @param timeoutTask the timeout task
+     */
+    public void setTimeoutTask(Timeout timeoutTask) {
+        this.timeoutTask = timeoutTask;
+        if (origin.isDone()) {
+            cancelTimeoutTask();
+        }
+    }
+
+    private void cancelTimeoutTask() {
+        Timeout task = timeoutTask;
+        if (task != null) {
+            task.cancel();
+        }
     }
 
     /**
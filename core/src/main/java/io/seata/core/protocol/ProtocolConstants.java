@@ -36,6 +36,16 @@ public interface ProtocolConstants {
      */
     byte VERSION = 1;
 
+    /**
+     * Protocol version 2, used on a connection once both sides agree on it at the register of the TM or RM
+     */
+    byte VERSION_2 = 2;
+
+    /**
+     * The head of the register request and response telling the max protocol version supported
+     */
+    String HEAD_PROTOCOL_VERSION = "protocolVersion";
+
     /**
      * Max frame length
      */
@@ -24,6 +24,11 @@ import java.io.Serializable;
  */
 public class RegisterRMRequest extends AbstractIdentifyRequest implements Serializable {
 
+    /**
+     * The extra data telling the rm handles the branch commit and rollback requests merged by the server.
+     */
+    public static final String UDATA_BATCH_BRANCH_END = "batchBranchEnd";
+
     /**
      * Instantiates a new Register rm request.
      */
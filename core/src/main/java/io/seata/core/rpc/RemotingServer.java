@@ -19,9 +19,12 @@ import io.netty.channel.Channel;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
+import io.seata.common.util.CompletableFutureUtils;
+
 /**
  * The interface Remoting server.
  *
@@ -42,6 +45,24 @@ public interface RemotingServer {
      */
     Object sendSyncRequest(String resourceId, String clientId, Object msg) throws TimeoutException;
 
+    /**
+     * server send request without blocking the caller thread.
+     * The default implementation sends a sync request, the netty remoting server completes the future
+     * when the response is received.
+     *
+     * @param resourceId rm client resourceId
+     * @param clientId   rm client id
+     * @param msg        transaction message {@link io.seata.core.protocol}
+     * @return the future of client result message, completed exceptionally with TimeoutException when timeout
+     */
+    default CompletableFuture<Object> sendRequestAsync(String resourceId, String clientId, Object msg) {
+        try {
+            return CompletableFuture.completedFuture(sendSyncRequest(resourceId, clientId, msg));
+        } catch (TimeoutException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
     /**
      * server send sync request.
      *
@@ -52,6 +52,11 @@ public class RpcContext {
 
     private Set<String> resourceSets;
 
+    /**
+     * whether the rm handles the branch commit and rollback requests merged by the server
+     */
+    private volatile boolean batchBranchEndSupported;
+
     /**
      * id
      */
@@ -265,6 +270,24 @@ public class RpcContext {
         this.version = version;
     }
 
+    /**
+     * Whether the rm handles the branch commit and rollback requests merged by the server.
+     *
+     * @return the boolean
+     */
+    public boolean isBatchBranchEndSupported() {
+        return batchBranchEndSupported;
+    }
+
+    /**
+     * Sets batch branch end supported.
+     *
+     * @param batchBranchEndSupported the batch branch end supported
+     */
+    public void setBatchBranchEndSupported(boolean batchBranchEndSupported) {
+        this.batchBranchEndSupported = batchBranchEndSupported;
+    }
+
     /**
      * Gets get resource sets.
      *
@@ -15,6 +15,9 @@
  */
 package io.seata.core.rpc;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 
@@ -34,6 +37,23 @@ public interface TransactionMessageHandler {
      */
     AbstractResultMessage onRequest(AbstractMessage request, RpcContext context);
 
+    /**
+     * On a request received, the response may be completed later without blocking the caller thread.
+     * Handles the request synchronously by default.
+     *
+     * @param request received request message
+     * @param context context of the RPC
+     * @return the future of the response to the request
+     * @since 1.5.0
+     */
+    default CompletableFuture<AbstractResultMessage> onRequestAsync(AbstractMessage request, RpcContext context) {
+        try {
+            return CompletableFuture.completedFuture(onRequest(request, context));
+        } catch (RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
     /**
      * On a response received.
      *
@@ -18,11 +18,16 @@ package io.seata.core.rpc.netty;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.HashedWheelTimer;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.thread.PositiveAtomicCounter;
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.core.protocol.MergedWarpMessage;
 import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.MessageType;
 import io.seata.core.protocol.MessageTypeAware;
@@ -41,8 +46,8 @@ import java.lang.management.ManagementFactory;
 import java.net.SocketAddress;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -51,6 +56,7 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * The abstract netty remoting.
@@ -61,11 +67,20 @@ import java.util.concurrent.TimeoutException;
 public abstract class AbstractNettyRemoting implements Disposable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNettyRemoting.class);
+
+    private static final AttributeKey<ChannelRequestBatcher> REQUEST_BATCHER = AttributeKey.valueOf("requestBatcher");
     /**
      * The Timer executor.
      */
     protected final ScheduledExecutorService timerExecutor = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("timeoutChecker", 1, true));
+    /**
+     * The timer timing out the message futures, so a future expires in O(1) at its timeout.
+     *
+     * @see AbstractNettyRemoting#putFuture
+     */
+    protected final HashedWheelTimer futureTimeoutTimer = new HashedWheelTimer(
+        new NamedThreadFactory("futureTimeoutChecker", 1, true), FUTURE_TIMEOUT_TICK_MILLS, TimeUnit.MILLISECONDS);
     /**
      * The Message executor.
      */
@@ -90,11 +105,8 @@ public abstract class AbstractNettyRemoting implements Disposable {
      */
     protected volatile long nowMills = 0;
     private static final int TIMEOUT_CHECK_INTERVAL = 3000;
+    private static final long FUTURE_TIMEOUT_TICK_MILLS = 10L;
     protected final Object lock = new Object();
-    /**
-     * The Is sending.
-     */
-    protected volatile boolean isSending = false;
     private String group = "DEFAULT";
 
     /**
@@ -109,16 +121,6 @@ public abstract class AbstractNettyRemoting implements Disposable {
         timerExecutor.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
-                for (Map.Entry<Integer, MessageFuture> entry : futures.entrySet()) {
-                    if (entry.getValue().isTimeout()) {
-                        futures.remove(entry.getKey());
-                        entry.getValue().setResultMessage(null);
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("timeout clear future: {}", entry.getValue().getRequestMessage().getBody());
-                        }
-                    }
-                }
-
                 nowMills = System.currentTimeMillis();
             }
         }, TIMEOUT_CHECK_INTERVAL, TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
@@ -151,9 +153,62 @@ public abstract class AbstractNettyRemoting implements Disposable {
     @Override
     public void destroy() {
         timerExecutor.shutdown();
+        futureTimeoutTimer.stop();
         messageExecutor.shutdown();
     }
 
+    /**
+     * Put the message future into futures, and time it out when no result is set within its timeout.
+     *
+     * @param messageFuture the message future
+     */
+    protected void putFuture(MessageFuture messageFuture) {
+        int id = messageFuture.getRequestMessage().getId();
+        futures.put(id, messageFuture);
+        messageFuture.setTimeoutTask(futureTimeoutTimer.newTimeout(timeout -> {
+            if (futures.remove(id, messageFuture)) {
+                messageFuture.timeout();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("timeout clear future: {}", messageFuture.getRequestMessage().getBody());
+                }
+            }
+        }, messageFuture.getTimeout(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Gets the batcher merging the requests sent to the channel, created on the first use.
+     *
+     * @param channel the channel
+     * @param sender  sends a merged message to the channel, called on the event loop
+     * @param failure fails the requests of the message ids, called when the channel is inactive
+     * @return the request batcher
+     */
+    protected ChannelRequestBatcher getRequestBatcher(Channel channel, Consumer<MergedWarpMessage> sender,
+                                                      Consumer<List<Integer>> failure) {
+        Attribute<ChannelRequestBatcher> attribute = channel.attr(REQUEST_BATCHER);
+        ChannelRequestBatcher batcher = attribute.get();
+        if (batcher == null) {
+            batcher = new ChannelRequestBatcher(channel, sender, failure);
+            ChannelRequestBatcher previous = attribute.setIfAbsent(batcher);
+            if (previous != null) {
+                batcher = previous;
+            }
+        }
+        return batcher;
+    }
+
+    /**
+     * Flush the requests pending in the batcher of the channel, if any. Called on the event loop of the channel.
+     *
+     * @param channel the channel
+     */
+    protected void flushRequestBatcher(Channel channel) {
+        ChannelRequestBatcher batcher = channel.attr(REQUEST_BATCHER).get();
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
     /**
      * rpc sync request
      * Obtain the return result through MessageFuture blocking.
@@ -176,7 +231,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
         MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeoutMillis);
-        futures.put(rpcMessage.getId(), messageFuture);
+        putFuture(messageFuture);
 
         channelWritableCheck(channel, rpcMessage.getBody());
 
@@ -208,6 +263,56 @@ public abstract class AbstractNettyRemoting implements Disposable {
         }
     }
 
+    /**
+     * rpc request without blocking.
+     * The returned future is completed by the response message, or exceptionally if the request fails or timeout.
+     *
+     * @param channel       netty channel
+     * @param rpcMessage    rpc message
+     * @param timeoutMillis rpc communication timeout
+     * @return the future of response message
+     */
+    protected CompletableFuture<Object> sendRequestAsync(Channel channel, RpcMessage rpcMessage, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return CompletableFutureUtils.failedFuture(new FrameworkException("timeout should more than 0ms"));
+        }
+        if (channel == null) {
+            return CompletableFutureUtils.failedFuture(new FrameworkException("sendRequestAsync failed, caused by null channel."));
+        }
+
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        putFuture(messageFuture);
+
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        try {
+            channelWritableCheck(channel, rpcMessage.getBody());
+            doBeforeRpcHooks(remoteAddr, rpcMessage);
+            channel.writeAndFlush(rpcMessage).addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    MessageFuture messageFuture1 = futures.remove(rpcMessage.getId());
+                    if (messageFuture1 != null) {
+                        messageFuture1.setResultMessage(future.cause());
+                    }
+                    destroyChannel(future.channel());
+                }
+            });
+        } catch (RuntimeException e) {
+            futures.remove(rpcMessage.getId());
+            return CompletableFutureUtils.failedFuture(e);
+        }
+
+        return messageFuture.toCompletableFuture().whenComplete((result, ex) -> {
+            if (ex != null) {
+                LOGGER.error("wait response error:{},ip:{},request:{}", ex.getMessage(), channel.remoteAddress(),
+                    rpcMessage.getBody());
+            } else {
+                doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            }
+        });
+    }
+
     /**
      * rpc async request.
      *
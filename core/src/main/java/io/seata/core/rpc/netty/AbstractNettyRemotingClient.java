@@ -19,10 +19,8 @@ import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -39,7 +37,6 @@ import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.concurrent.EventExecutorGroup;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
-import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.NetUtil;
 import io.seata.common.util.StringUtils;
@@ -78,32 +75,21 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     private static final String MSG_ID_PREFIX = "msgId:";
     private static final String FUTURES_PREFIX = "futures:";
     private static final String SINGLE_LOG_POSTFIX = ";";
-    private static final int MAX_MERGE_SEND_MILLS = 1;
-    private static final String THREAD_PREFIX_SPLIT_CHAR = "_";
-
-    private static final int MAX_MERGE_SEND_THREAD = 1;
-    private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
     private static final long SCHEDULE_DELAY_MILLS = 60 * 1000L;
     private static final long SCHEDULE_INTERVAL_MILLS = 10 * 1000L;
-    private static final String MERGE_THREAD_PREFIX = "rpcMergeMessageSend";
-    protected final Object mergeLock = new Object();
 
     /**
-     * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
+     * When batch sending is enabled, the requests are merged by the {@link ChannelRequestBatcher} of their channel.
+     * {@link NettyClientConfig#isEnableClientBatchSendRequest}
      */
-    protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
-
     /**
-     * When batch sending is enabled, the message will be stored to basketMap
-     * Send via asynchronous thread {@link MergedSendRunnable}
-     * {@link NettyClientConfig#isEnableClientBatchSendRequest}
+     * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
      */
-    protected final ConcurrentHashMap<String/*serverAddress*/, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
+    protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
 
     private final NettyClientBootstrap clientBootstrap;
     private NettyClientChannelManager clientChannelManager;
     private final NettyPoolKey.TransactionRole transactionRole;
-    private ExecutorService mergeSendExecutorService;
     private TransactionMessageHandler transactionMessageHandler;
 
     @Override
@@ -114,14 +100,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
                 clientChannelManager.reconnect(getTransactionServiceGroup());
             }
         }, SCHEDULE_DELAY_MILLS, SCHEDULE_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
-        if (NettyClientConfig.isEnableClientBatchSendRequest()) {
-            mergeSendExecutorService = new ThreadPoolExecutor(MAX_MERGE_SEND_THREAD,
-                MAX_MERGE_SEND_THREAD,
-                KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
-                new NamedThreadFactory(getThreadPrefix(), MAX_MERGE_SEND_THREAD));
-            mergeSendExecutorService.submit(new MergedSendRunnable());
-        }
         super.init();
         clientBootstrap.start();
     }
@@ -143,31 +121,27 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
 
         // send batch message
-        // put message into basketMap, @see MergedSendRunnable
+        // offer message to the batcher of the channel, @see ChannelRequestBatcher
         if (NettyClientConfig.isEnableClientBatchSendRequest()) {
+            Channel channel = clientChannelManager.acquireChannel(serverAddress);
 
             // send batch message is sync request, needs to create messageFuture and put it in futures.
+            // the return value will be obtained in ClientOnResponseProcessor.
             MessageFuture messageFuture = new MessageFuture();
             messageFuture.setRequestMessage(rpcMessage);
             messageFuture.setTimeout(timeoutMillis);
-            futures.put(rpcMessage.getId(), messageFuture);
-
-            // put message into basketMap
-            BlockingQueue<RpcMessage> basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
-                key -> new LinkedBlockingQueue<>());
-            if (!basket.offer(rpcMessage)) {
-                LOGGER.error("put message into basketMap offer failed, serverAddress:{},rpcMessage:{}",
-                        serverAddress, rpcMessage);
-                return null;
+            putFuture(messageFuture);
+
+            try {
+                getRequestBatcher(channel, mergeMessage -> sendMergedRequest(channel, mergeMessage),
+                    this::failMergedRequests).offer(rpcMessage);
+            } catch (RuntimeException e) {
+                futures.remove(rpcMessage.getId());
+                throw e;
             }
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("offer message: {}", rpcMessage.getBody());
             }
-            if (!isSending) {
-                synchronized (mergeLock) {
-                    mergeLock.notifyAll();
-                }
-            }
 
             try {
                 return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
@@ -234,9 +208,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     @Override
     public void destroy() {
         clientBootstrap.shutdown();
-        if (mergeSendExecutorService != null) {
-            mergeSendExecutorService.shutdown();
-        }
         super.destroy();
     }
 
@@ -298,10 +269,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         return StringUtils.isBlank(xid) ? String.valueOf(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE)) : xid;
     }
 
-    private String getThreadPrefix() {
-        return AbstractNettyRemotingClient.MERGE_THREAD_PREFIX + THREAD_PREFIX_SPLIT_CHAR + transactionRole.name();
-    }
-
     /**
      * Get pool key function.
      *
@@ -316,76 +283,51 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
      */
     protected abstract String getTransactionServiceGroup();
 
+    private void sendMergedRequest(Channel channel, MergedWarpMessage mergeMessage) {
+        if (mergeMessage.msgIds.size() > 1) {
+            printMergeMessageLog(mergeMessage);
+        }
+        try {
+            // send batch message is sync request, but there is no need to get the return value.
+            // Since the messageFuture has been created before the message is offered to the batcher,
+            // the return value will be obtained in ClientOnResponseProcessor.
+            sendAsyncRequest(channel, mergeMessage);
+        } catch (FrameworkException e) {
+            if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable) {
+                destroyChannel(getAddressFromChannel(channel), channel);
+            }
+            failMergedRequests(mergeMessage.msgIds);
+            LOGGER.error("client merge call failed: {}", e.getMessage(), e);
+        }
+    }
+
     /**
-     * The type Merged send runnable.
+     * Fast fail the merged requests.
      */
-    private class MergedSendRunnable implements Runnable {
-
-        @Override
-        public void run() {
-            while (true) {
-                synchronized (mergeLock) {
-                    try {
-                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
-                    } catch (InterruptedException e) {
-                    }
-                }
-                isSending = true;
-                basketMap.forEach((address, basket) -> {
-                    if (basket.isEmpty()) {
-                        return;
-                    }
-
-                    MergedWarpMessage mergeMessage = new MergedWarpMessage();
-                    while (!basket.isEmpty()) {
-                        RpcMessage msg = basket.poll();
-                        mergeMessage.msgs.add((AbstractMessage) msg.getBody());
-                        mergeMessage.msgIds.add(msg.getId());
-                    }
-                    if (mergeMessage.msgIds.size() > 1) {
-                        printMergeMessageLog(mergeMessage);
-                    }
-                    Channel sendChannel = null;
-                    try {
-                        // send batch message is sync request, but there is no need to get the return value.
-                        // Since the messageFuture has been created before the message is placed in basketMap,
-                        // the return value will be obtained in ClientOnResponseProcessor.
-                        sendChannel = clientChannelManager.acquireChannel(address);
-                        AbstractNettyRemotingClient.this.sendAsyncRequest(sendChannel, mergeMessage);
-                    } catch (FrameworkException e) {
-                        if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
-                            destroyChannel(address, sendChannel);
-                        }
-                        // fast fail
-                        for (Integer msgId : mergeMessage.msgIds) {
-                            MessageFuture messageFuture = futures.remove(msgId);
-                            if (messageFuture != null) {
-                                messageFuture.setResultMessage(null);
-                            }
-                        }
-                        LOGGER.error("client merge call failed: {}", e.getMessage(), e);
-                    }
-                });
-                isSending = false;
+    private void failMergedRequests(List<Integer> msgIds) {
+        for (Integer msgId : msgIds) {
+            MessageFuture messageFuture = futures.remove(msgId);
+            if (messageFuture != null) {
+                messageFuture.setResultMessage(null);
             }
         }
+    }
 
-        private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
-                for (AbstractMessage cm : mergeMessage.msgs) {
-                    LOGGER.debug(cm.toString());
-                }
-                StringBuilder sb = new StringBuilder();
-                for (long l : mergeMessage.msgIds) {
-                    sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                sb.append("\n");
-                for (long l : futures.keySet()) {
-                    sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                LOGGER.debug(sb.toString());
+    private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
+            for (AbstractMessage cm : mergeMessage.msgs) {
+                LOGGER.debug(cm.toString());
+            }
+            StringBuilder sb = new StringBuilder();
+            for (long l : mergeMessage.msgIds) {
+                sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
             }
+            sb.append("\n");
+            for (long l : futures.keySet()) {
+                sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
+            }
+            LOGGER.debug(sb.toString());
         }
     }
 
@@ -410,6 +352,9 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
                     lock.notifyAll();
                 }
             }
+            if (ctx.channel().isWritable()) {
+                flushRequestBatcher(ctx.channel());
+            }
             ctx.fireChannelWritabilityChanged();
         }
 
@@ -421,6 +366,8 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("channel inactive: {}", ctx.channel());
             }
+            // fail the requests pending in the batcher
+            flushRequestBatcher(ctx.channel());
             clientChannelManager.releaseChannel(ctx.channel(), NetUtil.toStringAddress(ctx.channel().remoteAddress()));
             super.channelInactive(ctx);
         }
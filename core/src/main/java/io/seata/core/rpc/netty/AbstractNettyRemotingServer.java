@@ -22,10 +22,15 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.common.util.NetUtil;
 import io.seata.core.protocol.HeartbeatMessage;
+import io.seata.core.protocol.MergeMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.processor.Pair;
@@ -33,8 +38,13 @@ import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -47,11 +57,31 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNettyRemotingServer.class);
 
+    private static final long MERGE_CLEAR_INTERVAL_MILLS = 3000L;
+
+    /**
+     * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
+     */
+    protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
+
+    /**
+     * When batch sending is enabled, the branch commit and rollback requests are merged by the
+     * {@link ChannelRequestBatcher} of their channel on its event loop.
+     * {@link NettyServerConfig#isEnableTcServerBatchSendRequest}
+     */
+    private final boolean enableBatchSendRequest = NettyServerConfig.isEnableTcServerBatchSendRequest();
+
     private final NettyServerBootstrap serverBootstrap;
 
     @Override
     public void init() {
         super.init();
+        if (enableBatchSendRequest) {
+            // the merged messages which all futures are timeout will never be responded
+            timerExecutor.scheduleAtFixedRate(() -> mergeMsgMap.entrySet().removeIf(
+                entry -> ((MergedWarpMessage) entry.getValue()).msgIds.stream().noneMatch(futures::containsKey)),
+                MERGE_CLEAR_INTERVAL_MILLS, MERGE_CLEAR_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+        }
         serverBootstrap.start();
     }
 
@@ -68,9 +98,31 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
             throw new RuntimeException("rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId);
         }
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        if (isBatchSendable(channel, msg)) {
+            return sendSyncInBatch(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
+        }
         return super.sendSync(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
     }
 
+    @Override
+    public CompletableFuture<Object> sendRequestAsync(String resourceId, String clientId, Object msg) {
+        Channel channel = ChannelManager.getChannel(resourceId, clientId);
+        if (channel == null) {
+            return CompletableFutureUtils.failedFuture(new RuntimeException(
+                "rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId));
+        }
+        RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        if (isBatchSendable(channel, msg)) {
+            try {
+                return putIntoBatcher(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout())
+                    .toCompletableFuture();
+            } catch (RuntimeException e) {
+                return CompletableFutureUtils.failedFuture(e);
+            }
+        }
+        return super.sendRequestAsync(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
+    }
+
     @Override
     public Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException {
         if (channel == null) {
@@ -89,6 +141,84 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
         super.sendAsync(channel, rpcMessage);
     }
 
+    /**
+     * Only the branch commit and rollback requests are batched, and only to the rm which tells it can handle
+     * the {@link MergedWarpMessage} from server when it registers.
+     */
+    private boolean isBatchSendable(Channel channel, Object msg) {
+        if (!enableBatchSendRequest || !(msg instanceof AbstractBranchEndRequest)) {
+            return false;
+        }
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        return rpcContext != null && rpcContext.isBatchBranchEndSupported();
+    }
+
+    private Object sendSyncInBatch(Channel channel, RpcMessage rpcMessage, long timeoutMillis) throws TimeoutException {
+        MessageFuture messageFuture = putIntoBatcher(channel, rpcMessage, timeoutMillis);
+        try {
+            return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception exx) {
+            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                rpcMessage.getBody());
+            if (exx instanceof TimeoutException) {
+                throw (TimeoutException) exx;
+            } else {
+                throw new RuntimeException(exx);
+            }
+        }
+    }
+
+    private MessageFuture putIntoBatcher(Channel channel, RpcMessage rpcMessage, long timeoutMillis) {
+        // the messageFuture is created before the message is offered to the batcher,
+        // and it will be completed in ServerOnResponseProcessor by the MergeResultMessage.
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        putFuture(messageFuture);
+        try {
+            getRequestBatcher(channel, mergeMessage -> sendMergedRequest(channel, mergeMessage),
+                this::failMergedRequests).offer(rpcMessage);
+        } catch (RuntimeException e) {
+            futures.remove(rpcMessage.getId());
+            throw e;
+        }
+        return messageFuture;
+    }
+
+    private void sendMergedRequest(Channel channel, MergedWarpMessage mergeMessage) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("merge msg size:{}, channel:{}", mergeMessage.msgIds.size(), channel);
+        }
+        RpcMessage rpcMessage = buildRequestMessage(mergeMessage, ProtocolConstants.MSGTYPE_RESQUEST_ONEWAY);
+        mergeMsgMap.put(rpcMessage.getId(), mergeMessage);
+        try {
+            // the sub messages are sync requests, their futures are completed in ServerOnResponseProcessor
+            sendAsync(channel, rpcMessage);
+        } catch (Exception e) {
+            mergeMsgMap.remove(rpcMessage.getId());
+            // fast fail
+            for (Integer msgId : mergeMessage.msgIds) {
+                MessageFuture messageFuture = futures.remove(msgId);
+                if (messageFuture != null) {
+                    messageFuture.setResultMessage(e);
+                }
+            }
+            LOGGER.error("server merge call failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fast fail the merged requests of an inactive channel.
+     */
+    private void failMergedRequests(List<Integer> msgIds) {
+        for (Integer msgId : msgIds) {
+            MessageFuture messageFuture = futures.remove(msgId);
+            if (messageFuture != null) {
+                messageFuture.setResultMessage(new RuntimeException("channel is inactive"));
+            }
+        }
+    }
+
     @Override
     public void sendAsyncResponse(RpcMessage rpcMessage, Channel channel, Object msg) {
         Channel clientChannel = channel;
@@ -135,6 +265,15 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
         super.destroy();
     }
 
+    /**
+     * Gets the merge msg map.
+     *
+     * @return the merge msg map
+     */
+    public Map<Integer, MergeMessage> getMergeMsgMap() {
+        return mergeMsgMap;
+    }
+
     /**
      * Debug log.
      *
@@ -182,6 +321,9 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
                     lock.notifyAll();
                 }
             }
+            if (ctx.channel().isWritable()) {
+                flushRequestBatcher(ctx.channel());
+            }
             ctx.fireChannelWritabilityChanged();
         }
 
@@ -194,6 +336,8 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
         @Override
         public void channelInactive(ChannelHandlerContext ctx) throws Exception {
             debugLog("inactive:" + ctx);
+            // fail the requests pending in the batcher
+            flushRequestBatcher(ctx.channel());
             if (messageExecutor.isShutdown()) {
                 return;
             }
@@ -208,7 +352,7 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
                 LOGGER.info(ipAndPort + " to server channel inactive.");
             }
             if (rpcContext != null && rpcContext.getClientRole() != null) {
-                rpcContext.release();
+                ChannelManager.releaseRpcContext(ctx.channel());
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("remove channel:" + ctx.channel() + "context:" + rpcContext);
                 }
@@ -35,6 +35,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.seata.core.constants.ConfigurationKeys.EXTRA_DATA_KV_CHAR;
+import static io.seata.core.constants.ConfigurationKeys.EXTRA_DATA_SPLIT_CHAR;
 
 /**
  * The type channel manager.
@@ -52,6 +56,18 @@ public class ChannelManager {
     private static final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String,
         ConcurrentMap<Integer, RpcContext>>>> RM_CHANNELS = new ConcurrentHashMap<>();
 
+    /**
+     * resourceId -> the RpcContexts of the resource, to choose an alternative in turn when the exact channel is
+     * inactive, kept by the register and the release of the channels
+     */
+    private static final ConcurrentMap<String, RpcContextRing> RM_RESOURCE_CHANNELS = new ConcurrentHashMap<>();
+
+    /**
+     * resourceId -> applicationId -> the RpcContexts of the resource on the application
+     */
+    private static final ConcurrentMap<String, ConcurrentMap<String, RpcContextRing>> RM_APPLICATION_CHANNELS
+        = new ConcurrentHashMap<>();
+
     /**
      * ip+appname,port
      */
@@ -156,6 +172,9 @@ public class ChannelManager {
             rpcContext = IDENTIFIED_CHANNELS.get(channel);
             rpcContext.addResources(dbkeySet);
         }
+        if (isBatchBranchEndSupported(resourceManagerRequest.getExtraData())) {
+            rpcContext.setBatchBranchEndSupported(true);
+        }
         if (dbkeySet == null || dbkeySet.isEmpty()) { return; }
         for (String resourceId : dbkeySet) {
             String clientIp;
@@ -164,10 +183,28 @@ public class ChannelManager {
                     .computeIfAbsent(clientIp = ChannelUtil.getClientIpFromChannel(channel), key -> new ConcurrentHashMap<>());
 
             rpcContext.holdInResourceManagerChannels(resourceId, portMap);
+            holdInRingChannels(resourceId, resourceManagerRequest.getApplicationId(), rpcContext);
             updateChannelsResource(resourceId, clientIp, resourceManagerRequest.getApplicationId());
         }
     }
 
+    /**
+     * Whether the rm tells it handles the merged branch commit and rollback requests in the extra data of the
+     * register request, the rm of an older version does not.
+     */
+    private static boolean isBatchBranchEndSupported(String extraData) {
+        if (StringUtils.isBlank(extraData)) {
+            return false;
+        }
+        String batchBranchEnd = RegisterRMRequest.UDATA_BATCH_BRANCH_END + EXTRA_DATA_KV_CHAR + Boolean.TRUE;
+        for (String data : extraData.split(EXTRA_DATA_SPLIT_CHAR)) {
+            if (batchBranchEnd.equals(data.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void updateChannelsResource(String resourceId, String clientIp, String applicationId) {
         ConcurrentMap<Integer, RpcContext> sourcePortMap = RM_CHANNELS.get(resourceId).get(applicationId).get(clientIp);
         for (ConcurrentMap.Entry<String, ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<Integer,
@@ -186,11 +223,54 @@ public class ChannelManager {
                     RpcContext rpcContext = portMapEntry.getValue();
                     sourcePortMap.put(port, rpcContext);
                     rpcContext.holdInResourceManagerChannels(resourceId, port);
+                    holdInRingChannels(resourceId, applicationId, rpcContext);
                 }
             }
         }
     }
 
+    /**
+     * The rings are added to and removed from the maps in compute, so an empty ring removed is never added to.
+     */
+    private static void holdInRingChannels(String resourceId, String applicationId, RpcContext rpcContext) {
+        RM_RESOURCE_CHANNELS.compute(resourceId, (key, ring) -> addToRing(ring, rpcContext));
+        RM_APPLICATION_CHANNELS.compute(resourceId, (key, applicationRingMap) -> {
+            ConcurrentMap<String, RpcContextRing> rings = applicationRingMap != null ? applicationRingMap
+                : new ConcurrentHashMap<>();
+            rings.compute(applicationId, (appKey, ring) -> addToRing(ring, rpcContext));
+            return rings;
+        });
+    }
+
+    private static void releaseRingChannels(RpcContext rpcContext) {
+        Map<String, ConcurrentMap<Integer, RpcContext>> clientRMHolderMap = rpcContext.getClientRMHolderMap();
+        if (rpcContext.getClientRole() != NettyPoolKey.TransactionRole.RMROLE || clientRMHolderMap == null) {
+            return;
+        }
+        for (String resourceId : clientRMHolderMap.keySet()) {
+            RM_RESOURCE_CHANNELS.computeIfPresent(resourceId, (key, ring) -> removeFromRing(ring, rpcContext));
+            RM_APPLICATION_CHANNELS.computeIfPresent(resourceId, (key, applicationRingMap) -> {
+                applicationRingMap.computeIfPresent(rpcContext.getApplicationId(),
+                    (appKey, ring) -> removeFromRing(ring, rpcContext));
+                return applicationRingMap.isEmpty() ? null : applicationRingMap;
+            });
+        }
+    }
+
+    private static RpcContextRing addToRing(RpcContextRing ring, RpcContext rpcContext) {
+        RpcContextRing result = ring != null ? ring : new RpcContextRing();
+        result.add(rpcContext);
+        return result;
+    }
+
+    /**
+     * Remove the context from the ring, and the ring from the map if it is left empty.
+     */
+    private static RpcContextRing removeFromRing(RpcContextRing ring, RpcContext rpcContext) {
+        ring.remove(rpcContext);
+        return ring.isEmpty() ? null : ring;
+    }
+
     private static Set<String> dbKeytoSet(String dbkey) {
         if (StringUtils.isNullOrEmpty(dbkey)) {
             return null;
@@ -206,6 +286,7 @@ public class ChannelManager {
     public static void releaseRpcContext(Channel channel) {
         RpcContext rpcContext = getContextFromIdentified(channel);
         if (rpcContext != null) {
+            releaseRingChannels(rpcContext);
             rpcContext.release();
         }
     }
@@ -346,40 +427,15 @@ public class ChannelManager {
 
             // No channel on the this app node, try another one.
             if (resultChannel == null) {
-                for (ConcurrentMap.Entry<String, ConcurrentMap<Integer, RpcContext>> ipMapEntry : ipMap
-                    .entrySet()) {
-                    if (ipMapEntry.getKey().equals(targetIP)) { continue; }
-
-                    ConcurrentMap<Integer, RpcContext> portMapOnOtherIP = ipMapEntry.getValue();
-                    if (portMapOnOtherIP == null || portMapOnOtherIP.isEmpty()) {
-                        continue;
-                    }
-
-                    for (ConcurrentMap.Entry<Integer, RpcContext> portMapOnOtherIPEntry : portMapOnOtherIP.entrySet()) {
-                        Channel channel = portMapOnOtherIPEntry.getValue().getChannel();
-
-                        if (channel.isActive()) {
-                            resultChannel = channel;
-                            if (LOGGER.isInfoEnabled()) {
-                                LOGGER.info("Choose {} on the same application[{}] as alternative of {}", channel, targetApplicationId, clientId);
-                            }
-                            break;
-                        } else {
-                            if (portMapOnOtherIP.remove(portMapOnOtherIPEntry.getKey(),
-                                portMapOnOtherIPEntry.getValue())) {
-                                if (LOGGER.isInfoEnabled()) {
-                                    LOGGER.info("Removed inactive {}", channel);
-                                }
-                            }
-                        }
-                    }
-                    if (resultChannel != null) { break; }
+                resultChannel = nextActiveChannel(RM_APPLICATION_CHANNELS.get(resourceId), targetApplicationId);
+                if (resultChannel != null && LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Choose {} on the same application[{}] as alternative of {}", resultChannel, targetApplicationId, clientId);
                 }
             }
         }
 
         if (resultChannel == null) {
-            resultChannel = tryOtherApp(applicationIdMap, targetApplicationId);
+            resultChannel = nextActiveChannel(RM_RESOURCE_CHANNELS, resourceId);
 
             if (resultChannel == null) {
                 if (LOGGER.isInfoEnabled()) {
@@ -396,46 +452,17 @@ public class ChannelManager {
 
     }
 
-    private static Channel tryOtherApp(ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<Integer,
-        RpcContext>>> applicationIdMap, String myApplicationId) {
-        Channel chosenChannel = null;
-        for (ConcurrentMap.Entry<String, ConcurrentMap<String, ConcurrentMap<Integer, RpcContext>>> applicationIdMapEntry : applicationIdMap
-            .entrySet()) {
-            if (!StringUtils.isNullOrEmpty(myApplicationId) && applicationIdMapEntry.getKey().equals(myApplicationId)) {
-                continue;
-            }
-
-            ConcurrentMap<String, ConcurrentMap<Integer, RpcContext>> targetIPMap = applicationIdMapEntry.getValue();
-            if (targetIPMap == null || targetIPMap.isEmpty()) {
-                continue;
-            }
-
-            for (ConcurrentMap.Entry<String, ConcurrentMap<Integer, RpcContext>> targetIPMapEntry : targetIPMap
-                .entrySet()) {
-                ConcurrentMap<Integer, RpcContext> portMap = targetIPMapEntry.getValue();
-                if (portMap == null || portMap.isEmpty()) {
-                    continue;
-                }
-
-                for (ConcurrentMap.Entry<Integer, RpcContext> portMapEntry : portMap.entrySet()) {
-                    Channel channel = portMapEntry.getValue().getChannel();
-                    if (channel.isActive()) {
-                        chosenChannel = channel;
-                        break;
-                    } else {
-                        if (portMap.remove(portMapEntry.getKey(), portMapEntry.getValue())) {
-                            if (LOGGER.isInfoEnabled()) {
-                                LOGGER.info("Removed inactive {}", channel);
-                            }
-                        }
-                    }
-                }
-                if (chosenChannel != null) { break; }
-            }
-            if (chosenChannel != null) { break; }
+    private static Channel nextActiveChannel(ConcurrentMap<String, RpcContextRing> ringMap, String key) {
+        RpcContextRing ring = ringMap == null ? null : ringMap.get(key);
+        if (ring == null) {
+            return null;
         }
-        return chosenChannel;
-
+        Channel channel = ring.next();
+        if (channel == null) {
+            // all the contexts are inactive and removed
+            ringMap.computeIfPresent(key, (ringKey, current) -> current.isEmpty() ? null : current);
+        }
+        return channel;
     }
 
     /**
@@ -444,12 +471,12 @@ public class ChannelManager {
      * @return
      */
     public static Map<String,Channel> getRmChannels() {
-        if (RM_CHANNELS.isEmpty()) {
+        if (RM_RESOURCE_CHANNELS.isEmpty()) {
             return null;
         }
-        Map<String, Channel> channels = new HashMap<>(RM_CHANNELS.size());
-        RM_CHANNELS.forEach((resourceId, value) -> {
-            Channel channel = tryOtherApp(value, null);
+        Map<String, Channel> channels = new HashMap<>(RM_RESOURCE_CHANNELS.size());
+        RM_RESOURCE_CHANNELS.keySet().forEach(resourceId -> {
+            Channel channel = nextActiveChannel(RM_RESOURCE_CHANNELS, resourceId);
             if (channel == null) {
                 return;
             }
@@ -457,4 +484,63 @@ public class ChannelManager {
         });
         return channels;
     }
+
+    /**
+     * The RpcContexts to choose an active channel from in turn. The contexts are kept in an array copied on the
+     * rare register and release, so choosing one takes no lock and no scan; an inactive one met by the choice is
+     * removed on the way, for the channels dropped without a release.
+     */
+    private static class RpcContextRing {
+
+        private static final RpcContext[] EMPTY = new RpcContext[0];
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        private volatile RpcContext[] rpcContexts = EMPTY;
+
+        synchronized void add(RpcContext rpcContext) {
+            RpcContext[] current = rpcContexts;
+            for (RpcContext context : current) {
+                if (context == rpcContext) {
+                    return;
+                }
+            }
+            RpcContext[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = rpcContext;
+            rpcContexts = updated;
+        }
+
+        synchronized void remove(RpcContext rpcContext) {
+            RpcContext[] current = rpcContexts;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == rpcContext) {
+                    RpcContext[] updated = new RpcContext[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    rpcContexts = updated;
+                    return;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return rpcContexts.length == 0;
+        }
+
+        Channel next() {
+            RpcContext[] current = rpcContexts;
+            for (int i = 0; i < current.length; i++) {
+                RpcContext rpcContext = current[(index.getAndIncrement() & Integer.MAX_VALUE) % current.length];
+                Channel channel = rpcContext.getChannel();
+                if (channel.isActive()) {
+                    return channel;
+                }
+                remove(rpcContext);
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Removed inactive {}", channel);
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.netty.channel.Channel;
+import io.netty.util.internal.PlatformDependent;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+
+/**
+ * The batcher merging the sync requests sent to a server channel into {@link MergedWarpMessage}s.
+ * <p>
+ * The callers offer the requests to a lock-free MPSC queue, and the flush runs on the event loop of the channel, so
+ * no thread waits on a lock to send. The flush of an idle batcher is run at once, adding no latency at low load;
+ * while the batches grow under load, the flush lingers longer, up to MAX_LINGER_NANOS, to merge more requests. A
+ * batch is cut at MAX_BATCH_SIZE, flushed at once when it is full, and the flush stops while the channel is not
+ * writable, to be resumed when it is writable again.
+ *
+ * @since 1.5.0
+ */
+class ChannelRequestBatcher {
+
+    /**
+     * the max number of the requests merged into one message
+     */
+    static final int MAX_BATCH_SIZE = 64;
+
+    private static final long MAX_LINGER_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * the linger added for every request of the average batch
+     */
+    private static final long LINGER_NANOS_PER_REQUEST = TimeUnit.MICROSECONDS.toNanos(20);
+
+    /**
+     * the weight of the last batch in the average batch size
+     */
+    private static final double BATCH_SIZE_WEIGHT = 0.125;
+
+    private final Channel channel;
+
+    private final Consumer<MergedWarpMessage> sender;
+
+    private final Consumer<List<Integer>> failure;
+
+    private final Queue<RpcMessage> requests = PlatformDependent.newMpscQueue();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * the moving average of the batch sizes, only accessed on the event loop
+     */
+    private double averageBatchSize = 1;
+
+    private volatile long lingerNanos;
+
+    /**
+     * Instantiates a new channel request batcher.
+     *
+     * @param channel the channel
+     * @param sender  sends a merged message to the channel, called on the event loop when the channel is writable
+     * @param failure fails the requests of the message ids, called when the channel is inactive
+     */
+    ChannelRequestBatcher(Channel channel, Consumer<MergedWarpMessage> sender, Consumer<List<Integer>> failure) {
+        this.channel = channel;
+        this.sender = sender;
+        this.failure = failure;
+    }
+
+    /**
+     * Offer a request to be sent in a merged message.
+     *
+     * @param request the request
+     */
+    void offer(RpcMessage request) {
+        requests.offer(request);
+        if (pendingCount.incrementAndGet() % MAX_BATCH_SIZE == 0) {
+            // a full batch is pending, no need to linger for more
+            channel.eventLoop().execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            long linger = lingerNanos;
+            if (linger == 0) {
+                channel.eventLoop().execute(this::flush);
+            } else {
+                channel.eventLoop().schedule(this::flush, linger, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Send the pending requests while the channel is writable, or fail them if the channel is inactive. Called on the
+     * event loop of the channel.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        if (!channel.isActive()) {
+            failPending();
+            return;
+        }
+        while (channel.isWritable()) {
+            MergedWarpMessage mergeMessage = pollBatch();
+            if (mergeMessage == null) {
+                return;
+            }
+            sender.accept(mergeMessage);
+        }
+        // the rest is sent once the channel is writable again
+    }
+
+    long getLingerNanos() {
+        return lingerNanos;
+    }
+
+    private MergedWarpMessage pollBatch() {
+        RpcMessage request = requests.poll();
+        if (request == null) {
+            return null;
+        }
+        MergedWarpMessage mergeMessage = new MergedWarpMessage();
+        do {
+            mergeMessage.msgs.add((AbstractMessage) request.getBody());
+            mergeMessage.msgIds.add(request.getId());
+        } while (mergeMessage.msgIds.size() < MAX_BATCH_SIZE && (request = requests.poll()) != null);
+        int size = mergeMessage.msgIds.size();
+        pendingCount.addAndGet(-size);
+        adaptLinger(size);
+        return mergeMessage;
+    }
+
+    /**
+     * No linger while the requests come one by one, and a longer linger the more requests are merged.
+     */
+    private void adaptLinger(int batchSize) {
+        averageBatchSize += (batchSize - averageBatchSize) * BATCH_SIZE_WEIGHT;
+        lingerNanos = averageBatchSize < 2 ? 0
+            : Math.min(MAX_LINGER_NANOS, (long) (averageBatchSize * LINGER_NANOS_PER_REQUEST));
+    }
+
+    private void failPending() {
+        List<Integer> msgIds = new ArrayList<>();
+        RpcMessage request;
+        while ((request = requests.poll()) != null) {
+            msgIds.add(request.getId());
+        }
+        if (!msgIds.isEmpty()) {
+            pendingCount.addAndGet(-msgIds.size());
+            failure.accept(msgIds);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import io.seata.core.constants.ConfigurationKeys;
 
 import static io.seata.common.DefaultValues.DEFAULT_BOSS_THREAD_PREFIX;
 import static io.seata.common.DefaultValues.DEFAULT_BOSS_THREAD_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_EXECUTOR_THREAD_PREFIX;
 import static io.seata.common.DefaultValues.DEFAULT_NIO_WORKER_THREAD_PREFIX;
 import static io.seata.common.DefaultValues.DEFAULT_SHUTDOWN_TIMEOUT_SEC;
@@ -52,6 +53,8 @@ public class NettyServerConfig extends NettyBaseConfig {
     private int serverChannelMaxIdleTimeSeconds = Integer.parseInt(System.getProperty(
             ConfigurationKeys.TRANSPORT_PREFIX + "serverChannelMaxIdleTimeSeconds", String.valueOf(30)));
     private static final String EPOLL_WORKER_THREAD_PREFIX = "NettyServerEPollWorker";
+    private static final boolean ENABLE_TC_SERVER_BATCH_SEND_REQUEST = CONFIG.getBoolean(
+            ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_REQUEST, DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST);
     private static int minServerPoolSize = Integer.parseInt(System.getProperty(
             ConfigurationKeys.MIN_SERVER_POOL_SIZE, "50"));
     private static int maxServerPoolSize = Integer.parseInt(System.getProperty(
@@ -287,6 +290,15 @@ public class NettyServerConfig extends NettyBaseConfig {
         return CONFIG.getInt(ConfigurationKeys.SHUTDOWN_WAIT, DEFAULT_SHUTDOWN_TIMEOUT_SEC);
     }
 
+    /**
+     * Whether the branch commit and rollback requests to the same rm channel are sent in batch.
+     *
+     * @return the boolean
+     */
+    public static boolean isEnableTcServerBatchSendRequest() {
+        return ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+    }
+
     public static int getMinServerPoolSize() {
         return minServerPoolSize;
     }
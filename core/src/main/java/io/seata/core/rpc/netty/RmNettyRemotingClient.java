@@ -31,6 +31,7 @@ import io.seata.core.rpc.netty.NettyPoolKey.TransactionRole;
 import io.seata.core.rpc.processor.client.ClientHeartbeatProcessor;
 import io.seata.core.rpc.processor.client.ClientOnResponseProcessor;
 import io.seata.core.rpc.processor.client.RmBranchCommitProcessor;
+import io.seata.core.rpc.processor.client.RmBranchMergeProcessor;
 import io.seata.core.rpc.processor.client.RmBranchRollbackProcessor;
 import io.seata.core.rpc.processor.client.RmUndoLogProcessor;
 import org.slf4j.Logger;
@@ -45,6 +46,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import static io.seata.common.Constants.DBKEYS_SPLIT_CHAR;
+import static io.seata.core.constants.ConfigurationKeys.EXTRA_DATA_KV_CHAR;
+import static io.seata.core.constants.ConfigurationKeys.EXTRA_DATA_SPLIT_CHAR;
 
 /**
  * The Rm netty client.
@@ -209,7 +212,7 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
     }
 
     public void sendRegisterMessage(String serverAddress, Channel channel, String resourceId) {
-        RegisterRMRequest message = new RegisterRMRequest(applicationId, transactionServiceGroup);
+        RegisterRMRequest message = newRegisterRMRequest();
         message.setResourceIds(resourceId);
         try {
             super.sendAsyncRequest(channel, message);
@@ -258,12 +261,23 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
             if (resourceIds != null && LOGGER.isInfoEnabled()) {
                 LOGGER.info("RM will register :{}", resourceIds);
             }
-            RegisterRMRequest message = new RegisterRMRequest(applicationId, transactionServiceGroup);
+            RegisterRMRequest message = newRegisterRMRequest();
             message.setResourceIds(resourceIds);
             return new NettyPoolKey(NettyPoolKey.TransactionRole.RMROLE, serverAddress, message);
         };
     }
 
+    /**
+     * The register request telling the server this rm handles the merged branch commit and rollback requests, a
+     * server without the extra data never merges them.
+     */
+    private RegisterRMRequest newRegisterRMRequest() {
+        RegisterRMRequest message = new RegisterRMRequest(applicationId, transactionServiceGroup);
+        message.setExtraData(RegisterRMRequest.UDATA_BATCH_BRANCH_END + EXTRA_DATA_KV_CHAR + Boolean.TRUE
+            + EXTRA_DATA_SPLIT_CHAR);
+        return message;
+    }
+
     @Override
     protected String getTransactionServiceGroup() {
         return transactionServiceGroup;
@@ -276,10 +290,14 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
         // 2.registry rm client handle branch rollback processor
         RmBranchRollbackProcessor rmBranchRollbackProcessor = new RmBranchRollbackProcessor(getTransactionMessageHandler(), this);
         super.registerProcessor(MessageType.TYPE_BRANCH_ROLLBACK, rmBranchRollbackProcessor, messageExecutor);
-        // 3.registry rm handler undo log processor
+        // 3.registry rm client handle merged branch commit and rollback processor
+        RmBranchMergeProcessor rmBranchMergeProcessor = new RmBranchMergeProcessor(getTransactionMessageHandler(), this,
+            messageExecutor);
+        super.registerProcessor(MessageType.TYPE_SEATA_MERGE, rmBranchMergeProcessor, messageExecutor);
+        // 4.registry rm handler undo log processor
         RmUndoLogProcessor rmUndoLogProcessor = new RmUndoLogProcessor(getTransactionMessageHandler());
         super.registerProcessor(MessageType.TYPE_RM_DELETE_UNDOLOG, rmUndoLogProcessor, messageExecutor);
-        // 4.registry TC response processor
+        // 5.registry TC response processor
         ClientOnResponseProcessor onResponseProcessor =
             new ClientOnResponseProcessor(mergeMsgMap, super.getFutures(), getTransactionMessageHandler());
         super.registerProcessor(MessageType.TYPE_SEATA_MERGE_RESULT, onResponseProcessor, null);
@@ -287,7 +305,7 @@ public final class RmNettyRemotingClient extends AbstractNettyRemotingClient {
         super.registerProcessor(MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_GLOBAL_LOCK_QUERY_RESULT, onResponseProcessor, null);
         super.registerProcessor(MessageType.TYPE_REG_RM_RESULT, onResponseProcessor, null);
-        // 5.registry heartbeat message processor
+        // 6.registry heartbeat message processor
         ClientHeartbeatProcessor clientHeartbeatProcessor = new ClientHeartbeatProcessor();
         super.registerProcessor(MessageType.TYPE_HEARTBEAT_MSG, clientHeartbeatProcessor, null);
     }
@@ -16,9 +16,13 @@
 package io.seata.core.rpc.netty.v1;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.compressor.StreamingCompressor;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
@@ -26,6 +30,7 @@ import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.serializer.SerializerType;
+import io.seata.core.serializer.StreamingSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,15 +139,60 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
-                Compressor compressor = CompressorFactory.getCompressor(compressorType);
-                bs = compressor.decompress(bs);
-                Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                rpcMessage.setBody(serializer.deserialize(bs));
+                rpcMessage.setBody(decodeBody(rpcMessage, frame.readSlice(bodyLength)));
             }
         }
 
         return rpcMessage;
     }
+
+    /**
+     * Decompress and deserialize the body, a streaming compressor or serializer reads from the frame directly instead
+     * of from a copy of the body.
+     *
+     * @param rpcMessage the rpc message
+     * @param body       the body in the frame
+     * @return the deserialized body
+     */
+    protected Object decodeBody(RpcMessage rpcMessage, ByteBuf body) {
+        Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
+        ByteBuf decompressed = decompressBody(rpcMessage, body);
+        try {
+            if (serializer instanceof StreamingSerializer) {
+                return ((StreamingSerializer) serializer).deserialize(decompressed);
+            }
+            // the array of a wrapped body is taken without copy
+            return serializer.deserialize(ByteBufUtil.getBytes(decompressed, decompressed.readerIndex(),
+                decompressed.readableBytes(), false));
+        } finally {
+            if (decompressed != body) {
+                decompressed.release();
+            }
+        }
+    }
+
+    /**
+     * Decompress the body.
+     *
+     * @param rpcMessage the rpc message
+     * @param body       the body in the frame
+     * @return the body itself if it is not compressed, or the decompressed body to be released by the caller
+     */
+    protected ByteBuf decompressBody(RpcMessage rpcMessage, ByteBuf body) {
+        if (rpcMessage.getCompressor() == CompressorType.NONE.getCode()) {
+            return body;
+        }
+        Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+        if (compressor instanceof StreamingCompressor) {
+            ByteBuf decompressed = body.alloc().buffer(body.readableBytes() << 1);
+            try {
+                ((StreamingCompressor) compressor).decompress(body, decompressed);
+            } catch (RuntimeException e) {
+                decompressed.release();
+                throw e;
+            }
+            return decompressed;
+        }
+        return Unpooled.wrappedBuffer(compressor.decompress(ByteBufUtil.getBytes(body)));
+    }
 }
@@ -16,15 +16,20 @@
 package io.seata.core.rpc.netty.v1;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.compressor.StreamingCompressor;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.serializer.SerializerType;
+import io.seata.core.serializer.StreamingSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +68,7 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
 
     @Override
     public void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        int frameIndex = out.writerIndex();
         try {
             if (msg instanceof RpcMessage) {
                 RpcMessage rpcMessage = (RpcMessage) msg;
@@ -88,19 +94,12 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                     fullLength += headMapBytesLength;
                 }
 
-                byte[] bodyBytes = null;
                 if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                         && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                     // heartbeat has no body
-                    Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                    bodyBytes = serializer.serialize(rpcMessage.getBody());
-                    Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                    bodyBytes = compressor.compress(bodyBytes);
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    int bodyIndex = out.writerIndex();
+                    encodeBody(rpcMessage, out);
+                    fullLength += out.writerIndex() - bodyIndex;
                 }
 
                 // fix fullLength and headLength
@@ -114,7 +113,54 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                 throw new UnsupportedOperationException("Not support this class:" + msg.getClass());
             }
         } catch (Throwable e) {
+            // drop the partial frame
+            out.writerIndex(frameIndex);
             LOGGER.error("Encode request error!", e);
         }
     }
+
+    /**
+     * Serialize and compress the body into the out, a streaming serializer or compressor writes to the buffers
+     * directly instead of through the byte[] of the body.
+     *
+     * @param rpcMessage the rpc message
+     * @param out        the buffer written to
+     */
+    protected void encodeBody(RpcMessage rpcMessage, ByteBuf out) {
+        Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
+        boolean compress = rpcMessage.getCompressor() != CompressorType.NONE.getCode();
+        ByteBuf body;
+        if (serializer instanceof StreamingSerializer) {
+            if (!compress) {
+                ((StreamingSerializer) serializer).serialize(rpcMessage.getBody(), out);
+                return;
+            }
+            body = out.alloc().buffer();
+            ((StreamingSerializer) serializer).serialize(rpcMessage.getBody(), body);
+        } else {
+            body = Unpooled.wrappedBuffer(serializer.serialize(rpcMessage.getBody()));
+        }
+        compressBody(rpcMessage, body, out);
+    }
+
+    /**
+     * Compress the serialized body into the out, and release the body.
+     *
+     * @param rpcMessage the rpc message
+     * @param body       the serialized body
+     * @param out        the buffer written to
+     */
+    protected void compressBody(RpcMessage rpcMessage, ByteBuf body, ByteBuf out) {
+        Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+        try {
+            if (compressor instanceof StreamingCompressor) {
+                ((StreamingCompressor) compressor).compress(body, out);
+            } else {
+                // the array of a wrapped body is taken without copy
+                out.writeBytes(compressor.compress(ByteBufUtil.getBytes(body, body.readerIndex(), body.readableBytes(), false)));
+            }
+        } finally {
+            body.release();
+        }
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty.v2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.core.protocol.HeartbeatMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.serializer.DictionarySerializer;
+import io.seata.core.serializer.Serializer;
+import io.seata.core.serializer.SerializerType;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The decoder of both the v1 and v2 frames, told by the version of every frame, see {@link ProtocolV2Encoder} for
+ * the format of v2 and the negotiation.
+ *
+ * @see ProtocolV2Encoder
+ * @since 1.5.0
+ */
+public class ProtocolV2Decoder extends ProtocolV1Decoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolV2Decoder.class);
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    /**
+     * once a v2 frame fails to be decoded, the strings it added to the dictionary of the peer are unknown, so the
+     * dictionary is out of sync and the connection is closed
+     */
+    private boolean dictionaryBroken;
+
+    public ProtocolV2Decoder() {
+        super();
+    }
+
+    public ProtocolV2Decoder(int maxFrameLength) {
+        super(maxFrameLength);
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+        Object decoded;
+        try {
+            decoded = super.decode(ctx, in);
+        } catch (Exception e) {
+            if (dictionaryBroken) {
+                LOGGER.error("Close the channel {} since its string dictionary is out of sync", ctx.channel());
+                ctx.close();
+            }
+            throw e;
+        }
+        if (decoded instanceof RpcMessage) {
+            negotiate(ctx, (RpcMessage) decoded);
+        }
+        return decoded;
+    }
+
+    @Override
+    public Object decodeFrame(ByteBuf frame) {
+        if (frame.getByte(frame.readerIndex() + 2) != ProtocolConstants.VERSION_2) {
+            return super.decodeFrame(frame);
+        }
+        if (dictionaryBroken) {
+            throw new IllegalStateException("The string dictionary is out of sync");
+        }
+        try {
+            return decodeFrameV2(frame);
+        } catch (RuntimeException e) {
+            dictionaryBroken = true;
+            throw e;
+        }
+    }
+
+    private Object decodeFrameV2(ByteBuf frame) {
+        int frameIndex = frame.readerIndex();
+        byte b0 = frame.readByte();
+        byte b1 = frame.readByte();
+        if (ProtocolConstants.MAGIC_CODE_BYTES[0] != b0
+                || ProtocolConstants.MAGIC_CODE_BYTES[1] != b1) {
+            throw new IllegalArgumentException("Unknown magic code: " + b0 + ", " + b1);
+        }
+        // skip the version
+        frame.skipBytes(1);
+
+        int fullLength = frame.readInt();
+        byte messageType = frame.readByte();
+        byte codecType = frame.readByte();
+        byte compressorType = frame.readByte();
+        int requestId = VarIntUtil.readVarInt(frame);
+
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setCodec(codecType);
+        rpcMessage.setId(requestId);
+        rpcMessage.setCompressor(compressorType);
+        rpcMessage.setMessageType(messageType);
+
+        int headCount = VarIntUtil.readVarInt(frame);
+        for (int i = 0; i < headCount; i++) {
+            String key = dictionary.readString(frame);
+            rpcMessage.getHeadMap().put(key, dictionary.readString(frame));
+        }
+
+        // read body
+        if (messageType == ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST) {
+            rpcMessage.setBody(HeartbeatMessage.PING);
+        } else if (messageType == ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
+            rpcMessage.setBody(HeartbeatMessage.PONG);
+        } else {
+            int bodyLength = fullLength - (frame.readerIndex() - frameIndex);
+            if (bodyLength > 0) {
+                rpcMessage.setBody(decodeBodyV2(rpcMessage, frame.readSlice(bodyLength)));
+            }
+        }
+
+        return rpcMessage;
+    }
+
+    /**
+     * Deserialize the body by the dictionary if the serializer supports it, or the way of v1 otherwise.
+     */
+    private Object decodeBodyV2(RpcMessage rpcMessage, ByteBuf body) {
+        Serializer serializer = EnhancedServiceLoader.load(Serializer.class,
+            SerializerType.getByCode(rpcMessage.getCodec()).name());
+        if (!(serializer instanceof DictionarySerializer)) {
+            return decodeBody(rpcMessage, body);
+        }
+        ByteBuf decompressed = decompressBody(rpcMessage, body);
+        try {
+            return ((DictionarySerializer) serializer).deserialize(decompressed, dictionary);
+        } finally {
+            if (decompressed != body) {
+                decompressed.release();
+            }
+        }
+    }
+
+    /**
+     * Switch the connection to v2 once the peer tells it supports v2 in the head of the register message.
+     */
+    private void negotiate(ChannelHandlerContext ctx, RpcMessage rpcMessage) {
+        String version = rpcMessage.getHeadMap().remove(ProtocolConstants.HEAD_PROTOCOL_VERSION);
+        if (version == null || ProtocolV2Encoder.isProtocolV2(ctx.channel())) {
+            return;
+        }
+        try {
+            if (Integer.parseInt(version) >= ProtocolConstants.VERSION_2) {
+                ctx.channel().attr(ProtocolV2Encoder.PROTOCOL_V2).set(Boolean.TRUE);
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Switch to protocol v2 on channel: {}", ctx.channel());
+                }
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Unknown protocol version {} of channel: {}", version, ctx.channel());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty.v2;
+
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.protocol.AbstractIdentifyRequest;
+import io.seata.core.protocol.AbstractIdentifyResponse;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.DictionarySerializer;
+import io.seata.core.serializer.Serializer;
+import io.seata.core.serializer.SerializerType;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * 0     1     2     3     4     5     6     7     8     9    10
+ * +-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+-----+
+ * |   magic   |Proto|     Full length       | Msg |Seria|Compr| RequestId | Head Count |
+ * |   code    |colVer|    (head+body)      |Type |lizer|ess  | (var int) | (var int)  |
+ * +-----------+-----------+-----------+-----------+-----------+-----------+-----------+-----+
+ * |                                                                                         |
+ * |                  Head Map [Optional], keys and values by the dictionary                 |
+ * +-----------+-----------+-----------+-----------+-----------+-----------+-----------+-----+
+ * |                                                                                         |
+ * |                  body, compact if the serializer is a dictionary serializer             |
+ * |                                                                                         |
+ * +-----------------------------------------------------------------------------------------+
+ * </pre>
+ * <p>
+ * The protocol v2 keeps the magic code, version and full length of v1, so the frames of both are split the same
+ * way, and writes the rest of the head and the body compact: the numbers as var ints, and the repeated strings by a
+ * {@link StringDictionary} of the connection.
+ * <p>
+ * A connection starts with v1. The client tells the max version it supports in the head of the RegisterTM or
+ * RegisterRM request; a server supporting v2 switches to v2 once it reads the head, and tells it back in the head
+ * of the register response, after which the client switches too. A peer without v2 ignores the head, so the
+ * connection stays v1.
+ *
+ * @see ProtocolV2Decoder
+ * @since 1.5.0
+ */
+public class ProtocolV2Encoder extends ProtocolV1Encoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolV2Encoder.class);
+
+    /**
+     * Whether the connection is agreed on protocol v2, set by the decoder reading the head of the peer.
+     */
+    static final AttributeKey<Boolean> PROTOCOL_V2 = AttributeKey.valueOf("protocolV2");
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Override
+    public void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        if (!(msg instanceof RpcMessage)) {
+            super.encode(ctx, msg, out);
+            return;
+        }
+        RpcMessage rpcMessage = (RpcMessage) msg;
+        boolean v2 = isProtocolV2(ctx.channel());
+        Object body = rpcMessage.getBody();
+        if (body instanceof AbstractIdentifyRequest || (v2 && body instanceof AbstractIdentifyResponse)) {
+            rpcMessage.getHeadMap().put(ProtocolConstants.HEAD_PROTOCOL_VERSION,
+                String.valueOf(ProtocolConstants.VERSION_2));
+        }
+        if (!v2) {
+            super.encode(ctx, msg, out);
+            return;
+        }
+
+        int frameIndex = out.writerIndex();
+        dictionary.mark();
+        try {
+            byte messageType = rpcMessage.getMessageType();
+            out.writeBytes(ProtocolConstants.MAGIC_CODE_BYTES);
+            out.writeByte(ProtocolConstants.VERSION_2);
+            // full Length(4B) will fix in the end.
+            out.writerIndex(out.writerIndex() + 4);
+            out.writeByte(messageType);
+            out.writeByte(rpcMessage.getCodec());
+            out.writeByte(rpcMessage.getCompressor());
+            VarIntUtil.writeVarInt(out, rpcMessage.getId());
+
+            Map<String, String> headMap = rpcMessage.getHeadMap();
+            if (headMap == null || headMap.isEmpty()) {
+                VarIntUtil.writeVarInt(out, 0);
+            } else {
+                VarIntUtil.writeVarInt(out, headMap.size());
+                for (Map.Entry<String, String> entry : headMap.entrySet()) {
+                    dictionary.writeString(out, entry.getKey());
+                    dictionary.writeString(out, entry.getValue());
+                }
+            }
+
+            if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
+                    && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
+                // heartbeat has no body
+                encodeBodyV2(rpcMessage, out);
+            }
+
+            // skip magic code(2B) + version(1B)
+            out.setInt(frameIndex + 3, out.writerIndex() - frameIndex);
+        } catch (Throwable e) {
+            // drop the partial frame, and the strings it added, which the peer never reads
+            out.writerIndex(frameIndex);
+            dictionary.rollback();
+            LOGGER.error("Encode request error!", e);
+        }
+    }
+
+    /**
+     * Serialize the body by the dictionary if the serializer supports it, or the way of v1 otherwise.
+     */
+    private void encodeBodyV2(RpcMessage rpcMessage, ByteBuf out) {
+        Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
+        if (!(serializer instanceof DictionarySerializer)) {
+            encodeBody(rpcMessage, out);
+            return;
+        }
+        DictionarySerializer dictionarySerializer = (DictionarySerializer) serializer;
+        if (rpcMessage.getCompressor() == CompressorType.NONE.getCode()) {
+            dictionarySerializer.serialize(rpcMessage.getBody(), out, dictionary);
+            return;
+        }
+        ByteBuf body = out.alloc().buffer();
+        try {
+            dictionarySerializer.serialize(rpcMessage.getBody(), body, dictionary);
+        } catch (RuntimeException e) {
+            body.release();
+            throw e;
+        }
+        compressBody(rpcMessage, body, out);
+    }
+
+    static boolean isProtocolV2(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(PROTOCOL_V2).get());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.common.util.NetUtil;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
+import io.seata.core.protocol.transaction.AbstractBranchEndResponse;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
+import io.seata.core.protocol.transaction.BranchRollbackResponse;
+import io.seata.core.rpc.RemotingClient;
+import io.seata.core.rpc.TransactionMessageHandler;
+import io.seata.core.rpc.processor.RemotingProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * process TC merged branch commit and rollback command.
+ * <p>
+ * process message type:
+ * {@link MergedWarpMessage} of {@link BranchCommitRequest} and {@link BranchRollbackRequest}
+ * <p>
+ * The sub requests are handled on the branch executor in parallel as {@link RmBranchCommitProcessor} and
+ * {@link RmBranchRollbackProcessor} do, and their results are responded together in a {@link MergeResultMessage}
+ * once the last one is done.
+ *
+ * @since 1.5.0
+ */
+public class RmBranchMergeProcessor implements RemotingProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RmBranchMergeProcessor.class);
+
+    private TransactionMessageHandler handler;
+
+    private RemotingClient remotingClient;
+
+    private Executor branchExecutor;
+
+    public RmBranchMergeProcessor(TransactionMessageHandler handler, RemotingClient remotingClient,
+                                  Executor branchExecutor) {
+        this.handler = handler;
+        this.remotingClient = remotingClient;
+        this.branchExecutor = branchExecutor;
+    }
+
+    @Override
+    public void process(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
+        String remoteAddress = NetUtil.toStringAddress(ctx.channel().remoteAddress());
+        MergedWarpMessage mergedMessage = (MergedWarpMessage) rpcMessage.getBody();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("rm client handle merged branch request, size:{}", mergedMessage.msgs.size());
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[mergedMessage.msgs.size()];
+        AbstractResultMessage[] results = new AbstractResultMessage[futures.length];
+        for (int i = 0; i < futures.length; i++) {
+            final int index = i;
+            AbstractMessage subMessage = mergedMessage.msgs.get(i);
+            try {
+                futures[i] = CompletableFuture.runAsync(() -> results[index] = handle(subMessage), branchExecutor);
+            } catch (RejectedExecutionException e) {
+                LOGGER.error("merged sub request rejected: {}", subMessage, e);
+                results[i] = buildFailedResult(subMessage, e);
+                futures[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        CompletableFuture.allOf(futures).whenComplete((v, e) -> {
+            if (e != null) {
+                LOGGER.error("merged branch request error: {}", e.getMessage(), e);
+                return;
+            }
+            MergeResultMessage resultMessage = new MergeResultMessage();
+            resultMessage.setMsgs(results);
+            try {
+                this.remotingClient.sendAsyncResponse(remoteAddress, rpcMessage, resultMessage);
+            } catch (Throwable throwable) {
+                LOGGER.error("merged branch request error: {}", throwable.getMessage(), throwable);
+            }
+        });
+    }
+
+    /**
+     * Handle a sub request, a failure of it is responded as its failed result, so the other sub requests are still
+     * responded.
+     */
+    private AbstractResultMessage handle(AbstractMessage subMessage) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("rm client handle merged sub request:" + subMessage);
+        }
+        try {
+            return handler.onRequest(subMessage, null);
+        } catch (Throwable t) {
+            LOGGER.error("merged sub request error: {}", subMessage, t);
+            return buildFailedResult(subMessage, t);
+        }
+    }
+
+    /**
+     * The failed result of a sub request, the branch is retried by the server.
+     */
+    private static AbstractResultMessage buildFailedResult(AbstractMessage subMessage, Throwable cause) {
+        AbstractBranchEndResponse response;
+        if (subMessage instanceof BranchRollbackRequest) {
+            response = new BranchRollbackResponse();
+            response.setBranchStatus(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        } else {
+            response = new BranchCommitResponse();
+            response.setBranchStatus(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        }
+        if (subMessage instanceof AbstractBranchEndRequest) {
+            response.setXid(((AbstractBranchEndRequest) subMessage).getXid());
+            response.setBranchId(((AbstractBranchEndRequest) subMessage).getBranchId());
+        }
+        response.setResultCode(ResultCode.Failed);
+        response.setMsg(cause.getMessage());
+        return response;
+    }
+}
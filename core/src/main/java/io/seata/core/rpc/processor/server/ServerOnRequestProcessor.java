@@ -38,6 +38,8 @@ import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * process RM/TM client request message.
  * <p>
@@ -109,20 +111,43 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
         if (!(message instanceof AbstractMessage)) {
             return;
         }
+        // the global commit and rollback are responded when they are done, without blocking this thread
         if (message instanceof MergedWarpMessage) {
-            AbstractResultMessage[] results = new AbstractResultMessage[((MergedWarpMessage) message).msgs.size()];
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[((MergedWarpMessage) message).msgs.size()];
+            AbstractResultMessage[] results = new AbstractResultMessage[futures.length];
             for (int i = 0; i < results.length; i++) {
+                final int index = i;
                 final AbstractMessage subMessage = ((MergedWarpMessage) message).msgs.get(i);
-                results[i] = transactionMessageHandler.onRequest(subMessage, rpcContext);
+                futures[i] = transactionMessageHandler.onRequestAsync(subMessage, rpcContext)
+                    .thenAccept(result -> results[index] = result);
             }
-            MergeResultMessage resultMessage = new MergeResultMessage();
-            resultMessage.setMsgs(results);
-            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+            CompletableFuture.allOf(futures).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    LOGGER.error("handle merged request failed: {}", ex.getMessage(), ex);
+                    return;
+                }
+                MergeResultMessage resultMessage = new MergeResultMessage();
+                resultMessage.setMsgs(results);
+                sendResponse(ctx, rpcMessage, resultMessage);
+            });
         } else {
             // the single send request message
             final AbstractMessage msg = (AbstractMessage) message;
-            AbstractResultMessage result = transactionMessageHandler.onRequest(msg, rpcContext);
+            transactionMessageHandler.onRequestAsync(msg, rpcContext).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    LOGGER.error("handle request failed: {}", ex.getMessage(), ex);
+                    return;
+                }
+                sendResponse(ctx, rpcMessage, result);
+            });
+        }
+    }
+
+    private void sendResponse(ChannelHandlerContext ctx, RpcMessage rpcMessage, Object result) {
+        try {
             remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
+        } catch (Throwable throwable) {
+            LOGGER.error("send response error: {}", throwable.getMessage(), throwable);
         }
     }
 
@@ -0,0 +1,47 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The serializer of the compact message bodies of protocol v2, writing the repeated strings by the dictionary of the
+ * connection and the numbers as var ints.
+ *
+ * @since 1.5.0
+ */
+public interface DictionarySerializer extends Serializer {
+
+    /**
+     * Encode object to the buffer.
+     *
+     * @param <T>        the type parameter
+     * @param t          the t
+     * @param out        the buffer written to
+     * @param dictionary the dictionary of the strings written to the connection
+     */
+    <T> void serialize(T t, ByteBuf out, StringDictionary dictionary);
+
+    /**
+     * Decode t from the buffer.
+     *
+     * @param <T>        the type parameter
+     * @param in         the buffer read from
+     * @param dictionary the dictionary of the strings read from the connection
+     * @return the t
+     */
+    <T> T deserialize(ByteBuf in, StringDictionary dictionary);
+}
@@ -0,0 +1,222 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * The dictionary of the repeated strings of one direction of a connection.
+ * <p>
+ * The first time a string is written, it is sent in full and added to the dictionary of the writer, and the reader
+ * adds it to its own dictionary as it reads it; afterwards the string is sent as its id in the dictionary. Both sides
+ * assign the ids in the order of the strings on the connection, so the dictionaries are kept the same without any
+ * exchange, as long as the writer rolls its dictionary back when a message fails to be sent. Once the dictionary is
+ * full, the new strings are sent in full without being added.
+ * <p>
+ * A string is written as a var int tag, 0 for null, 1 for a string not in the dictionary, 2 for a string added to the
+ * dictionary, the last two followed by the length and the UTF-8 bytes of the string, or the id plus 3 for a string
+ * in the dictionary.
+ *
+ * @since 1.5.0
+ */
+public class StringDictionary {
+
+    /**
+     * the max number of the strings in a dictionary
+     */
+    public static final int MAX_SIZE = 4096;
+
+    /**
+     * the strings shorter than this are not worth an entry
+     */
+    private static final int MIN_LENGTH = 4;
+
+    /**
+     * the strings longer than this are unlikely to be repeated
+     */
+    private static final int MAX_LENGTH = 1024;
+
+    private static final char XID_SEPARATOR = ':';
+
+    private static final int TAG_NULL = 0;
+
+    private static final int TAG_LITERAL = 1;
+
+    private static final int TAG_NEW = 2;
+
+    private static final int TAG_ID_OFFSET = 3;
+
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * the ids of the strings, only used by the writer
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private int markedSize;
+
+    /**
+     * Write the string by the dictionary, for the strings repeated on the connection.
+     *
+     * @param out    the buffer written to
+     * @param string the string, nullable
+     */
+    public void writeString(ByteBuf out, String string) {
+        if (string == null) {
+            VarIntUtil.writeVarInt(out, TAG_NULL);
+            return;
+        }
+        Integer id = ids.get(string);
+        if (id != null) {
+            VarIntUtil.writeVarInt(out, id + TAG_ID_OFFSET);
+        } else if (strings.size() < MAX_SIZE && string.length() >= MIN_LENGTH && string.length() <= MAX_LENGTH) {
+            ids.put(string, strings.size());
+            strings.add(string);
+            VarIntUtil.writeVarInt(out, TAG_NEW);
+            writeUtf8(out, string);
+        } else {
+            writeLiteral(out, string);
+        }
+    }
+
+    /**
+     * Write the xid, the part up to the last ':' by the dictionary, and the transaction id after it as a var long.
+     *
+     * @param out the buffer written to
+     * @param xid the xid, nullable
+     */
+    public void writeXid(ByteBuf out, String xid) {
+        int index = xid == null ? -1 : xid.lastIndexOf(XID_SEPARATOR);
+        long transactionId = index < 0 ? -1 : parseTransactionId(xid.substring(index + 1));
+        if (transactionId < 0) {
+            VarIntUtil.writeVarLong(out, 0);
+            writeLiteral(out, xid);
+            return;
+        }
+        VarIntUtil.writeVarLong(out, transactionId + 1);
+        writeString(out, xid.substring(0, index));
+    }
+
+    /**
+     * Read a string written by {@link #writeString} or {@link #writeLiteral}.
+     *
+     * @param in the buffer read from
+     * @return the string, nullable
+     */
+    public String readString(ByteBuf in) {
+        int tag = VarIntUtil.readVarInt(in);
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_LITERAL:
+                return readUtf8(in);
+            case TAG_NEW:
+                String string = readUtf8(in);
+                strings.add(string);
+                return string;
+            default:
+                int id = tag - TAG_ID_OFFSET;
+                if (id < 0 || id >= strings.size()) {
+                    throw new IllegalArgumentException("Unknown string id in the dictionary: " + id);
+                }
+                return strings.get(id);
+        }
+    }
+
+    /**
+     * Read a xid written by {@link #writeXid}.
+     *
+     * @param in the buffer read from
+     * @return the xid, nullable
+     */
+    public String readXid(ByteBuf in) {
+        long transactionId = VarIntUtil.readVarLong(in) - 1;
+        String prefix = readString(in);
+        return transactionId == -1 ? prefix : prefix + XID_SEPARATOR + transactionId;
+    }
+
+    /**
+     * Mark the size of the dictionary before writing a message.
+     */
+    public void mark() {
+        markedSize = strings.size();
+    }
+
+    /**
+     * Remove the strings added since the mark, when the message written fails to be sent.
+     */
+    public void rollback() {
+        while (strings.size() > markedSize) {
+            ids.remove(strings.remove(strings.size() - 1));
+        }
+    }
+
+    /**
+     * Gets the number of the strings in the dictionary.
+     *
+     * @return the size
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * Write the string in full without the dictionary, for the strings not repeated.
+     *
+     * @param out    the buffer written to
+     * @param string the string, nullable
+     */
+    public static void writeLiteral(ByteBuf out, String string) {
+        if (string == null) {
+            VarIntUtil.writeVarInt(out, TAG_NULL);
+            return;
+        }
+        VarIntUtil.writeVarInt(out, TAG_LITERAL);
+        writeUtf8(out, string);
+    }
+
+    private static void writeUtf8(ByteBuf out, String string) {
+        VarIntUtil.writeVarInt(out, ByteBufUtil.utf8Bytes(string));
+        ByteBufUtil.writeUtf8(out, string);
+    }
+
+    private static String readUtf8(ByteBuf in) {
+        int length = VarIntUtil.readVarInt(in);
+        return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Parse the transaction id of a xid, -1 if it is not a number written the canonical way.
+     */
+    private static long parseTransactionId(String suffix) {
+        if (suffix.isEmpty() || suffix.length() > 19 || !Character.isDigit(suffix.charAt(0))) {
+            return -1;
+        }
+        try {
+            long transactionId = Long.parseLong(suffix);
+            return Long.toString(transactionId).equals(suffix) ? transactionId : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The variable length encoding of the unsigned ints and longs, 7 bits a byte with the high bit set on all the bytes
+ * but the last, so the small values take one or two bytes instead of four or eight.
+ *
+ * @since 1.5.0
+ */
+public final class VarIntUtil {
+
+    private static final int MAX_VAR_INT_BYTES = 5;
+
+    private static final int MAX_VAR_LONG_BYTES = 10;
+
+    private VarIntUtil() {
+    }
+
+    /**
+     * Write the int as unsigned, a negative value takes five bytes.
+     *
+     * @param out   the buffer written to
+     * @param value the value
+     */
+    public static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned int.
+     *
+     * @param in the buffer read from
+     * @return the value
+     */
+    public static int readVarInt(ByteBuf in) {
+        int value = 0;
+        for (int i = 0; i < MAX_VAR_INT_BYTES; i++) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The var int is longer than " + MAX_VAR_INT_BYTES + " bytes");
+    }
+
+    /**
+     * Write the long as unsigned, a negative value takes ten bytes.
+     *
+     * @param out   the buffer written to
+     * @param value the value
+     */
+    public static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read an unsigned long.
+     *
+     * @param in the buffer read from
+     * @return the value
+     */
+    public static long readVarLong(ByteBuf in) {
+        long value = 0;
+        for (int i = 0; i < MAX_VAR_LONG_BYTES; i++) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The var long is longer than " + MAX_VAR_LONG_BYTES + " bytes");
+    }
+}
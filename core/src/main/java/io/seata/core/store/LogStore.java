@@ -50,6 +50,31 @@ public interface LogStore {
      */
     List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, int limit);
 
+    /**
+     * Query global transaction do list ordered by gmt_modified and xid, starting after the given one.
+     *
+     * @param status the status
+     * @param after  the last global transaction do of the previous page, null to start from the first
+     * @param limit  the limit
+     * @return the list
+     */
+    default List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, GlobalTransactionDO after, int limit) {
+        return queryGlobalTransactionDO(status, after, null, limit);
+    }
+
+    /**
+     * Query global transaction do list of the transaction id ranges ordered by gmt_modified and xid, starting after
+     * the given one.
+     *
+     * @param status              the status
+     * @param after               the last global transaction do of the previous page, null to start from the first
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn, null for any
+     * @param limit               the limit
+     * @return the list
+     */
+    List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, GlobalTransactionDO after,
+                                                       long[] transactionIdRanges, int limit);
+
     /**
      * Insert global transaction do boolean.
      *
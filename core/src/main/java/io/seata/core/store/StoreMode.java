@@ -35,7 +35,12 @@ public enum StoreMode {
     /**
      * redis store
      */
-    REDIS("redis");
+    REDIS("redis"),
+
+    /**
+     * raft store, the sessions are kept in the memory of the servers and replicated by a raft log
+     */
+    RAFT("raft");
 
     private String name;
 
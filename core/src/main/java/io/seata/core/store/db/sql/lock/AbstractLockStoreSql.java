@@ -15,6 +15,8 @@
  */
 package io.seata.core.store.db.sql.lock;
 
+import java.util.StringJoiner;
+
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
@@ -93,6 +95,17 @@ public class AbstractLockStoreSql implements LockStoreSql {
     private static final String CHECK_LOCK_SQL = "select " + ALL_COLUMNS + " from " + LOCK_TABLE_PLACE_HOLD
         + " where " + ServerTableColumnsName.LOCK_TABLE_ROW_KEY + " in (" + IN_PARAMS_PLACE_HOLD + ")";
 
+    /**
+     * The constant CHECK_TABLE_LOCK_SQL.
+     */
+    private static final String CHECK_TABLE_LOCK_SQL = "select " + ALL_COLUMNS + " from " + LOCK_TABLE_PLACE_HOLD
+        + " where " + ServerTableColumnsName.LOCK_TABLE_RESOURCE_ID + " = ? and "
+        + ServerTableColumnsName.LOCK_TABLE_TABLE_NAME + " = ? and " + ServerTableColumnsName.LOCK_TABLE_XID + " <> ?";
+
+    /**
+     * The constant VALUES.
+     */
+    protected static final String VALUES = " values ";
 
     @Override
     public String getInsertLockSQL(String lockTable) {
@@ -131,4 +144,22 @@ public class AbstractLockStoreSql implements LockStoreSql {
         return CHECK_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable).replace(IN_PARAMS_PLACE_HOLD, paramPlaceHold);
     }
 
+    @Override
+    public String getCheckTableLockableSql(String lockTable) {
+        return CHECK_TABLE_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
+    }
+
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int lockCount) {
+        // the values of the insert lock sql repeated
+        String insertLockSQL = getInsertLockSQL(lockTable);
+        int valuesIndex = insertLockSQL.lastIndexOf(VALUES);
+        String values = insertLockSQL.substring(valuesIndex + VALUES.length());
+        StringJoiner sj = new StringJoiner(", ", insertLockSQL.substring(0, valuesIndex + VALUES.length()), "");
+        for (int i = 0; i < lockCount; i++) {
+            sj.add(values);
+        }
+        return sj.toString();
+    }
+
 }
@@ -82,4 +82,21 @@ public interface LockStoreSql {
      */
     String getCheckLockableSql(String lockTable, String paramPlaceHold);
 
+    /**
+     * Get check table lock sql string, which queries the locks of a table held by other global transactions.
+     *
+     * @param lockTable the lock table
+     * @return the string
+     */
+    String getCheckTableLockableSql(String lockTable);
+
+    /**
+     * Get batch insert lock sql string, a single statement inserting all the locks.
+     *
+     * @param lockTable the lock table
+     * @param lockCount the number of the locks
+     * @return the string
+     */
+    String getBatchInsertLockSql(String lockTable, int lockCount);
+
 }
@@ -37,4 +37,15 @@ public class OracleLockStoreSql extends AbstractLockStoreSql {
         return INSERT_LOCK_SQL_ORACLE.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int lockCount) {
+        // oracle inserts multiple rows by insert all
+        String into = getInsertLockSQL(lockTable).substring("insert".length());
+        StringBuilder sb = new StringBuilder("insert all");
+        for (int i = 0; i < lockCount; i++) {
+            sb.append(into);
+        }
+        return sb.append(" select 1 from dual").toString();
+    }
+
 }
@@ -40,6 +40,30 @@ public abstract class AbstractLogStoreSqls implements LogStoreSqls {
      */
     public static final String PRAMETER_PLACEHOLD = " #PRAMETER_PLACEHOLD# ";
 
+    /**
+     * The constant NODE_TABLE_PLACEHOLD.
+     */
+    public static final String NODE_TABLE_PLACEHOLD = " #node_table# ";
+
+    /**
+     * The constant SCAN_CONDITION_PLACEHOLD.
+     * format: the conditions of the scan position and the transaction id ranges, each starting with " and"
+     */
+    public static final String SCAN_CONDITION_PLACEHOLD = " #scan_condition# ";
+
+    /**
+     * The constant SCAN_AFTER_CONDITION, the rows after the given gmt_modified and xid.
+     */
+    public static final String SCAN_AFTER_CONDITION = "   and (" + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED
+            + " > ?    or (" + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED + " = ?"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_XID + " > ?))";
+
+    /**
+     * The constant TRANSACTION_ID_RANGE_CONDITION, the rows of the given min and max transaction id.
+     */
+    public static final String TRANSACTION_ID_RANGE_CONDITION = ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID
+            + " between ? and ?";
+
     /**
      * The constant ALL_GLOBAL_COLUMNS.
      * xid, transaction_id, status, application_id, transaction_service_group, transaction_name, timeout, begin_time, application_data, gmt_create, gmt_modified
@@ -130,6 +154,27 @@ public abstract class AbstractLogStoreSqls implements LogStoreSqls {
             + " where " + ServerTableColumnsName.BRANCH_TABLE_BRANCH_ID + " < ?"
             + "   and " + ServerTableColumnsName.BRANCH_TABLE_BRANCH_ID + " > ?";
 
+    /**
+     * The constant UPDATE_NODE_HEARTBEAT.
+     */
+    public static final String UPDATE_NODE_HEARTBEAT = "update " + NODE_TABLE_PLACEHOLD
+            + "   set " + ServerTableColumnsName.NODE_TABLE_HEARTBEAT_TIME + " = ?"
+            + " where " + ServerTableColumnsName.NODE_TABLE_NODE_ID + " = ?";
+
+    /**
+     * The constant INSERT_NODE_HEARTBEAT.
+     */
+    public static final String INSERT_NODE_HEARTBEAT = "insert into " + NODE_TABLE_PLACEHOLD
+            + "(" + ServerTableColumnsName.NODE_TABLE_NODE_ID + ", " + ServerTableColumnsName.NODE_TABLE_HEARTBEAT_TIME + ")"
+            + " values (?, ?)";
+
+    /**
+     * The constant QUERY_NODE_HEARTBEAT.
+     */
+    public static final String QUERY_NODE_HEARTBEAT = "select " + ServerTableColumnsName.NODE_TABLE_NODE_ID + ", "
+            + ServerTableColumnsName.NODE_TABLE_HEARTBEAT_TIME
+            + "  from " + NODE_TABLE_PLACEHOLD;
+
     @Override
     public abstract String getInsertGlobalTransactionSQL(String globalTable);
 
@@ -154,6 +199,15 @@ public abstract class AbstractLogStoreSqls implements LogStoreSqls {
     @Override
     public abstract String getQueryGlobalTransactionSQLByStatus(String globalTable, String paramsPlaceHolder);
 
+    @Override
+    public String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String paramsPlaceHolder) {
+        return getQueryGlobalTransactionSQLByStatusAfter(globalTable, paramsPlaceHolder, true, 0);
+    }
+
+    @Override
+    public abstract String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String paramsPlaceHolder,
+                                                                     boolean after, int rangeCount);
+
     @Override
     public abstract String getQueryGlobalTransactionForRecoverySQL(String globalTable);
 
@@ -195,4 +249,44 @@ public abstract class AbstractLogStoreSqls implements LogStoreSqls {
     public String getQueryBranchMax(String branchTable) {
         return QUERY_MAX_BTANCH_ID.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
     }
+
+    /**
+     * Build the condition replacing the SCAN_CONDITION_PLACEHOLD.
+     *
+     * @param after      whether the rows are after the given gmt_modified and xid
+     * @param rangeCount the number of the transaction id ranges, 0 for any transaction id
+     * @return the condition
+     */
+    protected static String buildScanCondition(boolean after, int rangeCount) {
+        StringBuilder condition = new StringBuilder();
+        if (after) {
+            condition.append(SCAN_AFTER_CONDITION);
+        }
+        if (rangeCount > 0) {
+            condition.append("   and (");
+            for (int i = 0; i < rangeCount; i++) {
+                if (i > 0) {
+                    condition.append(" or ");
+                }
+                condition.append(TRANSACTION_ID_RANGE_CONDITION);
+            }
+            condition.append(")");
+        }
+        return condition.toString();
+    }
+
+    @Override
+    public String getUpdateNodeHeartbeatSQL(String nodeTable) {
+        return UPDATE_NODE_HEARTBEAT.replace(NODE_TABLE_PLACEHOLD, nodeTable);
+    }
+
+    @Override
+    public String getInsertNodeHeartbeatSQL(String nodeTable) {
+        return INSERT_NODE_HEARTBEAT.replace(NODE_TABLE_PLACEHOLD, nodeTable);
+    }
+
+    @Override
+    public String getQueryNodeHeartbeatSQL(String nodeTable) {
+        return QUERY_NODE_HEARTBEAT.replace(NODE_TABLE_PLACEHOLD, nodeTable);
+    }
 }
@@ -70,6 +70,28 @@ public interface LogStoreSqls {
      */
     String getQueryGlobalTransactionSQLByStatus(String globalTable, String paramsPlaceHolder);
 
+    /**
+     * Get query global transaction sql by status after the given gmt_modified and xid string.
+     *
+     * @param globalTable       the global table
+     * @param paramsPlaceHolder the params place holder
+     * @return the string
+     */
+    String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String paramsPlaceHolder);
+
+    /**
+     * Get query global transaction sql by status, after the given gmt_modified and xid if any, of the given
+     * transaction id ranges if any.
+     *
+     * @param globalTable       the global table
+     * @param paramsPlaceHolder the params place holder
+     * @param after             whether the rows are after the given gmt_modified and xid
+     * @param rangeCount        the number of the transaction id ranges, 0 for any transaction id
+     * @return the string
+     */
+    String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String paramsPlaceHolder, boolean after,
+                                                     int rangeCount);
+
     /**
      * Get query global transaction for recovery sql string.
      *
@@ -150,4 +172,28 @@ public interface LogStoreSqls {
      * @return the query branch max
      */
     String getQueryBranchMax(String branchTable);
+
+    /**
+     * Get update node heartbeat sql string.
+     *
+     * @param nodeTable the node table
+     * @return the string
+     */
+    String getUpdateNodeHeartbeatSQL(String nodeTable);
+
+    /**
+     * Get insert node heartbeat sql string.
+     *
+     * @param nodeTable the node table
+     * @return the string
+     */
+    String getInsertNodeHeartbeatSQL(String nodeTable);
+
+    /**
+     * Get query node heartbeat sql string.
+     *
+     * @param nodeTable the node table
+     * @return the string
+     */
+    String getQueryNodeHeartbeatSQL(String nodeTable);
 }
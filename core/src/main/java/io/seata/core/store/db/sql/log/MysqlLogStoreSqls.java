@@ -46,7 +46,17 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
     public static final String QUERY_GLOBAL_TRANSACTION_BY_STATUS_MYSQL = "select " + ALL_GLOBAL_COLUMNS
             + "  from " + GLOBAL_TABLE_PLACEHOLD
             + " where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
-            + " order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED
+            + " order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED + ", " + ServerTableColumnsName.GLOBAL_TABLE_XID
+            + " limit ?";
+
+    /**
+     * The constant QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL = "select " + ALL_GLOBAL_COLUMNS
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+            + SCAN_CONDITION_PLACEHOLD
+            + " order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED + ", " + ServerTableColumnsName.GLOBAL_TABLE_XID
             + " limit ?";
 
     /**
@@ -97,6 +107,14 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
             .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
     }
 
+    @Override
+    public String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String paramsPlaceHolder,
+                                                            boolean after, int rangeCount) {
+        return QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable)
+            .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder)
+            .replace(SCAN_CONDITION_PLACEHOLD, buildScanCondition(after, rangeCount));
+    }
+
     @Override
     public String getQueryGlobalTransactionForRecoverySQL(String globalTable) {
         return QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_MYSQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
@@ -0,0 +1,149 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import io.seata.core.event.RingBufferEventBus.OverflowPolicy;
+import io.seata.core.model.GlobalStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test RingBufferEventBus.
+ */
+public class RingBufferEventBusTest {
+
+    @Test
+    public void testDispatchInOrder() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus("test", 128, OverflowPolicy.DROP);
+        GlobalTransactionEventSubscriber subscriber = new GlobalTransactionEventSubscriber(100);
+        eventBus.register(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            eventBus.postGlobalTransactionEvent(i, GlobalTransactionEvent.ROLE_TC, "test", "app", "group", 0L, null,
+                GlobalStatus.Begin);
+        }
+        Assertions.assertTrue(subscriber.dispatched.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, subscriber.ids.get(i).longValue());
+        }
+        Assertions.assertNotEquals(Thread.currentThread().getName(), subscriber.threadName);
+
+        eventBus.unregister(subscriber);
+        eventBus.post(new GlobalTransactionEvent(100, GlobalTransactionEvent.ROLE_TC, "test", "app", "group", 0L, null,
+            GlobalStatus.Begin));
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertEquals(100, subscriber.ids.size());
+    }
+
+    @Test
+    public void testOverflow() throws InterruptedException {
+        RingBufferEventBus dropEventBus = new RingBufferEventBus("drop", 2, OverflowPolicy.DROP);
+        BlockingSubscriber dropSubscriber = new BlockingSubscriber();
+        dropEventBus.register(dropSubscriber);
+        for (int i = 0; i < 10; i++) {
+            dropEventBus.post(new TestEvent());
+        }
+        // one taken by the blocked consumer, two in the ring
+        Assertions.assertTrue(dropEventBus.getDroppedCount() >= 7);
+        dropSubscriber.release.countDown();
+
+        RingBufferEventBus callerRunsEventBus = new RingBufferEventBus("callerRuns", 2, OverflowPolicy.CALLER_RUNS);
+        BlockingSubscriber callerRunsSubscriber = new BlockingSubscriber();
+        callerRunsEventBus.register(callerRunsSubscriber);
+        for (int i = 0; i < 10; i++) {
+            callerRunsEventBus.post(new TestEvent());
+        }
+        Assertions.assertEquals(0, callerRunsEventBus.getDroppedCount());
+        Assertions.assertTrue(callerRunsSubscriber.callerRuns >= 7);
+        callerRunsSubscriber.release.countDown();
+    }
+
+    @Test
+    public void testDestroy() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus("destroy", 128, OverflowPolicy.DROP);
+        GlobalTransactionEventSubscriber subscriber = new GlobalTransactionEventSubscriber(101);
+        eventBus.register(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            eventBus.postGlobalTransactionEvent(i, GlobalTransactionEvent.ROLE_TC, "test", "app", "group", 0L, null,
+                GlobalStatus.Begin);
+        }
+        eventBus.destroy();
+        // the published events are dispatched before the consumer stops
+        Assertions.assertEquals(100, subscriber.ids.size());
+        Assertions.assertNotEquals(Thread.currentThread().getName(), subscriber.threadName);
+
+        eventBus.postGlobalTransactionEvent(100, GlobalTransactionEvent.ROLE_TC, "test", "app", "group", 0L, null,
+            GlobalStatus.Begin);
+        Assertions.assertTrue(subscriber.dispatched.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Thread.currentThread().getName(), subscriber.threadName);
+    }
+
+    @Test
+    public void testOverflowPolicy() {
+        Assertions.assertEquals(OverflowPolicy.DROP, OverflowPolicy.get("drop"));
+        Assertions.assertEquals(OverflowPolicy.CALLER_RUNS, OverflowPolicy.get("callerRuns"));
+        Assertions.assertEquals(OverflowPolicy.DROP, OverflowPolicy.get("unknown"));
+    }
+
+    static class GlobalTransactionEventSubscriber {
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch dispatched;
+
+        private volatile String threadName;
+
+        GlobalTransactionEventSubscriber(int count) {
+            this.dispatched = new CountDownLatch(count);
+        }
+
+        @Subscribe
+        public void process(GlobalTransactionEvent event) {
+            ids.add(event.getId());
+            threadName = Thread.currentThread().getName();
+            dispatched.countDown();
+        }
+    }
+
+    static class TestEvent implements Event {
+    }
+
+    static class BlockingSubscriber {
+        private final Thread caller = Thread.currentThread();
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private volatile int callerRuns;
+
+        @Subscribe
+        @AllowConcurrentEvents
+        public void process(TestEvent event) throws InterruptedException {
+            if (Thread.currentThread() == caller) {
+                callerRuns++;
+                return;
+            }
+            // the consumer is blocked, so the ring fills up
+            release.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -16,11 +16,15 @@
 package io.seata.core.protocol;
 
 import com.alibaba.fastjson.JSON;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -186,6 +190,45 @@ public class MessageFutureTest {
         }
     }
 
+    /**
+     * Test time out by the timer.
+     */
+    @Test
+    public void testTimeout() {
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(buildRepcMessage());
+        messageFuture.setTimeout(TIME_OUT_FIELD);
+        CompletableFuture<Object> future = messageFuture.toCompletableFuture();
+        messageFuture.timeout();
+        Assertions.assertThrows(TimeoutException.class, () -> messageFuture.get(TIME_OUT_FIELD, TimeUnit.MILLISECONDS));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+        assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+    }
+
+    /**
+     * Test the timeout task is cancelled by the result.
+     */
+    @Test
+    public void testCancelTimeoutTask() {
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try {
+            MessageFuture messageFuture = new MessageFuture();
+            messageFuture.setRequestMessage(buildRepcMessage());
+            messageFuture.setTimeout(TIME_OUT_FIELD);
+            Timeout timeoutTask = timer.newTimeout(timeout -> messageFuture.timeout(), 1, TimeUnit.MINUTES);
+            messageFuture.setTimeoutTask(timeoutTask);
+            messageFuture.setResultMessage("has_result");
+            assertThat(timeoutTask.isCancelled()).isTrue();
+
+            // the result is set before the timeout task
+            Timeout lateTask = timer.newTimeout(timeout -> messageFuture.timeout(), 1, TimeUnit.MINUTES);
+            messageFuture.setTimeoutTask(lateTask);
+            assertThat(lateTask.isCancelled()).isTrue();
+        } finally {
+            timer.stop();
+        }
+    }
+
     private RpcMessage buildRepcMessage() {
         RpcMessage rpcMessage = new RpcMessage();
         rpcMessage.setId(ID_FIELD);
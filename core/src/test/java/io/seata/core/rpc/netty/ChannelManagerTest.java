@@ -0,0 +1,112 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.netty.channel.Channel;
+import io.seata.core.protocol.RegisterRMRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type ChannelManager test.
+ */
+public class ChannelManagerTest {
+
+    private final List<Channel> registered = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        registered.forEach(ChannelManager::releaseRpcContext);
+    }
+
+    @Test
+    public void testExactChannel() throws Exception {
+        Channel exact = registerRM("exactResource", "app1", "10.0.0.1", 1001);
+        Channel other = registerRM("exactResource", "app1", "10.0.0.2", 1002);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertSame(exact, ChannelManager.getChannel("exactResource", "app1:10.0.0.1:1001"));
+            Assertions.assertSame(other, ChannelManager.getChannel("exactResource", "app1:10.0.0.2:1002"));
+        }
+    }
+
+    @Test
+    public void testRoundRobinOnSameApplication() throws Exception {
+        Channel inactive = registerRM("roundRobinResource", "app1", "10.0.1.1", 1001);
+        Channel first = registerRM("roundRobinResource", "app1", "10.0.1.2", 1002);
+        Channel second = registerRM("roundRobinResource", "app1", "10.0.1.3", 1003);
+        registerRM("roundRobinResource", "app2", "10.0.1.4", 1004);
+        when(inactive.isActive()).thenReturn(false);
+
+        Set<Channel> chosen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            chosen.add(ChannelManager.getChannel("roundRobinResource", "app1:10.0.1.1:1001"));
+        }
+        Assertions.assertEquals(2, chosen.size());
+        Assertions.assertTrue(chosen.contains(first));
+        Assertions.assertTrue(chosen.contains(second));
+    }
+
+    @Test
+    public void testOtherApplicationAfterRelease() throws Exception {
+        Channel released = registerRM("releaseResource", "app1", "10.0.2.1", 1001);
+        Channel otherApp = registerRM("releaseResource", "app2", "10.0.2.2", 1002);
+
+        ChannelManager.releaseRpcContext(released);
+        Assertions.assertSame(otherApp, ChannelManager.getChannel("releaseResource", "app1:10.0.2.9:1009"));
+        Assertions.assertSame(otherApp, ChannelManager.getRmChannels().get("releaseResource"));
+
+        when(otherApp.isActive()).thenReturn(false);
+        Assertions.assertNull(ChannelManager.getChannel("releaseResource", "app1:10.0.2.9:1009"));
+        Assertions.assertFalse(ChannelManager.getRmChannels().containsKey("releaseResource"));
+    }
+
+    @Test
+    public void testRemoveEmptyRingOnRelease() throws Exception {
+        registerRM("emptyResource", "app1", "10.0.3.1", 1001);
+        registerRM("emptyResource", "app2", "10.0.3.2", 1002);
+        tearDown();
+        registered.clear();
+
+        // the rings left empty are removed, so no rm channel is left
+        Assertions.assertNull(ChannelManager.getChannel("emptyResource", "app1:10.0.3.1:1001"));
+        Assertions.assertNull(ChannelManager.getRmChannels());
+
+        Channel registeredAgain = registerRM("emptyResource", "app1", "10.0.3.3", 1003);
+        Assertions.assertSame(registeredAgain, ChannelManager.getRmChannels().get("emptyResource"));
+    }
+
+    private Channel registerRM(String resourceId, String applicationId, String ip, int port) throws Exception {
+        Channel channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress(ip, port));
+        when(channel.isActive()).thenReturn(true);
+        RegisterRMRequest request = new RegisterRMRequest(applicationId, "default_tx_group");
+        request.setResourceIds(resourceId);
+        ChannelManager.registerRMChannel(request, channel);
+        registered.add(channel);
+        return channel;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type ChannelRequestBatcher test.
+ */
+public class ChannelRequestBatcherTest {
+
+    private final List<MergedWarpMessage> sent = new ArrayList<>();
+
+    private final List<Integer> failed = new ArrayList<>();
+
+    @Test
+    public void testMergeOnEventLoop() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelRequestBatcher batcher = new ChannelRequestBatcher(channel, sent::add, failed::addAll);
+
+        for (int i = 0; i < 3; i++) {
+            batcher.offer(newRequest(i));
+        }
+        Assertions.assertTrue(sent.isEmpty());
+        channel.runPendingTasks();
+        Assertions.assertEquals(1, sent.size());
+        Assertions.assertEquals(3, sent.get(0).msgs.size());
+        Assertions.assertEquals(0, sent.get(0).msgIds.get(0).intValue());
+        Assertions.assertEquals(2, sent.get(0).msgIds.get(2).intValue());
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelRequestBatcher batcher = new ChannelRequestBatcher(channel, sent::add, failed::addAll);
+
+        int count = ChannelRequestBatcher.MAX_BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            batcher.offer(newRequest(i));
+        }
+        channel.runPendingTasks();
+        Assertions.assertEquals(3, sent.size());
+        Assertions.assertEquals(ChannelRequestBatcher.MAX_BATCH_SIZE, sent.get(0).msgIds.size());
+        Assertions.assertEquals(ChannelRequestBatcher.MAX_BATCH_SIZE, sent.get(1).msgIds.size());
+        Assertions.assertEquals(1, sent.get(2).msgIds.size());
+    }
+
+    @Test
+    public void testAdaptLinger() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelRequestBatcher batcher = new ChannelRequestBatcher(channel, sent::add, failed::addAll);
+        Assertions.assertEquals(0, batcher.getLingerNanos());
+
+        for (int i = 0; i < ChannelRequestBatcher.MAX_BATCH_SIZE; i++) {
+            batcher.offer(newRequest(i));
+        }
+        channel.runPendingTasks();
+        Assertions.assertTrue(batcher.getLingerNanos() > 0);
+
+        // the requests come one by one again
+        for (int i = 0; i < 100; i++) {
+            batcher.offer(newRequest(i));
+            batcher.flush();
+        }
+        Assertions.assertEquals(0, batcher.getLingerNanos());
+    }
+
+    @Test
+    public void testNotWritable() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelRequestBatcher batcher = new ChannelRequestBatcher(channel, sent::add, failed::addAll);
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        batcher.offer(newRequest(1));
+        channel.runPendingTasks();
+        Assertions.assertTrue(sent.isEmpty());
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        batcher.flush();
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testFailOnInactive() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelRequestBatcher batcher = new ChannelRequestBatcher(channel, sent::add, failed::addAll);
+
+        channel.close();
+        batcher.offer(newRequest(1));
+        batcher.offer(newRequest(2));
+        batcher.flush();
+        Assertions.assertTrue(sent.isEmpty());
+        Assertions.assertEquals(2, failed.size());
+    }
+
+    private static RpcMessage newRequest(int id) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        rpcMessage.setBody(new GlobalBeginRequest());
+        return rpcMessage;
+    }
+}
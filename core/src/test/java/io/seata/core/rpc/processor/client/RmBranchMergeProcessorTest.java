@@ -0,0 +1,168 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.client;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
+import io.seata.core.protocol.transaction.BranchRollbackResponse;
+import io.seata.core.rpc.RemotingClient;
+import io.seata.core.rpc.TransactionMessageHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type RmBranchMergeProcessor test.
+ */
+public class RmBranchMergeProcessorTest {
+
+    @Test
+    public void testProcess() throws Exception {
+        BranchCommitRequest commitRequest = new BranchCommitRequest();
+        BranchRollbackRequest rollbackRequest = new BranchRollbackRequest();
+        BranchCommitResponse commitResponse = new BranchCommitResponse();
+        commitResponse.setBranchStatus(BranchStatus.PhaseTwo_Committed);
+        BranchRollbackResponse rollbackResponse = new BranchRollbackResponse();
+        rollbackResponse.setBranchStatus(BranchStatus.PhaseTwo_Rollbacked);
+
+        TransactionMessageHandler handler = mock(TransactionMessageHandler.class);
+        when(handler.onRequest(eq(commitRequest), isNull())).thenReturn(commitResponse);
+        when(handler.onRequest(eq(rollbackRequest), isNull())).thenReturn(rollbackResponse);
+        RemotingClient remotingClient = mock(RemotingClient.class);
+        Channel channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+
+        MergedWarpMessage mergedMessage = new MergedWarpMessage();
+        mergedMessage.msgs.add(commitRequest);
+        mergedMessage.msgs.add(rollbackRequest);
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setBody(mergedMessage);
+        new RmBranchMergeProcessor(handler, remotingClient, Runnable::run).process(ctx, rpcMessage);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingClient).sendAsyncResponse(eq("127.0.0.1:8091"), eq(rpcMessage), captor.capture());
+        MergeResultMessage resultMessage = (MergeResultMessage) captor.getValue();
+        Assertions.assertArrayEquals(new Object[] {commitResponse, rollbackResponse}, resultMessage.getMsgs());
+    }
+
+    @Test
+    public void testProcessWithFailedSubRequest() throws Exception {
+        BranchCommitRequest failedRequest = new BranchCommitRequest();
+        failedRequest.setXid("127.0.0.1:8091:1");
+        failedRequest.setBranchId(2L);
+        BranchRollbackRequest rollbackRequest = new BranchRollbackRequest();
+        BranchRollbackResponse rollbackResponse = new BranchRollbackResponse();
+        rollbackResponse.setBranchStatus(BranchStatus.PhaseTwo_Rollbacked);
+
+        TransactionMessageHandler handler = mock(TransactionMessageHandler.class);
+        when(handler.onRequest(eq(failedRequest), isNull())).thenThrow(new IllegalStateException("broken"));
+        when(handler.onRequest(eq(rollbackRequest), isNull())).thenReturn(rollbackResponse);
+        RemotingClient remotingClient = mock(RemotingClient.class);
+        Channel channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+
+        MergedWarpMessage mergedMessage = new MergedWarpMessage();
+        mergedMessage.msgs.add(failedRequest);
+        mergedMessage.msgs.add(rollbackRequest);
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setBody(mergedMessage);
+        new RmBranchMergeProcessor(handler, remotingClient, Runnable::run).process(ctx, rpcMessage);
+
+        // the failed sub request is responded as failed, the other one as usual
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingClient).sendAsyncResponse(eq("127.0.0.1:8091"), eq(rpcMessage), captor.capture());
+        MergeResultMessage resultMessage = (MergeResultMessage) captor.getValue();
+        BranchCommitResponse failedResponse = (BranchCommitResponse) resultMessage.getMsgs()[0];
+        Assertions.assertEquals(ResultCode.Failed, failedResponse.getResultCode());
+        Assertions.assertEquals(BranchStatus.PhaseTwo_CommitFailed_Retryable, failedResponse.getBranchStatus());
+        Assertions.assertEquals("127.0.0.1:8091:1", failedResponse.getXid());
+        Assertions.assertEquals(2L, failedResponse.getBranchId());
+        Assertions.assertSame(rollbackResponse, resultMessage.getMsgs()[1]);
+    }
+
+    @Test
+    public void testProcessInParallel() throws Exception {
+        BranchCommitRequest slowRequest = new BranchCommitRequest();
+        BranchCommitRequest fastRequest = new BranchCommitRequest();
+        BranchCommitResponse slowResponse = new BranchCommitResponse();
+        slowResponse.setBranchStatus(BranchStatus.PhaseTwo_Committed);
+        BranchCommitResponse fastResponse = new BranchCommitResponse();
+        fastResponse.setBranchStatus(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+
+        // the slow branch is only released by the fast one, which never runs if they are handled in order
+        CountDownLatch fastDone = new CountDownLatch(1);
+        TransactionMessageHandler handler = mock(TransactionMessageHandler.class);
+        when(handler.onRequest(eq(slowRequest), isNull())).thenAnswer(invocation -> {
+            Assertions.assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+            return slowResponse;
+        });
+        when(handler.onRequest(eq(fastRequest), isNull())).thenAnswer(invocation -> {
+            fastDone.countDown();
+            return fastResponse;
+        });
+        RemotingClient remotingClient = mock(RemotingClient.class);
+        Channel channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+
+        MergedWarpMessage mergedMessage = new MergedWarpMessage();
+        mergedMessage.msgs.add(slowRequest);
+        mergedMessage.msgs.add(fastRequest);
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setBody(mergedMessage);
+        ExecutorService branchExecutor = Executors.newFixedThreadPool(2);
+        try {
+            new RmBranchMergeProcessor(handler, remotingClient, branchExecutor).process(ctx, rpcMessage);
+
+            ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+            verify(remotingClient, timeout(5000)).sendAsyncResponse(eq("127.0.0.1:8091"), eq(rpcMessage),
+                captor.capture());
+            MergeResultMessage resultMessage = (MergeResultMessage) captor.getValue();
+            Assertions.assertArrayEquals(new Object[] {slowResponse, fastResponse}, resultMessage.getMsgs());
+        } finally {
+            branchExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type StringDictionary test.
+ */
+public class StringDictionaryTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata_order?useUnicode=true";
+
+    @Test
+    public void testVarInt() {
+        ByteBuf buf = Unpooled.buffer();
+        long[] longs = {0, 1, 127, 128, 16384, Long.MAX_VALUE, -1};
+        for (long value : longs) {
+            VarIntUtil.writeVarLong(buf, value);
+        }
+        int[] ints = {0, 127, 128, Integer.MAX_VALUE, -1};
+        for (int value : ints) {
+            VarIntUtil.writeVarInt(buf, value);
+        }
+        for (long value : longs) {
+            Assertions.assertEquals(value, VarIntUtil.readVarLong(buf));
+        }
+        for (int value : ints) {
+            Assertions.assertEquals(value, VarIntUtil.readVarInt(buf));
+        }
+        Assertions.assertFalse(buf.isReadable());
+    }
+
+    @Test
+    public void testString() {
+        StringDictionary writer = new StringDictionary();
+        StringDictionary reader = new StringDictionary();
+        ByteBuf buf = Unpooled.buffer();
+
+        writer.writeString(buf, RESOURCE_ID);
+        int firstLength = buf.readableBytes();
+        writer.writeString(buf, RESOURCE_ID);
+        Assertions.assertEquals(1, buf.readableBytes() - firstLength);
+        writer.writeString(buf, null);
+        writer.writeString(buf, "ab");
+        StringDictionary.writeLiteral(buf, "");
+
+        Assertions.assertEquals(RESOURCE_ID, reader.readString(buf));
+        Assertions.assertEquals(RESOURCE_ID, reader.readString(buf));
+        Assertions.assertNull(reader.readString(buf));
+        Assertions.assertEquals("ab", reader.readString(buf));
+        Assertions.assertEquals("", reader.readString(buf));
+        Assertions.assertEquals(1, reader.size());
+    }
+
+    @Test
+    public void testXid() {
+        StringDictionary writer = new StringDictionary();
+        StringDictionary reader = new StringDictionary();
+        ByteBuf buf = Unpooled.buffer();
+
+        String[] xids = {"192.168.0.1:8091:2612341234123412", "192.168.0.1:8091:2612341234123413", "host:007",
+            "host:+7", "host:", "noTransactionId", null};
+        for (String xid : xids) {
+            writer.writeXid(buf, xid);
+        }
+        for (String xid : xids) {
+            Assertions.assertEquals(xid, reader.readXid(buf));
+        }
+
+        buf.clear();
+        writer.writeXid(buf, "192.168.0.1:8091:2612341234123414");
+        Assertions.assertEquals(9, buf.readableBytes());
+    }
+
+    @Test
+    public void testRollback() {
+        StringDictionary writer = new StringDictionary();
+        StringDictionary reader = new StringDictionary();
+        ByteBuf buf = Unpooled.buffer();
+
+        writer.writeString(buf, RESOURCE_ID);
+        writer.mark();
+        // the frame of this string is dropped
+        writer.writeString(Unpooled.buffer(), "jdbc:mysql://127.0.0.1:3306/seata_storage");
+        writer.rollback();
+        Assertions.assertEquals(1, writer.size());
+
+        writer.writeString(buf, "jdbc:mysql://127.0.0.1:3306/seata_account");
+        writer.writeString(buf, "jdbc:mysql://127.0.0.1:3306/seata_account");
+        Assertions.assertEquals(RESOURCE_ID, reader.readString(buf));
+        Assertions.assertEquals("jdbc:mysql://127.0.0.1:3306/seata_account", reader.readString(buf));
+        Assertions.assertEquals("jdbc:mysql://127.0.0.1:3306/seata_account", reader.readString(buf));
+    }
+}
@@ -85,6 +85,11 @@ public class LockStoreSqlFactoryTest {
         sql = MYSQL_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
 
+        // Get batch insert lock sql string.
+        sql = MYSQL_LOCK_STORE.getBatchInsertLockSql("lock_table", 2);
+        Assertions.assertEquals("insert into lock_table(xid, transaction_id, branch_id, resource_id, table_name, pk, row_key, gmt_create, "
+            + "gmt_modified) values (?, ?, ?, ?, ?, ?, ?, now(), now()), (?, ?, ?, ?, ?, ?, ?, now(), now())", sql);
+
     }
 
     @Test
@@ -131,6 +136,13 @@ public class LockStoreSqlFactoryTest {
         Assertions.assertNotNull(sql);
         sql = ORACLE_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, "1");
         Assertions.assertNotNull(sql);
+
+        // Get batch insert lock sql string.
+        sql = ORACLE_LOCK_STORE.getBatchInsertLockSql("lock_table", 2);
+        Assertions.assertEquals("insert all into lock_table(xid, transaction_id, branch_id, resource_id, table_name, pk, row_key, "
+            + "gmt_create, gmt_modified) values (?, ?, ?, ?, ?, ?, ?, sysdate, sysdate) into lock_table(xid, "
+            + "transaction_id, branch_id, resource_id, table_name, pk, row_key, gmt_create, gmt_modified) values "
+            + "(?, ?, ?, ?, ?, ?, ?, sysdate, sysdate) select 1 from dual", sql);
     }
 
     @Test
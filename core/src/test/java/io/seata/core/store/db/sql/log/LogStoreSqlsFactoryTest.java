@@ -52,6 +52,17 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = mysqlLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = mysqlLog.getQueryGlobalTransactionSQLByStatusAfter(globalTable, "1");
+        Assertions.assertNotNull(sql);
+        sql = mysqlLog.getQueryGlobalTransactionSQLByStatusAfter(globalTable, "1", false, 2);
+        Assertions.assertTrue(sql.contains("(transaction_id between ? and ? or transaction_id between ? and ?)"));
+        Assertions.assertFalse(sql.contains("gmt_modified > ?"));
+        sql = mysqlLog.getUpdateNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = mysqlLog.getInsertNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = mysqlLog.getQueryNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
         sql = mysqlLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = mysqlLog.getInsertBranchTransactionSQL(branchTable);
@@ -87,6 +98,14 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = oracleLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = oracleLog.getQueryGlobalTransactionSQLByStatusAfter(globalTable, "1");
+        Assertions.assertNotNull(sql);
+        sql = oracleLog.getUpdateNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = oracleLog.getInsertNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = oracleLog.getQueryNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
         sql = oracleLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = oracleLog.getInsertBranchTransactionSQL(branchTable);
@@ -122,6 +141,14 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = pgLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = pgLog.getQueryGlobalTransactionSQLByStatusAfter(globalTable, "1");
+        Assertions.assertNotNull(sql);
+        sql = pgLog.getUpdateNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = pgLog.getInsertNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = pgLog.getQueryNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
         sql = pgLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = pgLog.getInsertBranchTransactionSQL(branchTable);
@@ -157,6 +184,14 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = h2Log.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = h2Log.getQueryGlobalTransactionSQLByStatusAfter(globalTable, "1");
+        Assertions.assertNotNull(sql);
+        sql = h2Log.getUpdateNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = h2Log.getInsertNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
+        sql = h2Log.getQueryNodeHeartbeatSQL("node_table");
+        Assertions.assertNotNull(sql);
         sql = h2Log.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = h2Log.getInsertBranchTransactionSQL(branchTable);
@@ -37,6 +37,8 @@ public interface IdConstants {
 
     String STATUS_KEY = "status";
 
+    String RESULT_KEY = "result";
+
     String ROLE_VALUE_TC = "tc";
 
     String ROLE_VALUE_TM = "tm";
@@ -66,4 +68,30 @@ public interface IdConstants {
     String STATUS_VALUE_COMMITTED = "committed";
 
     String STATUS_VALUE_ROLLBACKED = "rollbacked";
+
+    String STATUS_VALUE_RETRY_COMMITTING = "retryCommitting";
+
+    String STATUS_VALUE_RETRY_ROLLBACKING = "retryRollbacking";
+
+    String STATUS_VALUE_ASYNC_COMMITTING = "asyncCommitting";
+
+    String STATUS_VALUE_CIRCUIT_OPEN = "circuitOpen";
+
+    String STATUS_VALUE_FILE_FSYNC = "fileFsync";
+
+    String STATUS_VALUE_FILE_GROUP_COMMIT = "fileGroupCommit";
+
+    String STATUS_VALUE_SESSION_RELOAD = "sessionReload";
+
+    String STATUS_VALUE_LOCK_WAIT = "lockWait";
+
+    String STATUS_VALUE_LOCK_DEADLOCK = "lockDeadlock";
+
+    String STATUS_VALUE_LOCK_ESCALATION = "lockEscalation";
+
+    String STATUS_VALUE_DB_GROUP_COMMIT = "dbGroupCommit";
+
+    String RESULT_VALUE_SUCCESS = "success";
+
+    String RESULT_VALUE_FAILED = "failed";
 }
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 
@@ -65,6 +66,11 @@ public class ConnectionContext {
 
     private final List<Savepoint> savepoints = new ArrayList<>(8);
 
+    /**
+     * the number of the rows of every table locked by the branch, to escalate the lock to the whole table
+     */
+    private final Map<String, Integer> lockRowCounts = new HashMap<>();
+
     /**
      * whether requires global lock in this connection
      *
@@ -92,6 +98,27 @@ public class ConnectionContext {
         lockKeysBuffer.computeIfAbsent(currentSavepoint, k -> new HashSet<>()).add(lockKey);
     }
 
+    /**
+     * Count the rows of a table locked by a statement of the branch.
+     *
+     * @param tableName the table name
+     * @param rows      the number of the rows
+     */
+    public void addLockRows(String tableName, int rows) {
+        lockRowCounts.merge(tableName, rows, Integer::sum);
+    }
+
+    /**
+     * Gets the number of the rows of a table locked by the branch so far, the rows locked by the statements rolled back
+     * to a savepoint are still counted.
+     *
+     * @param tableName the table name
+     * @return the number of the rows
+     */
+    public int getLockRows(String tableName) {
+        return lockRowCounts.getOrDefault(tableName, 0);
+    }
+
     /**
      * Append undo item.
      *
@@ -277,6 +304,7 @@ public class ConnectionContext {
         savepoints.clear();
         lockKeysBuffer.clear();
         sqlUndoItemsBuffer.clear();
+        lockRowCounts.clear();
         this.autoCommitChanged = false;
     }
 
@@ -297,6 +325,18 @@ public class ConnectionContext {
         if (lockKeysBufferSet.isEmpty()) {
             return null;
         }
+        // the rows of a table escalated to the lock of the whole table by a later statement are not sent
+        Set<String> tableLockKeys = new HashSet<>();
+        for (String lockKey : lockKeysBufferSet) {
+            // the lock key of the whole table has no pk
+            if (lockKey.indexOf(':') == lockKey.length() - 1) {
+                tableLockKeys.add(lockKey);
+            }
+        }
+        if (!tableLockKeys.isEmpty()) {
+            lockKeysBufferSet.removeIf(lockKey -> !tableLockKeys.contains(lockKey) && tableLockKeys.contains(
+                lockKey.substring(0, lockKey.indexOf(':') + 1)));
+        }
 
         StringBuilder appender = new StringBuilder();
         Iterator<String> iterable = lockKeysBufferSet.iterator();
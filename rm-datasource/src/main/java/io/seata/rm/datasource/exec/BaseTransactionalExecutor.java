@@ -24,12 +24,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import io.seata.common.DefaultValues;
 import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.IOUtil;
 import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.rm.datasource.ColumnUtils;
+import io.seata.rm.datasource.ConnectionContext;
 import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.SqlGenerateUtils;
 import io.seata.rm.datasource.StatementProxy;
@@ -52,6 +56,13 @@ import io.seata.sqlparser.WhereRecognizer;
  */
 public abstract class BaseTransactionalExecutor<T, S extends Statement> implements Executor<T> {
 
+    /**
+     * the number of the rows of a table locked by a branch over which the lock of the whole table is taken, never if it
+     * is not positive
+     */
+    private static final int LOCK_ESCALATION_THRESHOLD = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.CLIENT_LOCK_ESCALATION_THRESHOLD, DefaultValues.DEFAULT_CLIENT_LOCK_ESCALATION_THRESHOLD);
+
     /**
      * The Statement proxy.
      */
@@ -280,6 +291,8 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         String lockKeys = buildLockKey(lockKeyRecords);
         if (null != lockKeys) {
             connectionProxy.appendLockKey(lockKeys);
+            connectionProxy.getContext().addLockRows(lockKeyRecords.getTableMeta().getTableName(),
+                lockKeyRecords.size());
 
             SQLUndoLog sqlUndoLog = buildUndoItem(beforeImage, afterImage);
             connectionProxy.appendUndoLog(sqlUndoLog);
@@ -290,7 +303,8 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
      * build lockKey
      *
      * @param rowsIncludingPK the records
-     * @return the string as local key. the local key example(multi pk): "t_user:1_a,2_b"
+     * @return the string as local key. the local key example(multi pk): "t_user:1_a,2_b", the lock key of the whole
+     * table has no pk: "t_user:"
      */
     protected String buildLockKey(TableRecords rowsIncludingPK) {
         if (rowsIncludingPK.size() == 0) {
@@ -298,8 +312,13 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         }
 
         StringBuilder sb = new StringBuilder();
-        sb.append(rowsIncludingPK.getTableMeta().getTableName());
+        String tableName = rowsIncludingPK.getTableMeta().getTableName();
+        sb.append(tableName);
         sb.append(":");
+        if (isLockEscalated(tableName, rowsIncludingPK.size())) {
+            // too many rows, lock the whole table rather than sending every pk to the TC
+            return sb.toString();
+        }
         int filedSequence = 0;
         List<Map<String, Field>> pksRows = rowsIncludingPK.pkRows();
         List<String> primaryKeysOnlyName = getTableMeta().getPrimaryKeyOnlyName();
@@ -320,6 +339,22 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         return sb.toString();
     }
 
+    /**
+     * Whether to lock the whole table, the rows of the table locked by the branch so far are counted together with the
+     * rows of this statement.
+     *
+     * @param tableName the table name
+     * @param rows      the number of the rows of this statement
+     * @return true if the rows are more than the escalation threshold
+     */
+    protected boolean isLockEscalated(String tableName, int rows) {
+        if (LOCK_ESCALATION_THRESHOLD <= 0) {
+            return false;
+        }
+        ConnectionContext context = statementProxy.getConnectionProxy().getContext();
+        return context.getLockRows(tableName) + rows > LOCK_ESCALATION_THRESHOLD;
+    }
+
     /**
      * build a SQLUndoLog
      *
@@ -127,6 +127,7 @@ public class MySQLInsertOrUpdateExecutor extends MySQLInsertExecutor implements
         TableRecords lockKeyRecords = afterImage;
         String lockKeys = buildLockKey(lockKeyRecords);
         connectionProxy.appendLockKey(lockKeys);
+        connectionProxy.getContext().addLockRows(lockKeyRecords.getTableMeta().getTableName(), lockKeyRecords.size());
         buildUndoItemAll(connectionProxy, beforeImage, afterImage);
     }
 
@@ -43,6 +43,27 @@ public class ConnectionContextProxyTest {
         Assertions.assertEquals(connectionContext.buildLockKeys(), "bcd;abc");
     }
 
+    @Test
+    public void testBuildEscalatedLockKeys() {
+        connectionContext.appendLockKey("t_order:1,2");
+        connectionContext.addLockRows("t_order", 2);
+        connectionContext.appendLockKey("t_stock:1");
+        connectionContext.addLockRows("t_stock", 1);
+        connectionContext.appendLockKey("t_order:");
+        connectionContext.addLockRows("t_order", 100);
+        Assertions.assertEquals(102, connectionContext.getLockRows("t_order"));
+        Assertions.assertEquals(1, connectionContext.getLockRows("t_stock"));
+
+        // the rows of the escalated table are covered by the table lock
+        String lockKeys = connectionContext.buildLockKeys();
+        Assertions.assertEquals(2, lockKeys.split(";").length);
+        Assertions.assertTrue(lockKeys.contains("t_order:"));
+        Assertions.assertTrue(lockKeys.contains("t_stock:1"));
+
+        connectionContext.reset();
+        Assertions.assertEquals(0, connectionContext.getLockRows("t_order"));
+    }
+
     @Test
     public void testAppendUndoItem() {
         SQLUndoLog sqlUndoLog = new SQLUndoLog();
@@ -14,7 +14,7 @@ CREATE TABLE IF NOT EXISTS `global_table`
     `gmt_create`                DATETIME,
     `gmt_modified`              DATETIME,
     PRIMARY KEY (`xid`),
-    KEY `idx_gmt_modified_status` (`gmt_modified`, `status`),
+    KEY `idx_status_gmt_modified` (`status`, `gmt_modified`),
     KEY `idx_transaction_id` (`transaction_id`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
@@ -51,6 +51,16 @@ CREATE TABLE IF NOT EXISTS `lock_table`
     `gmt_create`     DATETIME,
     `gmt_modified`   DATETIME,
     PRIMARY KEY (`row_key`),
-    KEY `idx_branch_id` (`branch_id`)
+    KEY `idx_branch_id` (`branch_id`),
+    KEY `idx_resource_id_table_name` (`resource_id`, `table_name`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
+-- the table to store the heartbeats of the server nodes
+CREATE TABLE IF NOT EXISTS `node_table`
+(
+    `node_id`        BIGINT NOT NULL,
+    `heartbeat_time` BIGINT NOT NULL,
+    PRIMARY KEY (`node_id`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
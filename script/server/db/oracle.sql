@@ -16,7 +16,7 @@ CREATE TABLE global_table
     PRIMARY KEY (xid)
 );
 
-CREATE INDEX idx_gmt_modified_status ON global_table (gmt_modified, status);
+CREATE INDEX idx_status_gmt_modified ON global_table (status, gmt_modified);
 CREATE INDEX idx_transaction_id ON global_table (transaction_id);
 
 -- the table to store BranchSession data
@@ -53,4 +53,13 @@ CREATE TABLE lock_table
     PRIMARY KEY (row_key)
 );
 
-CREATE INDEX idx_branch_id ON lock_table (branch_id);
\ No newline at end of file
+CREATE INDEX idx_branch_id ON lock_table (branch_id);
+CREATE INDEX idx_resource_id_table_name ON lock_table (resource_id, table_name);
+
+-- the table to store the heartbeats of the server nodes
+CREATE TABLE node_table
+(
+    node_id        NUMBER(19) NOT NULL,
+    heartbeat_time NUMBER(19) NOT NULL,
+    PRIMARY KEY (node_id)
+);
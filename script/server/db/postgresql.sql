@@ -16,7 +16,7 @@ CREATE TABLE IF NOT EXISTS public.global_table
     CONSTRAINT pk_global_table PRIMARY KEY (xid)
 );
 
-CREATE INDEX idx_gmt_modified_status ON public.global_table (gmt_modified, status);
+CREATE INDEX idx_status_gmt_modified ON public.global_table (status, gmt_modified);
 CREATE INDEX idx_transaction_id ON public.global_table (transaction_id);
 
 -- the table to store BranchSession data
@@ -54,3 +54,12 @@ CREATE TABLE IF NOT EXISTS public.lock_table
 );
 
 CREATE INDEX idx_branch_id ON public.lock_table (branch_id);
+CREATE INDEX idx_resource_id_table_name ON public.lock_table (resource_id, table_name);
+
+-- the table to store the heartbeats of the server nodes
+CREATE TABLE IF NOT EXISTS public.node_table
+(
+    node_id        BIGINT NOT NULL,
+    heartbeat_time BIGINT NOT NULL,
+    CONSTRAINT pk_node_table PRIMARY KEY (node_id)
+);
@@ -0,0 +1,3 @@
+-- -------------------------------- The script used to upgrade the tables of the db store to 1.5.0 --------------------------------
+-- the index to find the rows of a table when it is locked as a whole
+CREATE INDEX IF NOT EXISTS idx_resource_id_table_name ON public.lock_table (resource_id, table_name);
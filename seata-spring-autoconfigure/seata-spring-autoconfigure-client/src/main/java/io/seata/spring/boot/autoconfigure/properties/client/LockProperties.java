@@ -18,6 +18,7 @@ package io.seata.spring.boot.autoconfigure.properties.client;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_ESCALATION_THRESHOLD;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
@@ -32,6 +33,7 @@ public class LockProperties {
     private int retryInterval = DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
     private int retryTimes = DEFAULT_CLIENT_LOCK_RETRY_TIMES;
     private boolean retryPolicyBranchRollbackOnConflict = DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+    private int escalationThreshold = DEFAULT_CLIENT_LOCK_ESCALATION_THRESHOLD;
 
     public int getRetryInterval() {
         return retryInterval;
@@ -59,4 +61,13 @@ public class LockProperties {
         this.retryPolicyBranchRollbackOnConflict = retryPolicyBranchRollbackOnConflict;
         return this;
     }
+
+    public int getEscalationThreshold() {
+        return escalationThreshold;
+    }
+
+    public LockProperties setEscalationThreshold(int escalationThreshold) {
+        this.escalationThreshold = escalationThreshold;
+        return this;
+    }
 }
@@ -74,6 +74,7 @@ public interface StarterConstants {
     String STORE_REDIS_PREFIX = STORE_PREFIX + ".redis";
     String STORE_REDIS_SINGLE_PREFIX = STORE_REDIS_PREFIX + ".single";
     String STORE_REDIS_SENTINEL_PREFIX = STORE_REDIS_PREFIX + ".sentinel";
+    String STORE_RAFT_PREFIX = STORE_PREFIX + ".raft";
 
 
     int MAP_CAPACITY = 64;
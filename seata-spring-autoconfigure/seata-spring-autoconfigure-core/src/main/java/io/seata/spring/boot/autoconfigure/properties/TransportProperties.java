@@ -19,6 +19,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSPORT_HEARTBEAT;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.TRANSPORT_PREFIX;
 
@@ -54,6 +55,11 @@ public class TransportProperties {
      */
     private boolean enableClientBatchSendRequest = DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 
+    /**
+     * enable tc server batch send request
+     */
+    private boolean enableTcServerBatchSendRequest = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+
     public String getType() {
         return type;
     }
@@ -107,4 +113,13 @@ public class TransportProperties {
         this.enableClientBatchSendRequest = enableClientBatchSendRequest;
         return this;
     }
+
+    public boolean isEnableTcServerBatchSendRequest() {
+        return enableTcServerBatchSendRequest;
+    }
+
+    public TransportProperties setEnableTcServerBatchSendRequest(boolean enableTcServerBatchSendRequest) {
+        this.enableTcServerBatchSendRequest = enableTcServerBatchSendRequest;
+        return this;
+    }
 }
@@ -22,6 +22,7 @@ import io.seata.spring.boot.autoconfigure.properties.server.ServerUndoProperties
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreDBProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreFileProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreProperties;
+import io.seata.spring.boot.autoconfigure.properties.server.store.StoreRaftProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreRedisProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.ComponentScan;
@@ -41,6 +42,7 @@ import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_DB_PREFI
 import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_REDIS_PREFIX;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_REDIS_SINGLE_PREFIX;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_REDIS_SENTINEL_PREFIX;
+import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_RAFT_PREFIX;
 
 
 /**
@@ -64,5 +66,6 @@ public class SeataServerPropertiesAutoConfiguration {
         PROPERTY_BEAN_MAP.put(STORE_REDIS_PREFIX, StoreRedisProperties.class);
         PROPERTY_BEAN_MAP.put(STORE_REDIS_SINGLE_PREFIX, StoreRedisProperties.Single.class);
         PROPERTY_BEAN_MAP.put(STORE_REDIS_SENTINEL_PREFIX, StoreRedisProperties.Sentinel.class);
+        PROPERTY_BEAN_MAP.put(STORE_RAFT_PREFIX, StoreRaftProperties.class);
     }
 }
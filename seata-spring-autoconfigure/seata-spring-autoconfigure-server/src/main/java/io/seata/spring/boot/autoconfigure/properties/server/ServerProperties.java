@@ -33,6 +33,11 @@ public class ServerProperties {
     private Boolean rollbackRetryTimeoutUnlockEnable = false;
     private Boolean enableCheckAuth = true;
     private Integer retryDeadThreshold = 130000;
+    private Boolean enableParallelPhaseTwo = false;
+    private Integer parallelPhaseTwoThreadSize = 64;
+    private Long lockWaitTimeout = 0L;
+    private Integer eventBusBufferSize = 16384;
+    private String eventBusOverflowPolicy = "drop";
 
     public Duration getMaxCommitRetryTimeout() {
         return maxCommitRetryTimeout;
@@ -78,4 +83,49 @@ public class ServerProperties {
         this.retryDeadThreshold = retryDeadThreshold;
         return this;
     }
+
+    public Boolean getEnableParallelPhaseTwo() {
+        return enableParallelPhaseTwo;
+    }
+
+    public ServerProperties setEnableParallelPhaseTwo(Boolean enableParallelPhaseTwo) {
+        this.enableParallelPhaseTwo = enableParallelPhaseTwo;
+        return this;
+    }
+
+    public Integer getParallelPhaseTwoThreadSize() {
+        return parallelPhaseTwoThreadSize;
+    }
+
+    public ServerProperties setParallelPhaseTwoThreadSize(Integer parallelPhaseTwoThreadSize) {
+        this.parallelPhaseTwoThreadSize = parallelPhaseTwoThreadSize;
+        return this;
+    }
+
+    public Long getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    public ServerProperties setLockWaitTimeout(Long lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+        return this;
+    }
+
+    public Integer getEventBusBufferSize() {
+        return eventBusBufferSize;
+    }
+
+    public ServerProperties setEventBusBufferSize(Integer eventBusBufferSize) {
+        this.eventBusBufferSize = eventBusBufferSize;
+        return this;
+    }
+
+    public String getEventBusOverflowPolicy() {
+        return eventBusOverflowPolicy;
+    }
+
+    public ServerProperties setEventBusOverflowPolicy(String eventBusOverflowPolicy) {
+        this.eventBusOverflowPolicy = eventBusOverflowPolicy;
+        return this;
+    }
 }
@@ -30,6 +30,16 @@ public class ServerRecoveryProperties {
     private Integer asynCommittingRetryPeriod = 1000;
     private Integer rollbackingRetryPeriod = 1000;
     private Integer timeoutRetryPeriod = 1000;
+    private Integer phaseTwoWorkerSize = 8;
+    private Integer phaseTwoQueueSize = 10000;
+    private Integer timeoutFullScanPeriod = -1;
+    private Integer retryBackoffBaseMills = 0;
+    private Integer retryBackoffMaxMills = 60000;
+    private Integer circuitBreakerFailureThreshold = 0;
+    private Integer circuitBreakerOpenMills = 10000;
+    private Boolean partitionEnable = false;
+    private Integer heartbeatPeriod = 5000;
+    private Integer heartbeatTimeout = 15000;
 
     public Integer getCommittingRetryPeriod() {
         return committingRetryPeriod;
@@ -66,4 +76,94 @@ public class ServerRecoveryProperties {
         this.timeoutRetryPeriod = timeoutRetryPeriod;
         return this;
     }
+
+    public Integer getPhaseTwoWorkerSize() {
+        return phaseTwoWorkerSize;
+    }
+
+    public ServerRecoveryProperties setPhaseTwoWorkerSize(Integer phaseTwoWorkerSize) {
+        this.phaseTwoWorkerSize = phaseTwoWorkerSize;
+        return this;
+    }
+
+    public Integer getPhaseTwoQueueSize() {
+        return phaseTwoQueueSize;
+    }
+
+    public ServerRecoveryProperties setPhaseTwoQueueSize(Integer phaseTwoQueueSize) {
+        this.phaseTwoQueueSize = phaseTwoQueueSize;
+        return this;
+    }
+
+    public Integer getTimeoutFullScanPeriod() {
+        return timeoutFullScanPeriod;
+    }
+
+    public ServerRecoveryProperties setTimeoutFullScanPeriod(Integer timeoutFullScanPeriod) {
+        this.timeoutFullScanPeriod = timeoutFullScanPeriod;
+        return this;
+    }
+
+    public Integer getRetryBackoffBaseMills() {
+        return retryBackoffBaseMills;
+    }
+
+    public ServerRecoveryProperties setRetryBackoffBaseMills(Integer retryBackoffBaseMills) {
+        this.retryBackoffBaseMills = retryBackoffBaseMills;
+        return this;
+    }
+
+    public Integer getRetryBackoffMaxMills() {
+        return retryBackoffMaxMills;
+    }
+
+    public ServerRecoveryProperties setRetryBackoffMaxMills(Integer retryBackoffMaxMills) {
+        this.retryBackoffMaxMills = retryBackoffMaxMills;
+        return this;
+    }
+
+    public Integer getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public ServerRecoveryProperties setCircuitBreakerFailureThreshold(Integer circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+        return this;
+    }
+
+    public Integer getCircuitBreakerOpenMills() {
+        return circuitBreakerOpenMills;
+    }
+
+    public ServerRecoveryProperties setCircuitBreakerOpenMills(Integer circuitBreakerOpenMills) {
+        this.circuitBreakerOpenMills = circuitBreakerOpenMills;
+        return this;
+    }
+
+    public Boolean getPartitionEnable() {
+        return partitionEnable;
+    }
+
+    public ServerRecoveryProperties setPartitionEnable(Boolean partitionEnable) {
+        this.partitionEnable = partitionEnable;
+        return this;
+    }
+
+    public Integer getHeartbeatPeriod() {
+        return heartbeatPeriod;
+    }
+
+    public ServerRecoveryProperties setHeartbeatPeriod(Integer heartbeatPeriod) {
+        this.heartbeatPeriod = heartbeatPeriod;
+        return this;
+    }
+
+    public Integer getHeartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    public ServerRecoveryProperties setHeartbeatTimeout(Integer heartbeatTimeout) {
+        this.heartbeatTimeout = heartbeatTimeout;
+        return this;
+    }
 }
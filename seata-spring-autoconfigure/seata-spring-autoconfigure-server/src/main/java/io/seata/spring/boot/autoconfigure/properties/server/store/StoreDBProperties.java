@@ -37,8 +37,13 @@ public class StoreDBProperties {
     private String globalTable = "global_table";
     private String branchTable = "branch_table";
     private String lockTable = "lock_table";
+    private String nodeTable = "node_table";
+    private String lockAcquireMode = "query";
     private Integer queryLimit = 100;
     private Integer maxWait = 5000;
+    private Boolean groupCommitEnable = false;
+    private Integer groupCommitMaxSize = 128;
+    private Long groupCommitMaxDelayMills = 0L;
 
     public String getDatasource() {
         return datasource;
@@ -139,6 +144,24 @@ public class StoreDBProperties {
         return this;
     }
 
+    public String getNodeTable() {
+        return nodeTable;
+    }
+
+    public StoreDBProperties setNodeTable(String nodeTable) {
+        this.nodeTable = nodeTable;
+        return this;
+    }
+
+    public String getLockAcquireMode() {
+        return lockAcquireMode;
+    }
+
+    public StoreDBProperties setLockAcquireMode(String lockAcquireMode) {
+        this.lockAcquireMode = lockAcquireMode;
+        return this;
+    }
+
     public Integer getQueryLimit() {
         return queryLimit;
     }
@@ -156,4 +179,31 @@ public class StoreDBProperties {
         this.maxWait = maxWait;
         return this;
     }
+
+    public Boolean getGroupCommitEnable() {
+        return groupCommitEnable;
+    }
+
+    public StoreDBProperties setGroupCommitEnable(Boolean groupCommitEnable) {
+        this.groupCommitEnable = groupCommitEnable;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxSize() {
+        return groupCommitMaxSize;
+    }
+
+    public StoreDBProperties setGroupCommitMaxSize(Integer groupCommitMaxSize) {
+        this.groupCommitMaxSize = groupCommitMaxSize;
+        return this;
+    }
+
+    public Long getGroupCommitMaxDelayMills() {
+        return groupCommitMaxDelayMills;
+    }
+
+    public StoreDBProperties setGroupCommitMaxDelayMills(Long groupCommitMaxDelayMills) {
+        this.groupCommitMaxDelayMills = groupCommitMaxDelayMills;
+        return this;
+    }
 }
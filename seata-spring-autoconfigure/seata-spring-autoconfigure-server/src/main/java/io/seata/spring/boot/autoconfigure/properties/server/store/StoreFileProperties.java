@@ -31,7 +31,13 @@ public class StoreFileProperties {
     private Integer maxGlobalSessionSize = 512;
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = 100;
+    private Integer sessionReloadParallelism = 0;
     private String flushDiskMode = "async";
+    private Integer groupCommitMaxSize = 128;
+    private Integer groupCommitMaxDelayMills = 0;
+    private Boolean segmentedLog = false;
+    private Integer segmentSize = 67108864;
+    private Long checkpointIntervalMills = 60000L;
 
     public String getDir() {
         return dir;
@@ -78,6 +84,15 @@ public class StoreFileProperties {
         return this;
     }
 
+    public Integer getSessionReloadParallelism() {
+        return sessionReloadParallelism;
+    }
+
+    public StoreFileProperties setSessionReloadParallelism(Integer sessionReloadParallelism) {
+        this.sessionReloadParallelism = sessionReloadParallelism;
+        return this;
+    }
+
     public String getFlushDiskMode() {
         return flushDiskMode;
     }
@@ -86,4 +101,49 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Integer getGroupCommitMaxSize() {
+        return groupCommitMaxSize;
+    }
+
+    public StoreFileProperties setGroupCommitMaxSize(Integer groupCommitMaxSize) {
+        this.groupCommitMaxSize = groupCommitMaxSize;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxDelayMills() {
+        return groupCommitMaxDelayMills;
+    }
+
+    public StoreFileProperties setGroupCommitMaxDelayMills(Integer groupCommitMaxDelayMills) {
+        this.groupCommitMaxDelayMills = groupCommitMaxDelayMills;
+        return this;
+    }
+
+    public Boolean getSegmentedLog() {
+        return segmentedLog;
+    }
+
+    public StoreFileProperties setSegmentedLog(Boolean segmentedLog) {
+        this.segmentedLog = segmentedLog;
+        return this;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public StoreFileProperties setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public Long getCheckpointIntervalMills() {
+        return checkpointIntervalMills;
+    }
+
+    public StoreFileProperties setCheckpointIntervalMills(Long checkpointIntervalMills) {
+        this.checkpointIntervalMills = checkpointIntervalMills;
+        return this;
+    }
 }
@@ -29,7 +29,7 @@ import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_LOCK_PRE
 @ConfigurationProperties(prefix = STORE_PREFIX)
 public class StoreProperties {
     /**
-     * file, db, redis
+     * file, db, redis, raft
      */
     private String mode = "file";
 
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.spring.boot.autoconfigure.properties.server.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_RAFT_PREFIX;
+
+/**
+ * @since 1.5.0
+ */
+@Component
+@ConfigurationProperties(prefix = STORE_RAFT_PREFIX)
+public class StoreRaftProperties {
+    /**
+     * the raft addresses of all the servers of the cluster, separated by commas
+     */
+    private String serverAddr;
+    /**
+     * the raft address of this server, one of the server addresses
+     */
+    private String nodeAddr;
+    private Long electionTimeout = 1000L;
+    private Long writeTimeout = 3000L;
+    private Integer snapshotLogSize = 10000;
+
+    public String getServerAddr() {
+        return serverAddr;
+    }
+
+    public StoreRaftProperties setServerAddr(String serverAddr) {
+        this.serverAddr = serverAddr;
+        return this;
+    }
+
+    public String getNodeAddr() {
+        return nodeAddr;
+    }
+
+    public StoreRaftProperties setNodeAddr(String nodeAddr) {
+        this.nodeAddr = nodeAddr;
+        return this;
+    }
+
+    public Long getElectionTimeout() {
+        return electionTimeout;
+    }
+
+    public StoreRaftProperties setElectionTimeout(Long electionTimeout) {
+        this.electionTimeout = electionTimeout;
+        return this;
+    }
+
+    public Long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public StoreRaftProperties setWriteTimeout(Long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+        return this;
+    }
+
+    public Integer getSnapshotLogSize() {
+        return snapshotLogSize;
+    }
+
+    public StoreRaftProperties setSnapshotLogSize(Integer snapshotLogSize) {
+        this.snapshotLogSize = snapshotLogSize;
+        return this;
+    }
+}
@@ -22,6 +22,7 @@ import io.seata.spring.boot.autoconfigure.properties.server.ServerUndoProperties
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreDBProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreFileProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreProperties;
+import io.seata.spring.boot.autoconfigure.properties.server.store.StoreRaftProperties;
 import io.seata.spring.boot.autoconfigure.properties.server.store.StoreRedisProperties;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -95,6 +96,11 @@ public class ServerPropertiesTest {
         assertEquals(context.getBean(StoreRedisProperties.Sentinel.class).getSentinelHosts(), "");
     }
 
+    @Test
+    public void testStoreRaftProperties() {
+        assertEquals(context.getBean(StoreRaftProperties.class).getElectionTimeout(), 1000L);
+    }
+
     @AfterAll
     public static void closeContext() {
         context.close();
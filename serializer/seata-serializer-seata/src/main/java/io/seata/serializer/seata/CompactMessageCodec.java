@@ -0,0 +1,48 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.serializer.StringDictionary;
+
+/**
+ * The codec of a message also encoding it compact for protocol v2, the repeated strings by the dictionary of the
+ * connection and the numbers as var ints.
+ *
+ * @since 1.5.0
+ */
+public interface CompactMessageCodec extends MessageSeataCodec {
+
+    /**
+     * Encode compact.
+     *
+     * @param <T>        the type parameter
+     * @param t          the t
+     * @param out        the out
+     * @param dictionary the dictionary of the strings written to the connection
+     */
+    <T> void encode(T t, ByteBuf out, StringDictionary dictionary);
+
+    /**
+     * Decode compact.
+     *
+     * @param <T>        the type parameter
+     * @param t          the t
+     * @param in         the in
+     * @param dictionary the dictionary of the strings read from the connection
+     */
+    <T> void decode(T t, ByteBuf in, StringDictionary dictionary);
+}
@@ -15,9 +15,12 @@
  */
 package io.seata.serializer.seata;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
+import io.netty.buffer.ByteBuf;
+
 import io.seata.serializer.seata.protocol.MergeResultMessageCodec;
 import io.seata.serializer.seata.protocol.MergedWarpMessageCodec;
 import io.seata.serializer.seata.protocol.RegisterRMRequestCodec;
@@ -74,6 +77,8 @@ import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
 
 /**
  * The type Message codec factory.
@@ -87,6 +92,16 @@ public class MessageCodecFactory {
      */
     protected static final Charset UTF8 = StandardCharsets.UTF_8;
 
+    /**
+     * The flag of a message encoded by its compact codec.
+     */
+    private static final byte COMPACT = 1;
+
+    /**
+     * The flag of a message encoded by its codec, which has no compact format.
+     */
+    private static final byte NOT_COMPACT = 0;
+
     /**
      * Get message codec message codec.
      *
@@ -343,4 +358,48 @@ public class MessageCodecFactory {
         }
     }
 
+    /**
+     * Encode the message with its type code in the compact format of protocol v2, by the compact codec of the type if
+     * any, or by its codec otherwise.
+     *
+     * @param message    the message
+     * @param out        the out
+     * @param dictionary the dictionary of the strings written to the connection
+     */
+    public static void encodeCompact(AbstractMessage message, ByteBuf out, StringDictionary dictionary) {
+        short typeCode = message.getTypeCode();
+        MessageSeataCodec messageCodec = getMessageCodec(typeCode);
+        VarIntUtil.writeVarInt(out, typeCode);
+        if (messageCodec instanceof CompactMessageCodec) {
+            out.writeByte(COMPACT);
+            ((CompactMessageCodec) messageCodec).encode(message, out, dictionary);
+        } else {
+            out.writeByte(NOT_COMPACT);
+            messageCodec.encode(message, out);
+        }
+    }
+
+    /**
+     * Decode a message encoded by {@link #encodeCompact}.
+     *
+     * @param in         the in
+     * @param dictionary the dictionary of the strings read from the connection
+     * @return the message
+     */
+    public static AbstractMessage decodeCompact(ByteBuf in, StringDictionary dictionary) {
+        short typeCode = (short) VarIntUtil.readVarInt(in);
+        AbstractMessage message = getMessage(typeCode);
+        MessageSeataCodec messageCodec = getMessageCodec(typeCode);
+        if (in.readByte() == COMPACT) {
+            ((CompactMessageCodec) messageCodec).decode(message, in, dictionary);
+        } else {
+            // the codec reads a view of the rest, and the bytes it reads are skipped
+            ByteBuffer body = in.nioBuffer();
+            int start = body.position();
+            messageCodec.decode(message, body);
+            in.skipBytes(body.position() - start);
+        }
+        return message;
+    }
+
 }
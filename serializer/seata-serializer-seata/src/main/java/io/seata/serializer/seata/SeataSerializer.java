@@ -19,7 +19,9 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.protocol.AbstractMessage;
-import io.seata.core.serializer.Serializer;
+import io.seata.core.serializer.DictionarySerializer;
+import io.seata.core.serializer.StreamingSerializer;
+import io.seata.core.serializer.StringDictionary;
 
 import java.nio.ByteBuffer;
 
@@ -29,7 +31,7 @@ import java.nio.ByteBuffer;
  * @author zhangsen
  */
 @LoadLevel(name = "SEATA")
-public class SeataSerializer implements Serializer {
+public class SeataSerializer implements StreamingSerializer, DictionarySerializer {
 
     @Override
     public <T> byte[] serialize(T t) {
@@ -83,4 +85,54 @@ public class SeataSerializer implements Serializer {
         return (T)abstractMessage;
     }
 
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
+        if (t == null || !(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("AbstractMessage isn't available.");
+        }
+        AbstractMessage abstractMessage = (AbstractMessage)t;
+        //typecode
+        short typecode = abstractMessage.getTypeCode();
+        //msg codec
+        MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
+        //typecode + body, encoded right into the out
+        out.writeShort(typecode);
+        messageCodec.encode(t, out);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in) {
+        if (in.readableBytes() < 2) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        //typecode
+        short typecode = in.readShort();
+        //msg body, a view of the readable bytes without copy
+        ByteBuffer body = in.nioBuffer();
+        in.skipBytes(in.readableBytes());
+        //new Messgae
+        AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
+        //get messageCodec
+        MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
+        //decode
+        messageCodec.decode(abstractMessage, body);
+        return (T)abstractMessage;
+    }
+
+    @Override
+    public <T> void serialize(T t, ByteBuf out, StringDictionary dictionary) {
+        if (t == null || !(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("AbstractMessage isn't available.");
+        }
+        MessageCodecFactory.encodeCompact((AbstractMessage)t, out, dictionary);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, StringDictionary dictionary) {
+        if (!in.isReadable()) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        return (T)MessageCodecFactory.decodeCompact(in, dictionary);
+    }
+
 }
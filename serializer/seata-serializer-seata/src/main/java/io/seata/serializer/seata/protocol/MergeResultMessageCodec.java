@@ -23,13 +23,16 @@ import io.seata.serializer.seata.MessageSeataCodec;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Merge result message codec.
  *
  * @author zhangsen
  */
-public class MergeResultMessageCodec extends AbstractMessageCodec {
+public class MergeResultMessageCodec extends AbstractMessageCodec implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -98,4 +101,27 @@ public class MergeResultMessageCodec extends AbstractMessageCodec {
         mergeResultMessage.setMsgs(msgs);
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        MergeResultMessage mergeResultMessage = (MergeResultMessage)t;
+        AbstractResultMessage[] msgs = mergeResultMessage.getMsgs();
+
+        VarIntUtil.writeVarInt(out, msgs.length);
+        for (AbstractMessage msg : msgs) {
+            MessageCodecFactory.encodeCompact(msg, out, dictionary);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        MergeResultMessage mergeResultMessage = (MergeResultMessage)t;
+
+        int msgNum = VarIntUtil.readVarInt(in);
+        AbstractResultMessage[] msgs = new AbstractResultMessage[msgNum];
+        for (int idx = 0; idx < msgNum; idx++) {
+            msgs[idx] = (AbstractResultMessage)MessageCodecFactory.decodeCompact(in, dictionary);
+        }
+        mergeResultMessage.setMsgs(msgs);
+    }
+
 }
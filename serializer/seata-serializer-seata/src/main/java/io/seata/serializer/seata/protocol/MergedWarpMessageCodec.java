@@ -25,13 +25,16 @@ import io.seata.serializer.seata.MessageCodecFactory;
 import io.seata.serializer.seata.MessageSeataCodec;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Merged warp message codec.
  *
  * @author zhangsen
  */
-public class MergedWarpMessageCodec extends AbstractMessageCodec {
+public class MergedWarpMessageCodec extends AbstractMessageCodec implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -99,4 +102,27 @@ public class MergedWarpMessageCodec extends AbstractMessageCodec {
         mergedWarpMessage.msgs = msgs;
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        MergedWarpMessage mergedWarpMessage = (MergedWarpMessage)t;
+        List<AbstractMessage> msgs = mergedWarpMessage.msgs;
+
+        VarIntUtil.writeVarInt(out, msgs.size());
+        for (AbstractMessage msg : msgs) {
+            MessageCodecFactory.encodeCompact(msg, out, dictionary);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        MergedWarpMessage mergedWarpMessage = (MergedWarpMessage)t;
+
+        int msgNum = VarIntUtil.readVarInt(in);
+        List<AbstractMessage> msgs = new ArrayList<>(msgNum);
+        for (int idx = 0; idx < msgNum; idx++) {
+            msgs.add(MessageCodecFactory.decodeCompact(in, dictionary));
+        }
+        mergedWarpMessage.msgs = msgs;
+    }
+
 }
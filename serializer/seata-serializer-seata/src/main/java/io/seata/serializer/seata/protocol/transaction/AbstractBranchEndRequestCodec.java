@@ -20,13 +20,17 @@ import java.nio.ByteBuffer;
 import io.netty.buffer.ByteBuf;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Abstract branch end request codec.
  *
  * @author zhangsen
  */
-public abstract class AbstractBranchEndRequestCodec extends AbstractTransactionRequestToRMCodec {
+public abstract class AbstractBranchEndRequestCodec extends AbstractTransactionRequestToRMCodec
+    implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -139,4 +143,26 @@ public abstract class AbstractBranchEndRequestCodec extends AbstractTransactionR
         }
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        AbstractBranchEndRequest abstractBranchEndRequest = (AbstractBranchEndRequest)t;
+
+        dictionary.writeXid(out, abstractBranchEndRequest.getXid());
+        VarIntUtil.writeVarLong(out, abstractBranchEndRequest.getBranchId());
+        out.writeByte(abstractBranchEndRequest.getBranchType().ordinal());
+        dictionary.writeString(out, abstractBranchEndRequest.getResourceId());
+        StringDictionary.writeLiteral(out, abstractBranchEndRequest.getApplicationData());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        AbstractBranchEndRequest abstractBranchEndRequest = (AbstractBranchEndRequest)t;
+
+        abstractBranchEndRequest.setXid(dictionary.readXid(in));
+        abstractBranchEndRequest.setBranchId(VarIntUtil.readVarLong(in));
+        abstractBranchEndRequest.setBranchType(BranchType.get(in.readByte()));
+        abstractBranchEndRequest.setResourceId(dictionary.readString(in));
+        abstractBranchEndRequest.setApplicationData(dictionary.readString(in));
+    }
+
 }
@@ -20,13 +20,17 @@ import java.nio.ByteBuffer;
 import io.netty.buffer.ByteBuf;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.protocol.transaction.AbstractBranchEndResponse;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Abstract branch end response codec.
  *
  * @author zhangsen
  */
-public abstract class AbstractBranchEndResponseCodec extends AbstractTransactionResponseCodec {
+public abstract class AbstractBranchEndResponseCodec extends AbstractTransactionResponseCodec
+    implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -70,4 +74,24 @@ public abstract class AbstractBranchEndResponseCodec extends AbstractTransaction
         abstractBranchEndResponse.setBranchStatus(BranchStatus.get(in.get()));
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        AbstractBranchEndResponse abstractBranchEndResponse = (AbstractBranchEndResponse)t;
+        encodeCompactResult(abstractBranchEndResponse, out);
+
+        dictionary.writeXid(out, abstractBranchEndResponse.getXid());
+        VarIntUtil.writeVarLong(out, abstractBranchEndResponse.getBranchId());
+        out.writeByte(abstractBranchEndResponse.getBranchStatus().getCode());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        AbstractBranchEndResponse abstractBranchEndResponse = (AbstractBranchEndResponse)t;
+        decodeCompactResult(abstractBranchEndResponse, in, dictionary);
+
+        abstractBranchEndResponse.setXid(dictionary.readXid(in));
+        abstractBranchEndResponse.setBranchId(VarIntUtil.readVarLong(in));
+        abstractBranchEndResponse.setBranchStatus(BranchStatus.get(in.readByte()));
+    }
+
 }
@@ -21,6 +21,8 @@ import io.netty.buffer.ByteBuf;
 import io.seata.serializer.seata.protocol.AbstractResultMessageCodec;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.protocol.transaction.AbstractTransactionResponse;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.serializer.StringDictionary;
 
 /**
  * The type Abstract transaction response codec.
@@ -51,4 +53,36 @@ public abstract class AbstractTransactionResponseCodec extends AbstractResultMes
         abstractTransactionResponse.setTransactionExceptionCode(TransactionExceptionCode.get(out.get()));
     }
 
+    /**
+     * Encode the result of the response compact, for the compact codecs of the responses.
+     *
+     * @param abstractTransactionResponse the response
+     * @param out                         the out
+     */
+    protected void encodeCompactResult(AbstractTransactionResponse abstractTransactionResponse, ByteBuf out) {
+        ResultCode resultCode = abstractTransactionResponse.getResultCode();
+        out.writeByte(resultCode.ordinal());
+        if (resultCode == ResultCode.Failed) {
+            StringDictionary.writeLiteral(out, abstractTransactionResponse.getMsg());
+        }
+        out.writeByte(abstractTransactionResponse.getTransactionExceptionCode().ordinal());
+    }
+
+    /**
+     * Decode the result of the response encoded by {@link #encodeCompactResult}.
+     *
+     * @param abstractTransactionResponse the response
+     * @param in                          the in
+     * @param dictionary                  the dictionary of the strings read from the connection
+     */
+    protected void decodeCompactResult(AbstractTransactionResponse abstractTransactionResponse, ByteBuf in,
+                                       StringDictionary dictionary) {
+        ResultCode resultCode = ResultCode.get(in.readByte());
+        abstractTransactionResponse.setResultCode(resultCode);
+        if (resultCode == ResultCode.Failed) {
+            abstractTransactionResponse.setMsg(dictionary.readString(in));
+        }
+        abstractTransactionResponse.setTransactionExceptionCode(TransactionExceptionCode.get(in.readByte()));
+    }
+
 }
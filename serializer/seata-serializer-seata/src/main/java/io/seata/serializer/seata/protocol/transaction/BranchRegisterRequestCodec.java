@@ -20,13 +20,15 @@ import java.nio.ByteBuffer;
 import io.netty.buffer.ByteBuf;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Branch register request codec.
  *
  * @author zhangsen
  */
-public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCodec {
+public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCodec implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -123,4 +125,28 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
         }
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        BranchRegisterRequest branchRegisterRequest = (BranchRegisterRequest)t;
+
+        dictionary.writeXid(out, branchRegisterRequest.getXid());
+        out.writeByte(branchRegisterRequest.getBranchType().ordinal());
+        dictionary.writeString(out, branchRegisterRequest.getResourceId());
+        // the lock keys and the application data are rarely repeated, they are written as literals and never added
+        // to the dictionary, so they do not evict the xid prefixes and the resource ids
+        StringDictionary.writeLiteral(out, branchRegisterRequest.getLockKey());
+        StringDictionary.writeLiteral(out, branchRegisterRequest.getApplicationData());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        BranchRegisterRequest branchRegisterRequest = (BranchRegisterRequest)t;
+
+        branchRegisterRequest.setXid(dictionary.readXid(in));
+        branchRegisterRequest.setBranchType(BranchType.get(in.readByte()));
+        branchRegisterRequest.setResourceId(dictionary.readString(in));
+        branchRegisterRequest.setLockKey(dictionary.readString(in));
+        branchRegisterRequest.setApplicationData(dictionary.readString(in));
+    }
+
 }
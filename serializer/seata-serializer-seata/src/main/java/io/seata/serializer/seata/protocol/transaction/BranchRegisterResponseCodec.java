@@ -20,13 +20,17 @@ import java.nio.ByteBuffer;
 
 import io.netty.buffer.ByteBuf;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Branch register response codec.
  *
  * @author zhangsen
  */
-public class BranchRegisterResponseCodec extends AbstractTransactionResponseCodec implements Serializable {
+public class BranchRegisterResponseCodec extends AbstractTransactionResponseCodec
+    implements CompactMessageCodec, Serializable {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -50,4 +54,20 @@ public class BranchRegisterResponseCodec extends AbstractTransactionResponseCode
         branchRegisterResponse.setBranchId(in.getLong());
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        BranchRegisterResponse branchRegisterResponse = (BranchRegisterResponse)t;
+        encodeCompactResult(branchRegisterResponse, out);
+
+        VarIntUtil.writeVarLong(out, branchRegisterResponse.getBranchId());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        BranchRegisterResponse branchRegisterResponse = (BranchRegisterResponse)t;
+        decodeCompactResult(branchRegisterResponse, in, dictionary);
+
+        branchRegisterResponse.setBranchId(VarIntUtil.readVarLong(in));
+    }
+
 }
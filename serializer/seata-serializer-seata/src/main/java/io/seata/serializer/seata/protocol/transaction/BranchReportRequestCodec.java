@@ -21,13 +21,16 @@ import io.netty.buffer.ByteBuf;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.core.serializer.VarIntUtil;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Branch report request codec.
  *
  * @author zhangsen
  */
-public class BranchReportRequestCodec extends AbstractTransactionRequestToTCCodec {
+public class BranchReportRequestCodec extends AbstractTransactionRequestToTCCodec implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -111,4 +114,28 @@ public class BranchReportRequestCodec extends AbstractTransactionRequestToTCCode
         branchReportRequest.setBranchType(BranchType.get(in.get()));
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        BranchReportRequest branchReportRequest = (BranchReportRequest)t;
+
+        dictionary.writeXid(out, branchReportRequest.getXid());
+        VarIntUtil.writeVarLong(out, branchReportRequest.getBranchId());
+        out.writeByte(branchReportRequest.getStatus().getCode());
+        dictionary.writeString(out, branchReportRequest.getResourceId());
+        StringDictionary.writeLiteral(out, branchReportRequest.getApplicationData());
+        out.writeByte(branchReportRequest.getBranchType().ordinal());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        BranchReportRequest branchReportRequest = (BranchReportRequest)t;
+
+        branchReportRequest.setXid(dictionary.readXid(in));
+        branchReportRequest.setBranchId(VarIntUtil.readVarLong(in));
+        branchReportRequest.setStatus(BranchStatus.get(in.readByte()));
+        branchReportRequest.setResourceId(dictionary.readString(in));
+        branchReportRequest.setApplicationData(dictionary.readString(in));
+        branchReportRequest.setBranchType(BranchType.get(in.readByte()));
+    }
+
 }
@@ -19,13 +19,15 @@ import java.nio.ByteBuffer;
 
 import io.netty.buffer.ByteBuf;
 import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
+import io.seata.core.serializer.StringDictionary;
+import io.seata.serializer.seata.CompactMessageCodec;
 
 /**
  * The type Global lock query response codec.
  *
  * @author zhangsen
  */
-public class GlobalLockQueryResponseCodec extends AbstractTransactionResponseCodec {
+public class GlobalLockQueryResponseCodec extends AbstractTransactionResponseCodec implements CompactMessageCodec {
 
     @Override
     public Class<?> getMessageClassType() {
@@ -48,4 +50,21 @@ public class GlobalLockQueryResponseCodec extends AbstractTransactionResponseCod
         GlobalLockQueryResponse globalLockQueryResponse = (GlobalLockQueryResponse)t;
         globalLockQueryResponse.setLockable(in.getShort() == 1);
     }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out, StringDictionary dictionary) {
+        GlobalLockQueryResponse globalLockQueryResponse = (GlobalLockQueryResponse)t;
+        encodeCompactResult(globalLockQueryResponse, out);
+
+        out.writeBoolean(globalLockQueryResponse.isLockable());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuf in, StringDictionary dictionary) {
+        GlobalLockQueryResponse globalLockQueryResponse = (GlobalLockQueryResponse)t;
+        decodeCompactResult(globalLockQueryResponse, in, dictionary);
+
+        globalLockQueryResponse.setLockable(in.readBoolean());
+    }
+
 }
@@ -16,6 +16,8 @@
 package io.seata.serializer.seata.protocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.seata.serializer.seata.SeataSerializer;
 import io.seata.core.protocol.AbstractIdentifyRequest;
 import io.seata.core.protocol.RegisterTMRequest;
@@ -68,6 +70,34 @@ public class RegisterTMRequestSerializerTest {
         assertThat(registerTMRequest2.getVersion()).isEqualTo(registerTMRequest.getVersion());
     }
 
+    /**
+     * Test streaming codec.
+     */
+    @Test
+    public void test_streaming_codec() {
+        RegisterTMRequest registerTMRequest = new RegisterTMRequest();
+        registerTMRequest.setApplicationId("abc");
+        registerTMRequest.setExtraData("abc123");
+        registerTMRequest.setTransactionServiceGroup("def");
+        registerTMRequest.setVersion("1");
+
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            seataSerializer.serialize(registerTMRequest, out);
+            // the same as the byte[] form
+            assertThat(ByteBufUtil.getBytes(out)).isEqualTo(seataSerializer.serialize(registerTMRequest));
+
+            RegisterTMRequest registerTMRequest2 = seataSerializer.deserialize(out);
+            assertThat(out.readableBytes()).isEqualTo(0);
+            assertThat(registerTMRequest2.getApplicationId()).isEqualTo(registerTMRequest.getApplicationId());
+            assertThat(registerTMRequest2.getExtraData()).isEqualTo(registerTMRequest.getExtraData());
+            assertThat(registerTMRequest2.getTransactionServiceGroup()).isEqualTo(registerTMRequest.getTransactionServiceGroup());
+            assertThat(registerTMRequest2.getVersion()).isEqualTo(registerTMRequest.getVersion());
+        } finally {
+            out.release();
+        }
+    }
+
     /**
      * Constructor without arguments
      **/
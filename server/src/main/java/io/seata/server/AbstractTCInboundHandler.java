@@ -15,7 +15,12 @@
  */
 package io.seata.server;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
 import io.seata.common.exception.StoreException;
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.core.exception.AbstractExceptionHandler;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
@@ -87,18 +92,43 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
     public GlobalCommitResponse handle(GlobalCommitRequest request, final RpcContext rpcContext) {
         GlobalCommitResponse response = new GlobalCommitResponse();
         response.setGlobalStatus(GlobalStatus.Committing);
-        exceptionHandleTemplate(new AbstractCallback<GlobalCommitRequest, GlobalCommitResponse>() {
+        exceptionHandleTemplate(globalCommitCallback(rpcContext), request, response);
+        return response;
+    }
+
+    /**
+     * Handle the global commit request without blocking the caller thread until the branches are committed.
+     *
+     * @param request    the request
+     * @param rpcContext the rpc context
+     * @return the future of the response
+     */
+    public CompletableFuture<GlobalCommitResponse> handleAsync(GlobalCommitRequest request,
+                                                               final RpcContext rpcContext) {
+        GlobalCommitResponse response = new GlobalCommitResponse();
+        response.setGlobalStatus(GlobalStatus.Committing);
+        return exceptionHandleTemplateAsync(globalCommitCallback(rpcContext), request, response);
+    }
+
+    private AbstractCallback<GlobalCommitRequest, GlobalCommitResponse> globalCommitCallback(
+        final RpcContext rpcContext) {
+        return new AbstractCallback<GlobalCommitRequest, GlobalCommitResponse>() {
             @Override
             public void execute(GlobalCommitRequest request, GlobalCommitResponse response)
                 throws TransactionException {
                 try {
                     doGlobalCommit(request, response, rpcContext);
                 } catch (StoreException e) {
-                    throw new TransactionException(TransactionExceptionCode.FailedStore,
-                        String.format("global commit request failed. xid=%s, msg=%s", request.getXid(), e.getMessage()),
-                        e);
+                    throw globalCommitStoreException(request, e);
                 }
             }
+
+            @Override
+            public CompletableFuture<Void> executeAsync(GlobalCommitRequest request, GlobalCommitResponse response) {
+                return translateStoreException(doGlobalCommitAsync(request, response, rpcContext),
+                    e -> globalCommitStoreException(request, e));
+            }
+
             @Override
             public void onTransactionException(GlobalCommitRequest request, GlobalCommitResponse response,
                                                TransactionException tex) {
@@ -113,8 +143,13 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
             }
 
 
-        }, request, response);
-        return response;
+        };
+    }
+
+    private static TransactionException globalCommitStoreException(GlobalCommitRequest request, StoreException e) {
+        return new TransactionException(TransactionExceptionCode.FailedStore,
+            String.format("global commit request failed. xid=%s, msg=%s", request.getXid(), e.getMessage()),
+            e);
     }
 
     /**
@@ -128,22 +163,66 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
     protected abstract void doGlobalCommit(GlobalCommitRequest request, GlobalCommitResponse response,
                                            RpcContext rpcContext) throws TransactionException;
 
+    /**
+     * Do global commit without blocking, commits synchronously by default.
+     *
+     * @param request    the request
+     * @param response   the response
+     * @param rpcContext the rpc context
+     * @return the future completed when the response is set, exceptionally if the commit fails
+     */
+    protected CompletableFuture<Void> doGlobalCommitAsync(GlobalCommitRequest request, GlobalCommitResponse response,
+                                                          RpcContext rpcContext) {
+        try {
+            doGlobalCommit(request, response, rpcContext);
+            return CompletableFuture.completedFuture(null);
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
     @Override
     public GlobalRollbackResponse handle(GlobalRollbackRequest request, final RpcContext rpcContext) {
         GlobalRollbackResponse response = new GlobalRollbackResponse();
         response.setGlobalStatus(GlobalStatus.Rollbacking);
-        exceptionHandleTemplate(new AbstractCallback<GlobalRollbackRequest, GlobalRollbackResponse>() {
+        exceptionHandleTemplate(globalRollbackCallback(rpcContext), request, response);
+        return response;
+    }
+
+    /**
+     * Handle the global rollback request without blocking the caller thread until the branches are rollbacked.
+     *
+     * @param request    the request
+     * @param rpcContext the rpc context
+     * @return the future of the response
+     */
+    public CompletableFuture<GlobalRollbackResponse> handleAsync(GlobalRollbackRequest request,
+                                                                 final RpcContext rpcContext) {
+        GlobalRollbackResponse response = new GlobalRollbackResponse();
+        response.setGlobalStatus(GlobalStatus.Rollbacking);
+        return exceptionHandleTemplateAsync(globalRollbackCallback(rpcContext), request, response);
+    }
+
+    private AbstractCallback<GlobalRollbackRequest, GlobalRollbackResponse> globalRollbackCallback(
+        final RpcContext rpcContext) {
+        return new AbstractCallback<GlobalRollbackRequest, GlobalRollbackResponse>() {
             @Override
             public void execute(GlobalRollbackRequest request, GlobalRollbackResponse response)
                 throws TransactionException {
                 try {
                     doGlobalRollback(request, response, rpcContext);
                 } catch (StoreException e) {
-                    throw new TransactionException(TransactionExceptionCode.FailedStore, String
-                        .format("global rollback request failed. xid=%s, msg=%s", request.getXid(), e.getMessage()), e);
+                    throw globalRollbackStoreException(request, e);
                 }
             }
 
+            @Override
+            public CompletableFuture<Void> executeAsync(GlobalRollbackRequest request,
+                                                        GlobalRollbackResponse response) {
+                return translateStoreException(doGlobalRollbackAsync(request, response, rpcContext),
+                    e -> globalRollbackStoreException(request, e));
+            }
+
             @Override
             public void onTransactionException(GlobalRollbackRequest request, GlobalRollbackResponse response,
                                                TransactionException tex) {
@@ -158,8 +237,13 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
                 // may be appears StoreException outer layer method catch
                 checkTransactionStatus(request, response);
             }
-        }, request, response);
-        return response;
+        };
+    }
+
+    private static TransactionException globalRollbackStoreException(GlobalRollbackRequest request,
+                                                                     StoreException e) {
+        return new TransactionException(TransactionExceptionCode.FailedStore, String
+            .format("global rollback request failed. xid=%s, msg=%s", request.getXid(), e.getMessage()), e);
     }
 
     /**
@@ -173,6 +257,39 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
     protected abstract void doGlobalRollback(GlobalRollbackRequest request, GlobalRollbackResponse response,
                                              RpcContext rpcContext) throws TransactionException;
 
+    /**
+     * Do global rollback without blocking, rollbacks synchronously by default.
+     *
+     * @param request    the request
+     * @param response   the response
+     * @param rpcContext the rpc context
+     * @return the future completed when the response is set, exceptionally if the rollback fails
+     */
+    protected CompletableFuture<Void> doGlobalRollbackAsync(GlobalRollbackRequest request,
+                                                            GlobalRollbackResponse response, RpcContext rpcContext) {
+        try {
+            doGlobalRollback(request, response, rpcContext);
+            return CompletableFuture.completedFuture(null);
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
+    /**
+     * Translate the StoreException which completes the future, as the sync handlers do.
+     */
+    private static CompletableFuture<Void> translateStoreException(CompletableFuture<Void> future,
+        Function<StoreException, TransactionException> translator) {
+        return future.handle((v, ex) -> {
+            if (ex == null) {
+                return null;
+            }
+            Throwable cause = CompletableFutureUtils.unwrap(ex);
+            throw new CompletionException(cause instanceof StoreException
+                ? translator.apply((StoreException) cause) : cause);
+        });
+    }
+
     @Override
     public BranchRegisterResponse handle(BranchRegisterRequest request, final RpcContext rpcContext) {
         BranchRegisterResponse response = new BranchRegisterResponse();
@@ -46,17 +46,18 @@ public class ParameterParser {
     private String host;
     @Parameter(names = {"--port", "-p"}, description = "The port to listen.", order = 2)
     private int port = SERVER_DEFAULT_PORT;
-    @Parameter(names = {"--storeMode", "-m"}, description = "log store mode : file, db, redis", order = 3)
+    @Parameter(names = {"--storeMode", "-m"}, description = "log store mode : file, db, redis, raft", order = 3)
     private String storeMode;
     @Parameter(names = {"--serverNode", "-n"}, description = "server node id, such as 1, 2, 3.it will be generated according to the snowflake by default", order = 4)
     private Long serverNode;
     @Parameter(names = {"--seataEnv", "-e"}, description = "The name used for multi-configuration isolation.",
         order = 5)
     private String seataEnv;
-    @Parameter(names = {"--sessionStoreMode", "-ssm"}, description = "session log store mode : file, db, redis",
+    @Parameter(names = {"--sessionStoreMode", "-ssm"}, description = "session log store mode : file, db, redis, raft",
         order = 6)
     private String sessionStoreMode;
-    @Parameter(names = {"--lockStoreMode", "-lsm"}, description = "lock log store mode : file, db, redis", order = 7)
+    @Parameter(names = {"--lockStoreMode", "-lsm"}, description = "lock log store mode : file, db, redis, raft",
+        order = 7)
     private String lockStoreMode;
 
     /**
@@ -31,6 +31,53 @@ public class UUIDGenerator {
      * @return UUID
      */
     public static long generateUUID() {
+        return getIdWorker().nextId();
+    }
+
+    /**
+     * get the server node id of this server
+     * @return the server node id
+     */
+    public static long getServerNode() {
+        return getIdWorker().getWorkerId();
+    }
+
+    /**
+     * get the id of the server node which generated the UUID
+     * @param uuid the UUID
+     * @return the server node id
+     */
+    public static long getServerNode(long uuid) {
+        return getIdWorker().getWorkerId(uuid);
+    }
+
+    /**
+     * get the max server node id supported
+     * @return the max server node id
+     */
+    public static long getMaxServerNode() {
+        return getIdWorker().getMaxWorkerId();
+    }
+
+    /**
+     * get the min UUID which may be generated by the server node
+     * @param serverNode the server node id
+     * @return the min UUID
+     */
+    public static long getMinUUID(long serverNode) {
+        return getIdWorker().getMinId(serverNode);
+    }
+
+    /**
+     * get the max UUID which may be generated by the server node
+     * @param serverNode the server node id
+     * @return the max UUID
+     */
+    public static long getMaxUUID(long serverNode) {
+        return getIdWorker().getMaxId(serverNode);
+    }
+
+    private static IdWorker getIdWorker() {
         if (idWorker == null) {
             synchronized (UUIDGenerator.class) {
                 if (idWorker == null) {
@@ -38,7 +85,7 @@ public class UUIDGenerator {
                 }
             }
         }
-        return idWorker.nextId();
+        return idWorker;
     }
 
     /**
@@ -16,8 +16,10 @@
 package io.seata.server.coordinator;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.core.context.RootContext;
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.GlobalTransactionException;
@@ -74,12 +76,13 @@ public abstract class AbstractCore implements Core {
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
                                String applicationData, String lockKeys) throws TransactionException {
         GlobalSession globalSession = assertGlobalSessionNotNull(xid, false);
-        return SessionHolder.lockAndExecute(globalSession, () -> {
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType, resourceId,
+                applicationData, lockKeys, clientId);
+        MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+        // the lock of the global session is not held while waiting for the locks, so it is checked on every try
+        return lockManager.executeWithLockWait(branchSession, () -> SessionHolder.lockAndExecute(globalSession, () -> {
             globalSessionStatusCheck(globalSession);
             globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-            BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType, resourceId,
-                    applicationData, lockKeys, clientId);
-            MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
             branchSessionLock(globalSession, branchSession);
             try {
                 globalSession.addBranch(branchSession);
@@ -94,7 +97,7 @@ public abstract class AbstractCore implements Core {
                     globalSession.getXid(), branchSession.getBranchId(), resourceId, lockKeys);
             }
             return branchSession.getBranchId();
-        });
+        }));
     }
 
     protected void globalSessionStatusCheck(GlobalSession globalSession) throws GlobalTransactionException {
@@ -156,13 +159,7 @@ public abstract class AbstractCore implements Core {
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchCommitRequest request = new BranchCommitRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchCommitSend(request, globalSession, branchSession);
+            return branchCommitSend(buildBranchCommitRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchCommitRequest,
                     String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
@@ -170,6 +167,37 @@ public abstract class AbstractCore implements Core {
         }
     }
 
+    @Override
+    public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                             BranchSession branchSession) {
+        CompletableFuture<BranchStatus> result = new CompletableFuture<>();
+        branchCommitSendAsync(buildBranchCommitRequest(branchSession), globalSession, branchSession)
+            .whenComplete((branchStatus, ex) -> {
+                if (ex == null) {
+                    result.complete(branchStatus);
+                    return;
+                }
+                Throwable cause = CompletableFutureUtils.unwrap(ex);
+                if (cause instanceof IOException || cause instanceof TimeoutException) {
+                    cause = new BranchTransactionException(FailedToSendBranchCommitRequest,
+                        String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
+                            branchSession.getBranchId()), cause);
+                }
+                result.completeExceptionally(cause);
+            });
+        return result;
+    }
+
+    private BranchCommitRequest buildBranchCommitRequest(BranchSession branchSession) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
     protected BranchStatus branchCommitSend(BranchCommitRequest request, GlobalSession globalSession,
                                             BranchSession branchSession) throws IOException, TimeoutException {
         BranchCommitResponse response = (BranchCommitResponse) remotingServer.sendSyncRequest(
@@ -177,16 +205,25 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Send the branch commit request without blocking.
+     *
+     * @param request       the request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        return remotingServer.sendRequestAsync(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchCommitResponse) response).getBranchStatus());
+    }
+
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchRollbackRequest request = new BranchRollbackRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchRollbackSend(request, globalSession, branchSession);
+            return branchRollbackSend(buildBranchRollbackRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
             throw new BranchTransactionException(FailedToSendBranchRollbackRequest,
                     String.format("Send branch rollback failed, xid = %s branchId = %s",
@@ -194,6 +231,37 @@ public abstract class AbstractCore implements Core {
         }
     }
 
+    @Override
+    public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                               BranchSession branchSession) {
+        CompletableFuture<BranchStatus> result = new CompletableFuture<>();
+        branchRollbackSendAsync(buildBranchRollbackRequest(branchSession), globalSession, branchSession)
+            .whenComplete((branchStatus, ex) -> {
+                if (ex == null) {
+                    result.complete(branchStatus);
+                    return;
+                }
+                Throwable cause = CompletableFutureUtils.unwrap(ex);
+                if (cause instanceof IOException || cause instanceof TimeoutException) {
+                    cause = new BranchTransactionException(FailedToSendBranchRollbackRequest,
+                        String.format("Send branch rollback failed, xid = %s branchId = %s",
+                            branchSession.getXid(), branchSession.getBranchId()), cause);
+                }
+                result.completeExceptionally(cause);
+            });
+        return result;
+    }
+
+    private BranchRollbackRequest buildBranchRollbackRequest(BranchSession branchSession) {
+        BranchRollbackRequest request = new BranchRollbackRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
     protected BranchStatus branchRollbackSend(BranchRollbackRequest request, GlobalSession globalSession,
                                               BranchSession branchSession) throws IOException, TimeoutException {
         BranchRollbackResponse response = (BranchRollbackResponse) remotingServer.sendSyncRequest(
@@ -201,6 +269,21 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Send the branch rollback request without blocking.
+     *
+     * @param request       the request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        return remotingServer.sendRequestAsync(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchRollbackResponse) response).getBranchStatus());
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
             throws TransactionException {
@@ -16,13 +16,20 @@
 package io.seata.server.coordinator;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import io.netty.channel.Channel;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.common.util.DurationUtil;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
@@ -58,15 +65,31 @@ import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.netty.NettyRemotingServer;
+import io.seata.core.store.StoreMode;
 import io.seata.server.AbstractTCInboundHandler;
+import io.seata.server.UUIDGenerator;
 import io.seata.server.event.EventBusManager;
+import io.seata.server.metrics.MeterIdConstants;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_HEARTBEAT_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_HEARTBEAT_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_PARTITION_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_PHASE_TWO_QUEUE_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_PHASE_TWO_WORKER_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_BASE_MILLS;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_MAX_MILLS;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_FULL_SCAN_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_FILE;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_SHARED_STORE;
+import static io.seata.common.DefaultValues.SERVER_DEFAULT_STORE_MODE;
+
 /**
  * The type Default coordinator.
  */
@@ -99,6 +122,53 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      */
     protected static final long TIMEOUT_RETRY_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, 1000L);
 
+    /**
+     * The constant PHASE_TWO_WORKER_SIZE.
+     */
+    protected static final int PHASE_TWO_WORKER_SIZE = CONFIG.getInt(
+        ConfigurationKeys.RECOVERY_PHASE_TWO_WORKER_SIZE, DEFAULT_RECOVERY_PHASE_TWO_WORKER_SIZE);
+
+    /**
+     * The constant PHASE_TWO_QUEUE_SIZE.
+     */
+    protected static final int PHASE_TWO_QUEUE_SIZE = CONFIG.getInt(
+        ConfigurationKeys.RECOVERY_PHASE_TWO_QUEUE_SIZE, DEFAULT_RECOVERY_PHASE_TWO_QUEUE_SIZE);
+
+    /**
+     * The constant TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    protected static final long TIMEOUT_FULL_SCAN_PERIOD = getTimeoutFullScanPeriod();
+
+    /**
+     * The constant RETRY_BACKOFF_BASE_MILLS.
+     */
+    protected static final long RETRY_BACKOFF_BASE_MILLS = CONFIG.getLong(ConfigurationKeys.RETRY_BACKOFF_BASE_MILLS,
+        DEFAULT_RETRY_BACKOFF_BASE_MILLS);
+
+    /**
+     * The constant RETRY_BACKOFF_MAX_MILLS.
+     */
+    protected static final long RETRY_BACKOFF_MAX_MILLS = CONFIG.getLong(ConfigurationKeys.RETRY_BACKOFF_MAX_MILLS,
+        DEFAULT_RETRY_BACKOFF_MAX_MILLS);
+
+    /**
+     * The constant PARTITION_ENABLE.
+     */
+    protected static final boolean PARTITION_ENABLE = CONFIG.getBoolean(ConfigurationKeys.RECOVERY_PARTITION_ENABLE,
+        DEFAULT_RECOVERY_PARTITION_ENABLE);
+
+    /**
+     * The constant HEARTBEAT_PERIOD.
+     */
+    protected static final long HEARTBEAT_PERIOD = CONFIG.getLong(ConfigurationKeys.RECOVERY_HEARTBEAT_PERIOD,
+        DEFAULT_RECOVERY_HEARTBEAT_PERIOD);
+
+    /**
+     * The constant HEARTBEAT_TIMEOUT.
+     */
+    protected static final long HEARTBEAT_TIMEOUT = CONFIG.getLong(ConfigurationKeys.RECOVERY_HEARTBEAT_TIMEOUT,
+        DEFAULT_RECOVERY_HEARTBEAT_TIMEOUT);
+
     /**
      * The Transaction undo log delete period.
      */
@@ -136,6 +206,33 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private ScheduledThreadPoolExecutor undoLogDelete = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("UndoLogDelete", 1));
 
+    private ScheduledThreadPoolExecutor ownershipHeartbeat = new ScheduledThreadPoolExecutor(1,
+        new NamedThreadFactory("TxOwnershipHeartbeat", 1));
+
+    /**
+     * created at init if the partition is enabled, before that every transaction is owned by this server
+     */
+    private volatile TransactionOwnership ownership;
+
+    /**
+     * created at init, before that the retry handlers run on the caller thread
+     */
+    private volatile PhaseTwoScheduler phaseTwoScheduler;
+
+    private volatile long lastTimeoutFullScanTime;
+
+    private final RetryBackoffQueue retryRollbackingQueue = new RetryBackoffQueue(RETRY_BACKOFF_BASE_MILLS,
+        RETRY_BACKOFF_MAX_MILLS, MeterIdConstants.COUNTER_RETRY_ROLLBACKING_SUCCESS,
+        MeterIdConstants.COUNTER_RETRY_ROLLBACKING_FAILED);
+
+    private final RetryBackoffQueue retryCommittingQueue = new RetryBackoffQueue(RETRY_BACKOFF_BASE_MILLS,
+        RETRY_BACKOFF_MAX_MILLS, MeterIdConstants.COUNTER_RETRY_COMMITTING_SUCCESS,
+        MeterIdConstants.COUNTER_RETRY_COMMITTING_FAILED);
+
+    private final RetryBackoffQueue asyncCommittingQueue = new RetryBackoffQueue(RETRY_BACKOFF_BASE_MILLS,
+        RETRY_BACKOFF_MAX_MILLS, MeterIdConstants.COUNTER_ASYNC_COMMITTING_SUCCESS,
+        MeterIdConstants.COUNTER_ASYNC_COMMITTING_FAILED);
+
     private RemotingServer remotingServer;
 
     private DefaultCore core;
@@ -170,6 +267,13 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         response.setGlobalStatus(core.commit(request.getXid()));
     }
 
+    @Override
+    protected CompletableFuture<Void> doGlobalCommitAsync(GlobalCommitRequest request, GlobalCommitResponse response,
+                                                          RpcContext rpcContext) {
+        MDC.put(RootContext.MDC_KEY_XID, request.getXid());
+        return core.commitAsync(request.getXid()).thenAccept(response::setGlobalStatus);
+    }
+
     @Override
     protected void doGlobalRollback(GlobalRollbackRequest request, GlobalRollbackResponse response,
                                     RpcContext rpcContext) throws TransactionException {
@@ -177,6 +281,13 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         response.setGlobalStatus(core.rollback(request.getXid()));
     }
 
+    @Override
+    protected CompletableFuture<Void> doGlobalRollbackAsync(GlobalRollbackRequest request,
+                                                            GlobalRollbackResponse response, RpcContext rpcContext) {
+        MDC.put(RootContext.MDC_KEY_XID, request.getXid());
+        return core.rollbackAsync(request.getXid()).thenAccept(response::setGlobalStatus);
+    }
+
     @Override
     protected void doGlobalStatus(GlobalStatusRequest request, GlobalStatusResponse response, RpcContext rpcContext)
         throws TransactionException {
@@ -219,69 +330,133 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
 
     /**
      * Timeout check.
+     * <p>
+     * The expired sessions are taken from the session timeout wheel, the sessions which are not registered in the
+     * wheel of this server, such as the sessions of another server in db and redis mode, are found by a full scan
+     * every TIMEOUT_FULL_SCAN_PERIOD and registered in the wheel from then on.
      *
      * @throws TransactionException the transaction exception
      */
     protected void timeoutCheck() throws TransactionException {
-        Collection<GlobalSession> allSessions = SessionHolder.getRootSessionManager().allSessions();
+        long now = System.currentTimeMillis();
+        List<String> expiredXids = SessionHolder.getSessionTimeoutWheel().advance(now);
+        if (!expiredXids.isEmpty()) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Global transaction timeout check begin, expired size: {}", expiredXids.size());
+            }
+            List<GlobalSession> expiredSessions = new ArrayList<>(expiredXids.size());
+            for (String xid : expiredXids) {
+                GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+                if (globalSession != null) {
+                    expiredSessions.add(globalSession);
+                }
+            }
+            TransactionOwnership currentOwnership = ownership;
+            SessionHelper.forEach(expiredSessions, globalSession -> {
+                if (currentOwnership != null && !currentOwnership.isOwner(globalSession.getTransactionId())) {
+                    // owned by another server now, which registers it in its wheel by the full scan
+                    return;
+                }
+                if (globalSession.getStatus() == GlobalStatus.Begin && !globalSession.isTimeout()) {
+                    // expired by the tick of the wheel, check it again at the next tick
+                    SessionHolder.getSessionTimeoutWheel().add(globalSession);
+                    return;
+                }
+                timeoutRollback(globalSession);
+            });
+        }
+        if (TIMEOUT_FULL_SCAN_PERIOD > 0 && now - lastTimeoutFullScanTime >= TIMEOUT_FULL_SCAN_PERIOD) {
+            lastTimeoutFullScanTime = now;
+            timeoutFullScan();
+        }
+    }
+
+    private void timeoutFullScan() {
+        Collection<GlobalSession> allSessions = ownedSessions(SessionHolder.getRootSessionManager());
         if (CollectionUtils.isEmpty(allSessions)) {
             return;
         }
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check begin, size: {}", allSessions.size());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout full scan begin, size: {}", allSessions.size());
         }
         SessionHelper.forEach(allSessions, globalSession -> {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(
-                    globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
-                        + globalSession.getTimeout());
+            // check without lock first, the status is checked again in the lock
+            if (globalSession.getStatus() != GlobalStatus.Begin) {
+                return;
             }
-            SessionHolder.lockAndExecute(globalSession, () -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
-                }
+            if (globalSession.isTimeout()) {
+                timeoutRollback(globalSession);
+            } else {
+                // the session may be begun on another server, check it at the tick precision from now on
+                SessionHolder.getSessionTimeoutWheel().add(globalSession);
+            }
+        });
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout full scan end. ");
+        }
+    }
 
-                LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
+    private static long getTimeoutFullScanPeriod() {
+        long period = CONFIG.getLong(ConfigurationKeys.TIMEOUT_FULL_SCAN_PERIOD, DEFAULT_TIMEOUT_FULL_SCAN_PERIOD);
+        if (period >= 0) {
+            return period;
+        }
+        String mode = CONFIG.getConfig(ConfigurationKeys.STORE_SESSION_MODE,
+            CONFIG.getConfig(ConfigurationKeys.STORE_MODE, SERVER_DEFAULT_STORE_MODE));
+        StoreMode storeMode = StoreMode.get(mode);
+        return storeMode == StoreMode.FILE || storeMode == StoreMode.RAFT ? DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_FILE
+            : DEFAULT_TIMEOUT_FULL_SCAN_PERIOD_SHARED_STORE;
+    }
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                globalSession.close();
-                globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
+    private void timeoutRollback(GlobalSession globalSession) throws TransactionException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
+                    + globalSession.getTimeout());
+        }
+        SessionHolder.lockAndExecute(globalSession, () -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                return false;
+            }
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
-                SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+            LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
 
-                // transaction timeout and start rollbacking event
-                eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
-                        GlobalTransactionEvent.ROLE_TC,
-                        globalSession.getTransactionName(),
-                        globalSession.getApplicationId(),
-                        globalSession.getTransactionServiceGroup(),
-                        globalSession.getBeginTime(), null, globalSession.getStatus()));
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.close();
+            globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
 
-                return true;
-            });
-        });
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
+            globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
+            SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+
+            // transaction timeout and start rollbacking event
+            eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(),
+                    GlobalTransactionEvent.ROLE_TC,
+                    globalSession.getTransactionName(),
+                    globalSession.getApplicationId(),
+                    globalSession.getTransactionServiceGroup(),
+                    globalSession.getBeginTime(), null, globalSession.getStatus());
 
+            return true;
+        });
+        SessionHolder.getSessionTimeoutWheel().remove(globalSession.getXid());
     }
 
     /**
      * Handle retry rollbacking.
      */
     protected void handleRetryRollbacking() {
-        Collection<GlobalSession> rollbackingSessions = SessionHolder.getRetryRollbackingSessionManager().allSessions();
+        Collection<GlobalSession> rollbackingSessions = ownedSessions(
+            SessionHolder.getRetryRollbackingSessionManager());
         if (CollectionUtils.isEmpty(rollbackingSessions)) {
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
+        dispatchPhaseTwo(retryRollbackingQueue.poll(rollbackingSessions, now), rollbackingSession -> {
             try {
                 // prevent repeated rollback
                 if (rollbackingSession.getStatus().equals(GlobalStatus.Rollbacking) && !rollbackingSession.isDeadSession()) {
                     //The function of this 'return' is 'continue'.
-                    return;
+                    return null;
                 }
                 if (isRetryTimeout(now, MAX_ROLLBACK_RETRY_TIMEOUT.toMillis(), rollbackingSession.getBeginTime())) {
                     if (ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE) {
@@ -291,14 +466,18 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                      * Prevent thread safety issues
                      */
                     SessionHolder.getRetryRollbackingSessionManager().removeGlobalSession(rollbackingSession);
+                    retryRollbackingQueue.remove(rollbackingSession.getXid());
                     LOGGER.info("Global transaction rollback retry timeout and has removed [{}]", rollbackingSession.getXid());
                     //The function of this 'return' is 'continue'.
-                    return;
+                    return null;
                 }
                 rollbackingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalRollback(rollbackingSession, true);
+                return onRetryException(retryRollbackingQueue.executeAsync(rollbackingSession,
+                    () -> core.doGlobalRollbackAsync(rollbackingSession, true)),
+                    ex -> LOGGER.info("Failed to retry rollbacking [{}] {} {}", rollbackingSession.getXid(), ex.getCode(), ex.getMessage()));
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry rollbacking [{}] {} {}", rollbackingSession.getXid(), ex.getCode(), ex.getMessage());
+                return null;
             }
         });
     }
@@ -307,35 +486,110 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Handle retry committing.
      */
     protected void handleRetryCommitting() {
-        Collection<GlobalSession> committingSessions = SessionHolder.getRetryCommittingSessionManager().allSessions();
+        Collection<GlobalSession> committingSessions = ownedSessions(
+            SessionHolder.getRetryCommittingSessionManager());
         if (CollectionUtils.isEmpty(committingSessions)) {
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
+        dispatchPhaseTwo(retryCommittingQueue.poll(committingSessions, now), committingSession -> {
             try {
                 // prevent repeated commit
                 if (committingSession.getStatus().equals(GlobalStatus.Committing) && !committingSession.isDeadSession()) {
                     //The function of this 'return' is 'continue'.
-                    return;
+                    return null;
                 }
                 if (isRetryTimeout(now, MAX_COMMIT_RETRY_TIMEOUT.toMillis(), committingSession.getBeginTime())) {
                     /**
                      * Prevent thread safety issues
                      */
                     SessionHolder.getRetryCommittingSessionManager().removeGlobalSession(committingSession);
+                    retryCommittingQueue.remove(committingSession.getXid());
                     LOGGER.error("Global transaction commit retry timeout and has removed [{}]", committingSession.getXid());
                     //The function of this 'return' is 'continue'.
-                    return;
+                    return null;
                 }
                 committingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalCommit(committingSession, true);
+                return onRetryException(retryCommittingQueue.executeAsync(committingSession,
+                    () -> core.doGlobalCommitAsync(committingSession, true)),
+                    ex -> LOGGER.info("Failed to retry committing [{}] {} {}", committingSession.getXid(), ex.getCode(), ex.getMessage()));
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry committing [{}] {} {}", committingSession.getXid(), ex.getCode(), ex.getMessage());
+                return null;
             }
         });
     }
 
+    /**
+     * Dispatch the phase two handling of the sessions to the partitioned workers, the workers are released once the
+     * phase two requests are sent. The sessions are handled on the caller thread and waited for if the coordinator
+     * is not initialized.
+     *
+     * @param sessions the global sessions
+     * @param handler  the handler
+     */
+    private void dispatchPhaseTwo(Collection<GlobalSession> sessions,
+                                  PhaseTwoScheduler.AsyncGlobalSessionHandler handler) {
+        PhaseTwoScheduler scheduler = phaseTwoScheduler;
+        if (scheduler == null) {
+            SessionHelper.forEach(sessions, globalSession -> {
+                CompletableFuture<?> result = handler.handle(globalSession);
+                if (result != null) {
+                    ParallelBranchDispatcher.join(result);
+                }
+            });
+            return;
+        }
+        int dispatched = scheduler.dispatchAsync(sessions, handler);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Dispatched {} of {} global sessions to phase two workers, pending: {}", dispatched,
+                sessions.size(), scheduler.getPendingSize());
+        }
+    }
+
+    /**
+     * Log the TransactionException of a retry attempt, the other failures are logged by the scheduler.
+     *
+     * @param retry  the retry attempt
+     * @param logger the logger of the TransactionException
+     * @return the retry attempt completed with false on TransactionException
+     */
+    private static CompletableFuture<Boolean> onRetryException(CompletableFuture<Boolean> retry,
+                                                               Consumer<TransactionException> logger) {
+        return retry.exceptionally(ex -> {
+            Throwable cause = CompletableFutureUtils.unwrap(ex);
+            if (cause instanceof TransactionException) {
+                logger.accept((TransactionException) cause);
+                return false;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Query the global sessions owned by this server by the transaction id ranges it owns, all of them if the
+     * partition is not enabled. The sessions are checked again after the query, as the ownership may change in the
+     * meantime and the file store returns all the sessions.
+     *
+     * @param sessionManager the session manager
+     * @return the owned global sessions
+     */
+    private Collection<GlobalSession> ownedSessions(SessionManager sessionManager) {
+        TransactionOwnership currentOwnership = ownership;
+        if (currentOwnership == null) {
+            return sessionManager.allSessions();
+        }
+        long[] transactionIdRanges = currentOwnership.getOwnedTransactionIdRanges();
+        if (transactionIdRanges != null && transactionIdRanges.length == 0) {
+            return Collections.emptyList();
+        }
+        Collection<GlobalSession> sessions = sessionManager.allSessions(transactionIdRanges);
+        if (CollectionUtils.isEmpty(sessions)) {
+            return sessions;
+        }
+        return currentOwnership.filter(sessions);
+    }
+
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
         return timeout >= ALWAYS_RETRY_BOUNDARY && now - beginTime > timeout;
     }
@@ -344,22 +598,26 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Handle async committing.
      */
     protected void handleAsyncCommitting() {
-        Collection<GlobalSession> asyncCommittingSessions = SessionHolder.getAsyncCommittingSessionManager()
-            .allSessions();
+        Collection<GlobalSession> asyncCommittingSessions = ownedSessions(
+            SessionHolder.getAsyncCommittingSessionManager());
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+        long now = System.currentTimeMillis();
+        dispatchPhaseTwo(asyncCommittingQueue.poll(asyncCommittingSessions, now), asyncCommittingSession -> {
             try {
                 // Instruction reordering in DefaultCore#asyncCommit may cause this situation
                 if (GlobalStatus.AsyncCommitting != asyncCommittingSession.getStatus()) {
                     //The function of this 'return' is 'continue'.
-                    return;
+                    return null;
                 }
                 asyncCommittingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                core.doGlobalCommit(asyncCommittingSession, true);
+                return onRetryException(asyncCommittingQueue.executeAsync(asyncCommittingSession,
+                    () -> core.doGlobalCommitAsync(asyncCommittingSession, true)),
+                    ex -> LOGGER.error("Failed to async committing [{}] {} {}", asyncCommittingSession.getXid(), ex.getCode(), ex.getMessage(), ex));
             } catch (TransactionException ex) {
                 LOGGER.error("Failed to async committing [{}] {} {}", asyncCommittingSession.getXid(), ex.getCode(), ex.getMessage(), ex);
+                return null;
             }
         });
     }
@@ -394,6 +652,18 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Init.
      */
     public void init() {
+        phaseTwoScheduler = new PhaseTwoScheduler(PHASE_TWO_WORKER_SIZE, PHASE_TWO_QUEUE_SIZE);
+
+        if (PARTITION_ENABLE) {
+            TransactionOwnership transactionOwnership = new TransactionOwnership(UUIDGenerator.getServerNode(),
+                HEARTBEAT_TIMEOUT);
+            // renew the heartbeat before the first scan, so the dead nodes are known by then
+            transactionOwnership.heartbeat();
+            ownership = transactionOwnership;
+            ownershipHeartbeat.scheduleAtFixedRate(transactionOwnership::heartbeat, HEARTBEAT_PERIOD,
+                HEARTBEAT_PERIOD, TimeUnit.MILLISECONDS);
+        }
+
         retryRollbacking.scheduleAtFixedRate(() -> {
             boolean lock = SessionHolder.retryRollbackingLock();
             if (lock) {
@@ -471,6 +741,21 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         return transactionRequest.handle(context);
     }
 
+    /**
+     * The global commit and rollback requests are responded when their branches are done, without blocking the
+     * caller thread until then.
+     */
+    @Override
+    public CompletableFuture<AbstractResultMessage> onRequestAsync(AbstractMessage request, RpcContext context) {
+        if (request instanceof GlobalCommitRequest) {
+            return handleAsync((GlobalCommitRequest) request, context).thenApply(response -> response);
+        }
+        if (request instanceof GlobalRollbackRequest) {
+            return handleAsync((GlobalRollbackRequest) request, context).thenApply(response -> response);
+        }
+        return TransactionMessageHandler.super.onRequestAsync(request, context);
+    }
+
     @Override
     public void onResponse(AbstractResultMessage response, RpcContext context) {
         if (!(response instanceof AbstractTransactionResponse)) {
@@ -486,6 +771,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         retryCommitting.shutdown();
         asyncCommitting.shutdown();
         timeoutCheck.shutdown();
+        ownershipHeartbeat.shutdown();
         try {
             retryRollbacking.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             retryCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
@@ -494,6 +780,10 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         } catch (InterruptedException ignore) {
 
         }
+        if (phaseTwoScheduler != null) {
+            phaseTwoScheduler.destroy();
+        }
+        core.destroy();
         // 2. second close netty flow
         if (remotingServer instanceof NettyRemotingServer) {
             ((NettyRemotingServer) remotingServer).destroy();
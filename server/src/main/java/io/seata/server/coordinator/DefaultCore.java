@@ -15,13 +15,22 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
@@ -33,6 +42,7 @@ import io.seata.core.model.GlobalStatus;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.server.event.EventBusManager;
 import io.seata.server.session.BranchSession;
+import io.seata.server.session.BranchSessionHandler;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
@@ -40,6 +50,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import static io.seata.common.DefaultValues.DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+import static io.seata.common.DefaultValues.DEFAULT_CIRCUIT_BREAKER_OPEN_MILLS;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_PARALLEL_PHASE_TWO;
+import static io.seata.common.DefaultValues.DEFAULT_PARALLEL_PHASE_TWO_THREAD_SIZE;
 import static io.seata.server.session.BranchSessionHandler.CONTINUE;
 
 /**
@@ -55,6 +69,23 @@ public class DefaultCore implements Core {
 
     private static Map<BranchType, AbstractCore> coreMap = new ConcurrentHashMap<>();
 
+    private static final boolean ENABLE_PARALLEL_PHASE_TWO = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.ENABLE_PARALLEL_PHASE_TWO, DEFAULT_ENABLE_PARALLEL_PHASE_TWO);
+
+    private static final ResourceCircuitBreaker CIRCUIT_BREAKER = new ResourceCircuitBreaker(
+        ConfigurationFactory.getInstance().getInt(ConfigurationKeys.CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+            DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD),
+        ConfigurationFactory.getInstance().getLong(ConfigurationKeys.CIRCUIT_BREAKER_OPEN_MILLS,
+            DEFAULT_CIRCUIT_BREAKER_OPEN_MILLS));
+
+    /**
+     * sends the phase two requests and applies their results, the requests of the branches on different resources
+     * are sent concurrently if the parallel phase two is enabled
+     */
+    private final ParallelBranchDispatcher branchDispatcher = new ParallelBranchDispatcher(
+        ConfigurationFactory.getInstance().getInt(ConfigurationKeys.PARALLEL_PHASE_TWO_THREAD_SIZE,
+            DEFAULT_PARALLEL_PHASE_TWO_THREAD_SIZE));
+
     /**
      * get the Default core.
      *
@@ -123,6 +154,75 @@ public class DefaultCore implements Core {
         return getCore(branchSession.getBranchType()).branchRollback(globalSession, branchSession);
     }
 
+    @Override
+    public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                             BranchSession branchSession) {
+        return getCore(branchSession.getBranchType()).branchCommitAsync(globalSession, branchSession);
+    }
+
+    @Override
+    public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                               BranchSession branchSession) {
+        return getCore(branchSession.getBranchType()).branchRollbackAsync(globalSession, branchSession);
+    }
+
+    /**
+     * Branch commit without blocking, the retry is rejected if the circuit of the resource is open.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @param retrying      the retrying
+     * @return the future of the branch status
+     */
+    private CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                              BranchSession branchSession, boolean retrying) {
+        if (isCircuitOpen(branchSession, retrying)) {
+            return CompletableFuture.completedFuture(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        }
+        return branchCommitAsync(globalSession, branchSession)
+            .whenComplete((branchStatus, ex) -> onBranchResult(branchSession, branchStatus, ex));
+    }
+
+    /**
+     * Branch rollback without blocking, the retry is rejected if the circuit of the resource is open.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @param retrying      the retrying
+     * @return the future of the branch status
+     */
+    private CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                                BranchSession branchSession, boolean retrying) {
+        if (isCircuitOpen(branchSession, retrying)) {
+            return CompletableFuture.completedFuture(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        }
+        return branchRollbackAsync(globalSession, branchSession)
+            .whenComplete((branchStatus, ex) -> onBranchResult(branchSession, branchStatus, ex));
+    }
+
+    private boolean isCircuitOpen(BranchSession branchSession, boolean retrying) {
+        if (retrying && !CIRCUIT_BREAKER.allowRequest(branchSession.getResourceId())) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("The circuit of resource[{}] is open, skip the phase two of branch[{}]",
+                    branchSession.getResourceId(), branchSession.getBranchId());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void onBranchResult(BranchSession branchSession, BranchStatus branchStatus, Throwable ex) {
+        // the resource is healthy if the branch is finished, even though it can not be retried
+        if (ex == null && (branchStatus == BranchStatus.PhaseTwo_Committed
+            || branchStatus == BranchStatus.PhaseTwo_CommitFailed_Unretryable
+            || branchStatus == BranchStatus.PhaseTwo_Rollbacked
+            || branchStatus == BranchStatus.PhaseTwo_RollbackFailed_Unretryable)) {
+            CIRCUIT_BREAKER.onSuccess(branchSession.getResourceId());
+        } else {
+            CIRCUIT_BREAKER.onFailure(branchSession.getResourceId());
+        }
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
         throws TransactionException {
@@ -132,64 +232,100 @@ public class DefaultCore implements Core {
         session.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
 
         session.begin();
+        SessionHolder.getSessionTimeoutWheel().add(session);
 
         // transaction start event
-        eventBus.post(new GlobalTransactionEvent(session.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-            session.getTransactionName(), applicationId, transactionServiceGroup, session.getBeginTime(), null, session.getStatus()));
+        eventBus.postGlobalTransactionEvent(session.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+            session.getTransactionName(), applicationId, transactionServiceGroup, session.getBeginTime(), null, session.getStatus());
 
         return session.getXid();
     }
 
     @Override
     public GlobalStatus commit(String xid) throws TransactionException {
-        GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
-        if (globalSession == null) {
-            return GlobalStatus.Finished;
-        }
-        globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-        // just lock changeStatus
+        return ParallelBranchDispatcher.join(commitAsync(xid));
+    }
 
-        boolean shouldCommit = SessionHolder.lockAndExecute(globalSession, () -> {
-            // Highlight: Firstly, close the session, then no more branch can be registered.
-            globalSession.closeAndClean();
-            if (globalSession.getStatus() == GlobalStatus.Begin) {
-                if (globalSession.canBeCommittedAsync()) {
+    /**
+     * Commit the global transaction without blocking the caller thread until the branches are committed.
+     *
+     * @param xid the xid
+     * @return the future of the global status
+     */
+    public CompletableFuture<GlobalStatus> commitAsync(String xid) {
+        try {
+            GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+            if (globalSession == null) {
+                return CompletableFuture.completedFuture(GlobalStatus.Finished);
+            }
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            // just lock changeStatus
+
+            boolean shouldCommit = SessionHolder.lockAndExecute(globalSession, () -> {
+                // Highlight: Firstly, close the session, then no more branch can be registered.
+                globalSession.closeAndClean();
+                if (globalSession.getStatus() == GlobalStatus.Begin) {
+                    if (globalSession.canBeCommittedAsync()) {
+                        globalSession.asyncCommit();
+                        return false;
+                    } else {
+                        globalSession.changeStatus(GlobalStatus.Committing);
+                        return true;
+                    }
+                }
+                return false;
+            });
+            // the session is closed, it will never be timeout
+            SessionHolder.getSessionTimeoutWheel().remove(xid);
+
+            if (!shouldCommit) {
+                return CompletableFuture.completedFuture(globalSession.getStatus() == GlobalStatus.AsyncCommitting
+                    ? GlobalStatus.Committed : globalSession.getStatus());
+            }
+            return doGlobalCommitAsync(globalSession, false).thenApply(success -> unchecked(() -> {
+                //If successful and all remaining branches can be committed asynchronously, do async commit.
+                if (success && globalSession.hasBranch() && globalSession.canBeCommittedAsync()) {
                     globalSession.asyncCommit();
-                    return false;
+                    return GlobalStatus.Committed;
                 } else {
-                    globalSession.changeStatus(GlobalStatus.Committing);
-                    return true;
+                    return globalSession.getStatus();
                 }
-            }
-            return false;
-        });
-
-        if (shouldCommit) {
-            boolean success = doGlobalCommit(globalSession, false);
-            //If successful and all remaining branches can be committed asynchronously, do async commit.
-            if (success && globalSession.hasBranch() && globalSession.canBeCommittedAsync()) {
-                globalSession.asyncCommit();
-                return GlobalStatus.Committed;
-            } else {
-                return globalSession.getStatus();
-            }
-        } else {
-            return globalSession.getStatus() == GlobalStatus.AsyncCommitting ? GlobalStatus.Committed : globalSession.getStatus();
+            }));
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
         }
     }
 
     @Override
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
-        boolean success = true;
+        return ParallelBranchDispatcher.join(doGlobalCommitAsync(globalSession, retrying));
+    }
+
+    /**
+     * Commit the branches of the global transaction without blocking the caller thread, the results of the branches
+     * are applied in order on the phase two executor when the RMs respond.
+     *
+     * @param globalSession the global session
+     * @param retrying      the retrying
+     * @return the future of the commit result, completed exceptionally with TransactionException if it fails
+     */
+    public CompletableFuture<Boolean> doGlobalCommitAsync(GlobalSession globalSession, boolean retrying) {
         // start committing event
-        eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+        eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
             globalSession.getTransactionName(), globalSession.getApplicationId(), globalSession.getTransactionServiceGroup(),
-            globalSession.getBeginTime(), null, globalSession.getStatus()));
+            globalSession.getBeginTime(), null, globalSession.getStatus());
 
         if (globalSession.isSaga()) {
-            success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
-        } else {
-            Boolean result = SessionHelper.forEach(globalSession.getSortedBranches(), branchSession -> {
+            // the saga is committed by a single call of the state machine
+            return CompletableFuture.supplyAsync(() -> unchecked(
+                () -> getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying)), branchDispatcher.getExecutor())
+                .thenApply(success -> unchecked(() -> endGlobalCommit(globalSession, success, retrying)));
+        }
+        // the branches skipped by the handler are not sent
+        Predicate<BranchSession> toSend = branchSession -> (retrying || !branchSession.canBeCommittedAsync())
+            && branchSession.getStatus() != BranchStatus.PhaseOne_Failed;
+        return forEachBranchAsync(globalSession.getSortedBranches(), toSend,
+            branchSession -> branchCommitAsync(globalSession, branchSession, retrying), (branchSession, branchResult) -> {
                 // if not retrying, skip the canBeCommittedAsync branches
                 if (!retrying && branchSession.canBeCommittedAsync()) {
                     return CONTINUE;
@@ -201,7 +337,8 @@ public class DefaultCore implements Core {
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+                    // the result is completed, join does not block
+                    BranchStatus branchStatus = ParallelBranchDispatcher.join(branchResult);
 
                     switch (branchStatus) {
                         case PhaseTwo_Committed:
@@ -241,26 +378,31 @@ public class DefaultCore implements Core {
                     }
                 }
                 return CONTINUE;
-            });
-            // Return if the result is not null
-            if (result != null) {
-                return result;
-            }
-            //If has branch and not all remaining branches can be committed asynchronously,
-            //do print log and return false
-            if (globalSession.hasBranch() && !globalSession.canBeCommittedAsync()) {
-                LOGGER.info("Committing global transaction is NOT done, xid = {}.", globalSession.getXid());
-                return false;
-            }
-        }
+            }).thenApply(result -> unchecked(() -> {
+                // Return if the result is not null
+                if (result != null) {
+                    return result;
+                }
+                //If has branch and not all remaining branches can be committed asynchronously,
+                //do print log and return false
+                if (globalSession.hasBranch() && !globalSession.canBeCommittedAsync()) {
+                    LOGGER.info("Committing global transaction is NOT done, xid = {}.", globalSession.getXid());
+                    return false;
+                }
+                return endGlobalCommit(globalSession, true, retrying);
+            }));
+    }
+
+    private boolean endGlobalCommit(GlobalSession globalSession, boolean success, boolean retrying)
+        throws TransactionException {
         // if it succeeds and there is no branch, retrying=true is the asynchronous state when retrying. EndCommitted is executed to improve concurrency performance, and the global transaction ends..
         if (success && globalSession.getBranchSessions().isEmpty() && retrying) {
             SessionHelper.endCommitted(globalSession);
 
             // committed event
-            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+            eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
                 globalSession.getTransactionName(), globalSession.getApplicationId(), globalSession.getTransactionServiceGroup(),
-                globalSession.getBeginTime(), System.currentTimeMillis(), globalSession.getStatus()));
+                globalSession.getBeginTime(), System.currentTimeMillis(), globalSession.getStatus());
 
             LOGGER.info("Committing global transaction is successfully done, xid = {}.", globalSession.getXid());
         }
@@ -269,49 +411,80 @@ public class DefaultCore implements Core {
 
     @Override
     public GlobalStatus rollback(String xid) throws TransactionException {
-        GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
-        if (globalSession == null) {
-            return GlobalStatus.Finished;
-        }
-        globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-        // just lock changeStatus
-        boolean shouldRollBack = SessionHolder.lockAndExecute(globalSession, () -> {
-            globalSession.close(); // Highlight: Firstly, close the session, then no more branch can be registered.
-            if (globalSession.getStatus() == GlobalStatus.Begin) {
-                globalSession.changeStatus(GlobalStatus.Rollbacking);
-                return true;
+        return ParallelBranchDispatcher.join(rollbackAsync(xid));
+    }
+
+    /**
+     * Rollback the global transaction without blocking the caller thread until the branches are rollbacked.
+     *
+     * @param xid the xid
+     * @return the future of the global status
+     */
+    public CompletableFuture<GlobalStatus> rollbackAsync(String xid) {
+        try {
+            GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+            if (globalSession == null) {
+                return CompletableFuture.completedFuture(GlobalStatus.Finished);
+            }
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            // just lock changeStatus
+            boolean shouldRollBack = SessionHolder.lockAndExecute(globalSession, () -> {
+                globalSession.close(); // Highlight: Firstly, close the session, then no more branch can be registered.
+                if (globalSession.getStatus() == GlobalStatus.Begin) {
+                    globalSession.changeStatus(GlobalStatus.Rollbacking);
+                    return true;
+                }
+                return false;
+            });
+            SessionHolder.getSessionTimeoutWheel().remove(xid);
+            if (!shouldRollBack) {
+                return CompletableFuture.completedFuture(globalSession.getStatus());
             }
-            return false;
-        });
-        if (!shouldRollBack) {
-            return globalSession.getStatus();
-        }
 
-        doGlobalRollback(globalSession, false);
-        return globalSession.getStatus();
+            return doGlobalRollbackAsync(globalSession, false).thenApply(success -> globalSession.getStatus());
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
     }
 
     @Override
     public boolean doGlobalRollback(GlobalSession globalSession, boolean retrying) throws TransactionException {
-        boolean success = true;
+        return ParallelBranchDispatcher.join(doGlobalRollbackAsync(globalSession, retrying));
+    }
+
+    /**
+     * Rollback the branches of the global transaction without blocking the caller thread, the results of the
+     * branches are applied in the reverse order on the phase two executor when the RMs respond.
+     *
+     * @param globalSession the global session
+     * @param retrying      the retrying
+     * @return the future of the rollback result, completed exceptionally with TransactionException if it fails
+     */
+    public CompletableFuture<Boolean> doGlobalRollbackAsync(GlobalSession globalSession, boolean retrying) {
         // start rollback event
-        eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
+        eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(),
                 GlobalTransactionEvent.ROLE_TC, globalSession.getTransactionName(),
                 globalSession.getApplicationId(),
                 globalSession.getTransactionServiceGroup(), globalSession.getBeginTime(),
-                null, globalSession.getStatus()));
+                null, globalSession.getStatus());
 
         if (globalSession.isSaga()) {
-            success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
-        } else {
-            Boolean result = SessionHelper.forEach(globalSession.getReverseSortedBranches(), branchSession -> {
+            // the saga is rollbacked by a single call of the state machine
+            return CompletableFuture.supplyAsync(() -> unchecked(
+                () -> getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying)), branchDispatcher.getExecutor())
+                .thenApply(success -> unchecked(() -> endGlobalRollback(globalSession, success)));
+        }
+        return forEachBranchAsync(globalSession.getReverseSortedBranches(),
+            branchSession -> branchSession.getStatus() != BranchStatus.PhaseOne_Failed,
+            branchSession -> branchRollbackAsync(globalSession, branchSession, retrying), (branchSession, branchResult) -> {
                 BranchStatus currentBranchStatus = branchSession.getStatus();
                 if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
                     globalSession.removeBranch(branchSession);
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = branchRollback(globalSession, branchSession);
+                    // the result is completed, join does not block
+                    BranchStatus branchStatus = ParallelBranchDispatcher.join(branchResult);
                     switch (branchStatus) {
                         case PhaseTwo_Rollbacked:
                             globalSession.removeBranch(branchSession);
@@ -337,40 +510,117 @@ public class DefaultCore implements Core {
                     }
                     throw new TransactionException(ex);
                 }
-            });
-            // Return if the result is not null
-            if (result != null) {
-                return result;
-            }
+            }).thenApply(result -> unchecked(() -> {
+                // Return if the result is not null
+                if (result != null) {
+                    return result;
+                }
 
-            // In db mode, there is a problem of inconsistent data in multiple copies, resulting in new branch
-            // transaction registration when rolling back.
-            // 1. New branch transaction and rollback branch transaction have no data association
-            // 2. New branch transaction has data association with rollback branch transaction
-            // The second query can solve the first problem, and if it is the second problem, it may cause a rollback
-            // failure due to data changes.
-            GlobalSession globalSessionTwice = SessionHolder.findGlobalSession(globalSession.getXid());
-            if (globalSessionTwice != null && globalSessionTwice.hasBranch()) {
-                LOGGER.info("Rollbacking global transaction is NOT done, xid = {}.", globalSession.getXid());
-                return false;
-            }
-        }
+                // In db mode, there is a problem of inconsistent data in multiple copies, resulting in new branch
+                // transaction registration when rolling back.
+                // 1. New branch transaction and rollback branch transaction have no data association
+                // 2. New branch transaction has data association with rollback branch transaction
+                // The second query can solve the first problem, and if it is the second problem, it may cause a rollback
+                // failure due to data changes.
+                GlobalSession globalSessionTwice = SessionHolder.findGlobalSession(globalSession.getXid());
+                if (globalSessionTwice != null && globalSessionTwice.hasBranch()) {
+                    LOGGER.info("Rollbacking global transaction is NOT done, xid = {}.", globalSession.getXid());
+                    return false;
+                }
+                return endGlobalRollback(globalSession, true);
+            }));
+    }
+
+    private boolean endGlobalRollback(GlobalSession globalSession, boolean success) throws TransactionException {
         if (success) {
             SessionHelper.endRollbacked(globalSession);
 
             // rollbacked event
-            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
+            eventBus.postGlobalTransactionEvent(globalSession.getTransactionId(),
                     GlobalTransactionEvent.ROLE_TC, globalSession.getTransactionName(),
                     globalSession.getApplicationId(),
                     globalSession.getTransactionServiceGroup(),
                     globalSession.getBeginTime(), System.currentTimeMillis(),
-                    globalSession.getStatus()));
+                    globalSession.getStatus());
 
             LOGGER.info("Rollback global transaction successfully, xid = {}.", globalSession.getXid());
         }
         return success;
     }
 
+    /**
+     * Send the phase two requests of the branches and apply their results in the given order without blocking.
+     * <p>
+     * The requests are sent one by one, each after the previous result is applied, the same as
+     * {@link SessionHelper#forEach(java.util.Collection, io.seata.server.session.BranchSessionHandler)} does.
+     * If the parallel phase two is enabled, the requests of the branches on different resources are sent
+     * concurrently up front, and only their results are applied in order. The results are applied on the phase two
+     * executor, never on the thread which completes the response.
+     *
+     * @param branchSessions the branch sessions in the phase two order
+     * @param toSend         the branches need to be sent
+     * @param caller         the remote caller
+     * @param handler        the handler of the branch results
+     * @return the future of the first result which is not {@link BranchSessionHandler#CONTINUE}
+     */
+    private CompletableFuture<Boolean> forEachBranchAsync(List<BranchSession> branchSessions,
+                                                          Predicate<BranchSession> toSend,
+                                                          ParallelBranchDispatcher.BranchCaller caller,
+                                                          BranchResultHandler handler) {
+        Map<Long, CompletableFuture<BranchStatus>> dispatched = ENABLE_PARALLEL_PHASE_TWO && branchSessions.size() > 1
+            ? branchDispatcher.dispatch(branchSessions.stream().filter(toSend).collect(Collectors.toList()), caller)
+            : Collections.emptyMap();
+        Executor executor = branchDispatcher.getExecutor();
+        CompletableFuture<Boolean> result = CompletableFuture.completedFuture(CONTINUE);
+        for (BranchSession branchSession : branchSessions) {
+            result = result.thenCompose(previous -> {
+                if (previous != CONTINUE) {
+                    return CompletableFuture.completedFuture(previous);
+                }
+                CompletableFuture<BranchStatus> branchResult;
+                if (!dispatched.isEmpty()) {
+                    branchResult = dispatched.get(branchSession.getBranchId());
+                } else {
+                    branchResult = toSend.test(branchSession)
+                        ? ParallelBranchDispatcher.call(caller, branchSession, branchSession.getXid()) : null;
+                }
+                if (branchResult == null) {
+                    return CompletableFuture.completedFuture(handleBranchResult(handler, branchSession, null));
+                }
+                return branchResult.handleAsync(
+                    (branchStatus, ex) -> handleBranchResult(handler, branchSession, branchResult), executor);
+            });
+        }
+        return result;
+    }
+
+    private static Boolean handleBranchResult(BranchResultHandler handler, BranchSession branchSession,
+                                              CompletableFuture<BranchStatus> branchResult) {
+        try {
+            MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+            return handler.handle(branchSession, branchResult);
+        } catch (TransactionException e) {
+            throw new CompletionException(e);
+        } finally {
+            MDC.remove(RootContext.MDC_KEY_BRANCH_ID);
+        }
+    }
+
+    private static <T> T unchecked(TransactionCallable<T> callable) {
+        try {
+            return callable.call();
+        } catch (TransactionException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Destroy the threads sending the phase two requests and applying their results.
+     */
+    public void destroy() {
+        branchDispatcher.destroy();
+    }
+
     @Override
     public GlobalStatus getStatus(String xid) throws TransactionException {
         GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
@@ -398,4 +648,39 @@ public class DefaultCore implements Core {
             getCore(BranchType.SAGA).doGlobalReport(globalSession, xid, globalStatus);
         }
     }
+
+    /**
+     * The handler of a phase two branch result.
+     */
+    @FunctionalInterface
+    private interface BranchResultHandler {
+
+        /**
+         * Handle the branch result.
+         *
+         * @param branchSession the branch session
+         * @param branchResult  the completed result of the branch, null if the branch is not sent
+         * @return the handle result, {@link BranchSessionHandler#CONTINUE} to handle the next branch
+         * @throws TransactionException the transaction exception
+         */
+        Boolean handle(BranchSession branchSession, CompletableFuture<BranchStatus> branchResult)
+            throws TransactionException;
+    }
+
+    /**
+     * The phase two action which completes a future.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    private interface TransactionCallable<T> {
+
+        /**
+         * Call.
+         *
+         * @return the result
+         * @throws TransactionException the transaction exception
+         */
+        T call() throws TransactionException;
+    }
 }
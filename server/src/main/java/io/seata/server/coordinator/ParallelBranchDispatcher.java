@@ -0,0 +1,209 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.core.context.RootContext;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import org.slf4j.MDC;
+
+/**
+ * The parallel branch dispatcher.
+ * <p>
+ * Sends the phase two requests of the branches registered on different resources concurrently. The branches of the
+ * same resource are sent one by one in the given order, so the reverse order of the rollback is kept within a single
+ * resource. Only the remote calls are run concurrently, the branch results are applied in order by the caller.
+ * <p>
+ * The remote calls do not block, the next branch of a resource is sent by the executor when the previous one is
+ * responded. So a few threads can keep a large number of phase two requests in flight. The executor is also the one
+ * the results are applied on, see {@link #getExecutor()}.
+ *
+ * @since 1.5.0
+ */
+public class ParallelBranchDispatcher {
+
+    private static final long KEEP_ALIVE_TIME = 60L;
+
+    private final ExecutorService executor;
+
+    /**
+     * Instantiates a new parallel branch dispatcher.
+     *
+     * @param threadSize the thread size which sends the requests
+     */
+    public ParallelBranchDispatcher(int threadSize) {
+        this(new ThreadPoolExecutor(threadSize, threadSize, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("BranchPhaseTwo", threadSize)));
+    }
+
+    /**
+     * Instantiates a new parallel branch dispatcher.
+     *
+     * @param executor the executor
+     */
+    public ParallelBranchDispatcher(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Dispatch the branches, grouped by resource id.
+     *
+     * @param branchSessions the branch sessions in the expected order
+     * @param caller         the remote caller
+     * @return the results by branch id, empty if all branches belong to one resource
+     */
+    public Map<Long, CompletableFuture<BranchStatus>> dispatch(Collection<BranchSession> branchSessions,
+                                                               BranchCaller caller) {
+        Map<String, List<BranchSession>> groups = new LinkedHashMap<>();
+        for (BranchSession branchSession : branchSessions) {
+            groups.computeIfAbsent(branchSession.getResourceId(), key -> new ArrayList<>()).add(branchSession);
+        }
+        if (groups.size() <= 1) {
+            return Collections.emptyMap();
+        }
+        Map<Long, CompletableFuture<BranchStatus>> results = new HashMap<>(branchSessions.size());
+        for (BranchSession branchSession : branchSessions) {
+            results.put(branchSession.getBranchId(), new CompletableFuture<>());
+        }
+        String xid = MDC.get(RootContext.MDC_KEY_XID);
+        for (List<BranchSession> group : groups.values()) {
+            CompletableFuture<BranchStatus> previous = CompletableFuture.completedFuture(null);
+            for (BranchSession branchSession : group) {
+                CompletableFuture<BranchStatus> result = results.get(branchSession.getBranchId());
+                // the next branch of the resource is sent after the previous one is finished, whatever the result is
+                previous.handleAsync((status, th) -> call(caller, branchSession, xid), executor)
+                    .thenCompose(Function.identity())
+                    .whenComplete((status, th) -> {
+                        if (th != null) {
+                            result.completeExceptionally(CompletableFutureUtils.unwrap(th));
+                        } else {
+                            result.complete(status);
+                        }
+                    });
+                previous = result;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Send the phase two request of the branch with the xid and branch id in MDC.
+     *
+     * @param caller        the remote caller
+     * @param branchSession the branch session
+     * @param xid           the xid, may be null
+     * @return the future of the branch status, completed exceptionally if the call throws
+     */
+    static CompletableFuture<BranchStatus> call(BranchCaller caller, BranchSession branchSession, String xid) {
+        String previousXid = MDC.get(RootContext.MDC_KEY_XID);
+        String previousBranchId = MDC.get(RootContext.MDC_KEY_BRANCH_ID);
+        try {
+            if (xid != null) {
+                MDC.put(RootContext.MDC_KEY_XID, xid);
+            }
+            MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+            CompletableFuture<BranchStatus> result = caller.call(branchSession);
+            return result != null ? result
+                : CompletableFutureUtils.failedFuture(new IllegalStateException("null result of branch call"));
+        } catch (Throwable th) {
+            return CompletableFutureUtils.failedFuture(th);
+        } finally {
+            restoreMDC(RootContext.MDC_KEY_XID, previousXid);
+            restoreMDC(RootContext.MDC_KEY_BRANCH_ID, previousBranchId);
+        }
+    }
+
+    /**
+     * Wait for the phase two result.
+     *
+     * @param <T>    the type of the result
+     * @param result the phase two result
+     * @return the result
+     * @throws TransactionException the transaction exception
+     */
+    public static <T> T join(CompletableFuture<T> result) throws TransactionException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TransactionException(cause);
+        }
+    }
+
+    private static void restoreMDC(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+
+    /**
+     * Gets the executor which sends the requests and applies the phase two results.
+     *
+     * @return the executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Destroy.
+     */
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * The remote call of a branch.
+     */
+    @FunctionalInterface
+    public interface BranchCaller {
+
+        /**
+         * Send the phase two request of the branch without waiting for the response.
+         *
+         * @param branchSession the branch session
+         * @return the future of the branch status
+         */
+        CompletableFuture<BranchStatus> call(BranchSession branchSession);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.core.context.RootContext;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.rpc.Disposable;
+import io.seata.server.session.GlobalSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * The partitioned phase two scheduler.
+ * <p>
+ * Global sessions are sharded by transaction id across a fixed number of single thread workers, each with its own
+ * bounded queue. A session is always handled by the same worker, so the phase two operations of one transaction are
+ * executed in order, while a slow resource manager only stalls the sessions of its own partition.
+ * A session is queued at most once at a time, the scan tick will skip it until the previous dispatch is handled.
+ * The handler releases the worker once the phase two requests are sent, the session is pending until the returned
+ * future is completed.
+ *
+ * @since 1.5.0
+ */
+public class PhaseTwoScheduler implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhaseTwoScheduler.class);
+
+    private static final int SHUTDOWN_MAX_WAIT_MILLS = 5000;
+
+    private final ThreadPoolExecutor[] workers;
+
+    private final Set<String> pendingXids = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Instantiates a new phase two scheduler.
+     *
+     * @param workerSize the worker size
+     * @param queueSize  the max queued sessions of each worker
+     */
+    public PhaseTwoScheduler(int workerSize, int queueSize) {
+        if (workerSize <= 0) {
+            throw new IllegalArgumentException("phase two worker size must be greater than 0, but was " + workerSize);
+        }
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("phase two queue size must be greater than 0, but was " + queueSize);
+        }
+        this.workers = new ThreadPoolExecutor[workerSize];
+        NamedThreadFactory threadFactory = new NamedThreadFactory("PhaseTwoWorker", workerSize);
+        for (int i = 0; i < workerSize; i++) {
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize), threadFactory);
+        }
+    }
+
+    /**
+     * Dispatch the sessions to their workers, the handler does not block until the phase two is done.
+     *
+     * @param sessions the global sessions
+     * @param handler  the async handler
+     * @return the number of dispatched sessions
+     */
+    public int dispatchAsync(Collection<GlobalSession> sessions, AsyncGlobalSessionHandler handler) {
+        int dispatched = 0;
+        for (GlobalSession globalSession : sessions) {
+            if (dispatchAsync(globalSession, handler)) {
+                dispatched++;
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Dispatch the session to its worker, the session is pending until the future returned by the handler is
+     * completed.
+     *
+     * @param globalSession the global session
+     * @param handler       the async handler
+     * @return false if the session is already queued or the worker queue is full
+     */
+    public boolean dispatchAsync(GlobalSession globalSession, AsyncGlobalSessionHandler handler) {
+        String xid = globalSession.getXid();
+        if (!pendingXids.add(xid)) {
+            return false;
+        }
+        try {
+            workerOf(globalSession.getTransactionId()).execute(() -> {
+                CompletableFuture<?> result;
+                try {
+                    MDC.put(RootContext.MDC_KEY_XID, xid);
+                    result = handler.handle(globalSession);
+                } catch (Throwable th) {
+                    result = CompletableFutureUtils.failedFuture(th);
+                } finally {
+                    MDC.remove(RootContext.MDC_KEY_XID);
+                }
+                if (result == null) {
+                    pendingXids.remove(xid);
+                    return;
+                }
+                result.whenComplete((v, th) -> {
+                    if (th != null) {
+                        LOGGER.error("handle global session failed: {}", xid, CompletableFutureUtils.unwrap(th));
+                    }
+                    pendingXids.remove(xid);
+                });
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the worker is busy or shutting down, the session will be picked up by the next scan
+            pendingXids.remove(xid);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Phase two worker rejected global session: {}", xid);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of queued or running sessions.
+     *
+     * @return the pending size
+     */
+    public int getPendingSize() {
+        return pendingXids.size();
+    }
+
+    /**
+     * Gets the worker size.
+     *
+     * @return the worker size
+     */
+    public int getWorkerSize() {
+        return workers.length;
+    }
+
+    private ThreadPoolExecutor workerOf(long transactionId) {
+        return workers[(int) Math.floorMod(transactionId, (long) workers.length)];
+    }
+
+    @Override
+    public void destroy() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor worker : workers) {
+                worker.awaitTermination(SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ignore) {
+
+        }
+    }
+
+    /**
+     * The handler of a global session which returns before the phase two is done.
+     */
+    @FunctionalInterface
+    public interface AsyncGlobalSessionHandler {
+
+        /**
+         * Handle global session.
+         *
+         * @param globalSession the global session
+         * @return the future completed when the phase two is done, null if nothing is left to wait for
+         * @throws TransactionException the transaction exception
+         */
+        CompletableFuture<?> handle(GlobalSession globalSession) throws TransactionException;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.util.CollectionUtils;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
+
+/**
+ * The circuit breaker of the phase two retries by resource.
+ * <p>
+ * After the configured number of consecutive failures of a resource, the retries of its branches are rejected
+ * without being sent until the open duration has passed. Then one retry is let through to probe the resource, the
+ * circuit is closed if it succeeds, or opened again if it fails.
+ *
+ * @since 1.5.0
+ */
+public class ResourceCircuitBreaker {
+
+    private final int failureThreshold;
+
+    private final long openMills;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new resource circuit breaker.
+     *
+     * @param failureThreshold the consecutive failures to open the circuit, never open if it is not greater than 0
+     * @param openMills        the open duration in milliseconds
+     */
+    public ResourceCircuitBreaker(int failureThreshold, long openMills) {
+        this.failureThreshold = failureThreshold;
+        this.openMills = openMills;
+    }
+
+    /**
+     * Whether the request to the resource is allowed.
+     *
+     * @param resourceId the resource id
+     * @return false if the circuit of the resource is open
+     */
+    public boolean allowRequest(String resourceId) {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        Circuit circuit = circuits.get(resourceId);
+        if (circuit == null || circuit.failures.get() < failureThreshold) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long openUntil = circuit.openUntil.get();
+        // half open, only one request can probe the resource in an open duration
+        if (now >= openUntil && circuit.openUntil.compareAndSet(openUntil, now + openMills)) {
+            return true;
+        }
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getCounter(MeterIdConstants.COUNTER_CIRCUIT_OPEN).increase(1);
+        }
+        return false;
+    }
+
+    /**
+     * The resource responded.
+     *
+     * @param resourceId the resource id
+     */
+    public void onSuccess(String resourceId) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        Circuit circuit = circuits.get(resourceId);
+        if (circuit != null) {
+            circuit.failures.set(0);
+        }
+    }
+
+    /**
+     * The request to the resource failed.
+     *
+     * @param resourceId the resource id
+     */
+    public void onFailure(String resourceId) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        Circuit circuit = CollectionUtils.computeIfAbsent(circuits, resourceId, key -> new Circuit());
+        if (circuit.failures.incrementAndGet() == failureThreshold) {
+            circuit.openUntil.set(System.currentTimeMillis() + openMills);
+        }
+    }
+
+    /**
+     * Whether the circuit of the resource is open.
+     *
+     * @param resourceId the resource id
+     * @return the boolean
+     */
+    public boolean isOpen(String resourceId) {
+        Circuit circuit = circuits.get(resourceId);
+        return failureThreshold > 0 && circuit != null && circuit.failures.get() >= failureThreshold;
+    }
+
+    private static class Circuit {
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicLong openUntil = new AtomicLong();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.metrics.Id;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MetricsManager;
+import io.seata.server.session.GlobalSession;
+
+/**
+ * The retry queue of the committing or rollbacking sessions.
+ * <p>
+ * Every failed retry of a session pushes its next attempt time back exponentially, with a random jitter so that the
+ * sessions failed together are not retried together. The due sessions are polled in the order of their next attempt
+ * time. The state of a session is dropped when its retry succeeds, or when it has not been polled for a long time,
+ * which means the session is finished by others.
+ *
+ * @since 1.5.0
+ */
+public class RetryBackoffQueue {
+
+    private static final double JITTER_FACTOR = 0.2D;
+
+    private static final int MAX_SHIFT = 30;
+
+    private final long baseDelayMills;
+
+    private final long maxDelayMills;
+
+    private final Id successId;
+
+    private final Id failedId;
+
+    private final Map<String, RetryState> retryStates = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new retry backoff queue.
+     *
+     * @param baseDelayMills the delay after the first failure, no backoff if it is not greater than 0
+     * @param maxDelayMills  the max delay
+     * @param successId      the meter id of the succeeded attempts
+     * @param failedId       the meter id of the failed attempts
+     */
+    public RetryBackoffQueue(long baseDelayMills, long maxDelayMills, Id successId, Id failedId) {
+        this.baseDelayMills = baseDelayMills;
+        this.maxDelayMills = Math.max(baseDelayMills, maxDelayMills);
+        this.successId = successId;
+        this.failedId = failedId;
+    }
+
+    /**
+     * Poll the sessions which can be retried now.
+     *
+     * @param sessions the sessions to retry
+     * @param now      the current time
+     * @return the due sessions, ordered by the next attempt time
+     */
+    public List<GlobalSession> poll(Collection<GlobalSession> sessions, long now) {
+        List<DueSession> dueSessions = new ArrayList<>(sessions.size());
+        for (GlobalSession session : sessions) {
+            RetryState state = retryStates.get(session.getXid());
+            if (state == null) {
+                dueSessions.add(new DueSession(0L, session));
+                continue;
+            }
+            state.lastPollTime = now;
+            if (state.nextAttemptTime <= now) {
+                dueSessions.add(new DueSession(state.nextAttemptTime, session));
+            }
+        }
+        dueSessions.sort(Comparator.comparingLong(dueSession -> dueSession.nextAttemptTime));
+        List<GlobalSession> result = new ArrayList<>(dueSessions.size());
+        for (DueSession dueSession : dueSessions) {
+            result.add(dueSession.session);
+        }
+        evictStale(now);
+        return result;
+    }
+
+    /**
+     * Run a retry attempt of the session without blocking, the attempt fails if it completes with false or
+     * exceptionally, or any branch is left.
+     *
+     * @param session the session
+     * @param attempt the attempt
+     * @return the future of the result of the attempt
+     */
+    public CompletableFuture<Boolean> executeAsync(GlobalSession session, AsyncRetryAttempt attempt) {
+        CompletableFuture<Boolean> result;
+        try {
+            result = attempt.run();
+        } catch (RuntimeException e) {
+            result = CompletableFutureUtils.failedFuture(e);
+        }
+        return result.handle((success, ex) -> {
+            boolean finished = ex == null && success && !session.hasBranch();
+            if (finished) {
+                onSuccess(session.getXid());
+            } else {
+                onFailure(session.getXid(), System.currentTimeMillis());
+            }
+            if (ex != null) {
+                throw new CompletionException(CompletableFutureUtils.unwrap(ex));
+            }
+            return finished;
+        });
+    }
+
+    /**
+     * The retry of the session succeeded.
+     *
+     * @param xid the xid
+     */
+    public void onSuccess(String xid) {
+        retryStates.remove(xid);
+        increase(successId);
+    }
+
+    /**
+     * The retry of the session failed.
+     *
+     * @param xid the xid
+     * @param now the current time
+     */
+    public void onFailure(String xid, long now) {
+        retryStates.compute(xid, (key, state) -> {
+            RetryState newState = state == null ? new RetryState() : state;
+            newState.attempts++;
+            newState.nextAttemptTime = now + nextDelay(newState.attempts);
+            newState.lastPollTime = now;
+            return newState;
+        });
+        increase(failedId);
+    }
+
+    /**
+     * Remove the state of the session.
+     *
+     * @param xid the xid
+     */
+    public void remove(String xid) {
+        retryStates.remove(xid);
+    }
+
+    /**
+     * Gets the failed attempts of the session.
+     *
+     * @param xid the xid
+     * @return the failed attempts
+     */
+    public int getAttempts(String xid) {
+        RetryState state = retryStates.get(xid);
+        return state == null ? 0 : state.attempts;
+    }
+
+    /**
+     * Gets the next attempt time of the session.
+     *
+     * @param xid the xid
+     * @return the next attempt time, 0 if the session can be retried at once
+     */
+    public long getNextAttemptTime(String xid) {
+        RetryState state = retryStates.get(xid);
+        return state == null ? 0L : state.nextAttemptTime;
+    }
+
+    long nextDelay(int attempts) {
+        if (baseDelayMills <= 0) {
+            return 0L;
+        }
+        long delay = baseDelayMills << Math.min(attempts - 1, MAX_SHIFT);
+        if (delay <= 0 || delay > maxDelayMills) {
+            delay = maxDelayMills;
+        }
+        double jitter = 1D - JITTER_FACTOR + ThreadLocalRandom.current().nextDouble() * 2 * JITTER_FACTOR;
+        return (long) (delay * jitter);
+    }
+
+    private void evictStale(long now) {
+        long staleTime = now - 2 * maxDelayMills - baseDelayMills;
+        retryStates.entrySet().removeIf(entry -> entry.getValue().lastPollTime < staleTime);
+    }
+
+    private void increase(Id id) {
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getCounter(id).increase(1);
+        }
+    }
+
+    /**
+     * The retry attempt without blocking.
+     */
+    @FunctionalInterface
+    public interface AsyncRetryAttempt {
+
+        /**
+         * Retry the session.
+         *
+         * @return the future which is completed with true if the session is finished
+         */
+        CompletableFuture<Boolean> run();
+    }
+
+    private static class RetryState {
+
+        private int attempts;
+
+        private volatile long nextAttemptTime;
+
+        private volatile long lastPollTime;
+    }
+
+    private static class DueSession {
+
+        private final long nextAttemptTime;
+
+        private final GlobalSession session;
+
+        DueSession(long nextAttemptTime, GlobalSession session) {
+            this.nextAttemptTime = nextAttemptTime;
+            this.session = session;
+        }
+    }
+}
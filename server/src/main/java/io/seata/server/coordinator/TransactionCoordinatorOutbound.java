@@ -15,6 +15,9 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.server.session.BranchSession;
@@ -50,5 +53,38 @@ public interface TransactionCoordinatorOutbound {
      */
     BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException;
 
+    /**
+     * Commit a branch transaction without blocking the caller thread until the RM responds.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status after committing, completed exceptionally with
+     * TransactionException if the commit fails.
+     */
+    default CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                              BranchSession branchSession) {
+        try {
+            return CompletableFuture.completedFuture(branchCommit(globalSession, branchSession));
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
+    /**
+     * Rollback a branch transaction without blocking the caller thread until the RM responds.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status after rollbacking, completed exceptionally with
+     * TransactionException if the rollback fails.
+     */
+    default CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                                BranchSession branchSession) {
+        try {
+            return CompletableFuture.completedFuture(branchRollback(globalSession, branchSession));
+        } catch (TransactionException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
 
 }
@@ -0,0 +1,206 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.server.UUIDGenerator;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ownership of the global transactions among the server nodes sharing a store.
+ * <p>
+ * A global transaction is owned by the node which began it, told by the node id in its transaction id. Every node
+ * renews its heartbeat in the store and reads the heartbeats of all the nodes by the same call, the nodes whose
+ * heartbeat is not lapsed are alive. The transactions of a node which is not alive are taken over by the alive node
+ * following it in the node id order, wrapping around to the first one, so every alive node owns the node ids from its
+ * previous alive node, exclusive, to itself, inclusive. These ids are one or two ranges of the transaction ids, by
+ * which the sessions are queried from the store. The retry and the timeout work of a transaction is only done by its
+ * owner.
+ * <p>
+ * The view of a heartbeat is valid until the heartbeat timeout passes, the same time after which the other nodes
+ * consider this node dead. A node whose heartbeat is not renewed by then owns no transaction until it is renewed, so
+ * its transactions are not worked on by it and by the node taking them over at the same time, as long as the clocks
+ * of the nodes agree.
+ * <p>
+ * If the store keeps no heartbeat, or the heartbeat has never been renewed, every transaction is owned by this node.
+ *
+ * @since 1.5.0
+ */
+public class TransactionOwnership {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionOwnership.class);
+
+    private static final long[] NO_TRANSACTION_ID_RANGES = new long[0];
+
+    private final long nodeId;
+
+    private final long heartbeatTimeoutMills;
+
+    /**
+     * the ids of the alive nodes in order, null if every transaction is owned by this node
+     */
+    private volatile long[] aliveNodes;
+
+    /**
+     * the time until which the alive nodes are valid
+     */
+    private volatile long expireTime;
+
+    /**
+     * Instantiates a new transaction ownership.
+     *
+     * @param nodeId                the node id of this server
+     * @param heartbeatTimeoutMills the time after which a node without heartbeat is considered dead
+     */
+    public TransactionOwnership(long nodeId, long heartbeatTimeoutMills) {
+        this.nodeId = nodeId;
+        this.heartbeatTimeoutMills = heartbeatTimeoutMills;
+    }
+
+    /**
+     * Renew the heartbeat of this node and refresh the alive nodes, the last view expires if the store fails.
+     */
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            refresh(SessionHolder.getRootSessionManager().heartbeat(nodeId, now), now);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to renew the heartbeat of the server node[{}]: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the alive nodes by the heartbeats.
+     *
+     * @param heartbeats the last heartbeat time of every node by its node id, null if the store keeps no heartbeat
+     * @param now        the time of the heartbeat of this node
+     */
+    void refresh(Map<Long, Long> heartbeats, long now) {
+        if (heartbeats == null) {
+            aliveNodes = null;
+            return;
+        }
+        List<Long> alive = new ArrayList<>(heartbeats.size() + 1);
+        alive.add(nodeId);
+        heartbeats.forEach((node, heartbeatTime) -> {
+            if (node != nodeId && now - heartbeatTime <= heartbeatTimeoutMills) {
+                alive.add(node);
+            }
+        });
+        long[] nodes = new long[alive.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = alive.get(i);
+        }
+        Arrays.sort(nodes);
+        if (!Arrays.equals(nodes, aliveNodes)) {
+            LOGGER.info("The alive server nodes changed to {}", Arrays.toString(nodes));
+        }
+        aliveNodes = nodes;
+        expireTime = now + heartbeatTimeoutMills;
+    }
+
+    /**
+     * Whether the global transaction is owned by this node.
+     *
+     * @param transactionId the transaction id
+     * @return the boolean
+     */
+    public boolean isOwner(long transactionId) {
+        long[] nodes = aliveNodes;
+        if (nodes == null) {
+            return true;
+        }
+        if (isExpired()) {
+            return false;
+        }
+        return getOwner(nodes, UUIDGenerator.getServerNode(transactionId)) == nodeId;
+    }
+
+    /**
+     * Get the ranges of the transaction ids owned by this node.
+     *
+     * @return the inclusive min and max transaction id of every range in turn, null if every transaction is owned
+     * by this node, empty if none is
+     */
+    public long[] getOwnedTransactionIdRanges() {
+        long[] nodes = aliveNodes;
+        if (nodes == null) {
+            return null;
+        }
+        if (isExpired()) {
+            return NO_TRANSACTION_ID_RANGES;
+        }
+        if (nodes.length == 1) {
+            return null;
+        }
+        int index = Arrays.binarySearch(nodes, nodeId);
+        long previous = nodes[(index + nodes.length - 1) % nodes.length];
+        if (previous < nodeId) {
+            return new long[] {UUIDGenerator.getMinUUID(previous + 1), UUIDGenerator.getMaxUUID(nodeId)};
+        }
+        // the first alive node, the node ids after the last alive node wrap around to it
+        long maxNode = UUIDGenerator.getMaxServerNode();
+        if (previous == maxNode) {
+            return new long[] {UUIDGenerator.getMinUUID(0), UUIDGenerator.getMaxUUID(nodeId)};
+        }
+        return new long[] {UUIDGenerator.getMinUUID(0), UUIDGenerator.getMaxUUID(nodeId),
+            UUIDGenerator.getMinUUID(previous + 1), UUIDGenerator.getMaxUUID(maxNode)};
+    }
+
+    /**
+     * Filter the global sessions owned by this node.
+     *
+     * @param sessions the global sessions
+     * @return the owned global sessions
+     */
+    public List<GlobalSession> filter(Collection<GlobalSession> sessions) {
+        List<GlobalSession> owned = new ArrayList<>(sessions.size());
+        for (GlobalSession session : sessions) {
+            if (isOwner(session.getTransactionId())) {
+                owned.add(session);
+            }
+        }
+        return owned;
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() > expireTime;
+    }
+
+    /**
+     * Get the owner of the transactions of a node, the node itself if alive, otherwise the alive node following it.
+     *
+     * @param nodes the ids of the alive nodes in order
+     * @param node  the node id
+     * @return the node id of the owner
+     */
+    private static long getOwner(long[] nodes, long node) {
+        int index = Arrays.binarySearch(nodes, node);
+        if (index >= 0) {
+            return node;
+        }
+        int next = -index - 1;
+        return next < nodes.length ? nodes[next] : nodes[0];
+    }
+}
@@ -15,8 +15,15 @@
  */
 package io.seata.server.event;
 
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.event.EventBus;
-import io.seata.core.event.GuavaEventBus;
+import io.seata.core.event.RingBufferEventBus;
+import io.seata.core.event.RingBufferEventBus.OverflowPolicy;
+
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_EVENT_BUS_BUFFER_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_EVENT_BUS_OVERFLOW_POLICY;
 
 /**
  * Manager hold the singleton event bus instance.
@@ -25,7 +32,12 @@ import io.seata.core.event.GuavaEventBus;
  */
 public class EventBusManager {
     private static class SingletonHolder {
-        private static EventBus INSTANCE = new GuavaEventBus("tc");
+        private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+        private static EventBus INSTANCE = new RingBufferEventBus("tc",
+            CONFIG.getInt(ConfigurationKeys.SERVER_EVENT_BUS_BUFFER_SIZE, DEFAULT_SERVER_EVENT_BUS_BUFFER_SIZE),
+            OverflowPolicy.get(CONFIG.getConfig(ConfigurationKeys.SERVER_EVENT_BUS_OVERFLOW_POLICY,
+                DEFAULT_SERVER_EVENT_BUS_OVERFLOW_POLICY)));
     }
 
     public static EventBus get() {
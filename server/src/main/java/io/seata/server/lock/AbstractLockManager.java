@@ -24,10 +24,15 @@ import io.seata.common.util.StringUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.core.lock.RowLock;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.BranchSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
+
 /**
  * The type Abstract lock manager.
  *
@@ -56,7 +61,26 @@ public abstract class AbstractLockManager implements LockManager {
             // no lock
             return true;
         }
-        return getLocker(branchSession).acquireLock(locks);
+        boolean acquired = getLocker(branchSession).acquireLock(locks);
+        if (acquired) {
+            countLockEscalation(locks);
+        }
+        return acquired;
+    }
+
+    /**
+     * Count the table locks escalated by the client from the row locks.
+     *
+     * @param locks the acquired row locks
+     */
+    protected void countLockEscalation(List<RowLock> locks) {
+        long escalated = locks.stream().filter(lock -> TABLE_LOCK_PK.equals(lock.getPk())).count();
+        if (escalated > 0) {
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getCounter(MeterIdConstants.COUNTER_LOCK_ESCALATION).increase(escalated);
+            }
+        }
     }
 
     @Override
@@ -165,10 +189,15 @@ public abstract class AbstractLockManager implements LockManager {
             }
             String tableName = tableGroupedLockKey.substring(0, idx);
             String mergedPKs = tableGroupedLockKey.substring(idx + 1);
-            if (StringUtils.isBlank(mergedPKs)) {
+            String[] pks;
+            if (mergedPKs.isEmpty()) {
+                // the lock of the whole table has no pk
+                pks = new String[] {TABLE_LOCK_PK};
+            } else if (StringUtils.isBlank(mergedPKs)) {
                 return locks;
+            } else {
+                pks = mergedPKs.split(",");
             }
-            String[] pks = mergedPKs.split(",");
             if (pks == null || pks.length == 0) {
                 return locks;
             }
@@ -35,6 +35,22 @@ public interface LockManager {
      */
     boolean acquireLock(BranchSession branchSession) throws TransactionException;
 
+    /**
+     * Execute the registration of a branch, which acquires the locks of the branch holding the lock of the global
+     * session. A lock manager waiting for the conflicting rows waits without the lock of the global session, then
+     * executes the registration again, which checks the global session again.
+     *
+     * @param branchSession the branch session
+     * @param registration  the registration
+     * @param <T>           the type of the result
+     * @return the result of the registration
+     * @throws TransactionException the transaction exception
+     */
+    default <T> T executeWithLockWait(BranchSession branchSession, GlobalSession.LockCallable<T> registration)
+        throws TransactionException {
+        return registration.call();
+    }
+
     /**
      * Un lock boolean.
      *
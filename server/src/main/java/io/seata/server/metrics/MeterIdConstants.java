@@ -58,4 +58,87 @@ public interface MeterIdConstants {
         .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
         .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
         .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ROLLBACKED);
+
+    Id COUNTER_RETRY_COMMITTING_SUCCESS = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_RETRY_COMMITTING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+
+    Id COUNTER_RETRY_COMMITTING_FAILED = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_RETRY_COMMITTING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED);
+
+    Id COUNTER_RETRY_ROLLBACKING_SUCCESS = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_RETRY_ROLLBACKING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+
+    Id COUNTER_RETRY_ROLLBACKING_FAILED = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_RETRY_ROLLBACKING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED);
+
+    Id COUNTER_ASYNC_COMMITTING_SUCCESS = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ASYNC_COMMITTING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+
+    Id COUNTER_ASYNC_COMMITTING_FAILED = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ASYNC_COMMITTING)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED);
+
+    Id COUNTER_CIRCUIT_OPEN = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_CIRCUIT_OPEN);
+
+    Id SUMMARY_FILE_FSYNC = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_FILE_FSYNC);
+
+    Id SUMMARY_FILE_GROUP_COMMIT = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_FILE_GROUP_COMMIT);
+
+    Id GAUGE_SESSION_RELOAD_MILLS = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_SESSION_RELOAD);
+
+    Id TIMER_LOCK_WAIT_SUCCESS = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_LOCK_WAIT)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_SUCCESS);
+
+    Id TIMER_LOCK_WAIT_FAILED = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_LOCK_WAIT)
+        .withTag(IdConstants.RESULT_KEY, IdConstants.RESULT_VALUE_FAILED);
+
+    Id COUNTER_LOCK_WAIT_DEADLOCK = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_LOCK_DEADLOCK);
+
+    Id COUNTER_LOCK_ESCALATION = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_LOCK_ESCALATION);
+
+    Id SUMMARY_DB_GROUP_COMMIT = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_DB_GROUP_COMMIT);
 }
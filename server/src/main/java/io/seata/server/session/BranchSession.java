@@ -17,11 +17,9 @@ package io.seata.server.session;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.nio.charset.StandardCharsets;
 
-import io.seata.server.storage.file.lock.FileLocker;
+import io.seata.server.storage.file.lock.LockHolder;
 import io.seata.common.util.CompressUtil;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
@@ -66,8 +64,15 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private String applicationData;
 
-    private ConcurrentMap<FileLocker.BucketLockMap, Set<String>> lockHolder
-        = new ConcurrentHashMap<>();
+    private final Utf8BytesCache xidBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache resourceIdBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache lockKeyBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache clientIdBytesCache = new Utf8BytesCache();
+
+    private final LockHolder lockHolder = new LockHolder();
 
     /**
      * Gets application data.
@@ -268,7 +273,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      *
      * @return the lock holder
      */
-    public ConcurrentMap<FileLocker.BucketLockMap, Set<String>> getLockHolder() {
+    public LockHolder getLockHolder() {
         return lockHolder;
     }
 
@@ -290,16 +295,29 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     @Override
     public byte[] encode() {
+        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
+        //recycle
+        byteBuffer.clear();
+        encode(byteBuffer);
+        byteBuffer.flip();
+        byte[] result = new byte[byteBuffer.limit()];
+        byteBuffer.get(result);
+        return result;
+    }
+
+    @Override
+    public void encode(ByteBuffer byteBuffer) {
 
-        byte[] resourceIdBytes = resourceId != null ? resourceId.getBytes() : null;
+        byte[] resourceIdBytes = resourceIdBytesCache.get(resourceId);
 
-        byte[] lockKeyBytes = lockKey != null ? lockKey.getBytes() : null;
+        byte[] lockKeyBytes = lockKeyBytesCache.get(lockKey);
 
-        byte[] clientIdBytes = clientId != null ? clientId.getBytes() : null;
+        byte[] clientIdBytes = clientIdBytesCache.get(clientId);
 
-        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes() : null;
+        byte[] applicationDataBytes = applicationData != null
+            ? applicationData.getBytes(StandardCharsets.UTF_8) : null;
 
-        byte[] xidBytes = xid != null ? xid.getBytes() : null;
+        byte[] xidBytes = xidBytesCache.get(xid);
 
         byte branchTypeByte = branchType != null ? (byte) branchType.ordinal() : -1;
 
@@ -327,10 +345,6 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
             }
         }
 
-        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
-        //recycle
-        byteBuffer.clear();
-
         byteBuffer.putLong(transactionId);
         byteBuffer.putLong(branchId);
 
@@ -372,10 +386,6 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         byteBuffer.put(branchTypeByte);
 
         byteBuffer.put((byte)status.getCode());
-        byteBuffer.flip();
-        byte[] result = new byte[byteBuffer.limit()];
-        byteBuffer.get(result);
-        return result;
     }
 
     private int calBranchSessionSize(byte[] resourceIdBytes, byte[] lockKeyBytes, byte[] clientIdBytes,
@@ -406,7 +416,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         if (resourceLen > 0) {
             byte[] byResource = new byte[resourceLen];
             byteBuffer.get(byResource);
-            this.resourceId = new String(byResource);
+            this.resourceId = new String(byResource, StandardCharsets.UTF_8);
         }
         int lockKeyLen = byteBuffer.getInt();
         if (lockKeyLen > 0) {
@@ -414,12 +424,12 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
             byteBuffer.get(byLockKey);
             if (CompressUtil.isCompressData(byLockKey)) {
                 try {
-                    this.lockKey = new String(CompressUtil.uncompress(byLockKey));
+                    this.lockKey = new String(CompressUtil.uncompress(byLockKey), StandardCharsets.UTF_8);
                 } catch (IOException e) {
                     throw new RuntimeException("decompress lockKey error", e);
                 }
             } else {
-                this.lockKey = new String(byLockKey);
+                this.lockKey = new String(byLockKey, StandardCharsets.UTF_8);
             }
 
         }
@@ -427,19 +437,19 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
         if (clientIdLen > 0) {
             byte[] byClientId = new byte[clientIdLen];
             byteBuffer.get(byClientId);
-            this.clientId = new String(byClientId);
+            this.clientId = new String(byClientId, StandardCharsets.UTF_8);
         }
         int applicationDataLen = byteBuffer.getInt();
         if (applicationDataLen > 0) {
             byte[] byApplicationData = new byte[applicationDataLen];
             byteBuffer.get(byApplicationData);
-            this.applicationData = new String(byApplicationData);
+            this.applicationData = new String(byApplicationData, StandardCharsets.UTF_8);
         }
         int xidLen = byteBuffer.getInt();
         if (xidLen > 0) {
             byte[] xidBytes = new byte[xidLen];
             byteBuffer.get(xidBytes);
-            this.xid = new String(xidBytes);
+            this.xid = new String(xidBytes, StandardCharsets.UTF_8);
         }
         int branchTypeId = byteBuffer.get();
         if (branchTypeId >= 0) {
@@ -16,6 +16,7 @@
 package io.seata.server.session;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -86,6 +87,14 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     private String applicationData;
 
+    private final Utf8BytesCache xidBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache applicationIdBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache transactionServiceGroupBytesCache = new Utf8BytesCache();
+
+    private final Utf8BytesCache transactionNameBytesCache = new Utf8BytesCache();
+
     private volatile boolean active = true;
 
     private final ArrayList<BranchSession> branchSessions = new ArrayList<>();
@@ -499,15 +508,28 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public byte[] encode() {
-        byte[] byApplicationIdBytes = applicationId != null ? applicationId.getBytes() : null;
+        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
+        //recycle
+        byteBuffer.clear();
+        encode(byteBuffer);
+        byteBuffer.flip();
+        byte[] result = new byte[byteBuffer.limit()];
+        byteBuffer.get(result);
+        return result;
+    }
+
+    @Override
+    public void encode(ByteBuffer byteBuffer) {
+        byte[] byApplicationIdBytes = applicationIdBytesCache.get(applicationId);
 
-        byte[] byServiceGroupBytes = transactionServiceGroup != null ? transactionServiceGroup.getBytes() : null;
+        byte[] byServiceGroupBytes = transactionServiceGroupBytesCache.get(transactionServiceGroup);
 
-        byte[] byTxNameBytes = transactionName != null ? transactionName.getBytes() : null;
+        byte[] byTxNameBytes = transactionNameBytesCache.get(transactionName);
 
-        byte[] xidBytes = xid != null ? xid.getBytes() : null;
+        byte[] xidBytes = xidBytesCache.get(xid);
 
-        byte[] applicationDataBytes = applicationData != null ? applicationData.getBytes() : null;
+        byte[] applicationDataBytes = applicationData != null
+            ? applicationData.getBytes(StandardCharsets.UTF_8) : null;
 
         int size = calGlobalSessionSize(byApplicationIdBytes, byServiceGroupBytes, byTxNameBytes, xidBytes,
             applicationDataBytes);
@@ -516,9 +538,6 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
             throw new RuntimeException("global session size exceeded, size : " + size + " maxBranchSessionSize : " +
                 MAX_GLOBAL_SESSION_SIZE);
         }
-        ByteBuffer byteBuffer = byteBufferThreadLocal.get();
-        //recycle
-        byteBuffer.clear();
 
         byteBuffer.putLong(transactionId);
         byteBuffer.putInt(timeout);
@@ -555,10 +574,6 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
         byteBuffer.putLong(beginTime);
         byteBuffer.put((byte)status.getCode());
-        byteBuffer.flip();
-        byte[] result = new byte[byteBuffer.limit()];
-        byteBuffer.get(result);
-        return result;
     }
 
     private int calGlobalSessionSize(byte[] byApplicationIdBytes, byte[] byServiceGroupBytes, byte[] byTxNameBytes,
@@ -589,31 +604,31 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         if (applicationIdLen > 0) {
             byte[] byApplicationId = new byte[applicationIdLen];
             byteBuffer.get(byApplicationId);
-            this.applicationId = new String(byApplicationId);
+            this.applicationId = new String(byApplicationId, StandardCharsets.UTF_8);
         }
         short serviceGroupLen = byteBuffer.getShort();
         if (serviceGroupLen > 0) {
             byte[] byServiceGroup = new byte[serviceGroupLen];
             byteBuffer.get(byServiceGroup);
-            this.transactionServiceGroup = new String(byServiceGroup);
+            this.transactionServiceGroup = new String(byServiceGroup, StandardCharsets.UTF_8);
         }
         short txNameLen = byteBuffer.getShort();
         if (txNameLen > 0) {
             byte[] byTxName = new byte[txNameLen];
             byteBuffer.get(byTxName);
-            this.transactionName = new String(byTxName);
+            this.transactionName = new String(byTxName, StandardCharsets.UTF_8);
         }
         int xidLen = byteBuffer.getInt();
         if (xidLen > 0) {
             byte[] xidBytes = new byte[xidLen];
             byteBuffer.get(xidBytes);
-            this.xid = new String(xidBytes);
+            this.xid = new String(xidBytes, StandardCharsets.UTF_8);
         }
         int applicationDataLen = byteBuffer.getInt();
         if (applicationDataLen > 0) {
             byte[] applicationDataLenBytes = new byte[applicationDataLen];
             byteBuffer.get(applicationDataLenBytes);
-            this.applicationData = new String(applicationDataLenBytes);
+            this.applicationData = new String(applicationDataLenBytes, StandardCharsets.UTF_8);
         }
 
         this.beginTime = byteBuffer.getLong();
@@ -29,6 +29,8 @@ public class SessionCondition {
     private GlobalStatus[] statuses;
     private long overTimeAliveMills;
 
+    private long[] transactionIdRanges;
+
     /**
      * Instantiates a new Session condition.
      */
@@ -131,4 +133,22 @@ public class SessionCondition {
     public void setStatuses(GlobalStatus[] statuses) {
         this.statuses = statuses;
     }
+
+    /**
+     * Gets the transaction id ranges.
+     *
+     * @return the inclusive min and max transaction id of every range in turn, null for any transaction id
+     */
+    public long[] getTransactionIdRanges() {
+        return transactionIdRanges;
+    }
+
+    /**
+     * Sets the transaction id ranges.
+     *
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn
+     */
+    public void setTransactionIdRanges(long[] transactionIdRanges) {
+        this.transactionIdRanges = transactionIdRanges;
+    }
 }
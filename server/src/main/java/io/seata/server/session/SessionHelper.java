@@ -147,6 +147,29 @@ public class SessionHelper {
                 || status == GlobalStatus.TimeoutRollbackRetrying;
     }
 
+    /**
+     * Whether the global session of the status is unfinished, only the unfinished sessions are restored from the
+     * file store.
+     *
+     * @param status the global status
+     * @return the boolean
+     */
+    public static boolean isUnfinishedGlobalStatus(GlobalStatus status) {
+        switch (status) {
+            case UnKnown:
+            case Committed:
+            case CommitFailed:
+            case Rollbacked:
+            case RollbackFailed:
+            case TimeoutRollbacked:
+            case TimeoutRollbackFailed:
+            case Finished:
+                return false;
+            default:
+                return true;
+        }
+    }
+
     /**
      * Foreach global sessions.
      *
@@ -32,6 +32,9 @@ import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.store.StoreMode;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,10 +86,12 @@ public class SessionHolder {
     private static SessionManager RETRY_COMMITTING_SESSION_MANAGER;
     private static SessionManager RETRY_ROLLBACKING_SESSION_MANAGER;
 
+    private static SessionTimeoutWheel SESSION_TIMEOUT_WHEEL;
+
     /**
      * Init.
      *
-     * @param mode the store mode: file, db, redis
+     * @param mode the store mode: file, db, redis, raft
      * @throws IOException the io exception
      */
     public static void init(String mode) {
@@ -95,6 +100,7 @@ public class SessionHolder {
                 CONFIG.getConfig(ConfigurationKeys.STORE_MODE, SERVER_DEFAULT_STORE_MODE));
         }
         StoreMode storeMode = StoreMode.get(mode);
+        SESSION_TIMEOUT_WHEEL = new SessionTimeoutWheel();
         if (StoreMode.DB.equals(storeMode)) {
             ROOT_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.DB.getName());
             ASYNC_COMMITTING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.DB.getName(),
@@ -125,11 +131,27 @@ public class SessionHolder {
                 StoreMode.REDIS.getName(), new Object[] {RETRY_COMMITTING_SESSION_MANAGER_NAME});
             RETRY_ROLLBACKING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class,
                 StoreMode.REDIS.getName(), new Object[] {RETRY_ROLLBACKING_SESSION_MANAGER_NAME});
+        } else if (StoreMode.RAFT.equals(storeMode)) {
+            ROOT_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class, StoreMode.RAFT.getName(),
+                new Object[] {ROOT_SESSION_MANAGER_NAME});
+            ASYNC_COMMITTING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class,
+                StoreMode.RAFT.getName(), new Object[] {ASYNC_COMMITTING_SESSION_MANAGER_NAME});
+            RETRY_COMMITTING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class,
+                StoreMode.RAFT.getName(), new Object[] {RETRY_COMMITTING_SESSION_MANAGER_NAME});
+            RETRY_ROLLBACKING_SESSION_MANAGER = EnhancedServiceLoader.load(SessionManager.class,
+                StoreMode.RAFT.getName(), new Object[] {RETRY_ROLLBACKING_SESSION_MANAGER_NAME});
         } else {
             // unknown store
             throw new IllegalArgumentException("unknown store mode:" + mode);
         }
+        long reloadStart = System.currentTimeMillis();
         reload(storeMode);
+        long reloadMills = System.currentTimeMillis() - reloadStart;
+        LOGGER.info("Reload sessions of the store mode {} in {} ms", storeMode.getName(), reloadMills);
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getGauge(MeterIdConstants.GAUGE_SESSION_RELOAD_MILLS, () -> reloadMills);
+        }
     }
 
     //region reload
@@ -137,7 +159,7 @@ public class SessionHolder {
     /**
      * Reload.
      */
-    protected static void reload(StoreMode storeMode) {
+    public static void reload(StoreMode storeMode) {
         if (ROOT_SESSION_MANAGER instanceof Reloadable) {
             ((Reloadable) ROOT_SESSION_MANAGER).reload();
         }
@@ -161,12 +183,12 @@ public class SessionHolder {
                         removeGlobalSessions.add(globalSession);
                         break;
                     case AsyncCommitting:
-                        if (storeMode == StoreMode.FILE) {
+                        if (storeMode == StoreMode.FILE || storeMode == StoreMode.RAFT) {
                             queueToAsyncCommitting(globalSession);
                         }
                         break;
                     default: {
-                        if (storeMode == StoreMode.FILE) {
+                        if (storeMode == StoreMode.FILE || storeMode == StoreMode.RAFT) {
                             lockBranchSessions(globalSession.getSortedBranches());
 
                             switch (globalStatus) {
@@ -182,10 +204,14 @@ public class SessionHolder {
                                     break;
                                 case Begin:
                                     globalSession.setActive(true);
+                                    SESSION_TIMEOUT_WHEEL.add(globalSession);
                                     break;
                                 default:
                                     throw new ShouldNeverHappenException("NOT properly handled " + globalStatus);
                             }
+                        } else if (globalStatus == GlobalStatus.Begin) {
+                            // the session of the shared store may be begun on another server
+                            SESSION_TIMEOUT_WHEEL.add(globalSession);
                         }
                         break;
                     }
@@ -298,6 +324,18 @@ public class SessionHolder {
         return RETRY_ROLLBACKING_SESSION_MANAGER;
     }
 
+    /**
+     * Gets session timeout wheel.
+     *
+     * @return the session timeout wheel
+     */
+    public static SessionTimeoutWheel getSessionTimeoutWheel() {
+        if (SESSION_TIMEOUT_WHEEL == null) {
+            throw new ShouldNeverHappenException("SessionTimeoutWheel is NOT init!");
+        }
+        return SESSION_TIMEOUT_WHEEL;
+    }
+
     //endregion
 
     /**
@@ -17,6 +17,7 @@ package io.seata.server.session;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -105,6 +106,17 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     Collection<GlobalSession> allSessions();
 
+    /**
+     * All sessions collection of the transaction id ranges, the store which can not query by them returns all
+     * sessions.
+     *
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn, null for all
+     * @return the collection
+     */
+    default Collection<GlobalSession> allSessions(long[] transactionIdRanges) {
+        return allSessions();
+    }
+
     /**
      * Find global sessions list.
      *
@@ -143,4 +155,15 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
         return true;
     }
 
+    /**
+     * Renew the heartbeat of a server node, and read the heartbeats of all the nodes sharing the store.
+     *
+     * @param nodeId        the node id
+     * @param heartbeatTime the heartbeat time
+     * @return the last heartbeat time of every node by its node id, null if the store is not shared by nodes
+     */
+    default Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        return null;
+    }
+
 }
@@ -0,0 +1,204 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The hashed timing wheel of the global session timeout.
+ * <p>
+ * Sessions are registered with their deadline when they begin and removed when they are closed. The wheel has no
+ * worker thread, it is advanced by the timeout checker, which only visits the buckets of the elapsed ticks and gets
+ * the xids of the expired sessions. So the cost of a check depends on the number of expired sessions rather than on
+ * the number of active sessions.
+ *
+ * @since 1.5.0
+ */
+public class SessionTimeoutWheel {
+
+    /**
+     * The default tick duration in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLS = 10L;
+
+    /**
+     * The default number of buckets, about 41 seconds per round with the default tick.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 4096;
+
+    private final long tickMills;
+
+    private final long startTime;
+
+    private final LinkedList<Entry>[] wheel;
+
+    private final int mask;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry> pendingEntries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * the next tick to visit, guarded by this
+     */
+    private long currentTick;
+
+    /**
+     * Instantiates a new session timeout wheel with the default tick and size.
+     */
+    public SessionTimeoutWheel() {
+        this(DEFAULT_TICK_MILLS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Instantiates a new session timeout wheel.
+     *
+     * @param tickMills the tick duration in milliseconds
+     * @param wheelSize the number of buckets, it will be normalized to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SessionTimeoutWheel(long tickMills, int wheelSize) {
+        if (tickMills <= 0) {
+            throw new IllegalArgumentException("tickMills must be greater than 0, but was " + tickMills);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30], but was " + wheelSize);
+        }
+        int normalizedSize = 1;
+        while (normalizedSize < wheelSize) {
+            normalizedSize <<= 1;
+        }
+        this.tickMills = tickMills;
+        this.startTime = System.currentTimeMillis();
+        this.wheel = new LinkedList[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new LinkedList<>();
+        }
+        this.mask = normalizedSize - 1;
+    }
+
+    /**
+     * Register the global session.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        add(globalSession.getXid(), globalSession.getBeginTime() + globalSession.getTimeout());
+    }
+
+    /**
+     * Register the xid with the deadline, the previous registration of the xid is replaced.
+     *
+     * @param xid      the xid
+     * @param deadline the deadline in milliseconds
+     */
+    public void add(String xid, long deadline) {
+        long deadlineTick = (Math.max(deadline - startTime, 0L) + tickMills - 1) / tickMills;
+        Entry entry = new Entry(xid, deadlineTick);
+        Entry previous = entries.put(xid, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pendingEntries.add(entry);
+    }
+
+    /**
+     * Remove the registration of the xid.
+     *
+     * @param xid the xid
+     */
+    public void remove(String xid) {
+        Entry entry = entries.remove(xid);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * Gets the number of registered sessions.
+     *
+     * @return the size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the wheel to the time, the expired registrations are removed.
+     *
+     * @param now the current time in milliseconds
+     * @return the xids of the expired sessions
+     */
+    public synchronized List<String> advance(long now) {
+        transferPendingEntries();
+        long targetTick = (now - startTime) / tickMills;
+        List<String> expired = new ArrayList<>();
+        if (targetTick < currentTick) {
+            return expired;
+        }
+        // every bucket is visited at most once, whatever the elapsed ticks are
+        long lastTick = Math.min(targetTick, currentTick + mask);
+        for (long tick = currentTick; tick <= lastTick; tick++) {
+            Iterator<Entry> iterator = wheel[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.cancelled) {
+                    iterator.remove();
+                } else if (entry.deadlineTick <= targetTick) {
+                    iterator.remove();
+                    if (entries.remove(entry.xid, entry)) {
+                        expired.add(entry.xid);
+                    }
+                }
+            }
+        }
+        currentTick = targetTick + 1;
+        return expired;
+    }
+
+    private void transferPendingEntries() {
+        Entry entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // the entry which deadline has passed is put into the next visited bucket
+            long tick = Math.max(entry.deadlineTick, currentTick);
+            wheel[(int) (tick & mask)].add(entry);
+        }
+    }
+
+    private static class Entry {
+
+        private final String xid;
+
+        private final long deadlineTick;
+
+        private volatile boolean cancelled;
+
+        Entry(String xid, long deadlineTick) {
+            this.xid = xid;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The cache of the UTF-8 bytes of a string field, which is encoded every time the session is stored.
+ * <p>
+ * The bytes are bound to the string instance they are encoded from, so a field set to another string is encoded
+ * again without any invalidation by its setter.
+ *
+ * @since 1.5.0
+ */
+final class Utf8BytesCache {
+
+    private volatile Entry entry;
+
+    /**
+     * Gets the UTF-8 bytes of the value.
+     *
+     * @param value the current value of the field
+     * @return the bytes, null if the value is null
+     */
+    byte[] get(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry current = entry;
+        // compared by identity, the cached bytes are only reused for the same instance
+        if (current == null || current.value != value) {
+            current = new Entry(value, value.getBytes(StandardCharsets.UTF_8));
+            entry = current;
+        }
+        return current.bytes;
+    }
+
+    private static final class Entry {
+
+        private final String value;
+
+        private final byte[] bytes;
+
+        Entry(String value, byte[] bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
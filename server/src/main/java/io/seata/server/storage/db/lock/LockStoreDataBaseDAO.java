@@ -20,13 +20,21 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.seata.common.exception.DataAccessException;
 import io.seata.common.exception.StoreException;
 import io.seata.common.util.CollectionUtils;
@@ -43,6 +51,8 @@ import io.seata.core.store.db.sql.lock.LockStoreSqlFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.Constants.TABLE_LOCK_PK;
+import static io.seata.common.DefaultValues.DEFAULT_LOCK_DB_ACQUIRE_MODE;
 import static io.seata.common.DefaultValues.DEFAULT_LOCK_DB_TABLE;
 
 /**
@@ -59,6 +69,26 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected static final Configuration CONFIG = ConfigurationFactory.getInstance();
 
+    /**
+     * The lock acquire mode in which the locks are inserted without being queried first.
+     */
+    public static final String LOCK_ACQUIRE_MODE_INSERT = "insert";
+
+    /**
+     * The max number of the branches whose locks are cached.
+     */
+    private static final int OWNED_LOCK_CACHE_MAX_SIZE = 10000;
+
+    /**
+     * The max number of the locks inserted by a single statement, since the number of the parameters is limited.
+     */
+    private static final int MAX_INSERT_LOCK_SIZE = 1000;
+
+    /**
+     * The SQL state class of the integrity constraint violations.
+     */
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_SQL_STATE = "23";
+
     /**
      * The Lock store data source.
      */
@@ -74,6 +104,19 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected String dbType;
 
+    /**
+     * Whether the locks are inserted without being queried first, relying on the primary key of the row key.
+     */
+    protected boolean insertMode;
+
+    /**
+     * The row keys inserted through this server, by branch id. A branch registers its locks through a single server,
+     * so the cache of a branch is not changed by the other servers of the cluster, while the locks of the other
+     * branches of the same xid may be released by any of them and are always checked in the database.
+     */
+    protected final Cache<Long, Set<String>> ownedLockCache = CacheBuilder.newBuilder()
+        .maximumSize(OWNED_LOCK_CACHE_MAX_SIZE).expireAfterAccess(1, TimeUnit.HOURS).build();
+
     /**
      * Instantiates a new Data base lock store dao.
      *
@@ -83,6 +126,8 @@ public class LockStoreDataBaseDAO implements LockStore {
         this.lockStoreDataSource = lockStoreDataSource;
         lockTable = CONFIG.getConfig(ConfigurationKeys.LOCK_DB_TABLE, DEFAULT_LOCK_DB_TABLE);
         dbType = CONFIG.getConfig(ConfigurationKeys.STORE_DB_TYPE);
+        insertMode = LOCK_ACQUIRE_MODE_INSERT.equalsIgnoreCase(
+            CONFIG.getConfig(ConfigurationKeys.LOCK_DB_ACQUIRE_MODE, DEFAULT_LOCK_DB_ACQUIRE_MODE));
         if (StringUtils.isBlank(dbType)) {
             throw new StoreException("there must be db type.");
         }
@@ -98,6 +143,103 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     @Override
     public boolean acquireLock(List<LockDO> lockDOs) {
+        if (!insertMode) {
+            return queryAndAcquireLock(lockDOs);
+        }
+        if (lockDOs.size() > 1) {
+            lockDOs = lockDOs.stream().filter(LambdaUtils.distinctByKey(LockDO::getRowKey)).collect(Collectors.toList());
+        }
+        Long branchId = lockDOs.get(0).getBranchId();
+        Set<String> ownedRowKeys = branchId == null ? null : ownedLockCache.getIfPresent(branchId);
+        List<LockDO> needLockDOs = ownedRowKeys == null ? lockDOs
+            : lockDOs.stream().filter(lockDO -> !ownedRowKeys.contains(lockDO.getRowKey())).collect(Collectors.toList());
+        if (needLockDOs.isEmpty()) {
+            return true;
+        }
+        Boolean acquired = needLockDOs.size() <= MAX_INSERT_LOCK_SIZE ? insertLock(needLockDOs) : null;
+        if (acquired == null) {
+            // some rows are locked, by another branch of this global transaction or by another one, or too many.
+            // the rows held by the other branches are not cached, they may be released through another server
+            return queryAndAcquireLock(needLockDOs);
+        }
+        if (acquired && branchId != null) {
+            try {
+                ownedLockCache.get(branchId, ConcurrentHashMap::newKeySet).addAll(
+                    needLockDOs.stream().map(LockDO::getRowKey).collect(Collectors.toList()));
+            } catch (Exception e) {
+                LOGGER.warn("Failed to cache the locks of branchId {}: {}", branchId, e.getMessage());
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * Insert the locks by a single statement, the rows are not queried before. The table locks of the tables are
+     * checked after the rows are inserted.
+     *
+     * @param lockDOs the lock do list
+     * @return whether the locks are acquired, null if any of the rows is already locked
+     */
+    protected Boolean insertLock(List<LockDO> lockDOs) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        boolean originalAutoCommit = true;
+        try {
+            conn = lockStoreDataSource.getConnection();
+            if (originalAutoCommit = conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+            }
+            String batchInsertLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getBatchInsertLockSql(lockTable,
+                lockDOs.size());
+            ps = conn.prepareStatement(batchInsertLockSQL);
+            int index = 0;
+            for (LockDO lockDO : lockDOs) {
+                ps.setString(++index, lockDO.getXid());
+                ps.setLong(++index, lockDO.getTransactionId());
+                ps.setLong(++index, lockDO.getBranchId());
+                ps.setString(++index, lockDO.getResourceId());
+                ps.setString(++index, lockDO.getTableName());
+                ps.setString(++index, lockDO.getPk());
+                ps.setString(++index, lockDO.getRowKey());
+            }
+            try {
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                if (isIntegrityConstraintViolation(e)) {
+                    conn.rollback();
+                    return null;
+                }
+                throw e;
+            }
+            if (!checkTableLocks(conn, lockDOs)) {
+                conn.rollback();
+                return false;
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(ps);
+            if (conn != null) {
+                try {
+                    if (originalAutoCommit) {
+                        conn.setAutoCommit(true);
+                    }
+                    conn.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Query the locks and insert the ones not held by the global transaction yet.
+     *
+     * @param lockDOs the lock do list
+     * @return whether the locks are acquired
+     */
+    protected boolean queryAndAcquireLock(List<LockDO> lockDOs) {
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
@@ -111,17 +253,18 @@ public class LockStoreDataBaseDAO implements LockStore {
             if (originalAutoCommit = conn.getAutoCommit()) {
                 conn.setAutoCommit(false);
             }
-            //check lock
+            //check lock, the rows are checked together with the table locks of their tables
+            List<String> checkRowKeys = buildCheckRowKeys(lockDOs);
             StringJoiner sj = new StringJoiner(",");
-            for (int i = 0; i < lockDOs.size(); i++) {
+            for (int i = 0; i < checkRowKeys.size(); i++) {
                 sj.add("?");
             }
             boolean canLock = true;
             //query
             String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, sj.toString());
             ps = conn.prepareStatement(checkLockSQL);
-            for (int i = 0; i < lockDOs.size(); i++) {
-                ps.setString(i + 1, lockDOs.get(i).getRowKey());
+            for (int i = 0; i < checkRowKeys.size(); i++) {
+                ps.setString(i + 1, checkRowKeys.get(i));
             }
             rs = ps.executeQuery();
             String currentXID = lockDOs.get(0).getXid();
@@ -176,6 +319,13 @@ public class LockStoreDataBaseDAO implements LockStore {
                     return false;
                 }
             }
+            // the rows of the table are checked after the table lock is inserted
+            for (LockDO lockDO : unrepeatedLockDOs) {
+                if (TABLE_LOCK_PK.equals(lockDO.getPk()) && !checkTableLockable(conn, lockDO)) {
+                    conn.rollback();
+                    return false;
+                }
+            }
             conn.commit();
             return true;
         } catch (SQLException e) {
@@ -201,6 +351,8 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     @Override
     public boolean unLock(List<LockDO> lockDOs) {
+        ownedLockCache.invalidateAll(lockDOs.stream().map(LockDO::getBranchId).filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
         Connection conn = null;
         PreparedStatement ps = null;
         try {
@@ -229,6 +381,7 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     @Override
     public boolean unLock(String xid, Long branchId) {
+        ownedLockCache.invalidate(branchId);
         Connection conn = null;
         PreparedStatement ps = null;
         try {
@@ -250,6 +403,7 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     @Override
     public boolean unLock(String xid, List<Long> branchIds) {
+        ownedLockCache.invalidateAll(branchIds);
         Connection conn = null;
         PreparedStatement ps = null;
         try {
@@ -362,16 +516,17 @@ public class LockStoreDataBaseDAO implements LockStore {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
+            List<String> checkRowKeys = buildCheckRowKeys(lockDOs);
             StringJoiner sj = new StringJoiner(",");
-            for (int i = 0; i < lockDOs.size(); i++) {
+            for (int i = 0; i < checkRowKeys.size(); i++) {
                 sj.add("?");
             }
 
             //query
             String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, sj.toString());
             ps = conn.prepareStatement(checkLockSQL);
-            for (int i = 0; i < lockDOs.size(); i++) {
-                ps.setString(i + 1, lockDOs.get(i).getRowKey());
+            for (int i = 0; i < checkRowKeys.size(); i++) {
+                ps.setString(i + 1, checkRowKeys.get(i));
             }
             rs = ps.executeQuery();
             while (rs.next()) {
@@ -380,6 +535,46 @@ public class LockStoreDataBaseDAO implements LockStore {
                     return false;
                 }
             }
+            for (LockDO lockDO : lockDOs) {
+                if (TABLE_LOCK_PK.equals(lockDO.getPk()) && !checkTableLockable(conn, lockDO)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            IOUtil.close(rs, ps);
+        }
+    }
+
+    /**
+     * Check whether no other global transaction holds a lock of the table of a table lock.
+     *
+     * @param conn   the conn
+     * @param lockDO the table lock do
+     * @return the boolean
+     */
+    protected boolean checkTableLockable(Connection conn, LockDO lockDO) {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            String checkTableLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckTableLockableSql(lockTable);
+            ps = conn.prepareStatement(checkTableLockSQL);
+            ps.setString(1, lockDO.getResourceId());
+            ps.setString(2, lockDO.getTableName());
+            ps.setString(3, lockDO.getXid());
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}",
+                        rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME),
+                        rs.getString(ServerTableColumnsName.LOCK_TABLE_PK),
+                        rs.getString(ServerTableColumnsName.LOCK_TABLE_XID),
+                        rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID));
+                }
+                return false;
+            }
             return true;
         } catch (SQLException e) {
             throw new DataAccessException(e);
@@ -388,6 +583,89 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Check the table locks of the tables of the inserted locks, and the rows of the tables of the inserted table locks.
+     *
+     * @param conn    the conn
+     * @param lockDOs the inserted lock do list
+     * @return the boolean
+     */
+    protected boolean checkTableLocks(Connection conn, List<LockDO> lockDOs) {
+        Set<String> tableLockRowKeys = new LinkedHashSet<>();
+        for (LockDO lockDO : lockDOs) {
+            if (TABLE_LOCK_PK.equals(lockDO.getPk())) {
+                if (!checkTableLockable(conn, lockDO)) {
+                    return false;
+                }
+            } else {
+                tableLockRowKeys.add(toTableLockRowKey(lockDO));
+            }
+        }
+        if (tableLockRowKeys.isEmpty()) {
+            return true;
+        }
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            StringJoiner sj = new StringJoiner(",");
+            tableLockRowKeys.forEach(rowKey -> sj.add("?"));
+            String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, sj.toString());
+            ps = conn.prepareStatement(checkLockSQL);
+            int index = 0;
+            for (String rowKey : tableLockRowKeys) {
+                ps.setString(++index, rowKey);
+            }
+            rs = ps.executeQuery();
+            String currentXID = lockDOs.get(0).getXid();
+            while (rs.next()) {
+                String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
+                if (!StringUtils.equals(dbXID, currentXID)) {
+                    LOGGER.info("Global lock on [{}:{}] is holding by xid {}",
+                        rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME), TABLE_LOCK_PK, dbXID);
+                    return false;
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            IOUtil.close(rs, ps);
+        }
+    }
+
+    private static boolean isIntegrityConstraintViolation(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+            || (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION_SQL_STATE));
+    }
+
+    /**
+     * The row key of the table lock of the table of a lock, which differs from the row key only in the pk.
+     *
+     * @param lockDO the lock do
+     * @return the row key
+     */
+    private static String toTableLockRowKey(LockDO lockDO) {
+        String rowKey = lockDO.getRowKey();
+        return rowKey.substring(0, rowKey.length() - lockDO.getPk().length()) + TABLE_LOCK_PK;
+    }
+
+    /**
+     * The row keys to check, the row keys of the locks and the row keys of the table locks of their tables.
+     *
+     * @param lockDOs the lock do list
+     * @return the row keys
+     */
+    private static List<String> buildCheckRowKeys(List<LockDO> lockDOs) {
+        Set<String> checkRowKeys = new LinkedHashSet<>(lockDOs.size() + 1);
+        for (LockDO lockDO : lockDOs) {
+            checkRowKeys.add(lockDO.getRowKey());
+        }
+        for (LockDO lockDO : lockDOs) {
+            checkRowKeys.add(toTableLockRowKey(lockDO));
+        }
+        return new ArrayList<>(checkRowKeys);
+    }
+
     /**
      * Sets lock table.
      *
@@ -406,6 +684,15 @@ public class LockStoreDataBaseDAO implements LockStore {
         this.dbType = dbType;
     }
 
+    /**
+     * Sets whether the locks are inserted without being queried first.
+     *
+     * @param insertMode the insert mode
+     */
+    public void setInsertMode(boolean insertMode) {
+        this.insertMode = insertMode;
+    }
+
     /**
      * Sets log store data source.
      *
@@ -17,6 +17,7 @@ package io.seata.server.storage.db.session;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import io.seata.common.exception.StoreException;
 import io.seata.common.executor.Initialize;
@@ -164,22 +165,30 @@ public class DataBaseSessionManager extends AbstractSessionManager
 
     @Override
     public Collection<GlobalSession> allSessions() {
+        return allSessions(null);
+    }
+
+    @Override
+    public Collection<GlobalSession> allSessions(long[] transactionIdRanges) {
+        SessionCondition condition;
         // get by taskName
         if (SessionHolder.ASYNC_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(GlobalStatus.AsyncCommitting));
+            condition = new SessionCondition(GlobalStatus.AsyncCommitting);
         } else if (SessionHolder.RETRY_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing}));
+            condition = new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing});
         } else if (SessionHolder.RETRY_ROLLBACKING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
-                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying}));
+            condition = new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
+                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying});
         } else {
             // all data
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {
+            condition = new SessionCondition(new GlobalStatus[] {
                 GlobalStatus.UnKnown, GlobalStatus.Begin,
                 GlobalStatus.Committing, GlobalStatus.CommitRetrying, GlobalStatus.Rollbacking,
                 GlobalStatus.RollbackRetrying,
-                GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying, GlobalStatus.AsyncCommitting}));
+                GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying, GlobalStatus.AsyncCommitting});
         }
+        condition.setTransactionIdRanges(transactionIdRanges);
+        return findGlobalSessions(condition);
     }
 
     @Override
@@ -193,4 +202,14 @@ public class DataBaseSessionManager extends AbstractSessionManager
             throws TransactionException {
         return lockCallable.call();
     }
+
+    @Override
+    public Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        return DataBaseTransactionStoreManager.getInstance().heartbeat(nodeId, heartbeatTime);
+    }
+
+    @Override
+    public void destroy() {
+        transactionStoreManager.shutdown();
+    }
 }
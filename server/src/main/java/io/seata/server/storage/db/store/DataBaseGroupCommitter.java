@@ -0,0 +1,265 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.db.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The group commit of the session writes to the database.
+ * <p>
+ * The writes of the concurrent global transactions are queued, and a single writer takes the writes arrived while
+ * the last group was being committed, and those arriving within the max delay, as a group. The group is written as
+ * jdbc batches in one local transaction, and the callers return once it is committed. If the group fails, its writes
+ * are written one by one, so every caller gets the result of its own write.
+ *
+ * @since 1.5.0
+ */
+class DataBaseGroupCommitter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataBaseGroupCommitter.class);
+
+    private static final long MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
+
+    private static final long DEFAULT_MAX_WAIT_FOR_COMMIT_TIME_MILLS = 30 * 1000;
+
+    private final LogStoreDataBaseDAO logStore;
+
+    private final int maxSize;
+
+    private final long maxDelayNanos;
+
+    private final long maxWaitMills;
+
+    private final BlockingQueue<WriteRequest> writeRequests = new LinkedBlockingQueue<>();
+
+    private final ExecutorService writer;
+
+    private volatile boolean stopping;
+
+    /**
+     * The group being committed, failed on shutdown if the writer does not finish it in time.
+     */
+    private volatile List<WriteRequest> committing = new ArrayList<>();
+
+    /**
+     * Instantiates a new group committer.
+     *
+     * @param logStore      the log store
+     * @param maxSize       the max number of the writes of a group
+     * @param maxDelayMills the max time waiting for more writes after the first one of a group
+     */
+    DataBaseGroupCommitter(LogStoreDataBaseDAO logStore, int maxSize, long maxDelayMills) {
+        this(logStore, maxSize, maxDelayMills, DEFAULT_MAX_WAIT_FOR_COMMIT_TIME_MILLS);
+    }
+
+    /**
+     * Instantiates a new group committer.
+     *
+     * @param logStore      the log store
+     * @param maxSize       the max number of the writes of a group
+     * @param maxDelayMills the max time waiting for more writes after the first one of a group
+     * @param maxWaitMills  the max time a write waits for its group to be committed
+     */
+    DataBaseGroupCommitter(LogStoreDataBaseDAO logStore, int maxSize, long maxDelayMills, long maxWaitMills) {
+        this.logStore = logStore;
+        this.maxSize = Math.max(maxSize, 1);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxDelayMills, 0));
+        this.maxWaitMills = maxWaitMills;
+        this.writer = new ThreadPoolExecutor(1, 1, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("DBGroupCommit", 1, true));
+        this.writer.submit(this::run);
+    }
+
+    /**
+     * Write and wait until the group of the write is committed.
+     *
+     * @param write the write
+     * @return the result of the write
+     * @throws StoreException if the write failed, the committer is stopped, or the group of the write is not
+     *                        committed within the max wait time
+     */
+    boolean write(SessionWrite write) {
+        if (stopping) {
+            throw new StoreException("the group committer is stopped");
+        }
+        WriteRequest request = new WriteRequest(write);
+        writeRequests.add(request);
+        if (stopping && writeRequests.remove(request)) {
+            // stopped while queueing, the write may have been missed by the shutdown
+            throw new StoreException("the group committer is stopped");
+        }
+        try {
+            return request.result.get(maxWaitMills, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof StoreException ? (StoreException)cause : new StoreException(cause);
+        } catch (TimeoutException e) {
+            // a write still queued is never committed, one being committed may still be
+            if (writeRequests.remove(request)) {
+                throw new StoreException("the session write is not committed within " + maxWaitMills + " ms");
+            }
+            throw new StoreException("the group commit of the session write is not done within " + maxWaitMills
+                + " ms, its result is unknown");
+        }
+    }
+
+    /**
+     * Stop after committing the queued writes.
+     */
+    void shutdown() {
+        stopping = true;
+        writer.shutdownNow();
+        try {
+            writer.awaitTermination(MAX_WAIT_FOR_CLOSE_TIME_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // fail the writes left, if any
+        if (!writer.isTerminated()) {
+            List<WriteRequest> group = committing;
+            LOGGER.warn("The group commit of {} session writes is not done within {} ms, fail them", group.size(),
+                MAX_WAIT_FOR_CLOSE_TIME_MILLS);
+            for (WriteRequest request : group) {
+                request.result.completeExceptionally(new StoreException("the group committer is stopped"));
+            }
+        }
+        WriteRequest request;
+        while ((request = writeRequests.poll()) != null) {
+            request.result.completeExceptionally(new StoreException("the group committer is stopped"));
+        }
+    }
+
+    private void run() {
+        while (!stopping || !writeRequests.isEmpty()) {
+            List<WriteRequest> group = new ArrayList<>(maxSize);
+            try {
+                WriteRequest first = stopping ? writeRequests.poll() : writeRequests.take();
+                if (first == null) {
+                    break;
+                }
+                group.add(first);
+                collectGroup(group);
+            } catch (InterruptedException e) {
+                // stopping, the queued writes are still committed
+                if (group.isEmpty()) {
+                    continue;
+                }
+            }
+            committing = group;
+            commit(group);
+        }
+    }
+
+    /**
+     * Collect the queued writes into the group until it is full, or no more write arrives within the max delay.
+     */
+    private void collectGroup(List<WriteRequest> group) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < maxSize) {
+            WriteRequest request = writeRequests.poll();
+            if (request == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || stopping) {
+                    return;
+                }
+                request = writeRequests.poll(remaining, TimeUnit.NANOSECONDS);
+                if (request == null) {
+                    return;
+                }
+            }
+            group.add(request);
+        }
+    }
+
+    private void commit(List<WriteRequest> group) {
+        List<SessionWrite> writes = new ArrayList<>(group.size());
+        for (WriteRequest request : group) {
+            writes.add(request.write);
+        }
+        boolean[] results;
+        try {
+            results = logStore.writeBatch(writes);
+        } catch (Exception e) {
+            LOGGER.warn("Group commit of {} session writes failed, write them one by one: {}", group.size(),
+                e.getMessage());
+            for (WriteRequest request : group) {
+                try {
+                    request.result.complete(writeOne(request.write));
+                } catch (Exception ex) {
+                    request.result.completeExceptionally(ex);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).result.complete(results[i]);
+        }
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry != null) {
+            registry.getSummary(MeterIdConstants.SUMMARY_DB_GROUP_COMMIT).increase(group.size());
+        }
+    }
+
+    private boolean writeOne(SessionWrite write) {
+        switch (write.getOperation()) {
+            case GLOBAL_ADD:
+                return logStore.insertGlobalTransactionDO(write.getGlobalTransactionDO());
+            case GLOBAL_UPDATE:
+                return logStore.updateGlobalTransactionDO(write.getGlobalTransactionDO());
+            case GLOBAL_REMOVE:
+                return logStore.deleteGlobalTransactionDO(write.getGlobalTransactionDO());
+            case BRANCH_ADD:
+                return logStore.insertBranchTransactionDO(write.getBranchTransactionDO());
+            case BRANCH_UPDATE:
+                return logStore.updateBranchTransactionDO(write.getBranchTransactionDO());
+            case BRANCH_REMOVE:
+                return logStore.deleteBranchTransactionDO(write.getBranchTransactionDO());
+            default:
+                throw new StoreException("Unknown LogOperation:" + write.getOperation().name());
+        }
+    }
+
+    private static final class WriteRequest {
+
+        private final SessionWrite write;
+
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private WriteRequest(SessionWrite write) {
+            this.write = write;
+        }
+    }
+}
@@ -16,9 +16,11 @@
 package io.seata.server.storage.db.store;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
@@ -41,6 +43,10 @@ import io.seata.server.store.SessionStorable;
 import io.seata.server.store.TransactionStoreManager;
 import io.seata.server.storage.SessionConverter;
 
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_GROUP_COMMIT_MAX_SIZE;
+
 /**
  * The type Database transaction store manager.
  *
@@ -71,6 +77,21 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected int logQueryLimit;
 
+    /**
+     * The log store dao, for the writes beyond the log store.
+     */
+    private LogStoreDataBaseDAO logStoreDataBaseDAO;
+
+    /**
+     * The group committer of the session writes, null if every write is committed on its own.
+     */
+    private DataBaseGroupCommitter groupCommitter;
+
+    /**
+     * The scan positions of the status sets, the last global transaction of the page read before.
+     */
+    private final Map<String, GlobalTransactionDO> scanPositions = new ConcurrentHashMap<>();
+
     /**
      * Get the instance.
      */
@@ -93,11 +114,21 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         String datasourceType = CONFIG.getConfig(ConfigurationKeys.STORE_DB_DATASOURCE_TYPE);
         //init dataSource
         DataSource logStoreDataSource = EnhancedServiceLoader.load(DataSourceProvider.class, datasourceType).provide();
-        logStore = new LogStoreDataBaseDAO(logStoreDataSource);
+        logStoreDataBaseDAO = new LogStoreDataBaseDAO(logStoreDataSource);
+        logStore = logStoreDataBaseDAO;
+        if (CONFIG.getBoolean(ConfigurationKeys.STORE_DB_GROUP_COMMIT_ENABLE, DEFAULT_STORE_DB_GROUP_COMMIT_ENABLE)) {
+            groupCommitter = new DataBaseGroupCommitter(logStoreDataBaseDAO,
+                CONFIG.getInt(ConfigurationKeys.STORE_DB_GROUP_COMMIT_MAX_SIZE, DEFAULT_STORE_DB_GROUP_COMMIT_MAX_SIZE),
+                CONFIG.getLong(ConfigurationKeys.STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS,
+                    DEFAULT_STORE_DB_GROUP_COMMIT_MAX_DELAY_MILLS));
+        }
     }
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        if (groupCommitter != null) {
+            return groupCommitter.write(toSessionWrite(logOperation, session));
+        }
         if (LogOperation.GLOBAL_ADD.equals(logOperation)) {
             return logStore.insertGlobalTransactionDO(SessionConverter.convertGlobalTransactionDO(session));
         } else if (LogOperation.GLOBAL_UPDATE.equals(logOperation)) {
@@ -115,6 +146,21 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         }
     }
 
+    private SessionWrite toSessionWrite(LogOperation logOperation, SessionStorable session) {
+        switch (logOperation) {
+            case GLOBAL_ADD:
+            case GLOBAL_UPDATE:
+            case GLOBAL_REMOVE:
+                return new SessionWrite(logOperation, SessionConverter.convertGlobalTransactionDO(session));
+            case BRANCH_ADD:
+            case BRANCH_UPDATE:
+            case BRANCH_REMOVE:
+                return new SessionWrite(logOperation, SessionConverter.convertBranchTransactionDO(session));
+            default:
+                throw new StoreException("Unknown LogOperation:" + logOperation.name());
+        }
+    }
+
     /**
      * Read session global session.
      *
@@ -169,17 +215,39 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
 
     /**
      * Read session list.
+     * <p>
+     * Every call reads the next page of the sessions of the statuses ordered by gmt_modified and xid, so the sessions
+     * after the first page are not starved by those retried again and again. The scan starts over from the oldest
+     * session once a page is not full.
      *
      * @param statuses the statuses
      * @return the list
      */
     public List<GlobalSession> readSession(GlobalStatus[] statuses) {
+        return readSession(statuses, null);
+    }
+
+    /**
+     * Read session list of the transaction id ranges, paged as {@link #readSession(GlobalStatus[])}.
+     *
+     * @param statuses            the statuses
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn, null for any
+     * @return the list
+     */
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, long[] transactionIdRanges) {
         int[] states = new int[statuses.length];
         for (int i = 0; i < statuses.length; i++) {
             states[i] = statuses[i].getCode();
         }
+        String scanKey = Arrays.toString(states);
         //global transaction
-        List<GlobalTransactionDO> globalTransactionDOs = logStore.queryGlobalTransactionDO(states, logQueryLimit);
+        List<GlobalTransactionDO> globalTransactionDOs = logStore.queryGlobalTransactionDO(states,
+            scanPositions.get(scanKey), transactionIdRanges, logQueryLimit);
+        if (globalTransactionDOs == null || globalTransactionDOs.size() < logQueryLimit) {
+            scanPositions.remove(scanKey);
+        } else {
+            scanPositions.put(scanKey, globalTransactionDOs.get(globalTransactionDOs.size() - 1));
+        }
         if (CollectionUtils.isEmpty(globalTransactionDOs)) {
             return null;
         }
@@ -209,7 +277,7 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
                 return globalSessions;
             }
         } else if (CollectionUtils.isNotEmpty(sessionCondition.getStatuses())) {
-            return readSession(sessionCondition.getStatuses());
+            return readSession(sessionCondition.getStatuses(), sessionCondition.getTransactionIdRanges());
         }
         return null;
     }
@@ -226,6 +294,23 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         return globalSession;
     }
 
+    /**
+     * Renew the heartbeat of a server node, and read the heartbeats of all the nodes.
+     *
+     * @param nodeId        the node id
+     * @param heartbeatTime the heartbeat time
+     * @return the last heartbeat time of every node by its node id
+     */
+    public Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        return logStoreDataBaseDAO.heartbeat(nodeId, heartbeatTime);
+    }
+
+    @Override
+    public void shutdown() {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown();
+        }
+    }
 
     /**
      * Sets log store.
@@ -20,8 +20,12 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 
 import io.seata.common.exception.DataAccessException;
@@ -35,12 +39,15 @@ import io.seata.core.constants.ServerTableColumnsName;
 import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
 import io.seata.core.store.LogStore;
+import io.seata.core.store.db.sql.log.LogStoreSqls;
 import io.seata.core.store.db.sql.log.LogStoreSqlsFactory;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_BRANCH_TABLE;
 import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_GLOBAL_TABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_NODE_TABLE;
 
 /**
  * The type Log store data base dao.
@@ -80,6 +87,11 @@ public class LogStoreDataBaseDAO implements LogStore {
      */
     protected String branchTable;
 
+    /**
+     * The Node table.
+     */
+    protected String nodeTable;
+
     private String dbType;
 
     private int transactionNameColumnSize = TRANSACTION_NAME_DEFAULT_SIZE;
@@ -95,6 +107,7 @@ public class LogStoreDataBaseDAO implements LogStore {
             DEFAULT_STORE_DB_GLOBAL_TABLE);
         branchTable = CONFIG.getConfig(ConfigurationKeys.STORE_DB_BRANCH_TABLE,
             DEFAULT_STORE_DB_BRANCH_TABLE);
+        nodeTable = CONFIG.getConfig(ConfigurationKeys.STORE_DB_NODE_TABLE, DEFAULT_STORE_DB_NODE_TABLE);
         dbType = CONFIG.getConfig(ConfigurationKeys.STORE_DB_TYPE);
         if (StringUtils.isBlank(dbType)) {
             throw new StoreException("there must be db type.");
@@ -185,29 +198,67 @@ public class LogStoreDataBaseDAO implements LogStore {
         }
     }
 
+    @Override
+    public List<GlobalTransactionDO> queryGlobalTransactionDO(int[] statuses, GlobalTransactionDO after,
+                                                              long[] transactionIdRanges, int limit) {
+        if (transactionIdRanges != null && transactionIdRanges.length == 0) {
+            return new ArrayList<>();
+        }
+        int rangeCount = transactionIdRanges == null ? 0 : transactionIdRanges.length / 2;
+        if (after == null && rangeCount == 0) {
+            return queryGlobalTransactionDO(statuses, limit);
+        }
+        List<GlobalTransactionDO> ret = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+
+            String paramsPlaceHolder = org.apache.commons.lang.StringUtils.repeat("?", ",", statuses.length);
+
+            String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getQueryGlobalTransactionSQLByStatusAfter(
+                globalTable, paramsPlaceHolder, after != null, rangeCount);
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (int status : statuses) {
+                ps.setInt(index++, status);
+            }
+            if (after != null) {
+                // keep the fraction of the timestamp read from the db, so the cursor matches the row exactly
+                Timestamp gmtModified = after.getGmtModified() instanceof Timestamp
+                    ? (Timestamp)after.getGmtModified() : new Timestamp(after.getGmtModified().getTime());
+                ps.setTimestamp(index++, gmtModified);
+                ps.setTimestamp(index++, gmtModified);
+                ps.setString(index++, after.getXid());
+            }
+            for (int i = 0; i < rangeCount * 2; i++) {
+                ps.setLong(index++, transactionIdRanges[i]);
+            }
+            ps.setInt(index, limit);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                ret.add(convertGlobalTransactionDO(rs));
+            }
+            return ret;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            IOUtil.close(rs, ps, conn);
+        }
+    }
+
     @Override
     public boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
         String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertGlobalTransactionSQL(globalTable);
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, globalTransactionDO.getXid());
-            ps.setLong(index++, globalTransactionDO.getTransactionId());
-            ps.setInt(index++, globalTransactionDO.getStatus());
-            ps.setString(index++, globalTransactionDO.getApplicationId());
-            ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
-            String transactionName = globalTransactionDO.getTransactionName();
-            transactionName = transactionName.length() > transactionNameColumnSize ?
-                    transactionName.substring(0, transactionNameColumnSize) :
-                    transactionName;
-            ps.setString(index++, transactionName);
-            ps.setInt(index++, globalTransactionDO.getTimeout());
-            ps.setLong(index++, globalTransactionDO.getBeginTime());
-            ps.setString(index++, globalTransactionDO.getApplicationData());
+            setInsertGlobalTransactionParams(ps, globalTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -222,12 +273,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setInt(index++, globalTransactionDO.getStatus());
-            ps.setString(index++, globalTransactionDO.getXid());
+            setUpdateGlobalTransactionParams(ps, globalTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -245,7 +294,7 @@ public class LogStoreDataBaseDAO implements LogStore {
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(1, globalTransactionDO.getXid());
+            setDeleteGlobalTransactionParams(ps, globalTransactionDO);
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -315,19 +364,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getTransactionId());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
-            ps.setString(index++, branchTransactionDO.getResourceGroupId());
-            ps.setString(index++, branchTransactionDO.getResourceId());
-            ps.setString(index++, branchTransactionDO.getBranchType());
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            ps.setString(index++, branchTransactionDO.getClientId());
-            ps.setString(index++, branchTransactionDO.getApplicationData());
+            setInsertBranchTransactionParams(ps, branchTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -338,23 +378,14 @@ public class LogStoreDataBaseDAO implements LogStore {
 
     @Override
     public boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
-        boolean shouldUpdateAppData = StringUtils.isNotBlank(branchTransactionDO.getApplicationData());
-        String sql = shouldUpdateAppData ?
-                LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusAppDataSQL(branchTable) :
-                LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusSQL(branchTable);
+        String sql = getUpdateBranchTransactionSQL(branchTransactionDO);
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            if (shouldUpdateAppData) {
-                ps.setString(index++, branchTransactionDO.getApplicationData());
-            }
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
+            setUpdateBranchTransactionParams(ps, branchTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -372,8 +403,7 @@ public class LogStoreDataBaseDAO implements LogStore {
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(1, branchTransactionDO.getXid());
-            ps.setLong(2, branchTransactionDO.getBranchId());
+            setDeleteBranchTransactionParams(ps, branchTransactionDO);
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -383,6 +413,231 @@ public class LogStoreDataBaseDAO implements LogStore {
         return true;
     }
 
+    /**
+     * Write all the global and branch transaction DOs in one local transaction. The writes of the same sql are
+     * executed as one jdbc batch, a write joins the batch only if no later batch has a write of its global
+     * transaction, so the writes of a global transaction keep their order.
+     *
+     * @param writes the writes
+     * @return the result of every write
+     */
+    public boolean[] writeBatch(List<SessionWrite> writes) {
+        List<String> batchSqls = new ArrayList<>();
+        List<List<Integer>> batches = new ArrayList<>();
+        Map<String, Integer> lastBatchOfXid = new HashMap<>();
+        for (int i = 0; i < writes.size(); i++) {
+            SessionWrite write = writes.get(i);
+            String sql = getWriteSQL(write);
+            int batchIndex = lastBatchOfXid.getOrDefault(write.getXid(), 0);
+            while (batchIndex < batchSqls.size() && !batchSqls.get(batchIndex).equals(sql)) {
+                batchIndex++;
+            }
+            if (batchIndex == batchSqls.size()) {
+                batchSqls.add(sql);
+                batches.add(new ArrayList<>());
+            }
+            batches.get(batchIndex).add(i);
+            lastBatchOfXid.put(write.getXid(), batchIndex);
+        }
+        boolean[] results = new boolean[writes.size()];
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(false);
+            for (int i = 0; i < batches.size(); i++) {
+                ps = conn.prepareStatement(batchSqls.get(i));
+                for (int index : batches.get(i)) {
+                    setWriteParams(ps, writes.get(index));
+                    ps.addBatch();
+                }
+                int[] updateCounts = ps.executeBatch();
+                IOUtil.close(ps);
+                ps = null;
+                for (int j = 0; j < updateCounts.length; j++) {
+                    int index = batches.get(i).get(j);
+                    LogOperation operation = writes.get(index).getOperation();
+                    // the removes always succeed, as the single writes do
+                    results[index] = updateCounts[j] > 0 || updateCounts[j] == Statement.SUCCESS_NO_INFO
+                        || operation == LogOperation.GLOBAL_REMOVE || operation == LogOperation.BRANCH_REMOVE;
+                }
+            }
+            conn.commit();
+            return results;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackException) {
+                    LOGGER.error("Rollback the session writes failed: {}", rollbackException.getMessage());
+                }
+            }
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(ps);
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                }
+            }
+            IOUtil.close(conn);
+        }
+    }
+
+    /**
+     * Renew the heartbeat of a server node, and read the heartbeats of all the nodes.
+     *
+     * @param nodeId        the node id
+     * @param heartbeatTime the heartbeat time
+     * @return the last heartbeat time of every node by its node id
+     */
+    public Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        LogStoreSqls logStoreSqls = LogStoreSqlsFactory.getLogStoreSqls(dbType);
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+            ps = conn.prepareStatement(logStoreSqls.getUpdateNodeHeartbeatSQL(nodeTable));
+            ps.setLong(1, heartbeatTime);
+            ps.setLong(2, nodeId);
+            if (ps.executeUpdate() == 0) {
+                IOUtil.close(ps);
+                ps = conn.prepareStatement(logStoreSqls.getInsertNodeHeartbeatSQL(nodeTable));
+                ps.setLong(1, nodeId);
+                ps.setLong(2, heartbeatTime);
+                ps.executeUpdate();
+            }
+            IOUtil.close(ps);
+            ps = conn.prepareStatement(logStoreSqls.getQueryNodeHeartbeatSQL(nodeTable));
+            rs = ps.executeQuery();
+            Map<Long, Long> heartbeats = new HashMap<>();
+            while (rs.next()) {
+                heartbeats.put(rs.getLong(ServerTableColumnsName.NODE_TABLE_NODE_ID),
+                    rs.getLong(ServerTableColumnsName.NODE_TABLE_HEARTBEAT_TIME));
+            }
+            return heartbeats;
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(rs, ps, conn);
+        }
+    }
+
+    private String getWriteSQL(SessionWrite write) {
+        switch (write.getOperation()) {
+            case GLOBAL_ADD:
+                return LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertGlobalTransactionSQL(globalTable);
+            case GLOBAL_UPDATE:
+                return LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateGlobalTransactionStatusSQL(globalTable);
+            case GLOBAL_REMOVE:
+                return LogStoreSqlsFactory.getLogStoreSqls(dbType).getDeleteGlobalTransactionSQL(globalTable);
+            case BRANCH_ADD:
+                return LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertBranchTransactionSQL(branchTable);
+            case BRANCH_UPDATE:
+                return getUpdateBranchTransactionSQL(write.getBranchTransactionDO());
+            case BRANCH_REMOVE:
+                return LogStoreSqlsFactory.getLogStoreSqls(dbType).getDeleteBranchTransactionByBranchIdSQL(
+                    branchTable);
+            default:
+                throw new StoreException("Unknown LogOperation:" + write.getOperation().name());
+        }
+    }
+
+    private void setWriteParams(PreparedStatement ps, SessionWrite write) throws SQLException {
+        switch (write.getOperation()) {
+            case GLOBAL_ADD:
+                setInsertGlobalTransactionParams(ps, write.getGlobalTransactionDO());
+                break;
+            case GLOBAL_UPDATE:
+                setUpdateGlobalTransactionParams(ps, write.getGlobalTransactionDO());
+                break;
+            case GLOBAL_REMOVE:
+                setDeleteGlobalTransactionParams(ps, write.getGlobalTransactionDO());
+                break;
+            case BRANCH_ADD:
+                setInsertBranchTransactionParams(ps, write.getBranchTransactionDO());
+                break;
+            case BRANCH_UPDATE:
+                setUpdateBranchTransactionParams(ps, write.getBranchTransactionDO());
+                break;
+            case BRANCH_REMOVE:
+                setDeleteBranchTransactionParams(ps, write.getBranchTransactionDO());
+                break;
+            default:
+                throw new StoreException("Unknown LogOperation:" + write.getOperation().name());
+        }
+    }
+
+    private void setInsertGlobalTransactionParams(PreparedStatement ps, GlobalTransactionDO globalTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setString(index++, globalTransactionDO.getXid());
+        ps.setLong(index++, globalTransactionDO.getTransactionId());
+        ps.setInt(index++, globalTransactionDO.getStatus());
+        ps.setString(index++, globalTransactionDO.getApplicationId());
+        ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
+        String transactionName = globalTransactionDO.getTransactionName();
+        transactionName = transactionName.length() > transactionNameColumnSize ?
+                transactionName.substring(0, transactionNameColumnSize) :
+                transactionName;
+        ps.setString(index++, transactionName);
+        ps.setInt(index++, globalTransactionDO.getTimeout());
+        ps.setLong(index++, globalTransactionDO.getBeginTime());
+        ps.setString(index++, globalTransactionDO.getApplicationData());
+    }
+
+    private void setUpdateGlobalTransactionParams(PreparedStatement ps, GlobalTransactionDO globalTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setInt(index++, globalTransactionDO.getStatus());
+        ps.setString(index++, globalTransactionDO.getXid());
+    }
+
+    private void setDeleteGlobalTransactionParams(PreparedStatement ps, GlobalTransactionDO globalTransactionDO)
+        throws SQLException {
+        ps.setString(1, globalTransactionDO.getXid());
+    }
+
+    private void setInsertBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getTransactionId());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+        ps.setString(index++, branchTransactionDO.getResourceGroupId());
+        ps.setString(index++, branchTransactionDO.getResourceId());
+        ps.setString(index++, branchTransactionDO.getBranchType());
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        ps.setString(index++, branchTransactionDO.getClientId());
+        ps.setString(index++, branchTransactionDO.getApplicationData());
+    }
+
+    private String getUpdateBranchTransactionSQL(BranchTransactionDO branchTransactionDO) {
+        return StringUtils.isNotBlank(branchTransactionDO.getApplicationData()) ?
+                LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusAppDataSQL(branchTable) :
+                LogStoreSqlsFactory.getLogStoreSqls(dbType).getUpdateBranchTransactionStatusSQL(branchTable);
+    }
+
+    private void setUpdateBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        if (StringUtils.isNotBlank(branchTransactionDO.getApplicationData())) {
+            ps.setString(index++, branchTransactionDO.getApplicationData());
+        }
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+    }
+
+    private void setDeleteBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+        throws SQLException {
+        ps.setString(1, branchTransactionDO.getXid());
+        ps.setLong(2, branchTransactionDO.getBranchId());
+    }
+
     @Override
     public long getCurrentMaxSessionId(long high, long low) {
         String transMaxSql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getQueryGlobalMax(globalTable);
@@ -548,6 +803,15 @@ public class LogStoreDataBaseDAO implements LogStore {
         this.branchTable = branchTable;
     }
 
+    /**
+     * Sets node table.
+     *
+     * @param nodeTable the node table
+     */
+    public void setNodeTable(String nodeTable) {
+        this.nodeTable = nodeTable;
+    }
+
     /**
      * Sets db type.
      *
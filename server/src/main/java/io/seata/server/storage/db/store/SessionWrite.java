@@ -0,0 +1,79 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.db.store;
+
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.GlobalTransactionDO;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+
+/**
+ * A write of a global or branch transaction DO to the session store.
+ *
+ * @since 1.5.0
+ */
+public final class SessionWrite {
+
+    private final LogOperation operation;
+
+    private final GlobalTransactionDO globalTransactionDO;
+
+    private final BranchTransactionDO branchTransactionDO;
+
+    /**
+     * Instantiates a new write of a global transaction DO.
+     *
+     * @param operation           the operation
+     * @param globalTransactionDO the global transaction DO
+     */
+    public SessionWrite(LogOperation operation, GlobalTransactionDO globalTransactionDO) {
+        this.operation = operation;
+        this.globalTransactionDO = globalTransactionDO;
+        this.branchTransactionDO = null;
+    }
+
+    /**
+     * Instantiates a new write of a branch transaction DO.
+     *
+     * @param operation           the operation
+     * @param branchTransactionDO the branch transaction DO
+     */
+    public SessionWrite(LogOperation operation, BranchTransactionDO branchTransactionDO) {
+        this.operation = operation;
+        this.globalTransactionDO = null;
+        this.branchTransactionDO = branchTransactionDO;
+    }
+
+    public LogOperation getOperation() {
+        return operation;
+    }
+
+    public GlobalTransactionDO getGlobalTransactionDO() {
+        return globalTransactionDO;
+    }
+
+    public BranchTransactionDO getBranchTransactionDO() {
+        return branchTransactionDO;
+    }
+
+    /**
+     * The xid of the global transaction written, the writes of a global transaction keep their order.
+     *
+     * @return the xid
+     */
+    public String getXid() {
+        return globalTransactionDO != null ? globalTransactionDO.getXid() : branchTransactionDO.getXid();
+    }
+}
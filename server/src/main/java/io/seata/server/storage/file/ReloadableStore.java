@@ -33,6 +33,16 @@ public interface ReloadableStore {
      */
     List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory);
 
+    /**
+     * Read the encoded records without decoding them, every record can be decoded by
+     * {@link TransactionWriteStore#decode(byte[])}.
+     *
+     * @param readSize  the read size
+     * @param isHistory the is history
+     * @return the records
+     */
+    List<byte[]> readRecords(int readSize, boolean isHistory);
+
     /**
      * Has remaining boolean.
      *
@@ -18,6 +18,9 @@ package io.seata.server.storage.file.lock;
 import java.util.ArrayList;
 
 import io.seata.common.loader.LoadLevel;
+import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.server.lock.AbstractLockManager;
@@ -25,6 +28,7 @@ import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import org.slf4j.MDC;
 
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_LOCK_WAIT_TIMEOUT;
 import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 
 /**
@@ -35,11 +39,26 @@ import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 @LoadLevel(name = "file")
 public class FileLockManager extends AbstractLockManager {
 
+    /**
+     * the time a branch registration waits for the conflicting rows, the conflict is returned at once if it is 0
+     */
+    private static final long LOCK_WAIT_TIMEOUT_MILLS = ConfigurationFactory.getInstance().getLong(
+        ConfigurationKeys.SERVER_LOCK_WAIT_TIMEOUT, DEFAULT_SERVER_LOCK_WAIT_TIMEOUT);
+
     @Override
     public Locker getLocker(BranchSession branchSession) {
         return new FileLocker(branchSession);
     }
 
+    @Override
+    public <T> T executeWithLockWait(BranchSession branchSession, GlobalSession.LockCallable<T> registration)
+        throws TransactionException {
+        if (LOCK_WAIT_TIMEOUT_MILLS <= 0 || StringUtils.isNullOrEmpty(branchSession.getLockKey())) {
+            return registration.call();
+        }
+        return new FileLocker(branchSession).executeWithLockWait(registration, LOCK_WAIT_TIMEOUT_MILLS);
+    }
+
     @Override
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
         ArrayList<BranchSession> branchSessions = globalSession.getBranchSessions();
@@ -16,18 +16,21 @@
 package io.seata.server.storage.file.lock;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import io.netty.util.internal.ConcurrentSet;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.AbstractLocker;
 import io.seata.core.lock.RowLock;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+
+import static io.seata.common.Constants.TABLE_LOCK_PK;
+import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflict;
 
 /**
  * The type Memory locker.
@@ -36,11 +39,11 @@ import io.seata.server.session.BranchSession;
  */
 public class FileLocker extends AbstractLocker {
 
-    private static final int BUCKET_PER_TABLE = 128;
+    private static final int LOCK_TABLE_STRIPES = 128;
+
+    private static final LockTable LOCK_TABLE = new LockTable(LOCK_TABLE_STRIPES);
 
-    private static final ConcurrentMap<String/* resourceId */, ConcurrentMap<String/* tableName */,
-        ConcurrentMap<Integer/* bucketId */, BucketLockMap>>>
-        LOCK_MAP = new ConcurrentHashMap<>();
+    private static final LockWaitQueue LOCK_WAIT_QUEUE = new LockWaitQueue();
 
     /**
      * The Branch session.
@@ -56,6 +59,72 @@ public class FileLocker extends AbstractLocker {
         this.branchSession = branchSession;
     }
 
+    /**
+     * Execute a registration acquiring the locks of the branch, on a lock conflict wait in the queue of the
+     * conflicting row until it is unlocked and execute it again, until it succeeds or the wait timeout. The
+     * registration holds the lock of the global session, the wait does not.
+     *
+     * @param registration     the registration
+     * @param waitTimeoutMills the wait timeout in milliseconds
+     * @param <T>              the type of the result
+     * @return the result of the registration
+     * @throws TransactionException the exception of the registration, the lock conflict of the last one if the locks
+     *                              are not acquired
+     */
+    public <T> T executeWithLockWait(GlobalSession.LockCallable<T> registration, long waitTimeoutMills)
+        throws TransactionException {
+        TransactionException conflict;
+        try {
+            return registration.call();
+        } catch (TransactionException e) {
+            if (e.getCode() != LockKeyConflict) {
+                throw e;
+            }
+            conflict = e;
+        }
+        LockHolder lockHolder = branchSession.getLockHolder();
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMills);
+        LockWaitQueue.Waiter waiter = new LockWaitQueue.Waiter(branchSession.getTransactionId());
+        boolean acquired = false;
+        try {
+            while (System.nanoTime() < deadlineNanos) {
+                long conflictTransactionId = lockHolder.getConflictTransactionId();
+                if (!LOCK_WAIT_QUEUE.enqueue(waiter, lockHolder.getConflictRowKey(), conflictTransactionId)) {
+                    LOGGER.info("Global lock wait of transaction {} for {} leads to a deadlock",
+                        branchSession.getTransactionId(), conflictTransactionId);
+                    Registry registry = MetricsManager.get().getRegistry();
+                    if (registry != null) {
+                        registry.getCounter(MeterIdConstants.COUNTER_LOCK_WAIT_DEADLOCK).increase(1);
+                    }
+                    throw conflict;
+                }
+                // execute again once enqueued, so an unlock right before it is not missed
+                try {
+                    T result = registration.call();
+                    waiter.acquired();
+                    acquired = true;
+                    return result;
+                } catch (TransactionException e) {
+                    if (e.getCode() != LockKeyConflict) {
+                        throw e;
+                    }
+                    conflict = e;
+                }
+                if (waiter.isWaiting(lockHolder.getConflictRowKey())) {
+                    waiter.await(deadlineNanos);
+                }
+            }
+            throw conflict;
+        } finally {
+            LOCK_WAIT_QUEUE.leave(waiter);
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getTimer(acquired ? MeterIdConstants.TIMER_LOCK_WAIT_SUCCESS
+                    : MeterIdConstants.TIMER_LOCK_WAIT_FAILED).record(waiter.getWaitNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
     @Override
     public boolean acquireLock(List<RowLock> rowLocks) {
         if (CollectionUtils.isEmpty(rowLocks)) {
@@ -64,31 +133,37 @@ public class FileLocker extends AbstractLocker {
         }
         String resourceId = branchSession.getResourceId();
         long transactionId = branchSession.getTransactionId();
+        LockHolder lockHolder = branchSession.getLockHolder();
 
-        ConcurrentMap<BucketLockMap, Set<String>> bucketHolder = branchSession.getLockHolder();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = CollectionUtils.computeIfAbsent(
-            LOCK_MAP, resourceId, key -> new ConcurrentHashMap<>());
-
+        String scopeTableName = null;
+        long scope = 0;
         for (RowLock lock : rowLocks) {
             String tableName = lock.getTableName();
             String pk = lock.getPk();
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = CollectionUtils.computeIfAbsent(dbLockMap, tableName,
-                key -> new ConcurrentHashMap<>());
-
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = CollectionUtils.computeIfAbsent(tableLockMap, bucketId,
-                key -> new BucketLockMap());
-            Long previousLockTransactionId = bucketLockMap.get().putIfAbsent(pk, transactionId);
-            if (previousLockTransactionId == null) {
-                //No existing lock, and now locked by myself
-                Set<String> keysInHolder = CollectionUtils.computeIfAbsent(bucketHolder, bucketLockMap,
-                    key -> new ConcurrentSet<>());
-                keysInHolder.add(pk);
-            } else if (previousLockTransactionId == transactionId) {
-                // Locked by me before
-                continue;
-            } else {
-                LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + previousLockTransactionId);
+            boolean newScope = !tableName.equals(scopeTableName);
+            if (newScope) {
+                scope = LOCK_TABLE.scope(resourceId, tableName);
+                scopeTableName = tableName;
+            }
+            long lockingTransactionId = LOCK_TABLE.lock(scope, pk, transactionId, lockHolder);
+            String lockingPk = pk;
+            long[] otherLock = null;
+            // the table lock and the rows are checked after locking, so a table lock and a row lock of the same table
+            // taken at the same time by two transactions see each other
+            if (lockingTransactionId == transactionId && TABLE_LOCK_PK.equals(pk)) {
+                otherLock = LOCK_TABLE.findOtherLock(scope, transactionId);
+                if (otherLock != null) {
+                    lockingTransactionId = otherLock[1];
+                }
+            } else if (lockingTransactionId == transactionId && newScope) {
+                lockingTransactionId = LOCK_TABLE.getOwner(scope, TABLE_LOCK_PK, transactionId);
+                lockingPk = TABLE_LOCK_PK;
+            }
+            if (lockingTransactionId != transactionId) {
+                LOGGER.info("Global lock on [" + tableName + ":" + lockingPk + "] is holding by "
+                    + lockingTransactionId);
+                lockHolder.conflict(otherLock != null ? otherLock[0] : LockTable.key(scope, lockingPk),
+                    lockingTransactionId);
                 try {
                     // Release all acquired locks.
                     branchSession.unlock();
@@ -107,19 +182,13 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        ConcurrentMap<BucketLockMap, Set<String>> lockHolder = branchSession.getLockHolder();
-        if (CollectionUtils.isEmpty(lockHolder)) {
+        LockHolder lockHolder = branchSession.getLockHolder();
+        if (lockHolder.isEmpty()) {
             return true;
         }
-        for (Map.Entry<BucketLockMap, Set<String>> entry : lockHolder.entrySet()) {
-            BucketLockMap bucket = entry.getKey();
-            Set<String> keys = entry.getValue();
-            for (String key : keys) {
-                // remove lock only if it locked by myself
-                bucket.get().remove(key, branchSession.getTransactionId());
-            }
-        }
-        lockHolder.clear();
+        // remove lock only if it locked by myself
+        long[] rowKeys = LOCK_TABLE.unlock(lockHolder, branchSession.getTransactionId());
+        LOCK_WAIT_QUEUE.wake(rowKeys);
         return true;
     }
 
@@ -129,30 +198,29 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        Long transactionId = rowLocks.get(0).getTransactionId();
+        long transactionId = rowLocks.get(0).getTransactionId();
         String resourceId = rowLocks.get(0).getResourceId();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
-            return true;
-        }
+        String scopeTableName = null;
+        long scope = 0;
         for (RowLock rowLock : rowLocks) {
             String tableName = rowLock.getTableName();
             String pk = rowLock.getPk();
-
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
-                continue;
-            }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
-                continue;
+            boolean newScope = !tableName.equals(scopeTableName);
+            if (newScope) {
+                scope = LOCK_TABLE.scope(resourceId, tableName);
+                scopeTableName = tableName;
             }
-            Long lockingTransactionId = bucketLockMap.get().get(pk);
-            if (lockingTransactionId == null || lockingTransactionId.longValue() == transactionId) {
-                // Locked by me
-                continue;
+            long lockingTransactionId;
+            if (TABLE_LOCK_PK.equals(pk)) {
+                long[] otherLock = LOCK_TABLE.findOtherLock(scope, transactionId);
+                lockingTransactionId = otherLock == null ? transactionId : otherLock[1];
             } else {
+                lockingTransactionId = LOCK_TABLE.getOwner(scope, pk, transactionId);
+                if (lockingTransactionId == transactionId && newScope) {
+                    lockingTransactionId = LOCK_TABLE.getOwner(scope, TABLE_LOCK_PK, transactionId);
+                }
+            }
+            if (lockingTransactionId != transactionId) {
                 LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + lockingTransactionId);
                 return false;
             }
@@ -162,31 +230,7 @@ public class FileLocker extends AbstractLocker {
 
     @Override
     public void cleanAllLocks() {
-        LOCK_MAP.clear();
-    }
-
-    /**
-     * Because bucket lock map will be key of HashMap(lockHolder), however {@link ConcurrentHashMap} overwrites
-     * {@link Object##hashCode()} and {@link Object##equals(Object)}, that leads to hash key conflict in lockHolder.
-     * We define a {@link BucketLockMap} to hold the ConcurrentHashMap(bucketLockMap) and replace it as key of
-     * HashMap(lockHolder).
-     */
-    public static class BucketLockMap {
-        private final ConcurrentHashMap<String/* pk */, Long/* transactionId */> bucketLockMap
-            = new ConcurrentHashMap<>();
-
-        ConcurrentHashMap<String, Long> get() {
-            return bucketLockMap;
-        }
-
-        @Override
-        public int hashCode() {
-            return super.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            return super.equals(o);
-        }
+        LOCK_TABLE.clear();
+        LOCK_WAIT_QUEUE.clear();
     }
 }
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.Arrays;
+
+/**
+ * The row locks held by a branch session in the {@link LockTable}, kept as the keys of the rows in a primitive array.
+ *
+ * @since 1.5.0
+ */
+public final class LockHolder {
+
+    private static final long[] EMPTY_KEYS = new long[0];
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] keys = EMPTY_KEYS;
+
+    private int size;
+
+    /**
+     * the key of the row failed to lock by the last acquire
+     */
+    private long conflictRowKey;
+
+    /**
+     * the transaction holding the row failed to lock by the last acquire
+     */
+    private long conflictTransactionId;
+
+    /**
+     * Add the key of a row locked by the branch.
+     *
+     * @param key the row key
+     */
+    synchronized void add(long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(INITIAL_CAPACITY, size << 1));
+        }
+        keys[size++] = key;
+    }
+
+    /**
+     * Remove all the keys.
+     *
+     * @return the removed keys
+     */
+    synchronized long[] removeAll() {
+        long[] removed = Arrays.copyOf(keys, size);
+        keys = EMPTY_KEYS;
+        size = 0;
+        return removed;
+    }
+
+    /**
+     * The number of the row locks held.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Record the row failed to lock by the last acquire.
+     *
+     * @param rowKey        the key of the row
+     * @param transactionId the transaction holding the row
+     */
+    synchronized void conflict(long rowKey, long transactionId) {
+        this.conflictRowKey = rowKey;
+        this.conflictTransactionId = transactionId;
+    }
+
+    synchronized long getConflictRowKey() {
+        return conflictRowKey;
+    }
+
+    synchronized long getConflictTransactionId() {
+        return conflictTransactionId;
+    }
+
+    /**
+     * Whether no row lock is held.
+     *
+     * @return true if no row lock is held
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+}
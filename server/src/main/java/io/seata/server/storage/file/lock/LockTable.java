@@ -0,0 +1,385 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The in-memory table of the row locks, mapping every locked row to the id of the transaction holding it.
+ * <p>
+ * The resource ids and the table names are interned to ints, and every row is keyed by a 64-bit hash of its scope,
+ * the interned resource and table, and its pk. The rows are spread over the stripes by the hash, and every stripe is
+ * an open-addressing table of primitive arrays guarded by its own monitor. The scope and the pk of a row are kept
+ * next to the hash, so two rows with the same hash are still told apart. The number of the rows every transaction
+ * holds in a scope is counted, so a table lock finds the rows of the other transactions without scanning the stripes.
+ *
+ * @since 1.5.0
+ */
+class LockTable {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final ConcurrentMap<String, Integer> internedIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger internedIdSequence = new AtomicInteger();
+
+    private final ConcurrentMap<Long/* scope */, ConcurrentMap<Long/* transactionId */, Integer>> scopeRowCounts =
+        new ConcurrentHashMap<>();
+
+    private final Stripe[] stripes;
+
+    private final int stripeShift;
+
+    /**
+     * Instantiates a new lock table.
+     *
+     * @param stripeCount the number of the stripes, rounded up to a power of two
+     */
+    LockTable(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        // the stripe is chosen by the high bits of the key, and the slot in the stripe by the low bits
+        this.stripeShift = Long.SIZE - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * Intern a resource id or a table name.
+     *
+     * @param name the name
+     * @return the interned id
+     */
+    int intern(String name) {
+        Integer id = internedIds.get(name);
+        if (id == null) {
+            id = internedIds.computeIfAbsent(name, key -> internedIdSequence.incrementAndGet());
+        }
+        return id;
+    }
+
+    /**
+     * The scope of the rows of a table.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the scope
+     */
+    long scope(String resourceId, String tableName) {
+        return ((long)intern(resourceId) << Integer.SIZE) | (intern(tableName) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Lock a row for the transaction if it is not locked yet, the key of the row is added to the holder if it is
+     * locked by this call.
+     *
+     * @param scope         the scope of the row
+     * @param pk            the pk of the row
+     * @param transactionId the transaction id
+     * @param holder        the lock holder of the branch
+     * @return the id of the transaction holding the row, equals to the given one if the row is locked by it
+     */
+    long lock(long scope, String pk, long transactionId, LockHolder holder) {
+        long key = key(scope, pk);
+        return stripe(key).putIfAbsent(key, scope, pk, transactionId, holder);
+    }
+
+    /**
+     * Gets the transaction holding a row.
+     *
+     * @param scope         the scope of the row
+     * @param pk            the pk of the row
+     * @param transactionId the transaction id returned if the row is not locked
+     * @return the id of the transaction holding the row, the given one if the row is not locked
+     */
+    long getOwner(long scope, String pk, long transactionId) {
+        long key = key(scope, pk);
+        return stripe(key).get(key, scope, pk, transactionId);
+    }
+
+    /**
+     * Find a row of a scope held by a transaction other than the given one. The row counts of the scope tell whether
+     * there is such a row, the stripes are only scanned for its key when there is one.
+     *
+     * @param scope         the scope
+     * @param transactionId the transaction id
+     * @return the key of the row and the id of the transaction holding it, null if there is none
+     */
+    long[] findOtherLock(long scope, long transactionId) {
+        ConcurrentMap<Long, Integer> rowCounts = scopeRowCounts.get(scope);
+        if (rowCounts == null) {
+            return null;
+        }
+        for (Long owner : rowCounts.keySet()) {
+            if (owner == transactionId) {
+                continue;
+            }
+            for (Stripe stripe : stripes) {
+                long[] otherLock = stripe.findLock(scope, owner);
+                if (otherLock != null) {
+                    return otherLock;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The number of the rows of a scope held by a transaction.
+     *
+     * @param scope         the scope
+     * @param transactionId the transaction id
+     * @return the number of the rows
+     */
+    int rowCount(long scope, long transactionId) {
+        ConcurrentMap<Long, Integer> rowCounts = scopeRowCounts.get(scope);
+        Integer count = rowCounts == null ? null : rowCounts.get(transactionId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Unlock all the rows in the holder which are locked by the transaction.
+     * <p>
+     * A row is found by its key and the transaction only, so if two rows locked by the same transaction have the same
+     * hash, releasing one of them may release the other one first. It is harmless since both of them are held by the
+     * transaction and are released together with the global session.
+     *
+     * @param holder        the lock holder of the branch
+     * @param transactionId the transaction id
+     * @return the keys of the rows
+     */
+    long[] unlock(LockHolder holder, long transactionId) {
+        long[] keys = holder.removeAll();
+        for (long key : keys) {
+            stripe(key).remove(key, transactionId);
+        }
+        return keys;
+    }
+
+    /**
+     * The number of the locked rows.
+     *
+     * @return the size
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Unlock all the rows.
+     */
+    void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        scopeRowCounts.clear();
+    }
+
+    private void incrementRowCount(long scope, long transactionId) {
+        scopeRowCounts.computeIfAbsent(scope, key -> new ConcurrentHashMap<>()).merge(transactionId, 1, Integer::sum);
+    }
+
+    private void decrementRowCount(long scope, long transactionId) {
+        ConcurrentMap<Long, Integer> rowCounts = scopeRowCounts.get(scope);
+        if (rowCounts != null) {
+            rowCounts.computeIfPresent(transactionId, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private Stripe stripe(long key) {
+        return stripes[stripes.length == 1 ? 0 : (int)(key >>> stripeShift)];
+    }
+
+    /**
+     * The key of a row.
+     *
+     * @param scope the scope of the row
+     * @param pk    the pk of the row
+     * @return the key
+     */
+    static long key(long scope, String pk) {
+        // FNV-1a over the chars of the pk, then mixed with the scope
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0, length = pk.length(); i < length; i++) {
+            hash ^= pk.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash ^ mix(scope + SEED));
+    }
+
+    private static long mix(long value) {
+        // the finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * A stripe of the table, a linear probing hash table whose empty slots have no pk. The row counts are updated
+     * under the monitor of the stripe, so they never miss a row of the stripe.
+     */
+    private final class Stripe {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private long[] scopes = new long[INITIAL_CAPACITY];
+
+        private long[] owners = new long[INITIAL_CAPACITY];
+
+        private String[] pks = new String[INITIAL_CAPACITY];
+
+        private int size;
+
+        synchronized long putIfAbsent(long key, long scope, String pk, long transactionId, LockHolder holder) {
+            int mask = keys.length - 1;
+            int slot = (int)key & mask;
+            while (pks[slot] != null) {
+                if (matches(slot, key, scope, pk)) {
+                    return owners[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            scopes[slot] = scope;
+            owners[slot] = transactionId;
+            pks[slot] = pk;
+            if (holder != null) {
+                holder.add(key);
+            }
+            incrementRowCount(scope, transactionId);
+            // keep the load factor under 3/4
+            if (++size > (keys.length >> 2) * 3) {
+                resize(keys.length << 1);
+            }
+            return transactionId;
+        }
+
+        synchronized long get(long key, long scope, String pk, long defaultOwner) {
+            int mask = keys.length - 1;
+            int slot = (int)key & mask;
+            while (pks[slot] != null) {
+                if (matches(slot, key, scope, pk)) {
+                    return owners[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return defaultOwner;
+        }
+
+        synchronized long[] findLock(long scope, long transactionId) {
+            for (int slot = 0; slot < pks.length; slot++) {
+                if (pks[slot] != null && scopes[slot] == scope && owners[slot] == transactionId) {
+                    return new long[] {keys[slot], transactionId};
+                }
+            }
+            return null;
+        }
+
+        synchronized void remove(long key, long transactionId) {
+            int mask = keys.length - 1;
+            int slot = (int)key & mask;
+            while (pks[slot] != null) {
+                if (keys[slot] == key && owners[slot] == transactionId) {
+                    decrementRowCount(scopes[slot], transactionId);
+                    removeAt(slot);
+                    // give the memory back once most of the rows are unlocked
+                    if (keys.length > INITIAL_CAPACITY && size < keys.length >> 3) {
+                        resize(keys.length >> 1);
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            keys = new long[INITIAL_CAPACITY];
+            scopes = new long[INITIAL_CAPACITY];
+            owners = new long[INITIAL_CAPACITY];
+            pks = new String[INITIAL_CAPACITY];
+            size = 0;
+        }
+
+        private boolean matches(int slot, long key, long scope, String pk) {
+            return keys[slot] == key && scopes[slot] == scope && pks[slot].equals(pk);
+        }
+
+        private void removeAt(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            // shift the following entries of the probe sequence back, so no tombstone is needed
+            while (pks[next] != null) {
+                int home = (int)keys[next] & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    move(next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            pks[hole] = null;
+            size--;
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            scopes[to] = scopes[from];
+            owners[to] = owners[from];
+            pks[to] = pks[from];
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldScopes = scopes;
+            long[] oldOwners = owners;
+            String[] oldPks = pks;
+            keys = new long[capacity];
+            scopes = new long[capacity];
+            owners = new long[capacity];
+            pks = new String[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldPks.length; i++) {
+                if (oldPks[i] == null) {
+                    continue;
+                }
+                int slot = (int)oldKeys[i] & mask;
+                while (pks[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                scopes[slot] = oldScopes[i];
+                owners[slot] = oldOwners[i];
+                pks[slot] = oldPks[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The FIFO wait queues of the locked rows, in which the branch registrations wait for the rows to be unlocked.
+ * <p>
+ * A row is identified by its key in the {@link LockTable}. When a row is unlocked only the head of its queue is
+ * woken, and a head leaving the queue without the row wakes the next one, so the waiters of a row retry in the order
+ * they came. The rows waited for by every transaction are kept as a wait-for graph, in which a waiter finding itself
+ * is in a deadlock.
+ *
+ * @since 1.5.0
+ */
+class LockWaitQueue {
+
+    private final ConcurrentMap<Long/* row key */, Deque<Waiter>> queues = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long/* transactionId */, Long/* lockingTransactionId */> waitFor =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Enqueue a waiter on a row, or move it to the row if it is waiting for another one.
+     *
+     * @param waiter               the waiter
+     * @param rowKey               the key of the row
+     * @param lockingTransactionId the id of the transaction holding the row
+     * @return false if waiting for the row leads to a deadlock, the waiter is not enqueued then
+     */
+    boolean enqueue(Waiter waiter, long rowKey, long lockingTransactionId) {
+        if (waiter.queued && waiter.rowKey != rowKey) {
+            leave(waiter);
+        }
+        waitFor.put(waiter.transactionId, lockingTransactionId);
+        if (isDeadlock(waiter.transactionId, lockingTransactionId)) {
+            waitFor.remove(waiter.transactionId, lockingTransactionId);
+            return false;
+        }
+        if (!waiter.queued) {
+            waiter.rowKey = rowKey;
+            waiter.queued = true;
+            queues.compute(rowKey, (key, queue) -> {
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                }
+                queue.addLast(waiter);
+                return queue;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Remove a waiter from its queue, the next waiter is woken if this one is the head and did not get the row,
+     * since the row may have been unlocked for it.
+     *
+     * @param waiter the waiter
+     */
+    void leave(Waiter waiter) {
+        waitFor.remove(waiter.transactionId);
+        if (!waiter.queued) {
+            return;
+        }
+        waiter.queued = false;
+        queues.computeIfPresent(waiter.rowKey, (key, queue) -> {
+            boolean head = queue.peekFirst() == waiter;
+            queue.remove(waiter);
+            if (head && !waiter.acquired && !queue.isEmpty()) {
+                queue.peekFirst().wake();
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    /**
+     * Wake the head waiter of the rows just unlocked.
+     *
+     * @param rowKeys the keys of the rows
+     */
+    void wake(long[] rowKeys) {
+        if (queues.isEmpty()) {
+            return;
+        }
+        for (long rowKey : rowKeys) {
+            queues.computeIfPresent(rowKey, (key, queue) -> {
+                queue.peekFirst().wake();
+                return queue;
+            });
+        }
+    }
+
+    /**
+     * Clear all the queues and the wait-for graph, all the waiters are woken and enqueue again if they still wait.
+     */
+    void clear() {
+        for (Long rowKey : queues.keySet()) {
+            queues.computeIfPresent(rowKey, (key, queue) -> {
+                for (Waiter waiter : queue) {
+                    waiter.queued = false;
+                    waiter.wake();
+                }
+                return null;
+            });
+        }
+        waitFor.clear();
+    }
+
+    private boolean isDeadlock(long transactionId, long lockingTransactionId) {
+        Long current = lockingTransactionId;
+        // a cycle not passing through the transaction is found by its own waiters, so the walk is bounded
+        for (int i = waitFor.size(); current != null && i >= 0; i--) {
+            if (current == transactionId) {
+                return true;
+            }
+            current = waitFor.get(current);
+        }
+        return false;
+    }
+
+    /**
+     * A branch registration waiting for a row.
+     */
+    static final class Waiter {
+
+        private final long transactionId;
+
+        private final Thread thread = Thread.currentThread();
+
+        private final long enqueueNanos = System.nanoTime();
+
+        private long rowKey;
+
+        private volatile boolean queued;
+
+        private volatile boolean woken;
+
+        private boolean acquired;
+
+        Waiter(long transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        /**
+         * Park until the row waited for is unlocked or the deadline.
+         *
+         * @param deadlineNanos the deadline
+         */
+        void await(long deadlineNanos) {
+            long remaining;
+            while (!woken && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            woken = false;
+        }
+
+        boolean isWaiting(long rowKey) {
+            return queued && this.rowKey == rowKey;
+        }
+
+        void wake() {
+            woken = true;
+            LockSupport.unpark(thread);
+        }
+
+        void acquired() {
+            this.acquired = true;
+        }
+
+        long getWaitNanos() {
+            return System.nanoTime() - enqueueNanos;
+        }
+    }
+}
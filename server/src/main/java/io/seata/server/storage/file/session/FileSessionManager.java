@@ -33,19 +33,23 @@ import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
-import io.seata.core.model.GlobalStatus;
 import io.seata.server.session.AbstractSessionManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.Reloadable;
 import io.seata.server.session.SessionCondition;
+import io.seata.server.session.SessionHelper;
 import io.seata.server.storage.file.ReloadableStore;
 import io.seata.server.storage.file.TransactionWriteStore;
 import io.seata.server.storage.file.store.FileTransactionStoreManager;
+import io.seata.server.storage.file.store.SegmentedFileTransactionStoreManager;
 import io.seata.server.store.AbstractTransactionStoreManager;
 import io.seata.server.store.SessionStorable;
+import io.seata.server.store.StoreConfig;
 import io.seata.server.store.TransactionStoreManager;
 
+import static io.seata.common.DefaultValues.DEFAULT_SESSION_RELOAD_PARALLELISM;
+
 
 /**
  * The type File based session manager.
@@ -57,10 +61,13 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
 
     private static final int READ_SIZE = ConfigurationFactory.getInstance().getInt(
         ConfigurationKeys.SERVICE_SESSION_RELOAD_READ_SIZE, 100);
+
+    private static final int RELOAD_PARALLELISM = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.SERVICE_SESSION_RELOAD_PARALLELISM, DEFAULT_SESSION_RELOAD_PARALLELISM);
     /**
      * The Session map.
      */
-    private Map<String, GlobalSession> sessionMap = new ConcurrentHashMap<>();
+    protected Map<String, GlobalSession> sessionMap = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new File based session manager.
@@ -71,7 +78,10 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
      */
     public FileSessionManager(String name, String sessionStoreFilePath) throws IOException {
         super(name);
-        if (StringUtils.isNotBlank(sessionStoreFilePath)) {
+        if (StringUtils.isNotBlank(sessionStoreFilePath) && StoreConfig.isSegmentedLog()) {
+            transactionStoreManager = new SegmentedFileTransactionStoreManager(
+                    sessionStoreFilePath + File.separator + name);
+        } else if (StringUtils.isNotBlank(sessionStoreFilePath)) {
             transactionStoreManager = new FileTransactionStoreManager(
                     sessionStoreFilePath + File.separator + name, this);
         } else {
@@ -143,8 +153,19 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
         final Set<String> removedGlobalBuffer = new HashSet<>();
         final Map<String, Map<Long, BranchSession>> unhandledBranchBuffer = new HashMap<>();
 
-        restoreSessions(true, removedGlobalBuffer, unhandledBranchBuffer);
-        restoreSessions(false, removedGlobalBuffer, unhandledBranchBuffer);
+        int parallelism = RELOAD_PARALLELISM > 0 ? RELOAD_PARALLELISM : Runtime.getRuntime().availableProcessors();
+        if (parallelism > 1 && transactionStoreManager instanceof ReloadableStore) {
+            ReloadableStore reloadableStore = (ReloadableStore)transactionStoreManager;
+            try (ParallelRecordDecoder decoder = new ParallelRecordDecoder(parallelism)) {
+                decoder.decode(reloadableStore, true, READ_SIZE,
+                    stores -> restore(stores, removedGlobalBuffer, unhandledBranchBuffer));
+                decoder.decode(reloadableStore, false, READ_SIZE,
+                    stores -> restore(stores, removedGlobalBuffer, unhandledBranchBuffer));
+            }
+        } else {
+            restoreSessions(true, removedGlobalBuffer, unhandledBranchBuffer);
+            restoreSessions(false, removedGlobalBuffer, unhandledBranchBuffer);
+        }
 
         if (!unhandledBranchBuffer.isEmpty()) {
             unhandledBranchBuffer.values().forEach(unhandledBranchSessions -> {
@@ -175,20 +196,7 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
     }
 
     private boolean checkSessionStatus(GlobalSession globalSession) {
-        GlobalStatus globalStatus = globalSession.getStatus();
-        switch (globalStatus) {
-            case UnKnown:
-            case Committed:
-            case CommitFailed:
-            case Rollbacked:
-            case RollbackFailed:
-            case TimeoutRollbacked:
-            case TimeoutRollbackFailed:
-            case Finished:
-                return false;
-            default:
-                return true;
-        }
+        return SessionHelper.isUnfinishedGlobalStatus(globalSession.getStatus());
     }
 
     private void restoreSessions(boolean isHistory, Set<String> removedGlobalBuffer, Map<String,
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+
+import io.seata.server.storage.file.ReloadableStore;
+import io.seata.server.storage.file.TransactionWriteStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decode the records of a reloadable store on a fork-join pool while they are being restored.
+ * <p>
+ * The records are read in chunks by the calling thread, every chunk is decoded by a task of the pool, and the
+ * decoded chunks are handed to the consumer in the order they are read. So the sessions are still restored in the
+ * log order, in which the last record of a session wins, while the decoding, the most of the cost, runs in parallel.
+ * <p>
+ * A record which can not be decoded is logged and skipped, the records after it are still restored. It is the same
+ * as the serial reload, where the bad record ends its chunk and the next chunk is read from the record after it.
+ *
+ * @since 1.5.0
+ */
+class ParallelRecordDecoder implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRecordDecoder.class);
+
+    private static final String THREAD_PREFIX = "sessionReload_";
+
+    private final ForkJoinPool pool;
+
+    private final int maxPendingChunks;
+
+    /**
+     * Instantiates a new parallel record decoder.
+     *
+     * @param parallelism the parallelism
+     */
+    ParallelRecordDecoder(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(THREAD_PREFIX + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        // enough chunks are decoded ahead to keep all the threads busy
+        this.maxPendingChunks = parallelism * 2;
+    }
+
+    /**
+     * Read and decode all the records of the store.
+     *
+     * @param store     the store
+     * @param isHistory whether to read the history records
+     * @param chunkSize the number of the records in a chunk
+     * @param consumer  the consumer of the decoded chunks
+     */
+    void decode(ReloadableStore store, boolean isHistory, int chunkSize,
+                Consumer<List<TransactionWriteStore>> consumer) {
+        Deque<ForkJoinTask<List<TransactionWriteStore>>> pendingChunks = new ArrayDeque<>(maxPendingChunks);
+        while (store.hasRemaining(isHistory)) {
+            List<byte[]> records = store.readRecords(chunkSize, isHistory);
+            if (records == null) {
+                break;
+            }
+            pendingChunks.add(pool.submit(() -> decode(records)));
+            if (pendingChunks.size() >= maxPendingChunks) {
+                consumer.accept(pendingChunks.poll().join());
+            }
+        }
+        while (!pendingChunks.isEmpty()) {
+            consumer.accept(pendingChunks.poll().join());
+        }
+    }
+
+    private static List<TransactionWriteStore> decode(List<byte[]> records) {
+        List<TransactionWriteStore> writeStores = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            try {
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                writeStore.decode(record);
+                writeStores.add(writeStore);
+            } catch (Exception ex) {
+                LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
+            }
+        }
+        return writeStores;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
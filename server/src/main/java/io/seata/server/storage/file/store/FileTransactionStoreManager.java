@@ -18,6 +18,7 @@ package io.seata.server.storage.file.store;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
@@ -35,6 +36,9 @@ import java.util.concurrent.locks.ReentrantLock;
 import io.seata.common.exception.StoreException;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -123,6 +127,11 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
 
+    private static final int GROUP_COMMIT_MAX_SIZE = Math.max(StoreConfig.getGroupCommitMaxSize(), 1);
+
+    private static final long GROUP_COMMIT_MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        Math.max(StoreConfig.getGroupCommitMaxDelayMills(), 0));
+
     private static final int MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
 
     private static final int INT_BYTE_SIZE = 4;
@@ -174,7 +183,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         long curFileTrxNum;
         writeSessionLock.lock();
         try {
-            if (!writeDataFile(new TransactionWriteStore(session, logOperation).encode())) {
+            if (!writeDataFile(new TransactionWriteStore(session, logOperation))) {
                 return false;
             }
             lastModifiedTime = System.currentTimeMillis();
@@ -189,18 +198,27 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         } finally {
             writeSessionLock.unlock();
         }
-        flushDisk(curFileTrxNum, currFileChannel);
-        return true;
+        return flushDisk(curFileTrxNum, currFileChannel);
     }
 
-    private void flushDisk(long curFileNum, FileChannel currFileChannel) {
+    /**
+     * Flush the written session to the disk by the flush disk mode.
+     *
+     * @return false if the sync flush failed or is not done within the max wait time, always true in async mode
+     */
+    private boolean flushDisk(long curFileNum, FileChannel currFileChannel) {
 
         if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
             SyncFlushRequest syncFlushRequest = new SyncFlushRequest(curFileNum, currFileChannel);
             writeDataFileRunnable.putRequest(syncFlushRequest);
-            syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
+            if (!syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS)) {
+                LOGGER.error("sync flush is not done within {} ms", MAX_WAIT_FOR_FLUSH_TIME_MILLS);
+                return false;
+            }
+            return syncFlushRequest.isFlushed();
         } else {
             writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileNum, currFileChannel));
+            return true;
         }
     }
 
@@ -344,6 +362,25 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        List<byte[]> records = readRecords(readSize, isHistory);
+        if (records == null) {
+            return null;
+        }
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            try {
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                writeStore.decode(record);
+                transactionWriteStores.add(writeStore);
+            } catch (Exception ex) {
+                LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
+            }
+        }
+        return transactionWriteStores;
+    }
+
+    @Override
+    public List<byte[]> readRecords(int readSize, boolean isHistory) {
         File file = null;
         long currentOffset = 0;
         if (isHistory) {
@@ -382,8 +419,8 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         return false;
     }
 
-    private List<TransactionWriteStore> parseDataFile(File file, int readSize, long currentOffset, boolean isHistory) {
-        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
+    private List<byte[]> parseDataFile(File file, int readSize, long currentOffset, boolean isHistory) {
+        List<byte[]> records = new ArrayList<>(readSize);
         RandomAccessFile raf = null;
         FileChannel fileChannel = null;
         try {
@@ -408,18 +445,16 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                     if (avilReadSize != bodySize) {
                         break;
                     }
-                    TransactionWriteStore writeStore = new TransactionWriteStore();
-                    writeStore.decode(byBody);
-                    transactionWriteStores.add(writeStore);
-                    if (transactionWriteStores.size() == readSize) {
+                    records.add(byBody);
+                    if (records.size() == readSize) {
                         break;
                     }
                 } catch (Exception ex) {
-                    LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
+                    LOGGER.error("read data file error:{}", ex.getMessage(), ex);
                     break;
                 }
             }
-            return transactionWriteStores;
+            return records;
         } catch (IOException exx) {
             LOGGER.error("parse data file error:{},file:{}", exx.getMessage(), file.getName(), exx);
             return null;
@@ -450,6 +485,27 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
     }
 
+    private boolean writeDataFile(TransactionWriteStore writeStore) {
+        // encode into the write buffer directly, fall back to the byte array if the buffer is not large enough
+        int start = writeBuffer.position();
+        boolean encoded = false;
+        try {
+            writeBuffer.position(start + INT_BYTE_SIZE);
+            writeStore.encode(writeBuffer);
+            writeBuffer.putInt(start, writeBuffer.position() - start - INT_BYTE_SIZE);
+            encoded = true;
+        } catch (BufferOverflowException | IllegalArgumentException ignore) {
+        } finally {
+            if (!encoded) {
+                writeBuffer.position(start);
+            }
+        }
+        if (encoded) {
+            return flushWriteBuffer(writeBuffer);
+        }
+        return writeDataFile(writeStore.encode());
+    }
+
     private boolean writeDataFile(byte[] bs) {
         if (bs == null || bs.length >= Integer.MAX_VALUE - 3) {
             return false;
@@ -502,19 +558,32 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
         private final CountDownLatch countDownLatch = new CountDownLatch(1);
 
+        private volatile boolean flushed;
+
         public SyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
             super(curFileTrxNum, curFileChannel);
         }
 
-        public void wakeup() {
+        public void wakeup(boolean flushed) {
+            this.flushed = flushed;
             this.countDownLatch.countDown();
         }
 
-        public void waitForFlush(long timeout) {
+        /**
+         * Whether the write was forced to the disk, only meaningful after {@link #waitForFlush} returns true.
+         *
+         * @return true if flushed
+         */
+        public boolean isFlushed() {
+            return flushed;
+        }
+
+        public boolean waitForFlush(long timeout) {
             try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
+                return this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e) {
                 LOGGER.error("Interrupted", e);
+                return false;
             }
         }
     }
@@ -593,7 +662,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
             }
         }
 
-        private void handleStoreRequest(StoreRequest storeRequest) {
+        void handleStoreRequest(StoreRequest storeRequest) {
             if (storeRequest == null) {
                 flushOnCondition(currFileChannel);
             }
@@ -618,14 +687,84 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
             flushOnCondition(req.getCurFileChannel());
         }
 
+        /**
+         * Group commit: the sync flush requests arrived while the last group was being forced, and those arrive
+         * within the max delay, are forced together with one fsync, then all the waiters are woken up.
+         */
         private void syncFlush(SyncFlushRequest req) {
-            if (req.getCurFileTrxNum() > FILE_FLUSH_NUM.get()) {
-                long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-                flush(req.getCurFileChannel());
-                FILE_FLUSH_NUM.addAndGet(diff);
+            List<SyncFlushRequest> group = new ArrayList<>();
+            group.add(req);
+            StoreRequest nextRequest = collectGroup(group);
+            boolean flushed = false;
+            try {
+                long maxTrxNum = 0;
+                List<FileChannel> fileChannels = new ArrayList<>(1);
+                for (SyncFlushRequest request : group) {
+                    if (request.getCurFileTrxNum() > FILE_FLUSH_NUM.get()
+                        && !fileChannels.contains(request.getCurFileChannel())) {
+                        fileChannels.add(request.getCurFileChannel());
+                    }
+                    maxTrxNum = Math.max(maxTrxNum, request.getCurFileTrxNum());
+                }
+                boolean forced = true;
+                if (maxTrxNum > FILE_FLUSH_NUM.get()) {
+                    long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+                    for (FileChannel fileChannel : fileChannels) {
+                        forced &= flush(fileChannel);
+                    }
+                    // not counted as flushed if failed, so the next sync flush forces the file again
+                    if (forced) {
+                        FILE_FLUSH_NUM.addAndGet(diff);
+                        Registry registry = MetricsManager.get().getRegistry();
+                        if (registry != null) {
+                            registry.getSummary(MeterIdConstants.SUMMARY_FILE_FSYNC).increase(fileChannels.size());
+                            registry.getSummary(MeterIdConstants.SUMMARY_FILE_GROUP_COMMIT).increase(group.size());
+                        }
+                    }
+                }
+                flushed = forced;
+            } finally {
+                // notify, the waiters of the group must not be left blocked even if the flush failed
+                for (SyncFlushRequest request : group) {
+                    request.wakeup(flushed);
+                }
+            }
+            if (nextRequest != null) {
+                handleStoreRequest(nextRequest);
             }
-            // notify
-            req.wakeup();
+        }
+
+        /**
+         * collect the pending sync flush requests into the group until it is full or the max delay is reached
+         *
+         * @param group the group
+         * @return the first request which is not a sync flush request, it must be handled after the group
+         */
+        private StoreRequest collectGroup(List<SyncFlushRequest> group) {
+            long deadline = System.nanoTime() + GROUP_COMMIT_MAX_DELAY_NANOS;
+            while (group.size() < GROUP_COMMIT_MAX_SIZE) {
+                StoreRequest request = storeRequests.poll();
+                if (request == null) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || stopping) {
+                        return null;
+                    }
+                    try {
+                        request = storeRequests.poll(remaining, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    if (request == null) {
+                        return null;
+                    }
+                }
+                if (!(request instanceof SyncFlushRequest)) {
+                    return request;
+                }
+                group.add((SyncFlushRequest)request);
+            }
+            return null;
         }
 
         private void flushOnCondition(FileChannel fileChannel) {
@@ -642,11 +781,13 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
             }
         }
 
-        private void flush(FileChannel fileChannel) {
+        private boolean flush(FileChannel fileChannel) {
             try {
                 fileChannel.force(false);
+                return true;
             } catch (IOException exx) {
                 LOGGER.error("flush error: {}", exx.getMessage(), exx);
+                return false;
             }
         }
     }
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import io.seata.server.storage.file.TransactionWriteStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The sequential reader of the records in a log segment, a snapshot, or a data file of the single file mode.
+ * <p>
+ * The reading stops at the end mark, or at the first broken record which can only be left by a crash.
+ *
+ * @since 1.5.0
+ */
+class LogFileReader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogFileReader.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+
+    private final boolean checksum;
+
+    private final DataInputStream input;
+
+    private boolean finished;
+
+    /**
+     * Instantiates a new log file reader.
+     *
+     * @param file     the file
+     * @param checksum whether the records have the checksum, the data files of the single file mode do not
+     * @throws IOException the io exception
+     */
+    LogFileReader(File file, boolean checksum) throws IOException {
+        this.file = file;
+        this.checksum = checksum;
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE));
+    }
+
+    /**
+     * Read and decode the next record.
+     *
+     * @return the record, null if there is no more record
+     */
+    TransactionWriteStore next() {
+        byte[] body = nextRecord();
+        if (body == null) {
+            return null;
+        }
+        try {
+            TransactionWriteStore writeStore = new TransactionWriteStore();
+            writeStore.decode(body);
+            return writeStore;
+        } catch (Exception e) {
+            LOGGER.error("decode file error, the rest of the file is ignored, file: {}, {}", file.getName(),
+                e.getMessage(), e);
+            finished = true;
+            return null;
+        }
+    }
+
+    /**
+     * Read the body of the next record without decoding it.
+     *
+     * @return the record body, null if there is no more record
+     */
+    byte[] nextRecord() {
+        if (finished) {
+            return null;
+        }
+        try {
+            int length = input.readInt();
+            if (length <= 0) {
+                finished = true;
+                return null;
+            }
+            if (length > file.length()) {
+                LOGGER.warn("broken record length {}, the rest of the file is ignored, file: {}", length,
+                    file.getName());
+                finished = true;
+                return null;
+            }
+            int expectedCrc = checksum ? input.readInt() : 0;
+            byte[] body = new byte[length];
+            input.readFully(body);
+            if (checksum && LogSegment.checksum(body) != expectedCrc) {
+                LOGGER.warn("checksum mismatch, the rest of the file is ignored, file: {}", file.getName());
+                finished = true;
+                return null;
+            }
+            return body;
+        } catch (EOFException e) {
+            finished = true;
+            return null;
+        } catch (IOException e) {
+            LOGGER.error("read file error, the rest of the file is ignored, file: {}, {}", file.getName(),
+                e.getMessage(), e);
+            finished = true;
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
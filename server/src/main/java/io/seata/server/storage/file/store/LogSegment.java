@@ -0,0 +1,190 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
+import io.seata.server.storage.file.TransactionWriteStore;
+
+/**
+ * A fixed-size segment of the write-ahead log, the whole file is memory-mapped when it is created.
+ * <p>
+ * Every record is framed as its length, the CRC32 of its body and the body. The rest of the file is filled with
+ * zero, so a zero length marks the end of the records. The appends must be serialized by the caller, while the
+ * flushes can be called concurrently, one flush covers all the records appended before it.
+ *
+ * @since 1.5.0
+ */
+class LogSegment {
+
+    /**
+     * The size of the record header, the length and the checksum.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private final long index;
+
+    private final RandomAccessFile raf;
+
+    private final MappedByteBuffer mappedBuffer;
+
+    private final Object flushLock = new Object();
+
+    private volatile int writePosition;
+
+    private volatile int writeCount;
+
+    /**
+     * guarded by flushLock
+     */
+    private int flushedPosition;
+
+    /**
+     * guarded by flushLock
+     */
+    private int flushedCount;
+
+    private LogSegment(long index, RandomAccessFile raf, MappedByteBuffer mappedBuffer) {
+        this.index = index;
+        this.raf = raf;
+        this.mappedBuffer = mappedBuffer;
+    }
+
+    /**
+     * Create a new segment file and map it.
+     *
+     * @param index the segment index
+     * @param file  the segment file
+     * @param size  the segment size
+     * @return the log segment
+     * @throws IOException the io exception
+     */
+    static LogSegment create(long index, File file, int size) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(size);
+            MappedByteBuffer mappedBuffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new LogSegment(index, raf, mappedBuffer);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append a record, it is encoded into the mapped buffer directly.
+     *
+     * @param writeStore the record
+     * @return the position after the record, -1 if the segment has no room for it
+     */
+    int append(TransactionWriteStore writeStore) {
+        ByteBuffer buffer = mappedBuffer.duplicate();
+        // keep a zero length after the last record as the end mark
+        buffer.limit(mappedBuffer.capacity() - Integer.BYTES);
+        int bodyPosition = writePosition + RECORD_HEADER_SIZE;
+        if (bodyPosition > buffer.limit()) {
+            return -1;
+        }
+        buffer.position(bodyPosition);
+        try {
+            writeStore.encode(buffer);
+        } catch (BufferOverflowException e) {
+            // the header is still zero, so the partially written body is ignored
+            return -1;
+        }
+        int length = buffer.position() - bodyPosition;
+        buffer.flip();
+        buffer.position(bodyPosition);
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer);
+        // the header is written last, so a partially written record is never taken as a complete one
+        mappedBuffer.putInt(writePosition + Integer.BYTES, (int)crc32.getValue());
+        mappedBuffer.putInt(writePosition, length);
+        writePosition += RECORD_HEADER_SIZE + length;
+        writeCount++;
+        return writePosition;
+    }
+
+    /**
+     * Flush the records to the disk until the position at least.
+     *
+     * @param position the position
+     */
+    void flush(int position) {
+        synchronized (flushLock) {
+            if (flushedPosition >= position) {
+                return;
+            }
+            int targetPosition = writePosition;
+            int targetCount = writeCount;
+            mappedBuffer.force();
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getSummary(MeterIdConstants.SUMMARY_FILE_FSYNC).increase(1);
+                registry.getSummary(MeterIdConstants.SUMMARY_FILE_GROUP_COMMIT).increase(targetCount - flushedCount);
+            }
+            flushedPosition = targetPosition;
+            flushedCount = targetCount;
+        }
+    }
+
+    /**
+     * Flush all the appended records.
+     */
+    void flush() {
+        flush(writePosition);
+    }
+
+    /**
+     * Flush and close the segment file, the mapping is released when it is garbage collected.
+     *
+     * @throws IOException the io exception
+     */
+    void close() throws IOException {
+        flush();
+        raf.close();
+    }
+
+    /**
+     * The checksum of the record body.
+     *
+     * @param data the record body
+     * @return the checksum
+     */
+    static int checksum(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return (int)crc32.getValue();
+    }
+
+    long getIndex() {
+        return index;
+    }
+
+    boolean isEmpty() {
+        return writePosition == 0;
+    }
+}
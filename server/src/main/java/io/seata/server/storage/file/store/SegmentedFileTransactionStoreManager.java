@@ -0,0 +1,463 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.storage.file.ReloadableStore;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.store.AbstractTransactionStoreManager;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.StoreConfig;
+import io.seata.server.store.TransactionStoreManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The file transaction store manager based on a segmented write-ahead log.
+ * <p>
+ * The records are appended to fixed-size memory-mapped segments. The checkpoint periodically replays the sealed
+ * segments on top of the last snapshot, writes the unfinished sessions into a new snapshot, and then deletes the
+ * segments and the snapshots it covers. So the restart only reads the last snapshot and the segments after it.
+ * <p>
+ * All the files are kept in the directory named after the data file, a segment file is named after its index, and a
+ * snapshot file is named after the index of the first segment it does not cover. The data files of the single file
+ * mode are migrated into the first snapshot if the directory is empty.
+ *
+ * @since 1.5.0
+ */
+public class SegmentedFileTransactionStoreManager extends AbstractTransactionStoreManager
+    implements TransactionStoreManager, ReloadableStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedFileTransactionStoreManager.class);
+
+    private static final String SEGMENT_DIR_POSTFIX = ".segments";
+
+    private static final String SEGMENT_FILE_POSTFIX = ".log";
+
+    private static final String SNAPSHOT_FILE_POSTFIX = ".snapshot";
+
+    private static final String TEMP_FILE_POSTFIX = ".tmp";
+
+    private static final String HIS_DATA_FILENAME_POSTFIX = ".1";
+
+    private static final String MIGRATED_FILENAME_POSTFIX = ".migrated";
+
+    private static final String INDEX_FORMAT = "%020d";
+
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final long ASYNC_FLUSH_INTERVAL_MILLS = 1000L;
+
+    private final String fullFileName;
+
+    private final File segmentDir;
+
+    private final int segmentSize;
+
+    private final FlushDiskMode flushDiskMode;
+
+    private final ReentrantLock writeSessionLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduledExecutor;
+
+    private final RecoverCursor historyCursor;
+
+    private final RecoverCursor currentCursor;
+
+    private volatile LogSegment currSegment;
+
+    /**
+     * the index of the first segment not covered by the last snapshot, guarded by this
+     */
+    private long snapshotIndex;
+
+    /**
+     * the covered files are not deleted until the sessions are restored
+     */
+    private volatile boolean recovering;
+
+    /**
+     * Instantiates a new segmented file transaction store manager with the store config.
+     *
+     * @param fullFileName the data file name
+     * @throws IOException the io exception
+     */
+    public SegmentedFileTransactionStoreManager(String fullFileName) throws IOException {
+        this(fullFileName, StoreConfig.getSegmentSize(), StoreConfig.getFlushDiskMode(),
+            StoreConfig.getCheckpointIntervalMills());
+    }
+
+    /**
+     * Instantiates a new segmented file transaction store manager.
+     *
+     * @param fullFileName            the data file name
+     * @param segmentSize             the segment size in bytes
+     * @param flushDiskMode           the flush disk mode
+     * @param checkpointIntervalMills the checkpoint interval, no periodic checkpoint if it is not greater than 0
+     * @throws IOException the io exception
+     */
+    public SegmentedFileTransactionStoreManager(String fullFileName, int segmentSize, FlushDiskMode flushDiskMode,
+                                                long checkpointIntervalMills) throws IOException {
+        this.fullFileName = fullFileName;
+        this.segmentDir = new File(fullFileName + SEGMENT_DIR_POSTFIX);
+        this.segmentSize = Math.max(segmentSize, MIN_SEGMENT_SIZE);
+        this.flushDiskMode = flushDiskMode;
+        if (!segmentDir.exists() && !segmentDir.mkdirs()) {
+            throw new IOException("create segment dir failed: " + segmentDir.getAbsolutePath());
+        }
+        for (File file : listFiles(TEMP_FILE_POSTFIX)) {
+            deleteFile(file);
+        }
+        migrateDataFiles();
+
+        List<Long> snapshotIndexes = listIndexes(SNAPSHOT_FILE_POSTFIX);
+        snapshotIndex = snapshotIndexes.isEmpty() ? 0L : snapshotIndexes.get(snapshotIndexes.size() - 1);
+        List<File> segments = new ArrayList<>();
+        long nextSegmentIndex = snapshotIndex;
+        for (Long index : listIndexes(SEGMENT_FILE_POSTFIX)) {
+            if (index >= snapshotIndex) {
+                segments.add(segmentFile(index));
+                nextSegmentIndex = index + 1;
+            }
+        }
+        List<File> snapshots = snapshotIndexes.isEmpty() ? Collections.emptyList()
+            : Collections.singletonList(snapshotFile(snapshotIndex));
+        historyCursor = new RecoverCursor(snapshots);
+        currentCursor = new RecoverCursor(segments);
+        recovering = !snapshots.isEmpty() || !segments.isEmpty();
+        // the last segment may be broken by a crash, so the writes always go to a new one
+        currSegment = LogSegment.create(nextSegmentIndex, segmentFile(nextSegmentIndex), this.segmentSize);
+
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("segmentedFileTransactionStore", 1, true));
+        if (flushDiskMode != FlushDiskMode.SYNC_MODEL) {
+            scheduledExecutor.scheduleWithFixedDelay(this::flushCurrentSegment, ASYNC_FLUSH_INTERVAL_MILLS,
+                ASYNC_FLUSH_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+        }
+        if (checkpointIntervalMills > 0) {
+            scheduledExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    checkpoint();
+                } catch (Exception exx) {
+                    LOGGER.error("checkpoint error: {}", exx.getMessage(), exx);
+                }
+            }, checkpointIntervalMills, checkpointIntervalMills, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        LogSegment segment;
+        int position;
+        writeSessionLock.lock();
+        try {
+            TransactionWriteStore writeStore = new TransactionWriteStore(session, logOperation);
+            segment = currSegment;
+            position = segment.append(writeStore);
+            if (position < 0 && !segment.isEmpty()) {
+                segment = rollSegment();
+                position = segment.append(writeStore);
+            }
+            if (position < 0) {
+                LOGGER.error("the record is larger than the segment, segment size: {}", segmentSize);
+                return false;
+            }
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        } finally {
+            writeSessionLock.unlock();
+        }
+        if (flushDiskMode == FlushDiskMode.SYNC_MODEL) {
+            segment.flush(position);
+        }
+        return true;
+    }
+
+    /**
+     * Write a snapshot of the sealed segments and delete the covered files.
+     *
+     * @return true if a new snapshot is written
+     * @throws IOException the io exception
+     */
+    public synchronized boolean checkpoint() throws IOException {
+        long activeIndex = currSegment.getIndex();
+        List<File> sealedSegments = new ArrayList<>();
+        for (Long index : listIndexes(SEGMENT_FILE_POSTFIX)) {
+            if (index >= snapshotIndex && index < activeIndex) {
+                sealedSegments.add(segmentFile(index));
+            }
+        }
+        boolean written = false;
+        if (!sealedSegments.isEmpty()) {
+            long start = System.currentTimeMillis();
+            SessionSnapshotBuilder builder = new SessionSnapshotBuilder();
+            File lastSnapshot = snapshotFile(snapshotIndex);
+            if (lastSnapshot.exists()) {
+                builder.apply(lastSnapshot, true);
+            }
+            for (File segment : sealedSegments) {
+                builder.apply(segment, true);
+            }
+            writeSnapshot(builder, activeIndex);
+            snapshotIndex = activeIndex;
+            written = true;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("checkpoint {} segments with {} unfinished sessions, cost {} ms", sealedSegments.size(),
+                    builder.size(), System.currentTimeMillis() - start);
+            }
+        }
+        if (!recovering) {
+            deleteCoveredFiles();
+        }
+        return written;
+    }
+
+    @Override
+    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        List<byte[]> records = readRecords(readSize, isHistory);
+        List<TransactionWriteStore> writeStores = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            TransactionWriteStore writeStore = new TransactionWriteStore();
+            writeStore.decode(record);
+            writeStores.add(writeStore);
+        }
+        return writeStores;
+    }
+
+    @Override
+    public List<byte[]> readRecords(int readSize, boolean isHistory) {
+        return (isHistory ? historyCursor : currentCursor).read(readSize);
+    }
+
+    @Override
+    public boolean hasRemaining(boolean isHistory) {
+        if (isHistory) {
+            return historyCursor.hasRemaining();
+        }
+        boolean remaining = currentCursor.hasRemaining();
+        if (!remaining) {
+            recovering = false;
+        }
+        return remaining;
+    }
+
+    @Override
+    public void shutdown() {
+        scheduledExecutor.shutdown();
+        try {
+            scheduledExecutor.awaitTermination(ASYNC_FLUSH_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        writeSessionLock.lock();
+        try {
+            currSegment.close();
+        } catch (IOException exx) {
+            LOGGER.error("close segment error: {}", exx.getMessage(), exx);
+        } finally {
+            writeSessionLock.unlock();
+        }
+        historyCursor.close();
+        currentCursor.close();
+    }
+
+    private LogSegment rollSegment() throws IOException {
+        LogSegment sealedSegment = currSegment;
+        sealedSegment.close();
+        long nextIndex = sealedSegment.getIndex() + 1;
+        currSegment = LogSegment.create(nextIndex, segmentFile(nextIndex), segmentSize);
+        return currSegment;
+    }
+
+    private void flushCurrentSegment() {
+        try {
+            currSegment.flush();
+        } catch (Exception exx) {
+            LOGGER.error("flush segment error: {}", exx.getMessage(), exx);
+        }
+    }
+
+    private void migrateDataFiles() throws IOException {
+        File currDataFile = new File(fullFileName);
+        File hisDataFile = new File(fullFileName + HIS_DATA_FILENAME_POSTFIX);
+        if (!currDataFile.exists() && !hisDataFile.exists()) {
+            return;
+        }
+        if (!listIndexes(SNAPSHOT_FILE_POSTFIX).isEmpty() || !listIndexes(SEGMENT_FILE_POSTFIX).isEmpty()) {
+            LOGGER.warn("the segment dir is not empty, the data files are ignored: {}", fullFileName);
+            return;
+        }
+        SessionSnapshotBuilder builder = new SessionSnapshotBuilder();
+        if (hisDataFile.exists()) {
+            builder.apply(hisDataFile, false);
+        }
+        if (currDataFile.exists()) {
+            builder.apply(currDataFile, false);
+        }
+        writeSnapshot(builder, 0L);
+        for (File dataFile : new File[] {hisDataFile, currDataFile}) {
+            if (dataFile.exists()) {
+                Files.move(dataFile.toPath(), new File(dataFile.getPath() + MIGRATED_FILENAME_POSTFIX).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        LOGGER.info("migrated {} unfinished sessions from the data files: {}", builder.size(), fullFileName);
+    }
+
+    private void writeSnapshot(SessionSnapshotBuilder builder, long index) throws IOException {
+        File snapshot = snapshotFile(index);
+        File tempFile = new File(snapshot.getPath() + TEMP_FILE_POSTFIX);
+        try (FileOutputStream fileOutput = new FileOutputStream(tempFile)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput, WRITE_BUFFER_SIZE));
+            for (byte[] record : builder.build()) {
+                output.writeInt(record.length);
+                output.writeInt(LogSegment.checksum(record));
+                output.write(record);
+            }
+            output.flush();
+            fileOutput.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteCoveredFiles() {
+        for (Long index : listIndexes(SEGMENT_FILE_POSTFIX)) {
+            if (index < snapshotIndex) {
+                deleteFile(segmentFile(index));
+            }
+        }
+        for (Long index : listIndexes(SNAPSHOT_FILE_POSTFIX)) {
+            if (index < snapshotIndex) {
+                deleteFile(snapshotFile(index));
+            }
+        }
+    }
+
+    private void deleteFile(File file) {
+        // a mapped file may not be deleted on some platforms until it is unmapped, it will be deleted next time
+        if (!file.delete() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("delete file failed: {}", file.getName());
+        }
+    }
+
+    private List<Long> listIndexes(String postfix) {
+        List<Long> indexes = new ArrayList<>();
+        for (File file : listFiles(postfix)) {
+            String name = file.getName();
+            try {
+                indexes.add(Long.parseLong(name.substring(0, name.length() - postfix.length())));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        Collections.sort(indexes);
+        return indexes;
+    }
+
+    private File[] listFiles(String postfix) {
+        File[] files = segmentDir.listFiles((dir, name) -> name.endsWith(postfix));
+        return files == null ? new File[0] : files;
+    }
+
+    private File segmentFile(long index) {
+        return new File(segmentDir, String.format(INDEX_FORMAT, index) + SEGMENT_FILE_POSTFIX);
+    }
+
+    private File snapshotFile(long index) {
+        return new File(segmentDir, String.format(INDEX_FORMAT, index) + SNAPSHOT_FILE_POSTFIX);
+    }
+
+    /**
+     * The cursor to read the records of the files in order.
+     */
+    private static class RecoverCursor {
+
+        private final Iterator<File> files;
+
+        private LogFileReader reader;
+
+        private byte[] next;
+
+        RecoverCursor(List<File> files) {
+            this.files = files.iterator();
+        }
+
+        boolean hasRemaining() {
+            return peek() != null;
+        }
+
+        List<byte[]> read(int readSize) {
+            List<byte[]> records = new ArrayList<>(readSize);
+            while (records.size() < readSize && peek() != null) {
+                records.add(next);
+                next = null;
+            }
+            return records;
+        }
+
+        void close() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException exx) {
+                    LOGGER.error("file close error, {}", exx.getMessage(), exx);
+                }
+                reader = null;
+            }
+        }
+
+        private byte[] peek() {
+            while (next == null) {
+                if (reader != null) {
+                    next = reader.nextRecord();
+                    if (next != null) {
+                        break;
+                    }
+                    close();
+                }
+                if (!files.hasNext()) {
+                    return null;
+                }
+                File file = files.next();
+                try {
+                    reader = new LogFileReader(file, true);
+                } catch (IOException exx) {
+                    LOGGER.error("open file error, file: {}, {}", file.getName(), exx.getMessage(), exx);
+                }
+            }
+            return next;
+        }
+    }
+}
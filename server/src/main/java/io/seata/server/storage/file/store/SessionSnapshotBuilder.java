@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+
+/**
+ * Build the snapshot of the unfinished sessions by replaying the log records in order.
+ * <p>
+ * The records are applied in the same way as they are restored by the file session manager, so restoring from the
+ * snapshot gets the same sessions as restoring from the replayed records. The snapshot is built from the files only,
+ * never from the sessions in memory, so it is consistent with the log whatever the writers are doing.
+ *
+ * @since 1.5.0
+ */
+class SessionSnapshotBuilder {
+
+    private final Map<String, GlobalSession> globalSessions = new LinkedHashMap<>();
+
+    private final Map<String, Map<Long, BranchSession>> branchSessions = new LinkedHashMap<>();
+
+    private final Set<String> removedXids = new HashSet<>();
+
+    /**
+     * Apply all the records of the file.
+     *
+     * @param file     the file
+     * @param checksum whether the records have the checksum
+     * @throws IOException the io exception
+     */
+    void apply(File file, boolean checksum) throws IOException {
+        try (LogFileReader reader = new LogFileReader(file, checksum)) {
+            TransactionWriteStore writeStore;
+            while ((writeStore = reader.next()) != null) {
+                apply(writeStore);
+            }
+        }
+    }
+
+    /**
+     * Apply a record.
+     *
+     * @param writeStore the record
+     */
+    void apply(TransactionWriteStore writeStore) {
+        LogOperation logOperation = writeStore.getOperate();
+        switch (logOperation) {
+            case GLOBAL_ADD:
+            case GLOBAL_UPDATE: {
+                GlobalSession globalSession = (GlobalSession)writeStore.getSessionRequest();
+                String xid = globalSession.getXid();
+                if (globalSession.getTransactionId() == 0 || removedXids.contains(xid)) {
+                    break;
+                }
+                if (!SessionHelper.isUnfinishedGlobalStatus(globalSession.getStatus())) {
+                    remove(xid);
+                    break;
+                }
+                GlobalSession found = globalSessions.get(xid);
+                if (found == null) {
+                    globalSessions.put(xid, globalSession);
+                } else {
+                    found.setStatus(globalSession.getStatus());
+                }
+                break;
+            }
+            case GLOBAL_REMOVE: {
+                GlobalSession globalSession = (GlobalSession)writeStore.getSessionRequest();
+                if (globalSession.getTransactionId() != 0) {
+                    remove(globalSession.getXid());
+                }
+                break;
+            }
+            case BRANCH_ADD:
+            case BRANCH_UPDATE: {
+                BranchSession branchSession = (BranchSession)writeStore.getSessionRequest();
+                String xid = branchSession.getXid();
+                if (branchSession.getTransactionId() == 0 || removedXids.contains(xid)) {
+                    break;
+                }
+                Map<Long, BranchSession> branches = branchSessions.computeIfAbsent(xid, key -> new LinkedHashMap<>());
+                BranchSession found = branches.get(branchSession.getBranchId());
+                if (found == null) {
+                    branches.put(branchSession.getBranchId(), branchSession);
+                } else {
+                    found.setStatus(branchSession.getStatus());
+                }
+                break;
+            }
+            case BRANCH_REMOVE: {
+                BranchSession branchSession = (BranchSession)writeStore.getSessionRequest();
+                Map<Long, BranchSession> branches = branchSessions.get(branchSession.getXid());
+                if (branches != null) {
+                    branches.remove(branchSession.getBranchId());
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Build the records of the snapshot, every unfinished global session is followed by its branch sessions. The
+     * branch sessions without a global session are dropped.
+     *
+     * @return the encoded records
+     */
+    List<byte[]> build() {
+        List<byte[]> records = new ArrayList<>(globalSessions.size());
+        for (GlobalSession globalSession : globalSessions.values()) {
+            records.add(new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD).encode());
+            Map<Long, BranchSession> branches = branchSessions.get(globalSession.getXid());
+            if (branches != null) {
+                for (BranchSession branchSession : branches.values()) {
+                    records.add(new TransactionWriteStore(branchSession, LogOperation.BRANCH_ADD).encode());
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Gets the number of the unfinished global sessions.
+     *
+     * @return the size
+     */
+    int size() {
+        return globalSessions.size();
+    }
+
+    private void remove(String xid) {
+        globalSessions.remove(xid);
+        branchSessions.remove(xid);
+        removedXids.add(xid);
+    }
+}
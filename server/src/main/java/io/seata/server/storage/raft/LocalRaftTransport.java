@@ -0,0 +1,93 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.seata.server.storage.raft.RaftMessage.AppendRequest;
+import io.seata.server.storage.raft.RaftMessage.AppendResponse;
+import io.seata.server.storage.raft.RaftMessage.SnapshotRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteResponse;
+
+/**
+ * The transport between the raft nodes of the same process, the requests are handled by the thread sending them.
+ * <p>
+ * It is shared by the nodes, and used by a single server cluster or by the tests, in which a node may be isolated
+ * from the others to simulate a network partition.
+ *
+ * @since 1.5.0
+ */
+public class LocalRaftTransport implements RaftTransport {
+
+    private final Map<String, RaftNode> nodes = new ConcurrentHashMap<>();
+
+    private final Set<String> isolatedNodeIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void start(RaftNode node) {
+        nodes.put(node.getNodeId(), node);
+    }
+
+    @Override
+    public VoteResponse requestVote(String nodeId, VoteRequest request) throws IOException {
+        return getNode(nodeId, request.candidateId).handleRequestVote(request);
+    }
+
+    @Override
+    public AppendResponse appendEntries(String nodeId, AppendRequest request) throws IOException {
+        return getNode(nodeId, request.leaderId).handleAppendEntries(request);
+    }
+
+    @Override
+    public AppendResponse installSnapshot(String nodeId, SnapshotRequest request) throws IOException {
+        return getNode(nodeId, request.leaderId).handleInstallSnapshot(request);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    /**
+     * Isolate a node, the requests from and to it fail until it is reconnected.
+     *
+     * @param nodeId the node id
+     */
+    public void isolate(String nodeId) {
+        isolatedNodeIds.add(nodeId);
+    }
+
+    /**
+     * Reconnect an isolated node.
+     *
+     * @param nodeId the node id
+     */
+    public void reconnect(String nodeId) {
+        isolatedNodeIds.remove(nodeId);
+    }
+
+    private RaftNode getNode(String nodeId, String fromNodeId) throws IOException {
+        RaftNode node = nodes.get(nodeId);
+        if (node == null || !node.isRunning() || isolatedNodeIds.contains(nodeId)
+            || isolatedNodeIds.contains(fromNodeId)) {
+            throw new IOException("the raft node " + nodeId + " is not reachable from " + fromNodeId);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The messages exchanged by the raft nodes, with their binary encoding used by a remote transport.
+ *
+ * @since 1.5.0
+ */
+public final class RaftMessage {
+
+    /**
+     * The type of a vote request.
+     */
+    static final byte TYPE_VOTE = 1;
+
+    /**
+     * The type of an append request.
+     */
+    static final byte TYPE_APPEND = 2;
+
+    /**
+     * The type of a snapshot request.
+     */
+    static final byte TYPE_SNAPSHOT = 3;
+
+    private RaftMessage() {
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * An entry of the raft log, an entry without data is appended by a new leader to commit the entries of the
+     * previous terms.
+     */
+    public static final class LogEntry {
+
+        final long index;
+
+        final long term;
+
+        final byte[] data;
+
+        public LogEntry(long index, long term, byte[] data) {
+            this.index = index;
+            this.term = term;
+            this.data = data;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(index);
+            out.writeLong(term);
+            writeBytes(out, data);
+        }
+
+        static LogEntry read(DataInput in) throws IOException {
+            return new LogEntry(in.readLong(), in.readLong(), readBytes(in));
+        }
+    }
+
+    /**
+     * The request of a candidate for the vote of a node.
+     */
+    public static final class VoteRequest {
+
+        final long term;
+
+        final String candidateId;
+
+        final long lastLogIndex;
+
+        final long lastLogTerm;
+
+        public VoteRequest(long term, String candidateId, long lastLogIndex, long lastLogTerm) {
+            this.term = term;
+            this.candidateId = candidateId;
+            this.lastLogIndex = lastLogIndex;
+            this.lastLogTerm = lastLogTerm;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(term);
+            out.writeUTF(candidateId);
+            out.writeLong(lastLogIndex);
+            out.writeLong(lastLogTerm);
+        }
+
+        static VoteRequest read(DataInput in) throws IOException {
+            return new VoteRequest(in.readLong(), in.readUTF(), in.readLong(), in.readLong());
+        }
+    }
+
+    /**
+     * The response of a vote request.
+     */
+    public static final class VoteResponse {
+
+        final long term;
+
+        final boolean granted;
+
+        public VoteResponse(long term, boolean granted) {
+            this.term = term;
+            this.granted = granted;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(term);
+            out.writeBoolean(granted);
+        }
+
+        static VoteResponse read(DataInput in) throws IOException {
+            return new VoteResponse(in.readLong(), in.readBoolean());
+        }
+    }
+
+    /**
+     * The request of the leader to append the entries following the previous entry, it is a heartbeat if there is
+     * no entry.
+     */
+    public static final class AppendRequest {
+
+        final long term;
+
+        final String leaderId;
+
+        final long prevLogIndex;
+
+        final long prevLogTerm;
+
+        final List<LogEntry> entries;
+
+        final long leaderCommit;
+
+        public AppendRequest(long term, String leaderId, long prevLogIndex, long prevLogTerm, List<LogEntry> entries,
+                             long leaderCommit) {
+            this.term = term;
+            this.leaderId = leaderId;
+            this.prevLogIndex = prevLogIndex;
+            this.prevLogTerm = prevLogTerm;
+            this.entries = entries;
+            this.leaderCommit = leaderCommit;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(term);
+            out.writeUTF(leaderId);
+            out.writeLong(prevLogIndex);
+            out.writeLong(prevLogTerm);
+            out.writeInt(entries.size());
+            for (LogEntry entry : entries) {
+                entry.write(out);
+            }
+            out.writeLong(leaderCommit);
+        }
+
+        static AppendRequest read(DataInput in) throws IOException {
+            long term = in.readLong();
+            String leaderId = in.readUTF();
+            long prevLogIndex = in.readLong();
+            long prevLogTerm = in.readLong();
+            int size = in.readInt();
+            List<LogEntry> entries = size == 0 ? Collections.emptyList() : new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(LogEntry.read(in));
+            }
+            return new AppendRequest(term, leaderId, prevLogIndex, prevLogTerm, entries, in.readLong());
+        }
+    }
+
+    /**
+     * The request of the leader to replace the log of a node lagging behind its snapshot by the snapshot.
+     */
+    public static final class SnapshotRequest {
+
+        final long term;
+
+        final String leaderId;
+
+        final long lastIncludedIndex;
+
+        final long lastIncludedTerm;
+
+        final byte[] data;
+
+        public SnapshotRequest(long term, String leaderId, long lastIncludedIndex, long lastIncludedTerm,
+                               byte[] data) {
+            this.term = term;
+            this.leaderId = leaderId;
+            this.lastIncludedIndex = lastIncludedIndex;
+            this.lastIncludedTerm = lastIncludedTerm;
+            this.data = data;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(term);
+            out.writeUTF(leaderId);
+            out.writeLong(lastIncludedIndex);
+            out.writeLong(lastIncludedTerm);
+            writeBytes(out, data);
+        }
+
+        static SnapshotRequest read(DataInput in) throws IOException {
+            return new SnapshotRequest(in.readLong(), in.readUTF(), in.readLong(), in.readLong(), readBytes(in));
+        }
+    }
+
+    /**
+     * The response of an append or a snapshot request.
+     */
+    public static final class AppendResponse {
+
+        final long term;
+
+        final boolean success;
+
+        /**
+         * the last index matching the log of the leader if succeeded, otherwise the index to retry from after
+         */
+        final long matchIndex;
+
+        public AppendResponse(long term, boolean success, long matchIndex) {
+            this.term = term;
+            this.success = success;
+            this.matchIndex = matchIndex;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(term);
+            out.writeBoolean(success);
+            out.writeLong(matchIndex);
+        }
+
+        static AppendResponse read(DataInput in) throws IOException {
+            return new AppendResponse(in.readLong(), in.readBoolean(), in.readLong());
+        }
+    }
+}
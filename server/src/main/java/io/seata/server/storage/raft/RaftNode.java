@@ -0,0 +1,786 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.storage.raft.RaftMessage.AppendRequest;
+import io.seata.server.storage.raft.RaftMessage.AppendResponse;
+import io.seata.server.storage.raft.RaftMessage.LogEntry;
+import io.seata.server.storage.raft.RaftMessage.SnapshotRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A node of a raft cluster replicating a {@link RaftStateMachine}.
+ * <p>
+ * A follower which hears no leader in the election timeout starts an election, and the candidate voted by the
+ * majority is the leader of the term. The leader appends the proposed entries to its log and replicates them to the
+ * followers, an entry is committed once it is stored by the majority, and applied by every node in the log order.
+ * The leader steps down if it is not acknowledged by the majority in the election timeout, so an isolated leader
+ * stops serving before the others elect a new one. Once the applied entries exceed the snapshot log size, they are
+ * replaced by a snapshot of the state machine, which is sent to the followers lagging behind it.
+ * <p>
+ * The log, the term and the vote are kept in memory, a node restarted with an empty state joins the cluster as a new
+ * follower and is caught up by the leader.
+ *
+ * @since 1.5.0
+ */
+public class RaftNode {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RaftNode.class);
+
+    /**
+     * the max number of the entries sent by an append request
+     */
+    private static final int MAX_APPEND_ENTRIES = 256;
+
+    private static final byte[] NO_DATA = new byte[0];
+
+    private static final long NOT_STARTED = -1L;
+
+    enum Role {
+        /**
+         * follows the leader
+         */
+        FOLLOWER,
+        /**
+         * asks for the votes to be the leader
+         */
+        CANDIDATE,
+        /**
+         * replicates the log to the followers
+         */
+        LEADER
+    }
+
+    private final String nodeId;
+
+    private final List<String> peerIds;
+
+    private final RaftStateMachine stateMachine;
+
+    private final RaftTransport transport;
+
+    private final long electionTimeoutMills;
+
+    private final int snapshotLogSize;
+
+    private final Map<String, AtomicInteger> replicationRequests = new HashMap<>();
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final ThreadPoolExecutor rpcExecutor;
+
+    private final ThreadPoolExecutor applyExecutor;
+
+    private volatile boolean running;
+
+    // the state below is guarded by this
+
+    private long currentTerm;
+
+    private String votedFor;
+
+    private Role role = Role.FOLLOWER;
+
+    private String leaderId;
+
+    private long electionDeadline;
+
+    private int votes;
+
+    /**
+     * the entries following the snapshot, the entry at i is of the index snapshotIndex + 1 + i
+     */
+    private final List<LogEntry> entries = new ArrayList<>();
+
+    private long snapshotIndex;
+
+    private long snapshotTerm;
+
+    private byte[] snapshotData;
+
+    private long commitIndex;
+
+    private long lastApplied;
+
+    /**
+     * the index of the entry appended by this node once elected, it is the leader from the time it is applied
+     */
+    private long leaderStartIndex;
+
+    private final Map<String, Long> nextIndexes = new HashMap<>();
+
+    private final Map<String, Long> matchIndexes = new HashMap<>();
+
+    private final Map<String, Long> lastAckTimes = new HashMap<>();
+
+    private final Map<Long, CompletableFuture<Boolean>> pendingProposals = new HashMap<>();
+
+    /**
+     * the term in which {@link RaftStateMachine#onLeaderStart(long)} is called, only accessed by the apply thread
+     */
+    private long startedLeaderTerm = NOT_STARTED;
+
+    /**
+     * Instantiates a new Raft node.
+     *
+     * @param nodeId               the id of this node
+     * @param nodeIds              the ids of all the nodes of the cluster, including this node
+     * @param stateMachine         the state machine
+     * @param transport            the transport
+     * @param electionTimeoutMills the election timeout
+     * @param snapshotLogSize      the number of the applied entries kept before a snapshot
+     */
+    public RaftNode(String nodeId, List<String> nodeIds, RaftStateMachine stateMachine, RaftTransport transport,
+                    long electionTimeoutMills, int snapshotLogSize) {
+        if (!nodeIds.contains(nodeId)) {
+            throw new IllegalArgumentException("the raft node " + nodeId + " is not one of " + nodeIds);
+        }
+        this.nodeId = nodeId;
+        this.peerIds = new ArrayList<>(nodeIds);
+        this.peerIds.remove(nodeId);
+        this.stateMachine = stateMachine;
+        this.transport = transport;
+        this.electionTimeoutMills = electionTimeoutMills;
+        this.snapshotLogSize = snapshotLogSize;
+        for (String peerId : peerIds) {
+            replicationRequests.put(peerId, new AtomicInteger());
+        }
+        this.timer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("RaftTimer", 1));
+        this.rpcExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new NamedThreadFactory("RaftRpc", Math.max(1, peerIds.size() * 2)));
+        this.applyExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("RaftApply", 1));
+    }
+
+    /**
+     * Start to receive the requests of the other nodes, and to elect the leader.
+     *
+     * @throws IOException if the requests can not be received
+     */
+    public void start() throws IOException {
+        transport.start(this);
+        synchronized (this) {
+            running = true;
+            resetElectionDeadline();
+        }
+        long tickPeriod = Math.max(1L, electionTimeoutMills / 5);
+        timer.scheduleWithFixedDelay(this::tick, tickPeriod, tickPeriod, TimeUnit.MILLISECONDS);
+        LOGGER.info("The raft node {} is started, the other nodes: {}", nodeId, peerIds);
+    }
+
+    /**
+     * Propose an entry, and wait until it is committed.
+     *
+     * @param data         the data of the entry
+     * @param timeoutMills the time to wait
+     * @return true if the entry is committed, false if this node is not the leader or the entry is not committed in
+     * the timeout, in which case it may still be committed later
+     */
+    public boolean propose(byte[] data, long timeoutMills) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (!running || role != Role.LEADER) {
+                return false;
+            }
+            pendingProposals.put(append(data), future);
+            advanceCommitIndex();
+        }
+        replicateAll();
+        try {
+            return future.get(timeoutMills, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Handle the vote request of a candidate.
+     *
+     * @param request the request
+     * @return the response
+     */
+    public synchronized VoteResponse handleRequestVote(VoteRequest request) {
+        if (request.term > currentTerm) {
+            becomeFollower(request.term);
+        }
+        long lastLogTerm = lastLogTerm();
+        boolean upToDate = request.lastLogTerm > lastLogTerm
+            || (request.lastLogTerm == lastLogTerm && request.lastLogIndex >= lastLogIndex());
+        boolean granted = running && request.term == currentTerm && upToDate
+            && (votedFor == null || votedFor.equals(request.candidateId));
+        if (granted) {
+            votedFor = request.candidateId;
+            resetElectionDeadline();
+        }
+        return new VoteResponse(currentTerm, granted);
+    }
+
+    /**
+     * Handle the append request of the leader.
+     *
+     * @param request the request
+     * @return the response
+     */
+    public synchronized AppendResponse handleAppendEntries(AppendRequest request) {
+        if (!acceptLeader(request.term, request.leaderId)) {
+            return new AppendResponse(currentTerm, false, lastLogIndex());
+        }
+        if (request.prevLogIndex > lastLogIndex()) {
+            return new AppendResponse(currentTerm, false, lastLogIndex());
+        }
+        if (request.prevLogIndex >= snapshotIndex && termAt(request.prevLogIndex) != request.prevLogTerm) {
+            return new AppendResponse(currentTerm, false, request.prevLogIndex - 1);
+        }
+        for (LogEntry entry : request.entries) {
+            // the entries of the snapshot are committed already
+            if (entry.index <= snapshotIndex) {
+                continue;
+            }
+            if (entry.index <= lastLogIndex()) {
+                if (termAt(entry.index) == entry.term) {
+                    continue;
+                }
+                // the conflicting entries are never committed, they are replaced by the entries of the leader
+                entries.subList(offset(entry.index), entries.size()).clear();
+            }
+            entries.add(entry);
+        }
+        long matchIndex = request.prevLogIndex + request.entries.size();
+        long newCommitIndex = Math.min(request.leaderCommit, matchIndex);
+        if (newCommitIndex > commitIndex) {
+            commitIndex = newCommitIndex;
+            scheduleApply();
+        }
+        return new AppendResponse(currentTerm, true, matchIndex);
+    }
+
+    /**
+     * Handle the snapshot request of the leader.
+     *
+     * @param request the request
+     * @return the response
+     */
+    public synchronized AppendResponse handleInstallSnapshot(SnapshotRequest request) {
+        if (!acceptLeader(request.term, request.leaderId)) {
+            return new AppendResponse(currentTerm, false, lastLogIndex());
+        }
+        if (request.lastIncludedIndex > snapshotIndex) {
+            if (request.lastIncludedIndex <= lastLogIndex()
+                && termAt(request.lastIncludedIndex) == request.lastIncludedTerm) {
+                entries.subList(0, offset(request.lastIncludedIndex) + 1).clear();
+            } else {
+                entries.clear();
+            }
+            snapshotIndex = request.lastIncludedIndex;
+            snapshotTerm = request.lastIncludedTerm;
+            snapshotData = request.data;
+            if (commitIndex < snapshotIndex) {
+                commitIndex = snapshotIndex;
+            }
+            scheduleApply();
+        }
+        return new AppendResponse(currentTerm, true, request.lastIncludedIndex);
+    }
+
+    /**
+     * Stop the node, it is not the leader any more.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (role == Role.LEADER) {
+                becomeFollower(currentTerm);
+            }
+            running = false;
+        }
+        timer.shutdownNow();
+        transport.shutdown();
+        rpcExecutor.shutdownNow();
+        applyExecutor.shutdown();
+        try {
+            applyExecutor.awaitTermination(electionTimeoutMills, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("The raft node {} is stopped", nodeId);
+    }
+
+    /**
+     * Gets node id.
+     *
+     * @return the node id
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Whether this node is the leader, the proposals are accepted only by the leader.
+     *
+     * @return the boolean
+     */
+    public synchronized boolean isLeader() {
+        return role == Role.LEADER;
+    }
+
+    /**
+     * Whether this node is started and not stopped.
+     *
+     * @return the boolean
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the id of the leader known by this node.
+     *
+     * @return the leader id, null if unknown
+     */
+    public synchronized String getLeaderId() {
+        return leaderId;
+    }
+
+    /**
+     * Gets current term.
+     *
+     * @return the current term
+     */
+    public synchronized long getCurrentTerm() {
+        return currentTerm;
+    }
+
+    /**
+     * Gets the index of the last entry of the snapshot.
+     *
+     * @return the snapshot index
+     */
+    synchronized long getSnapshotIndex() {
+        return snapshotIndex;
+    }
+
+    /**
+     * Gets the index of the last applied entry.
+     *
+     * @return the last applied index
+     */
+    synchronized long getLastApplied() {
+        return lastApplied;
+    }
+
+    private void tick() {
+        try {
+            boolean replicate = false;
+            boolean elect = false;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (!running) {
+                    return;
+                }
+                if (role == Role.LEADER) {
+                    if (isAcknowledgedByMajority(now)) {
+                        replicate = true;
+                    } else {
+                        LOGGER.warn("The raft leader {} is not acknowledged by the majority in term {}, step down",
+                            nodeId, currentTerm);
+                        becomeFollower(currentTerm);
+                    }
+                } else if (now >= electionDeadline) {
+                    elect = true;
+                }
+            }
+            if (replicate) {
+                replicateAll();
+            } else if (elect) {
+                startElection();
+            }
+        } catch (Throwable t) {
+            LOGGER.error("The raft node {} failed to tick: {}", nodeId, t.getMessage(), t);
+        }
+    }
+
+    private void startElection() {
+        VoteRequest request;
+        synchronized (this) {
+            if (!running || role == Role.LEADER) {
+                return;
+            }
+            currentTerm++;
+            role = Role.CANDIDATE;
+            votedFor = nodeId;
+            leaderId = null;
+            votes = 1;
+            resetElectionDeadline();
+            LOGGER.info("The raft node {} starts the election of term {}", nodeId, currentTerm);
+            if (isMajority(votes)) {
+                becomeLeader();
+                return;
+            }
+            request = new VoteRequest(currentTerm, nodeId, lastLogIndex(), lastLogTerm());
+        }
+        for (String peerId : peerIds) {
+            execute(() -> requestVote(peerId, request));
+        }
+    }
+
+    private void requestVote(String peerId, VoteRequest request) {
+        VoteResponse response;
+        try {
+            response = transport.requestVote(peerId, request);
+        } catch (IOException e) {
+            LOGGER.debug("The raft node {} failed to request the vote of {}: {}", nodeId, peerId, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (response.term > currentTerm) {
+                becomeFollower(response.term);
+                return;
+            }
+            if (role != Role.CANDIDATE || currentTerm != request.term || !response.granted) {
+                return;
+            }
+            votes++;
+            if (isMajority(votes)) {
+                becomeLeader();
+            }
+        }
+    }
+
+    private void becomeLeader() {
+        role = Role.LEADER;
+        leaderId = nodeId;
+        long now = System.currentTimeMillis();
+        for (String peerId : peerIds) {
+            nextIndexes.put(peerId, lastLogIndex() + 1);
+            matchIndexes.put(peerId, 0L);
+            lastAckTimes.put(peerId, now);
+        }
+        // the entries of the previous terms are committed along with the first entry of this term
+        leaderStartIndex = append(NO_DATA);
+        LOGGER.info("The raft node {} is the leader of term {}", nodeId, currentTerm);
+        advanceCommitIndex();
+        replicateAll();
+    }
+
+    private void becomeFollower(long term) {
+        if (role == Role.LEADER) {
+            LOGGER.info("The raft node {} is not the leader of term {} any more", nodeId, currentTerm);
+            pendingProposals.values().forEach(future -> future.complete(false));
+            pendingProposals.clear();
+            executeApply(this::stopLeader);
+            leaderId = null;
+        }
+        if (term > currentTerm) {
+            currentTerm = term;
+            votedFor = null;
+            leaderId = null;
+        }
+        role = Role.FOLLOWER;
+        resetElectionDeadline();
+    }
+
+    private boolean acceptLeader(long term, String leader) {
+        if (!running || term < currentTerm) {
+            return false;
+        }
+        if (term > currentTerm || role != Role.FOLLOWER) {
+            becomeFollower(term);
+        }
+        leaderId = leader;
+        resetElectionDeadline();
+        return true;
+    }
+
+    private void replicateAll() {
+        for (String peerId : peerIds) {
+            // a replication running already sends the new entries, as it is requested again
+            if (replicationRequests.get(peerId).getAndIncrement() == 0) {
+                execute(() -> replicateLoop(peerId));
+            }
+        }
+    }
+
+    private void replicateLoop(String peerId) {
+        AtomicInteger requests = replicationRequests.get(peerId);
+        int handled = requests.get();
+        do {
+            try {
+                replicate(peerId);
+            } catch (Throwable t) {
+                LOGGER.error("The raft node {} failed to replicate to {}: {}", nodeId, peerId, t.getMessage(), t);
+            }
+            handled = requests.addAndGet(-handled);
+        } while (handled != 0);
+    }
+
+    private void replicate(String peerId) {
+        while (true) {
+            AppendRequest appendRequest = null;
+            SnapshotRequest snapshotRequest = null;
+            synchronized (this) {
+                if (!running || role != Role.LEADER) {
+                    return;
+                }
+                long nextIndex = nextIndexes.get(peerId);
+                if (nextIndex <= snapshotIndex) {
+                    snapshotRequest = new SnapshotRequest(currentTerm, nodeId, snapshotIndex, snapshotTerm,
+                        snapshotData);
+                } else {
+                    int from = offset(nextIndex);
+                    int to = Math.min(entries.size(), from + MAX_APPEND_ENTRIES);
+                    appendRequest = new AppendRequest(currentTerm, nodeId, nextIndex - 1, termAt(nextIndex - 1),
+                        new ArrayList<>(entries.subList(from, to)), commitIndex);
+                }
+            }
+            AppendResponse response;
+            try {
+                response = snapshotRequest != null ? transport.installSnapshot(peerId, snapshotRequest)
+                    : transport.appendEntries(peerId, appendRequest);
+            } catch (IOException e) {
+                LOGGER.debug("The raft node {} failed to replicate to {}: {}", nodeId, peerId, e.getMessage());
+                return;
+            }
+            long requestTerm = snapshotRequest != null ? snapshotRequest.term : appendRequest.term;
+            synchronized (this) {
+                if (response.term > currentTerm) {
+                    becomeFollower(response.term);
+                    return;
+                }
+                if (role != Role.LEADER || currentTerm != requestTerm) {
+                    return;
+                }
+                lastAckTimes.put(peerId, System.currentTimeMillis());
+                if (response.success) {
+                    long matchIndex = snapshotRequest != null ? snapshotRequest.lastIncludedIndex
+                        : appendRequest.prevLogIndex + appendRequest.entries.size();
+                    if (matchIndex > matchIndexes.get(peerId)) {
+                        matchIndexes.put(peerId, matchIndex);
+                        advanceCommitIndex();
+                    }
+                    nextIndexes.put(peerId, matchIndex + 1);
+                    if (matchIndex >= lastLogIndex()) {
+                        return;
+                    }
+                } else {
+                    long nextIndex = Math.max(1L, Math.min(nextIndexes.get(peerId) - 1, response.matchIndex + 1));
+                    if (nextIndex == nextIndexes.get(peerId)) {
+                        // rejected by a stopping node, retry at the next heartbeat
+                        return;
+                    }
+                    nextIndexes.put(peerId, nextIndex);
+                }
+            }
+        }
+    }
+
+    private void advanceCommitIndex() {
+        // only the entries of the current term are committed by counting the replicas
+        for (long index = lastLogIndex(); index > commitIndex && termAt(index) == currentTerm; index--) {
+            int replicas = 1;
+            for (String peerId : peerIds) {
+                if (matchIndexes.get(peerId) >= index) {
+                    replicas++;
+                }
+            }
+            if (isMajority(replicas)) {
+                commitIndex = index;
+                Iterator<Map.Entry<Long, CompletableFuture<Boolean>>> iterator =
+                    pendingProposals.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Long, CompletableFuture<Boolean>> pending = iterator.next();
+                    if (pending.getKey() <= index) {
+                        pending.getValue().complete(true);
+                        iterator.remove();
+                    }
+                }
+                scheduleApply();
+                return;
+            }
+        }
+    }
+
+    private void scheduleApply() {
+        executeApply(this::applyCommitted);
+    }
+
+    private void applyCommitted() {
+        while (true) {
+            byte[] snapshot = null;
+            long snapshotAt = 0;
+            LogEntry entry = null;
+            long leaderTerm = NOT_STARTED;
+            synchronized (this) {
+                if (lastApplied < snapshotIndex) {
+                    snapshot = snapshotData;
+                    snapshotAt = snapshotIndex;
+                } else if (lastApplied < commitIndex) {
+                    entry = entries.get(offset(lastApplied + 1));
+                } else if (role == Role.LEADER && startedLeaderTerm != currentTerm
+                    && lastApplied >= leaderStartIndex) {
+                    leaderTerm = currentTerm;
+                }
+            }
+            if (snapshot != null) {
+                stateMachine.restore(snapshot);
+                synchronized (this) {
+                    lastApplied = snapshotAt;
+                }
+            } else if (entry != null) {
+                if (entry.data.length > 0) {
+                    try {
+                        stateMachine.apply(entry.data);
+                    } catch (Throwable t) {
+                        LOGGER.error("The raft node {} failed to apply the entry {}: {}", nodeId, entry.index,
+                            t.getMessage(), t);
+                    }
+                }
+                synchronized (this) {
+                    lastApplied = entry.index;
+                }
+                takeSnapshotIfNeeded();
+            } else {
+                if (leaderTerm != NOT_STARTED) {
+                    startedLeaderTerm = leaderTerm;
+                    try {
+                        stateMachine.onLeaderStart(leaderTerm);
+                    } catch (Throwable t) {
+                        LOGGER.error("The raft leader {} failed to start in term {}: {}", nodeId, leaderTerm,
+                            t.getMessage(), t);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void stopLeader() {
+        if (startedLeaderTerm == NOT_STARTED) {
+            return;
+        }
+        long term = startedLeaderTerm;
+        startedLeaderTerm = NOT_STARTED;
+        try {
+            stateMachine.onLeaderStop(term);
+        } catch (Throwable t) {
+            LOGGER.error("The raft leader {} failed to stop in term {}: {}", nodeId, term, t.getMessage(), t);
+        }
+    }
+
+    private void takeSnapshotIfNeeded() {
+        long applied;
+        synchronized (this) {
+            if (lastApplied - snapshotIndex < snapshotLogSize) {
+                return;
+            }
+            applied = lastApplied;
+        }
+        // the state machine is only changed by this thread, it is the state of the applied entries
+        byte[] data = stateMachine.snapshot();
+        synchronized (this) {
+            // a newer snapshot may be installed by the leader meanwhile
+            if (applied <= snapshotIndex) {
+                return;
+            }
+            long term = termAt(applied);
+            entries.subList(0, offset(applied) + 1).clear();
+            snapshotIndex = applied;
+            snapshotTerm = term;
+            snapshotData = data;
+        }
+        LOGGER.info("The raft node {} took the snapshot at {}", nodeId, applied);
+    }
+
+    private long append(byte[] data) {
+        long index = lastLogIndex() + 1;
+        entries.add(new LogEntry(index, currentTerm, data));
+        return index;
+    }
+
+    private long lastLogIndex() {
+        return snapshotIndex + entries.size();
+    }
+
+    private long lastLogTerm() {
+        return termAt(lastLogIndex());
+    }
+
+    private long termAt(long index) {
+        return index == snapshotIndex ? snapshotTerm : entries.get(offset(index)).term;
+    }
+
+    private int offset(long index) {
+        return (int)(index - snapshotIndex - 1);
+    }
+
+    private boolean isMajority(int count) {
+        return count > (peerIds.size() + 1) / 2;
+    }
+
+    private boolean isAcknowledgedByMajority(long now) {
+        int acknowledged = 1;
+        for (String peerId : peerIds) {
+            if (now - lastAckTimes.get(peerId) <= electionTimeoutMills) {
+                acknowledged++;
+            }
+        }
+        return isMajority(acknowledged);
+    }
+
+    private void resetElectionDeadline() {
+        electionDeadline = System.currentTimeMillis() + electionTimeoutMills
+            + ThreadLocalRandom.current().nextLong(electionTimeoutMills);
+    }
+
+    private void execute(Runnable task) {
+        try {
+            rpcExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("The raft node {} is stopped", nodeId);
+        }
+    }
+
+    private void executeApply(Runnable task) {
+        try {
+            applyExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("The raft node {} is stopped", nodeId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+/**
+ * The state machine replicated by a raft node, the committed entries are applied in the log order by a single thread.
+ *
+ * @since 1.5.0
+ */
+public interface RaftStateMachine {
+
+    /**
+     * Apply a committed entry.
+     *
+     * @param data the data of the entry
+     */
+    void apply(byte[] data);
+
+    /**
+     * Take a snapshot of the state of all the applied entries.
+     *
+     * @return the snapshot
+     */
+    byte[] snapshot();
+
+    /**
+     * Replace the state by a snapshot.
+     *
+     * @param snapshot the snapshot
+     */
+    void restore(byte[] snapshot);
+
+    /**
+     * Called once this node is the leader and has applied all the entries committed by the previous leaders.
+     *
+     * @param term the term of the leader
+     */
+    default void onLeaderStart(long term) {
+    }
+
+    /**
+     * Called once this node is not the leader any more, after {@link #onLeaderStart(long)}.
+     *
+     * @param term the term of the leader
+     */
+    default void onLeaderStop(long term) {
+    }
+}
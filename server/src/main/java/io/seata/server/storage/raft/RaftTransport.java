@@ -0,0 +1,75 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.io.IOException;
+
+import io.seata.server.storage.raft.RaftMessage.AppendRequest;
+import io.seata.server.storage.raft.RaftMessage.AppendResponse;
+import io.seata.server.storage.raft.RaftMessage.SnapshotRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteResponse;
+
+/**
+ * The transport between the raft nodes, the requests are sent to a node by its id.
+ *
+ * @since 1.5.0
+ */
+public interface RaftTransport {
+
+    /**
+     * Start to receive the requests to the node.
+     *
+     * @param node the node
+     * @throws IOException if the node can not receive the requests
+     */
+    void start(RaftNode node) throws IOException;
+
+    /**
+     * Request the vote of a node.
+     *
+     * @param nodeId  the node id
+     * @param request the request
+     * @return the response
+     * @throws IOException if the node is not reachable
+     */
+    VoteResponse requestVote(String nodeId, VoteRequest request) throws IOException;
+
+    /**
+     * Append the entries to the log of a node.
+     *
+     * @param nodeId  the node id
+     * @param request the request
+     * @return the response
+     * @throws IOException if the node is not reachable
+     */
+    AppendResponse appendEntries(String nodeId, AppendRequest request) throws IOException;
+
+    /**
+     * Install a snapshot on a node.
+     *
+     * @param nodeId  the node id
+     * @param request the request
+     * @return the response
+     * @throws IOException if the node is not reachable
+     */
+    AppendResponse installSnapshot(String nodeId, SnapshotRequest request) throws IOException;
+
+    /**
+     * Stop receiving the requests and close the connections.
+     */
+    void shutdown();
+}
@@ -0,0 +1,251 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.storage.raft.RaftMessage.AppendRequest;
+import io.seata.server.storage.raft.RaftMessage.AppendResponse;
+import io.seata.server.storage.raft.RaftMessage.SnapshotRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteRequest;
+import io.seata.server.storage.raft.RaftMessage.VoteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The transport between the raft nodes of different processes, the id of a node is its address host:port.
+ * <p>
+ * A node listens on the port of its address, and keeps a connection to every other node, on which the requests are
+ * sent one by one. The port should be reachable only by the servers of the cluster.
+ *
+ * @since 1.5.0
+ */
+public class SocketRaftTransport implements RaftTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocketRaftTransport.class);
+
+    private final String address;
+
+    private final int timeoutMills;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    private final Set<Socket> acceptedSockets = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor handlers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), new NamedThreadFactory("RaftTransport", 1));
+
+    private volatile boolean running;
+
+    private ServerSocket serverSocket;
+
+    /**
+     * Instantiates a new Socket raft transport.
+     *
+     * @param address      the address of this node
+     * @param timeoutMills the timeout to connect and to wait for a response
+     */
+    public SocketRaftTransport(String address, int timeoutMills) {
+        this.address = address;
+        this.timeoutMills = timeoutMills;
+    }
+
+    @Override
+    public synchronized void start(RaftNode node) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(toSocketAddress(address).getPort()));
+        running = true;
+        handlers.execute(() -> accept(node));
+        LOGGER.info("The raft transport is listening on {}", address);
+    }
+
+    @Override
+    public VoteResponse requestVote(String nodeId, VoteRequest request) throws IOException {
+        return send(nodeId, RaftMessage.TYPE_VOTE, request::write, VoteResponse::read);
+    }
+
+    @Override
+    public AppendResponse appendEntries(String nodeId, AppendRequest request) throws IOException {
+        return send(nodeId, RaftMessage.TYPE_APPEND, request::write, AppendResponse::read);
+    }
+
+    @Override
+    public AppendResponse installSnapshot(String nodeId, SnapshotRequest request) throws IOException {
+        return send(nodeId, RaftMessage.TYPE_SNAPSHOT, request::write, AppendResponse::read);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        running = false;
+        closeQuietly(serverSocket);
+        acceptedSockets.forEach(SocketRaftTransport::closeQuietly);
+        connections.values().forEach(Connection::close);
+        handlers.shutdownNow();
+    }
+
+    private <T> T send(String nodeId, byte type, MessageWriter writer, MessageReader<T> reader) throws IOException {
+        if (!running) {
+            throw new IOException("the raft transport of " + address + " is stopped");
+        }
+        Connection connection = connections.computeIfAbsent(nodeId, Connection::new);
+        synchronized (connection) {
+            try {
+                DataOutputStream out = connection.open();
+                out.writeByte(type);
+                writer.write(out);
+                out.flush();
+                return reader.read(connection.in);
+            } catch (IOException e) {
+                // the response of the request may be read as the response of the next one, reconnect
+                connection.close();
+                throw e;
+            }
+        }
+    }
+
+    private void accept(RaftNode node) {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                acceptedSockets.add(socket);
+                handlers.execute(() -> serve(node, socket));
+            } catch (IOException e) {
+                if (running) {
+                    LOGGER.warn("The raft transport of {} failed to accept: {}", address, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(RaftNode node, Socket socket) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (running) {
+                byte type = in.readByte();
+                switch (type) {
+                    case RaftMessage.TYPE_VOTE:
+                        node.handleRequestVote(VoteRequest.read(in)).write(out);
+                        break;
+                    case RaftMessage.TYPE_APPEND:
+                        node.handleAppendEntries(AppendRequest.read(in)).write(out);
+                        break;
+                    case RaftMessage.TYPE_SNAPSHOT:
+                        node.handleInstallSnapshot(SnapshotRequest.read(in)).write(out);
+                        break;
+                    default:
+                        throw new IOException("unknown raft message type: " + type);
+                }
+                out.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            LOGGER.debug("The raft connection {} is closed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (IOException e) {
+            LOGGER.warn("The raft connection {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            acceptedSockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private static InetSocketAddress toSocketAddress(String address) {
+        int index = address.lastIndexOf(':');
+        if (index <= 0) {
+            throw new IllegalArgumentException("the raft address should be host:port, but it is " + address);
+        }
+        return new InetSocketAddress(address.substring(0, index), Integer.parseInt(address.substring(index + 1)));
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface MessageWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface MessageReader<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+    private class Connection {
+
+        private final String nodeId;
+
+        private Socket socket;
+
+        private DataInputStream in;
+
+        private DataOutputStream out;
+
+        Connection(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        DataOutputStream open() throws IOException {
+            if (socket == null) {
+                Socket newSocket = new Socket();
+                try {
+                    newSocket.connect(toSocketAddress(nodeId), timeoutMills);
+                    newSocket.setSoTimeout(timeoutMills);
+                    newSocket.setTcpNoDelay(true);
+                    in = new DataInputStream(new BufferedInputStream(newSocket.getInputStream()));
+                    out = new DataOutputStream(new BufferedOutputStream(newSocket.getOutputStream()));
+                } catch (IOException e) {
+                    closeQuietly(newSocket);
+                    throw e;
+                }
+                socket = newSocket;
+            }
+            return out;
+        }
+
+        synchronized void close() {
+            closeQuietly(socket);
+            socket = null;
+            in = null;
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft.lock;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.exception.TransactionException;
+import io.seata.server.storage.file.lock.FileLockManager;
+import io.seata.server.storage.raft.store.RaftTransactionStoreManager;
+import io.seata.server.storage.raft.store.SessionStateMachine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The lock manager of the raft mode, the locks are kept in the memory of the leader like the file mode, they are
+ * acquired again from the branch sessions by the server taking over the leadership.
+ *
+ * @since 1.5.0
+ */
+@LoadLevel(name = "raft")
+public class RaftLockManager extends FileLockManager implements SessionStateMachine.LeadershipListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RaftLockManager.class);
+
+    /**
+     * Instantiates a new Raft lock manager of the configured cluster.
+     */
+    public RaftLockManager() {
+        RaftTransactionStoreManager.getInstance().getStateMachine().addLeadershipListener(this);
+    }
+
+    @Override
+    public void onLeaderStart() {
+    }
+
+    @Override
+    public void onLeaderStop() {
+        try {
+            cleanAllLocks();
+        } catch (TransactionException e) {
+            LOGGER.error("Failed to clean the locks: {}", e.getMessage(), e);
+        }
+    }
+}
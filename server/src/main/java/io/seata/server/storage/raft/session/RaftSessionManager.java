@@ -0,0 +1,121 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft.session;
+
+import java.io.IOException;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.common.loader.Scope;
+import io.seata.core.exception.GlobalTransactionException;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.store.StoreMode;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHolder;
+import io.seata.server.storage.file.session.FileSessionManager;
+import io.seata.server.storage.raft.store.RaftTransactionStoreManager;
+import io.seata.server.storage.raft.store.SessionStateMachine;
+
+/**
+ * The session manager of the raft mode, the sessions are kept in the memory like the file mode, and the writes of the
+ * root session manager are replicated to the other servers by the raft log.
+ * <p>
+ * Only the leader owns the sessions, a server taking over the leadership reloads the replicated sessions, and a
+ * server losing it drops its sessions.
+ *
+ * @since 1.5.0
+ */
+@LoadLevel(name = "raft", scope = Scope.PROTOTYPE)
+public class RaftSessionManager extends FileSessionManager implements SessionStateMachine.LeadershipListener {
+
+    private final RaftTransactionStoreManager raftStoreManager;
+
+    private final boolean root;
+
+    /**
+     * whether the sessions replicated by the previous leaders are reloaded
+     */
+    private volatile boolean leaderReady;
+
+    /**
+     * Instantiates a new Raft session manager of the configured cluster.
+     *
+     * @param name the name
+     * @throws IOException the io exception
+     */
+    public RaftSessionManager(String name) throws IOException {
+        this(name, RaftTransactionStoreManager.getInstance());
+    }
+
+    /**
+     * Instantiates a new Raft session manager.
+     *
+     * @param name             the name
+     * @param raftStoreManager the raft store manager
+     * @throws IOException the io exception
+     */
+    public RaftSessionManager(String name, RaftTransactionStoreManager raftStoreManager) throws IOException {
+        super(name, null);
+        this.raftStoreManager = raftStoreManager;
+        this.root = SessionHolder.ROOT_SESSION_MANAGER_NAME.equals(name);
+        if (root) {
+            // the other session managers only queue the sessions, which are written by the root session manager
+            transactionStoreManager = raftStoreManager;
+        }
+        raftStoreManager.getStateMachine().addLeadershipListener(this);
+    }
+
+    @Override
+    public void reload() {
+        raftStoreManager.start();
+        sessionMap.clear();
+        for (GlobalSession globalSession : raftStoreManager.getStateMachine().copySessions()) {
+            sessionMap.put(globalSession.getXid(), globalSession);
+        }
+    }
+
+    @Override
+    public void addGlobalSession(GlobalSession session) throws TransactionException {
+        if (root && !leaderReady) {
+            throw new GlobalTransactionException(TransactionExceptionCode.FailedWriteSession,
+                "The server is not the leader of the raft store, or is reloading the sessions");
+        }
+        super.addGlobalSession(session);
+    }
+
+    @Override
+    public void onLeaderStart() {
+        if (root) {
+            try {
+                SessionHolder.reload(StoreMode.RAFT);
+            } catch (Exception e) {
+                LOGGER.error("Failed to reload the sessions of the raft store: {}", e.getMessage(), e);
+            }
+            leaderReady = true;
+        }
+    }
+
+    @Override
+    public void onLeaderStop() {
+        leaderReady = false;
+        sessionMap.clear();
+    }
+
+    @Override
+    public boolean scheduledLock(String key) {
+        return leaderReady;
+    }
+}
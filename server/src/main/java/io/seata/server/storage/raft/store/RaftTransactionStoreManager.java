@@ -0,0 +1,169 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft.store;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.storage.raft.RaftNode;
+import io.seata.server.storage.raft.RaftTransport;
+import io.seata.server.storage.raft.SocketRaftTransport;
+import io.seata.server.store.AbstractTransactionStoreManager;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.TransactionStoreManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_ELECTION_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_SNAPSHOT_LOG_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_WRITE_TIMEOUT;
+
+/**
+ * The transaction store manager of the raft mode, a session write is replicated to the servers of the cluster by the
+ * raft log, and succeeds once it is committed by the majority.
+ * <p>
+ * Only the leader writes the sessions, the written sessions are applied to the {@link SessionStateMachine} of every
+ * server, from which the sessions are taken over by the next leader.
+ *
+ * @since 1.5.0
+ */
+public class RaftTransactionStoreManager extends AbstractTransactionStoreManager implements TransactionStoreManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RaftTransactionStoreManager.class);
+
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    private static volatile RaftTransactionStoreManager instance;
+
+    private final SessionStateMachine stateMachine = new SessionStateMachine();
+
+    private final RaftNode raftNode;
+
+    private final long writeTimeoutMills;
+
+    private volatile boolean started;
+
+    /**
+     * Instantiates a new Raft transaction store manager.
+     *
+     * @param nodeId               the id of this server
+     * @param nodeIds              the ids of all the servers of the cluster, including this server
+     * @param transport            the transport between the servers
+     * @param electionTimeoutMills the election timeout
+     * @param writeTimeoutMills    the time a write waits to be committed
+     * @param snapshotLogSize      the number of the applied entries kept before a snapshot
+     */
+    public RaftTransactionStoreManager(String nodeId, List<String> nodeIds, RaftTransport transport,
+                                       long electionTimeoutMills, long writeTimeoutMills, int snapshotLogSize) {
+        this.raftNode = new RaftNode(nodeId, nodeIds, stateMachine, transport, electionTimeoutMills,
+            snapshotLogSize);
+        this.writeTimeoutMills = writeTimeoutMills;
+    }
+
+    /**
+     * Get the instance of the configured cluster.
+     *
+     * @return the instance
+     */
+    public static RaftTransactionStoreManager getInstance() {
+        if (instance == null) {
+            synchronized (RaftTransactionStoreManager.class) {
+                if (instance == null) {
+                    instance = newInstance();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static RaftTransactionStoreManager newInstance() {
+        String serverAddr = CONFIG.getConfig(ConfigurationKeys.STORE_RAFT_SERVER_ADDR);
+        String nodeAddr = CONFIG.getConfig(ConfigurationKeys.STORE_RAFT_NODE_ADDR);
+        if (StringUtils.isBlank(serverAddr) || StringUtils.isBlank(nodeAddr)) {
+            throw new StoreException("the {store.raft.serverAddr} or the {store.raft.nodeAddr} is empty.");
+        }
+        List<String> nodeIds = Stream.of(serverAddr.split(",")).map(String::trim).filter(StringUtils::isNotBlank)
+            .collect(Collectors.toList());
+        long electionTimeoutMills = CONFIG.getLong(ConfigurationKeys.STORE_RAFT_ELECTION_TIMEOUT,
+            DEFAULT_RAFT_ELECTION_TIMEOUT);
+        long writeTimeoutMills = CONFIG.getLong(ConfigurationKeys.STORE_RAFT_WRITE_TIMEOUT,
+            DEFAULT_RAFT_WRITE_TIMEOUT);
+        int snapshotLogSize = CONFIG.getInt(ConfigurationKeys.STORE_RAFT_SNAPSHOT_LOG_SIZE,
+            DEFAULT_RAFT_SNAPSHOT_LOG_SIZE);
+        RaftTransport transport = new SocketRaftTransport(nodeAddr.trim(), (int)electionTimeoutMills);
+        return new RaftTransactionStoreManager(nodeAddr.trim(), nodeIds, transport, electionTimeoutMills,
+            writeTimeoutMills, snapshotLogSize);
+    }
+
+    /**
+     * Start the raft node, once the session managers listening to the leadership are created.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        try {
+            raftNode.start();
+        } catch (IOException e) {
+            throw new StoreException(e, "the raft node " + raftNode.getNodeId() + " can not be started");
+        }
+        started = true;
+    }
+
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        byte[] data = new TransactionWriteStore(session, logOperation).encode();
+        if (!raftNode.propose(data, writeTimeoutMills)) {
+            LOGGER.warn("Failed to replicate the {} of the session by the raft node {}, the leader is {}",
+                logOperation, raftNode.getNodeId(), raftNode.getLeaderId());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        if (started) {
+            raftNode.shutdown();
+        }
+    }
+
+    /**
+     * Whether this server is the leader, which writes the sessions.
+     *
+     * @return the boolean
+     */
+    public boolean isLeader() {
+        return raftNode.isLeader();
+    }
+
+    /**
+     * Gets the replicated sessions.
+     *
+     * @return the state machine
+     */
+    public SessionStateMachine getStateMachine() {
+        return stateMachine;
+    }
+}
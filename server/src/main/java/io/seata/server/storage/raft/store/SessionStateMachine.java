@@ -0,0 +1,211 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.seata.common.exception.ShouldNeverHappenException;
+import io.seata.common.exception.StoreException;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.storage.raft.RaftStateMachine;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The sessions replicated by the raft log, every entry is a {@link TransactionWriteStore} written by the leader.
+ * <p>
+ * The sessions are only changed by the apply thread of the raft node, a snapshot is the global and the branch
+ * sessions encoded as the add operations.
+ *
+ * @since 1.5.0
+ */
+public class SessionStateMachine implements RaftStateMachine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionStateMachine.class);
+
+    private final Map<String, GlobalSession> sessionMap = new ConcurrentHashMap<>();
+
+    private final List<LeadershipListener> leadershipListeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void apply(byte[] data) {
+        TransactionWriteStore writeStore = new TransactionWriteStore();
+        writeStore.decode(data);
+        LogOperation logOperation = writeStore.getOperate();
+        switch (logOperation) {
+            case GLOBAL_ADD:
+            case GLOBAL_UPDATE: {
+                GlobalSession globalSession = (GlobalSession)writeStore.getSessionRequest();
+                GlobalSession found = sessionMap.putIfAbsent(globalSession.getXid(), globalSession);
+                if (found != null) {
+                    found.setStatus(globalSession.getStatus());
+                }
+                break;
+            }
+            case GLOBAL_REMOVE:
+                sessionMap.remove(((GlobalSession)writeStore.getSessionRequest()).getXid());
+                break;
+            case BRANCH_ADD:
+            case BRANCH_UPDATE: {
+                BranchSession branchSession = (BranchSession)writeStore.getSessionRequest();
+                GlobalSession found = sessionMap.get(branchSession.getXid());
+                if (found == null) {
+                    LOGGER.warn("GlobalSession Does Not Exists For BranchSession [{}/{}]", branchSession.getBranchId(),
+                        branchSession.getXid());
+                    break;
+                }
+                BranchSession existingBranch = found.getBranch(branchSession.getBranchId());
+                if (existingBranch == null) {
+                    found.add(branchSession);
+                } else {
+                    existingBranch.setStatus(branchSession.getStatus());
+                }
+                break;
+            }
+            case BRANCH_REMOVE: {
+                BranchSession branchSession = (BranchSession)writeStore.getSessionRequest();
+                GlobalSession found = sessionMap.get(branchSession.getXid());
+                BranchSession existingBranch = found != null ? found.getBranch(branchSession.getBranchId()) : null;
+                if (existingBranch != null) {
+                    found.remove(existingBranch);
+                }
+                break;
+            }
+            default:
+                throw new ShouldNeverHappenException("Unknown Operation: " + logOperation);
+        }
+    }
+
+    @Override
+    public byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Collection<GlobalSession> globalSessions = sessionMap.values();
+            out.writeInt(globalSessions.size());
+            for (GlobalSession globalSession : globalSessions) {
+                writeEntry(out, new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD));
+                out.writeInt(globalSession.getBranchSessions().size());
+                for (BranchSession branchSession : globalSession.getBranchSessions()) {
+                    writeEntry(out, new TransactionWriteStore(branchSession, LogOperation.BRANCH_ADD));
+                }
+            }
+        } catch (IOException e) {
+            throw new StoreException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void restore(byte[] snapshot) {
+        sessionMap.clear();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            int globalSize = in.readInt();
+            for (int i = 0; i < globalSize; i++) {
+                apply(readEntry(in));
+                int branchSize = in.readInt();
+                for (int j = 0; j < branchSize; j++) {
+                    apply(readEntry(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new StoreException(e);
+        }
+    }
+
+    @Override
+    public void onLeaderStart(long term) {
+        LOGGER.info("This server is the leader of the raft store in term {}, with {} global sessions", term,
+            sessionMap.size());
+        leadershipListeners.forEach(LeadershipListener::onLeaderStart);
+    }
+
+    @Override
+    public void onLeaderStop(long term) {
+        LOGGER.info("This server is not the leader of the raft store in term {} any more", term);
+        leadershipListeners.forEach(LeadershipListener::onLeaderStop);
+    }
+
+    /**
+     * Copy the sessions, the copies are not changed by the entries applied later. It is called by the leadership
+     * listeners, or when no entry is applied.
+     *
+     * @return the copies of the sessions
+     */
+    public Collection<GlobalSession> copySessions() {
+        SessionStateMachine copy = new SessionStateMachine();
+        copy.restore(snapshot());
+        return copy.sessionMap.values();
+    }
+
+    /**
+     * Find a replicated global session.
+     *
+     * @param xid the xid
+     * @return the global session, null if not found
+     */
+    public GlobalSession findGlobalSession(String xid) {
+        return sessionMap.get(xid);
+    }
+
+    /**
+     * Add a leadership listener, called by the apply thread.
+     *
+     * @param listener the listener
+     */
+    public void addLeadershipListener(LeadershipListener listener) {
+        leadershipListeners.add(listener);
+    }
+
+    private static void writeEntry(DataOutputStream out, TransactionWriteStore writeStore) throws IOException {
+        byte[] data = writeStore.encode();
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private static byte[] readEntry(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return data;
+    }
+
+    /**
+     * The listener of the leadership of this server.
+     */
+    public interface LeadershipListener {
+
+        /**
+         * Called once this server is the leader, all the sessions committed by the previous leaders are applied.
+         */
+        void onLeaderStart();
+
+        /**
+         * Called once this server is not the leader any more.
+         */
+        void onLeaderStop();
+    }
+}
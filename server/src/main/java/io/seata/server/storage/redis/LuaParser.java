@@ -0,0 +1,77 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.redis;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import io.seata.common.io.FileLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The reader of the lua scripts run by the redis store.
+ *
+ * @since 1.5.0
+ */
+public final class LuaParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuaParser.class);
+
+    private static final String WHITE_SPACE = " ";
+
+    private static final String ANNOTATION_LUA = "--";
+
+    private LuaParser() {
+    }
+
+    /**
+     * Read a lua script, the file on the file system first, then the one packaged in the jar. The comment lines are
+     * skipped and the other lines are joined into one.
+     *
+     * @param luaFileName the lua file name
+     * @return the lua script, null if it can not be read
+     */
+    public static String readLua(String luaFileName) {
+        StringBuilder lua = new StringBuilder();
+        File luaFile = FileLoader.load(luaFileName);
+        try (InputStream is = luaFile != null ? new FileInputStream(luaFile)
+            : LuaParser.class.getClassLoader().getResourceAsStream(luaFileName)) {
+            if (is == null) {
+                LOGGER.warn("The lua script {} is not found", luaFileName);
+                return null;
+            }
+            BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().startsWith(ANNOTATION_LUA)) {
+                    continue;
+                }
+                lua.append(line);
+                lua.append(WHITE_SPACE);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read the lua script {}: {}", luaFileName, e.getMessage());
+            return null;
+        }
+        return lua.toString();
+    }
+}
@@ -15,14 +15,11 @@
  */
 package io.seata.server.storage.redis.lock;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,7 +28,6 @@ import java.util.StringJoiner;
 import java.util.stream.Collectors;
 import com.google.common.collect.Lists;
 
-import io.seata.common.io.FileLoader;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.LambdaUtils;
 import io.seata.common.util.StringUtils;
@@ -39,13 +35,18 @@ import io.seata.core.lock.AbstractLocker;
 import io.seata.core.lock.RowLock;
 import io.seata.core.store.LockDO;
 import io.seata.server.storage.redis.JedisPooledFactory;
+import io.seata.server.storage.redis.LuaParser;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 import static io.seata.common.Constants.ROW_LOCK_KEY_SPLIT_CHAR;
+import static io.seata.common.Constants.TABLE_LOCK_PK;
 
 /**
  * The redis lock store operation
@@ -67,59 +68,65 @@ public class RedisLocker extends AbstractLocker {
 
     private static final String XID = "xid";
 
-    private static final String TRANSACTION_ID = "transactionId";
-
     private static final String BRANCH_ID = "branchId";
 
-    private static final String RESOURCE_ID = "resourceId";
+    private static final String DEFAULT_REDIS_SEATA_TABLE_ROW_LOCKS_PREFIX = "SEATA_TABLE_ROW_LOCKS_";
 
-    private static final String TABLE_NAME = "tableName";
+    private static final String REDIS_LUA_FILE_NAME = "lua/redislocker/redislock.lua";
 
-    private static final String PK = "pk";
+    private static final String REDIS_UNLOCK_LUA_FILE_NAME = "lua/redislocker/redisunlock.lua";
 
-    private static final String ROW_KEY = "rowKey";
+    private static volatile String ACQUIRE_LOCK_LUA;
 
-    private static final String REDIS_LUA_FILE_NAME = "lua/redislocker/redislock.lua";
+    private static volatile String RELEASE_LOCK_LUA;
 
-    private static String ACQUIRE_LOCK_SHA;
+    private static volatile String ACQUIRE_LOCK_SHA;
 
-    private static final String WHITE_SPACE = " ";
+    private static volatile String RELEASE_LOCK_SHA;
 
-    private static final String ANNOTATION_LUA = "--";
+    /**
+     * the lua script can not be used, so the pipeline mode is used without trying to load it again
+     */
+    private static volatile boolean LUA_UNAVAILABLE;
 
     /**
      * Instantiates a new Redis locker.
      */
     public RedisLocker() {
-        if (ACQUIRE_LOCK_SHA == null) {
-            File luaFile = FileLoader.load(REDIS_LUA_FILE_NAME);
-            if (luaFile != null) {
-                StringBuilder acquireLockLuaByFile = new StringBuilder();
-                try (FileInputStream fis = new FileInputStream(luaFile)) {
-                    BufferedReader br = new BufferedReader(new InputStreamReader(fis));
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (line.trim().startsWith(ANNOTATION_LUA)) {
-                            continue;
-                        }
-                        acquireLockLuaByFile.append(line);
-                        acquireLockLuaByFile.append(WHITE_SPACE);
-                    }
-                // if it fails to read the file, pipeline mode is used
-                } catch (IOException e) {
-                    LOGGER.info("redis locker use pipeline mode");
-                    return;
-                }
-                try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
-                    ACQUIRE_LOCK_SHA = jedis.scriptLoad(acquireLockLuaByFile.toString());
-                    LOGGER.info("redis locker use lua mode");
+        if (ACQUIRE_LOCK_SHA == null && !LUA_UNAVAILABLE) {
+            synchronized (RedisLocker.class) {
+                if (ACQUIRE_LOCK_SHA == null && !LUA_UNAVAILABLE) {
+                    loadLockLua();
                 }
-            } else {
-                LOGGER.info("redis locker use pipeline mode");
             }
         }
     }
 
+    private static void loadLockLua() {
+        if (ACQUIRE_LOCK_LUA == null || RELEASE_LOCK_LUA == null) {
+            String acquireLockLua = LuaParser.readLua(REDIS_LUA_FILE_NAME);
+            String releaseLockLua = LuaParser.readLua(REDIS_UNLOCK_LUA_FILE_NAME);
+            if (acquireLockLua == null || releaseLockLua == null) {
+                // if it fails to read the scripts, pipeline mode is used
+                LOGGER.warn("redis locker use pipeline mode, the lua scripts can not be read");
+                LUA_UNAVAILABLE = true;
+                return;
+            }
+            ACQUIRE_LOCK_LUA = acquireLockLua;
+            RELEASE_LOCK_LUA = releaseLockLua;
+        }
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            // the release script is loaded first, so it is loaded whenever the acquire script is
+            RELEASE_LOCK_SHA = jedis.scriptLoad(RELEASE_LOCK_LUA);
+            ACQUIRE_LOCK_SHA = jedis.scriptLoad(ACQUIRE_LOCK_LUA);
+            LOGGER.info("redis locker use lua mode");
+        } catch (JedisDataException e) {
+            // the scripts are not supported by the redis server
+            LOGGER.warn("redis locker use pipeline mode, failed to load the lua script: {}", e.getMessage());
+            LUA_UNAVAILABLE = true;
+        }
+    }
+
     @Override
     public boolean acquireLock(List<RowLock> rowLocks) {
         if (CollectionUtils.isEmpty(rowLocks)) {
@@ -127,9 +134,10 @@ public class RedisLocker extends AbstractLocker {
         }
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
             if (ACQUIRE_LOCK_SHA != null) {
+                // the table locks of the rows and the rows of the table locks are checked by the script
                 return acquireLockByLua(jedis, rowLocks);
             } else {
-                return acquireLockByPipeline(jedis, rowLocks);
+                return checkTableLockable(jedis, rowLocks) && acquireLockByPipeline(jedis, rowLocks);
             }
         }
 
@@ -171,17 +179,13 @@ public class RedisLocker extends AbstractLocker {
         Pipeline pipeline = jedis.pipelined();
         List<String> readyKeys = new ArrayList<>();
         needAddLock.forEach((key, value) -> {
+            // only the xid and the branch id are stored, the rest can be told from the key
             pipeline.hsetnx(key, XID, value.getXid());
-            pipeline.hsetnx(key, TRANSACTION_ID, value.getTransactionId().toString());
             pipeline.hsetnx(key, BRANCH_ID, value.getBranchId().toString());
-            pipeline.hset(key, ROW_KEY, value.getRowKey());
-            pipeline.hset(key, RESOURCE_ID, value.getResourceId());
-            pipeline.hset(key, TABLE_NAME, value.getTableName());
-            pipeline.hset(key, PK, value.getPk());
             readyKeys.add(key);
         });
         List<Integer> results = (List<Integer>) (List) pipeline.syncAndReturnAll();
-        List<List<Integer>> partitions = Lists.partition(results, 7);
+        List<List<Integer>> partitions = Lists.partition(results, 2);
 
         ArrayList<String> success = new ArrayList<>(partitions.size());
         Integer status = SUCCEED;
@@ -203,43 +207,55 @@ public class RedisLocker extends AbstractLocker {
         String xidLockKey = buildXidLockKey(needLockXid);
         StringJoiner lockKeysString = new StringJoiner(ROW_LOCK_KEY_SPLIT_CHAR);
         needLockKeys.forEach(lockKeysString::add);
-        jedis.hset(xidLockKey, branchId.toString(), lockKeysString.toString());
+        Pipeline indexPipeline = jedis.pipelined();
+        for (String lockKey : readyKeys) {
+            if (!isTableLockKey(lockKey)) {
+                indexPipeline.hincrBy(buildTableRowLocksKey(lockKey), needLockXid, 1);
+            }
+        }
+        indexPipeline.hset(xidLockKey, branchId.toString(), lockKeysString.toString());
+        indexPipeline.sync();
         return true;
     }
 
     private boolean acquireLockByLua(Jedis jedis, List<RowLock> rowLocks) {
         String needLockXid = rowLocks.get(0).getXid();
         Long branchId = rowLocks.get(0).getBranchId();
-        List<LockDO> needLockDOs = rowLocks.stream()
-                .map(this::convertToLockDO)
-                .filter(LambdaUtils.distinctByKey(LockDO::getRowKey))
-                .collect(Collectors.toList());
-        ArrayList<String> keys = new ArrayList<>();
-        ArrayList<String> args = new ArrayList<>();
-        int size = needLockDOs.size();
-        args.add(String.valueOf(size));
-        // args index 2 placeholder
-        args.add(null);
+        Set<String> needLockKeys = new LinkedHashSet<>();
+        Set<String> tableLockKeys = new LinkedHashSet<>();
+        for (RowLock rowLock : rowLocks) {
+            needLockKeys.add(buildLockKey(getRowKey(rowLock.getResourceId(), rowLock.getTableName(),
+                rowLock.getPk())));
+            tableLockKeys.add(buildLockKey(getRowKey(rowLock.getResourceId(), rowLock.getTableName(),
+                TABLE_LOCK_PK)));
+        }
+        tableLockKeys.removeAll(needLockKeys);
+        List<String> keys = new ArrayList<>(needLockKeys);
+        keys.addAll(tableLockKeys);
+        List<String> indexPositions = buildTableRowLocksKeys(needLockKeys, keys, true);
+        keys.add(buildXidLockKey(needLockXid));
+        List<String> args = new ArrayList<>(5 + indexPositions.size());
+        args.add(String.valueOf(needLockKeys.size()));
+        args.add(String.valueOf(tableLockKeys.size()));
         args.add(needLockXid);
-        for (LockDO lockDO : needLockDOs) {
-            keys.add(buildLockKey(lockDO.getRowKey()));
-            args.add(lockDO.getTransactionId().toString());
-            args.add(lockDO.getBranchId().toString());
-            args.add(lockDO.getResourceId());
-            args.add(lockDO.getTableName());
-            args.add(lockDO.getRowKey());
-            args.add(lockDO.getPk());
+        args.add(branchId.toString());
+        args.add(String.join(ROW_LOCK_KEY_SPLIT_CHAR, needLockKeys));
+        args.addAll(indexPositions);
+        Object result;
+        try {
+            result = jedis.evalsha(ACQUIRE_LOCK_SHA, keys, args);
+        } catch (JedisNoScriptException e) {
+            // the script cache of the redis server is flushed or the server is restarted
+            synchronized (RedisLocker.class) {
+                loadLockLua();
+            }
+            result = jedis.evalsha(ACQUIRE_LOCK_SHA, keys, args);
         }
-        String xidLockKey = buildXidLockKey(needLockXid);
-        StringJoiner lockKeysString = new StringJoiner(ROW_LOCK_KEY_SPLIT_CHAR);
-        needLockDOs.stream().map(lockDO -> buildLockKey(lockDO.getRowKey())).forEach(lockKeysString::add);
-        keys.add(xidLockKey);
-        keys.add(branchId.toString());
-        args.add(lockKeysString.toString());
-        // reset args index 2
-        args.set(1, String.valueOf(args.size()));
-        long result = (long)jedis.evalsha(ACQUIRE_LOCK_SHA, keys, args);
-        return SUCCEED == result;
+        if (result instanceof Long && SUCCEED == ((Long)result).intValue()) {
+            return true;
+        }
+        LOGGER.info("Global lock on [{}] is holding by another transaction", result);
+        return false;
     }
 
     @Override
@@ -250,16 +266,13 @@ public class RedisLocker extends AbstractLocker {
         String currentXid = rowLocks.get(0).getXid();
         Long branchId = rowLocks.get(0).getBranchId();
         List<LockDO> needReleaseLocks = convertToLockDO(rowLocks);
-        String[] needReleaseKeys = new String[needReleaseLocks.size()];
-        for (int i = 0; i < needReleaseLocks.size(); i ++) {
-            needReleaseKeys[i] = buildLockKey(needReleaseLocks.get(i).getRowKey());
+        Set<String> needReleaseKeys = new LinkedHashSet<>(needReleaseLocks.size());
+        for (LockDO needReleaseLock : needReleaseLocks) {
+            needReleaseKeys.add(buildLockKey(needReleaseLock.getRowKey()));
         }
 
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
-            Pipeline pipelined = jedis.pipelined();
-            pipelined.del(needReleaseKeys);
-            pipelined.hdel(buildXidLockKey(currentXid), branchId.toString());
-            pipelined.sync();
+            releaseLock(jedis, currentXid, needReleaseKeys, new String[] {branchId.toString()});
             return true;
         }
     }
@@ -278,19 +291,13 @@ public class RedisLocker extends AbstractLocker {
             List<String> rowKeys = jedis.hmget(xidLockKey, branchIdsArray);
 
             if (CollectionUtils.isNotEmpty(rowKeys)) {
-                Pipeline pipelined = jedis.pipelined();
-                pipelined.hdel(xidLockKey, branchIdsArray);
+                Set<String> needReleaseKeys = new LinkedHashSet<>();
                 rowKeys.forEach(rowKeyStr -> {
                     if (StringUtils.isNotEmpty(rowKeyStr)) {
-                        if (rowKeyStr.contains(ROW_LOCK_KEY_SPLIT_CHAR)) {
-                            String[] keys = rowKeyStr.split(ROW_LOCK_KEY_SPLIT_CHAR);
-                            pipelined.del(keys);
-                        } else {
-                            pipelined.del(rowKeyStr);
-                        }
+                        needReleaseKeys.addAll(Arrays.asList(rowKeyStr.split(ROW_LOCK_KEY_SPLIT_CHAR)));
                     }
                 });
-                pipelined.sync();
+                releaseLock(jedis, xid, needReleaseKeys, branchIdsArray);
             }
             return true;
         }
@@ -303,6 +310,65 @@ public class RedisLocker extends AbstractLocker {
         return releaseLock(xid, branchIds);
     }
 
+    /**
+     * Release the keys held by the global transaction, uncount their rows in the row indexes of the tables, and
+     * remove the branches from the xid lock.
+     *
+     * @param jedis           the jedis
+     * @param xid             the xid
+     * @param needReleaseKeys the keys to release
+     * @param branchIds       the branch ids
+     */
+    private void releaseLock(Jedis jedis, String xid, Set<String> needReleaseKeys, String[] branchIds) {
+        if (RELEASE_LOCK_SHA != null) {
+            List<String> keys = new ArrayList<>(needReleaseKeys);
+            List<String> indexPositions = buildTableRowLocksKeys(needReleaseKeys, keys, false);
+            keys.add(buildXidLockKey(xid));
+            List<String> args = new ArrayList<>(3 + branchIds.length + indexPositions.size());
+            args.add(xid);
+            args.add(String.valueOf(needReleaseKeys.size()));
+            args.add(String.valueOf(branchIds.length));
+            args.addAll(Arrays.asList(branchIds));
+            args.addAll(indexPositions);
+            try {
+                jedis.evalsha(RELEASE_LOCK_SHA, keys, args);
+            } catch (JedisNoScriptException e) {
+                // the script cache of the redis server is flushed or the server is restarted
+                synchronized (RedisLocker.class) {
+                    loadLockLua();
+                }
+                jedis.evalsha(RELEASE_LOCK_SHA, keys, args);
+            }
+            return;
+        }
+        // the owners are read first, the keys held by the global transaction are uncounted once
+        List<String> keys = new ArrayList<>(needReleaseKeys);
+        Pipeline ownerPipeline = jedis.pipelined();
+        keys.forEach(key -> ownerPipeline.hget(key, XID));
+        List<String> owners = (List<String>) (List) ownerPipeline.syncAndReturnAll();
+        Pipeline pipeline = jedis.pipelined();
+        Map<String, Response<Long>> rowCounts = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (xid.equals(owners.get(i))) {
+                pipeline.del(key);
+                if (!isTableLockKey(key)) {
+                    String tableRowLocksKey = buildTableRowLocksKey(key);
+                    rowCounts.put(tableRowLocksKey, pipeline.hincrBy(tableRowLocksKey, xid, -1));
+                }
+            }
+        }
+        pipeline.hdel(buildXidLockKey(xid), branchIds);
+        pipeline.sync();
+        Pipeline cleanPipeline = jedis.pipelined();
+        rowCounts.forEach((tableRowLocksKey, rowCount) -> {
+            if (rowCount.get() <= 0) {
+                cleanPipeline.hdel(tableRowLocksKey, xid);
+            }
+        });
+        cleanPipeline.sync();
+    }
+
     @Override
     public boolean isLockable(List<RowLock> rowLocks) {
         if (CollectionUtils.isEmpty(rowLocks)) {
@@ -319,8 +385,112 @@ public class RedisLocker extends AbstractLocker {
             Pipeline pipeline = jedis.pipelined();
             lockKeys.forEach(key -> pipeline.hget(key, XID));
             List<String> existedXids = (List<String>) (List) pipeline.syncAndReturnAll();
-            return existedXids.stream().allMatch(existedXid -> existedXid == null || xid.equals(existedXid));
+            return existedXids.stream().allMatch(existedXid -> existedXid == null || xid.equals(existedXid))
+                && checkTableLockable(jedis, rowLocks);
+        }
+    }
+
+    /**
+     * Check the table locks: no other global transaction holds the table lock of a table whose rows are locked, or
+     * holds any row of a table to be locked as a whole. The rows of a table are counted by its row index.
+     *
+     * @param jedis    the jedis
+     * @param rowLocks the row locks
+     * @return true if the table locks do not conflict
+     */
+    private boolean checkTableLockable(Jedis jedis, List<RowLock> rowLocks) {
+        String xid = rowLocks.get(0).getXid();
+        Set<String> tableLockKeys = new HashSet<>();
+        for (RowLock rowLock : rowLocks) {
+            tableLockKeys.add(buildLockKey(getRowKey(rowLock.getResourceId(), rowLock.getTableName(),
+                TABLE_LOCK_PK)));
+        }
+        Pipeline pipeline = jedis.pipelined();
+        tableLockKeys.forEach(key -> pipeline.hget(key, XID));
+        List<String> existedXids = (List<String>) (List) pipeline.syncAndReturnAll();
+        return existedXids.stream().allMatch(existedXid -> existedXid == null || xid.equals(existedXid))
+            && checkTableRowsLockable(jedis, rowLocks);
+    }
+
+    /**
+     * Check no other global transaction holds any row of the tables to be locked as a whole.
+     *
+     * @param jedis    the jedis
+     * @param rowLocks the row locks
+     * @return true if the table locks do not conflict with the rows
+     */
+    private boolean checkTableRowsLockable(Jedis jedis, List<RowLock> rowLocks) {
+        String xid = rowLocks.get(0).getXid();
+        Set<String> tableRowLocksKeys = new LinkedHashSet<>();
+        for (RowLock rowLock : rowLocks) {
+            if (TABLE_LOCK_PK.equals(rowLock.getPk())) {
+                tableRowLocksKeys.add(buildTableRowLocksKey(buildLockKey(getRowKey(rowLock.getResourceId(),
+                    rowLock.getTableName(), TABLE_LOCK_PK))));
+            }
+        }
+        for (String tableRowLocksKey : tableRowLocksKeys) {
+            for (Map.Entry<String, String> rowCount : jedis.hgetAll(tableRowLocksKey).entrySet()) {
+                if (!xid.equals(rowCount.getKey()) && Long.parseLong(rowCount.getValue()) > 0) {
+                    LOGGER.info("Global lock on the table of [{}] is holding by another transaction",
+                        tableRowLocksKey);
+                    return false;
+                }
+            }
         }
+        return true;
+    }
+
+    /**
+     * Add the row index keys of the tables of the lock keys to the keys of a script, and build the position of the
+     * row index key of each lock key in the keys, 1-based as in lua. The position of a table lock key is 0, or
+     * negative when its table must have no row of another global transaction.
+     *
+     * @param lockKeys    the lock keys
+     * @param keys        the keys of the script
+     * @param checkTables whether the table lock keys point to the row index keys of their tables
+     * @return the positions
+     */
+    private List<String> buildTableRowLocksKeys(Set<String> lockKeys, List<String> keys, boolean checkTables) {
+        Map<String, Integer> tableRowLocksKeyPositions = new HashMap<>();
+        List<String> positions = new ArrayList<>(lockKeys.size());
+        for (String lockKey : lockKeys) {
+            boolean tableLock = isTableLockKey(lockKey);
+            if (tableLock && !checkTables) {
+                positions.add("0");
+                continue;
+            }
+            Integer position = tableRowLocksKeyPositions.computeIfAbsent(buildTableRowLocksKey(lockKey),
+                tableRowLocksKey -> {
+                    keys.add(tableRowLocksKey);
+                    return keys.size();
+                });
+            positions.add(String.valueOf(tableLock ? -position : position));
+        }
+        return positions;
+    }
+
+    /**
+     * Whether the lock key is the lock of a whole table, no real pk is equal to TABLE_LOCK_PK.
+     *
+     * @param lockKey the lock key
+     * @return the boolean
+     */
+    private static boolean isTableLockKey(String lockKey) {
+        return lockKey.endsWith(LOCK_SPLIT + TABLE_LOCK_PK);
+    }
+
+    /**
+     * The key of the row index of the table of a lock key, which counts the rows of the table held by each global
+     * transaction, so a table lock does not scan the keys.
+     *
+     * @param lockKey the lock key
+     * @return the row index key
+     */
+    private static String buildTableRowLocksKey(String lockKey) {
+        // the row key is resourceId^^^tableName^^^pk, the pk may contain the split
+        String rowKey = lockKey.substring(DEFAULT_REDIS_SEATA_ROW_LOCK_PREFIX.length());
+        int pkSplitIndex = rowKey.indexOf(LOCK_SPLIT, rowKey.indexOf(LOCK_SPLIT) + LOCK_SPLIT.length());
+        return DEFAULT_REDIS_SEATA_TABLE_ROW_LOCKS_PREFIX + rowKey.substring(0, pkSplitIndex);
     }
 
     private String buildXidLockKey(String xid) {
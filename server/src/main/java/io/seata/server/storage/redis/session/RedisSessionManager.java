@@ -17,6 +17,7 @@ package io.seata.server.storage.redis.session;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import io.seata.common.exception.StoreException;
 import io.seata.common.executor.Initialize;
 import io.seata.common.loader.LoadLevel;
@@ -162,21 +163,29 @@ public class RedisSessionManager extends AbstractSessionManager
 
     @Override
     public Collection<GlobalSession> allSessions() {
+        return allSessions(null);
+    }
+
+    @Override
+    public Collection<GlobalSession> allSessions(long[] transactionIdRanges) {
+        SessionCondition condition;
         // get by taskName
         if (SessionHolder.ASYNC_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(GlobalStatus.AsyncCommitting));
+            condition = new SessionCondition(GlobalStatus.AsyncCommitting);
         } else if (SessionHolder.RETRY_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing}));
+            condition = new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing});
         } else if (SessionHolder.RETRY_ROLLBACKING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
-                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying}));
+            condition = new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
+                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying});
         } else {
             // all data
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
+            condition = new SessionCondition(new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
                 GlobalStatus.Committing, GlobalStatus.CommitRetrying, GlobalStatus.Rollbacking,
                 GlobalStatus.RollbackRetrying, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying,
-                GlobalStatus.AsyncCommitting}));
+                GlobalStatus.AsyncCommitting});
         }
+        condition.setTransactionIdRanges(transactionIdRanges);
+        return findGlobalSessions(condition);
     }
 
     @Override
@@ -185,6 +194,11 @@ public class RedisSessionManager extends AbstractSessionManager
         return transactionStoreManager.readSession(condition);
     }
 
+    @Override
+    public Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        return RedisTransactionStoreManager.getInstance().heartbeat(nodeId, heartbeatTime);
+    }
+
     @Override
     public <T> T lockAndExecute(GlobalSession globalSession, GlobalSession.LockCallable<T> lockCallable)
         throws TransactionException {
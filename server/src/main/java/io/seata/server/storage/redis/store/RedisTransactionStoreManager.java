@@ -16,25 +16,31 @@
 package io.seata.server.storage.redis.store;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisDataException;
 import io.seata.common.exception.StoreException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
 import io.seata.common.exception.RedisException;
 import io.seata.common.util.BeanUtils;
 import io.seata.common.XID;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
@@ -42,10 +48,12 @@ import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
 import io.seata.server.storage.SessionConverter;
 import io.seata.server.storage.redis.JedisPooledFactory;
+import io.seata.server.storage.redis.LuaParser;
 import io.seata.server.store.AbstractTransactionStoreManager;
 import io.seata.server.store.SessionStorable;
 import io.seata.server.store.TransactionStoreManager;
 
+import static io.seata.common.DefaultValues.DEFAULT_STORE_REDIS_QUERY_LIMIT;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_GMT_MODIFIED;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_STATUS;
 import static io.seata.core.constants.RedisKeyConstants.REDIS_KEY_BRANCH_XID;
@@ -76,10 +84,31 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
     /**the prefix of the global transaction status*/
     private static final String REDIS_SEATA_STATUS_PREFIX = "SEATA_STATUS_";
 
+    /**the key of the heartbeats of the server nodes*/
+    private static final String REDIS_SEATA_NODE_HEARTBEATS_KEY = "SEATA_NODE_HEARTBEATS";
+
     private static volatile RedisTransactionStoreManager instance;
 
     private static final String OK = "OK";
 
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    /**the max number of the global sessions read by a status query*/
+    private final int logQueryLimit = CONFIG.getInt(ConfigurationKeys.STORE_REDIS_QUERY_LIMIT,
+        DEFAULT_STORE_REDIS_QUERY_LIMIT);
+
+    /**the scan positions of the status sets*/
+    private final Map<String, ScanPosition> scanPositions = new ConcurrentHashMap<>();
+
+    /**the lua script picking the xids of the transaction id ranges from the status lists*/
+    private static final String REDIS_SCAN_LUA_FILE_NAME = "lua/redisstore/redisscan.lua";
+
+    /**the max number of the xids scanned by a status query of the transaction id ranges, in query limits*/
+    private static final int SCAN_LIMIT_MULTIPLE = 10;
+
+    /**the scan script, null if it can not be read or run by the redis server*/
+    private volatile String scanLua = LuaParser.readLua(REDIS_SCAN_LUA_FILE_NAME);
+
     /**
      * Get the instance.
      */
@@ -339,30 +368,154 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
 
     /**
      * Read globalSession list by global status
+     * <p>
+     * Every call reads the next page of at most the query limit xids from the status lists, in which the xids are
+     * appended in the order their status is changed. The scan starts over from the head of the first list once all
+     * the lists are read through. An xid removed ahead of the scan position shifts the rest, so an xid may be skipped
+     * by a pass, and it is read by the next one.
      *
      * @param statuses the statuses
      * @return the list
      */
     public List<GlobalSession> readSession(GlobalStatus[] statuses) {
-        List<String> statusKeys = new ArrayList<>();
-        for (int i = 0; i < statuses.length; i++) {
-            statusKeys.add(buildGlobalStatus(statuses[i].getCode()));
+        return readSession(statuses, null);
+    }
+
+    /**
+     * Read session list of the transaction id ranges, paged as {@link #readSession(GlobalStatus[])}.
+     * <p>
+     * The xids of the ranges are picked by a lua script while the lists are scanned, so the query limit counts only
+     * them, and at most {@link #SCAN_LIMIT_MULTIPLE} query limits of xids are scanned by a call. If the redis server
+     * can not run the script, the xids out of the ranges are dropped from the page before their sessions are read.
+     *
+     * @param statuses            the statuses
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn, null for any
+     * @return the list
+     */
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, long[] transactionIdRanges) {
+        if (transactionIdRanges != null && transactionIdRanges.length == 0) {
+            return new ArrayList<>();
         }
+        String scanKey = Arrays.toString(statuses);
+        ScanPosition position = scanPositions.getOrDefault(scanKey, ScanPosition.START);
+        List<String> xids = new ArrayList<>();
         try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
-            Pipeline pipelined = jedis.pipelined();
-            statusKeys.stream().forEach(statusKey -> pipelined.lrange(statusKey, 0, -1));
-            List<List<String>> list = (List<List<String>>)(List)pipelined.syncAndReturnAll();
-            List<GlobalSession> globalSessions = Collections.synchronizedList(new ArrayList<>());
-            if (CollectionUtils.isNotEmpty(list)) {
-                List<String> xids = list.stream().flatMap(ll -> ll.stream()).collect(Collectors.toList());
-                xids.parallelStream().forEach(xid -> {
-                    GlobalSession globalSession = this.readSession(xid, true);
-                    if (globalSession != null) {
-                        globalSessions.add(globalSession);
-                    }
-                });
+            position = transactionIdRanges != null && scanLua != null
+                ? scanByLua(jedis, statuses, position, transactionIdRanges, xids)
+                : scan(jedis, statuses, position, xids);
+        }
+        if (position.statusIndex < statuses.length) {
+            scanPositions.put(scanKey, position);
+        } else {
+            scanPositions.remove(scanKey);
+        }
+        if (transactionIdRanges != null) {
+            xids.removeIf(xid -> !isInRanges(XID.getTransactionId(xid), transactionIdRanges));
+        }
+        List<GlobalSession> globalSessions = Collections.synchronizedList(new ArrayList<>());
+        xids.parallelStream().forEach(xid -> {
+            GlobalSession globalSession = this.readSession(xid, true);
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
             }
-            return globalSessions;
+        });
+        return globalSessions;
+    }
+
+    /**
+     * Scan at most the query limit xids from the status lists.
+     *
+     * @param jedis    the jedis
+     * @param statuses the statuses
+     * @param position the position to scan from
+     * @param xids     the xids scanned
+     * @return the position to scan from next time
+     */
+    private ScanPosition scan(Jedis jedis, GlobalStatus[] statuses, ScanPosition position, List<String> xids) {
+        int statusIndex = position.statusIndex;
+        long offset = position.offset;
+        while (statusIndex < statuses.length && xids.size() < logQueryLimit) {
+            int count = logQueryLimit - xids.size();
+            List<String> page = jedis.lrange(buildGlobalStatus(statuses[statusIndex].getCode()), offset,
+                offset + count - 1);
+            xids.addAll(page);
+            if (page.size() < count) {
+                statusIndex++;
+                offset = 0;
+            } else {
+                offset += count;
+            }
+        }
+        return new ScanPosition(statusIndex, offset);
+    }
+
+    /**
+     * Scan at most the query limit xids of the transaction id ranges from the status lists by the lua script, it is
+     * not used any more once the redis server fails to run it.
+     *
+     * @param jedis               the jedis
+     * @param statuses            the statuses
+     * @param position            the position to scan from
+     * @param transactionIdRanges the inclusive min and max transaction id of every range in turn
+     * @param xids                the xids scanned
+     * @return the position to scan from next time
+     */
+    private ScanPosition scanByLua(Jedis jedis, GlobalStatus[] statuses, ScanPosition position,
+                                   long[] transactionIdRanges, List<String> xids) {
+        List<String> keys = new ArrayList<>(statuses.length);
+        for (GlobalStatus status : statuses) {
+            keys.add(buildGlobalStatus(status.getCode()));
+        }
+        List<String> args = new ArrayList<>(transactionIdRanges.length + 4);
+        args.add(String.valueOf(position.statusIndex + 1));
+        args.add(String.valueOf(position.offset));
+        args.add(String.valueOf(logQueryLimit));
+        args.add(String.valueOf(logQueryLimit * SCAN_LIMIT_MULTIPLE));
+        for (long transactionIdBound : transactionIdRanges) {
+            args.add(String.valueOf(transactionIdBound));
+        }
+        List<Object> result;
+        try {
+            result = (List<Object>)jedis.eval(scanLua, keys, args);
+        } catch (JedisDataException e) {
+            LOGGER.warn("Failed to scan the status lists by the lua script, they are scanned by pages from now on: {}",
+                e.getMessage());
+            scanLua = null;
+            return scan(jedis, statuses, position, xids);
+        }
+        for (int i = 2; i < result.size(); i++) {
+            xids.add((String)result.get(i));
+        }
+        return new ScanPosition(((Long)result.get(0)).intValue() - 1, (Long)result.get(1));
+    }
+
+    private static boolean isInRanges(long transactionId, long[] transactionIdRanges) {
+        for (int i = 0; i + 1 < transactionIdRanges.length; i += 2) {
+            if (transactionId >= transactionIdRanges[i] && transactionId <= transactionIdRanges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Renew the heartbeat of a server node, and read the heartbeats of all the nodes.
+     *
+     * @param nodeId        the node id
+     * @param heartbeatTime the heartbeat time
+     * @return the last heartbeat time of every node by its node id
+     */
+    public Map<Long, Long> heartbeat(long nodeId, long heartbeatTime) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            Pipeline pipelined = jedis.pipelined();
+            pipelined.hset(REDIS_SEATA_NODE_HEARTBEATS_KEY, String.valueOf(nodeId), String.valueOf(heartbeatTime));
+            Response<Map<String, String>> response = pipelined.hgetAll(REDIS_SEATA_NODE_HEARTBEATS_KEY);
+            pipelined.sync();
+            Map<Long, Long> heartbeats = new HashMap<>();
+            response.get().forEach((node, time) -> heartbeats.put(Long.valueOf(node), Long.valueOf(time)));
+            return heartbeats;
+        } catch (Exception ex) {
+            throw new RedisException(ex);
         }
     }
 
@@ -388,9 +541,10 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
             }
             return globalSessions;
         } else if (CollectionUtils.isNotEmpty(sessionCondition.getStatuses())) {
-            return readSession(sessionCondition.getStatuses());
+            return readSession(sessionCondition.getStatuses(), sessionCondition.getTransactionIdRanges());
         } else if (sessionCondition.getStatus() != null) {
-            return readSession(new GlobalStatus[]{sessionCondition.getStatus()});
+            return readSession(new GlobalStatus[]{sessionCondition.getStatus()},
+                sessionCondition.getTransactionIdRanges());
         }
         return null;
     }
@@ -501,4 +655,21 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
         return REDIS_SEATA_STATUS_PREFIX + status;
     }
 
+    /**
+     * The position of a status scan, the index of the status list and the offset in it.
+     */
+    private static final class ScanPosition {
+
+        private static final ScanPosition START = new ScanPosition(0, 0);
+
+        private final int statusIndex;
+
+        private final long offset;
+
+        private ScanPosition(int statusIndex, long offset) {
+            this.statusIndex = statusIndex;
+            this.offset = offset;
+        }
+    }
+
 }
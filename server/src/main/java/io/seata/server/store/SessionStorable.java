@@ -15,6 +15,8 @@
  */
 package io.seata.server.store;
 
+import java.nio.ByteBuffer;
+
 /**
  * The interface Session storable.
  *
@@ -29,6 +31,17 @@ public interface SessionStorable {
      */
     byte[] encode();
 
+    /**
+     * Encode into the byte buffer directly, the result is the same as {@link #encode()}.
+     *
+     * @param byteBuffer the byte buffer
+     * @throws java.nio.BufferOverflowException if the remaining of the byte buffer is not enough, the position of
+     *                                          the byte buffer is undefined then
+     */
+    default void encode(ByteBuffer byteBuffer) {
+        byteBuffer.put(encode());
+    }
+
     /**
      * Decode.
      *
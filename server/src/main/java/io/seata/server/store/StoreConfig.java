@@ -45,6 +45,26 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 128 flush requests per group commit.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_SIZE = 128;
+
+    /**
+     * Default 0, a group is formed by the flush requests arrived while the last group is being forced.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_DELAY_MILLS = 0;
+
+    /**
+     * Default 64mb.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 64;
+
+    /**
+     * Default 60s.
+     */
+    private static final long DEFAULT_CHECKPOINT_INTERVAL_MILLS = 60 * 1000L;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -57,6 +77,28 @@ public class StoreConfig {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "fileWriteBufferCacheSize", DEFAULT_WRITE_BUFFER_SIZE);
     }
 
+    public static int getGroupCommitMaxSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxSize", DEFAULT_GROUP_COMMIT_MAX_SIZE);
+    }
+
+    public static int getGroupCommitMaxDelayMills() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxDelayMills",
+            DEFAULT_GROUP_COMMIT_MAX_DELAY_MILLS);
+    }
+
+    public static boolean isSegmentedLog() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "segmentedLog", false);
+    }
+
+    public static int getSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segmentSize", DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static long getCheckpointIntervalMills() {
+        return CONFIGURATION.getLong(STORE_FILE_PREFIX + "checkpointIntervalMills",
+            DEFAULT_CHECKPOINT_INTERVAL_MILLS);
+    }
+
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
@@ -18,10 +18,12 @@ package io.seata.server.transaction.saga;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 import io.netty.channel.Channel;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.CompletableFutureUtils;
 import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
@@ -98,6 +100,29 @@ public class SagaCore extends AbstractCore {
         return response.getBranchStatus();
     }
 
+    @Override
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        // the saga branch is sent to the channel of the saga resource, which is looked up by branchCommitSend
+        try {
+            return CompletableFuture.completedFuture(branchCommitSend(request, globalSession, branchSession));
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        try {
+            return CompletableFuture.completedFuture(branchRollbackSend(request, globalSession, branchSession));
+        } catch (IOException | TimeoutException | RuntimeException e) {
+            return CompletableFutureUtils.failedFuture(e);
+        }
+    }
+
     @Override
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
         try {
@@ -2,51 +2,47 @@
 -- User: tianyu.li
 -- Date: 2021/1/19
 --
--- init data
-local array = {}; local result; local keySize = ARGV[1]; local argSize = ARGV[2];
--- Loop through all keys to see if they can be used , when a key is not available, exit
-for i= 1, keySize do
-    -- search lock xid
-    result = redis.call('HGET',KEYS[i],'xid');
-    -- if lock xid is nil
-    if (not result)
-        -- set 'no' mean There is need to store lock information
-        then array[i]='no'
-        else
-           if (result ~= ARGV[3])
-           then
-               -- return fail
-               return 0
-           else
-               -- set 'yes' mean  There is not need to store lock information
-               array[i]= 'yes'
-           end
+-- KEYS: the row lock keys to acquire, the table lock keys only to check, the row index keys of the tables, then the
+--       xid lock key
+-- ARGV: the number of the row lock keys, the number of the table lock keys, the xid, the branch id, the row lock
+--       keys of the branch joined, then the position in KEYS of the row index key of the table of each row lock key,
+--       negative for the lock of a whole table
+local rowKeySize = tonumber(ARGV[1]); local tableKeySize = tonumber(ARGV[2]); local xid = ARGV[3];
+local branchId = ARGV[4]; local needLockKeys = {}; local owner;
+-- check all the keys first, when a key is held by another global transaction, return it and lock nothing
+for i = 1, rowKeySize + tableKeySize do
+    owner = redis.call('HGET', KEYS[i], 'xid');
+    if (not owner) then
+        if (i <= rowKeySize) then
+            needLockKeys[#needLockKeys + 1] = i;
+        end
+    elseif (owner ~= xid) then
+        return KEYS[i];
     end
 end
--- Loop through array
-for i =1, keySize do
-    -- if is no ,The lock information is stored
-    if(array[i] == 'no')
-        then
-            -- set xid
-            redis.call('HSET',KEYS[i],'xid',ARGV[3]);
-            -- set transactionId
-            redis.call('HSET',KEYS[i],'transactionId',ARGV[(i-1)*6+4]);
-            -- set branchId
-            redis.call('HSET',KEYS[i],'branchId',ARGV[(i-1)*6+5]);
-            -- set resourceId
-            redis.call('HSET',KEYS[i],'resourceId',ARGV[(i-1)*6+6]);
-            -- set tableName
-            redis.call('HSET',KEYS[i],'tableName',ARGV[(i-1)*6+7]);
-            -- set rowKey
-            redis.call('HSET',KEYS[i],'rowKey',ARGV[(i-1)*6+8]);
-            -- set pk
-            redis.call('HSET',KEYS[i],'pk',ARGV[(i-1)*6+9]);
-    -- exit if
+-- the row index of a table counts the rows held by each global transaction, a whole table is locked only when no
+-- other global transaction holds a row of it
+for i = 1, rowKeySize do
+    local indexPosition = tonumber(ARGV[5 + i]);
+    if (indexPosition < 0) then
+        local rowCounts = redis.call('HGETALL', KEYS[-indexPosition]);
+        for j = 1, #rowCounts, 2 do
+            if (rowCounts[j] ~= xid and tonumber(rowCounts[j + 1]) > 0) then
+                return KEYS[i];
+            end
+        end
+    end
+end
+-- only the xid and the branch id are stored, the rest can be told from the key
+for i = 1, #needLockKeys do
+    local keyPosition = needLockKeys[i];
+    redis.call('HMSET', KEYS[keyPosition], 'xid', xid, 'branchId', branchId);
+    local indexPosition = tonumber(ARGV[5 + keyPosition]);
+    if (indexPosition > 0) then
+        redis.call('HINCRBY', KEYS[indexPosition], xid, 1);
     end
--- exit for
 end
 -- set SEATA_GLOBAL_LOCK
-redis.call('HSET',KEYS[(keySize+1)],KEYS[(keySize+2)],ARGV[(argSize+0)]);
---  return success
+redis.call('HSET', KEYS[#KEYS], branchId, ARGV[5]);
+-- return success
 return 1
@@ -0,0 +1,22 @@
+--
+-- KEYS: the row lock keys to release, the row index keys of the tables, then the xid lock key
+-- ARGV: the xid, the number of the row lock keys, the number of the branch ids, the branch ids, then the position in
+--       KEYS of the row index key of the table of each row lock key, 0 for the lock of a whole table
+--
+local xid = ARGV[1]; local rowKeySize = tonumber(ARGV[2]); local branchIdSize = tonumber(ARGV[3]);
+-- only the keys still held by the global transaction are deleted, so every row is uncounted once
+for i = 1, rowKeySize do
+    if (redis.call('HGET', KEYS[i], 'xid') == xid) then
+        redis.call('DEL', KEYS[i]);
+        local indexPosition = tonumber(ARGV[3 + branchIdSize + i]);
+        if (indexPosition > 0 and redis.call('HINCRBY', KEYS[indexPosition], xid, -1) <= 0) then
+            redis.call('HDEL', KEYS[indexPosition], xid);
+        end
+    end
+end
+-- remove the branches from SEATA_GLOBAL_LOCK
+for i = 1, branchIdSize do
+    redis.call('HDEL', KEYS[#KEYS], ARGV[3 + i]);
+end
+-- return success
+return 1
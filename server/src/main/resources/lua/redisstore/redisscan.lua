@@ -0,0 +1,43 @@
+--
+-- KEYS: the status lists to scan in turn
+-- ARGV: the index in KEYS of the list to scan from, 1-based, the offset in it, the max number of the xids to return,
+--       the max number of the xids to scan, then the inclusive min and max transaction id of every range in turn
+-- returns the index and the offset to scan from next time, then the xids of the transaction id ranges
+--
+local statusIndex = tonumber(ARGV[1]); local offset = tonumber(ARGV[2]); local limit = tonumber(ARGV[3]);
+local scanLimit = tonumber(ARGV[4]); local xids = {}; local scanned = 0;
+-- the transaction ids are compared as decimal strings, they may exceed the precision of the lua numbers
+local function notGreater(a, b)
+    return #a < #b or (#a == #b and a <= b);
+end
+local function inRanges(xid)
+    local transactionId = string.match(xid, ':(%d+)$');
+    if (not transactionId) then
+        return false;
+    end
+    for i = 5, #ARGV - 1, 2 do
+        if (notGreater(ARGV[i], transactionId) and notGreater(transactionId, ARGV[i + 1])) then
+            return true;
+        end
+    end
+    return false;
+end
+while (statusIndex <= #KEYS and #xids < limit and scanned < scanLimit) do
+    local count = math.min(limit - #xids, scanLimit - scanned);
+    local page = redis.call('LRANGE', KEYS[statusIndex], offset, offset + count - 1);
+    scanned = scanned + #page;
+    for _, xid in ipairs(page) do
+        if (inRanges(xid)) then
+            xids[#xids + 1] = xid;
+        end
+    end
+    if (#page < count) then
+        statusIndex = statusIndex + 1;
+        offset = 0;
+    else
+        offset = offset + count;
+    end
+end
+table.insert(xids, 1, offset);
+table.insert(xids, 1, statusIndex);
+return xids;
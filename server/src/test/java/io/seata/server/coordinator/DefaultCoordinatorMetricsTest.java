@@ -34,8 +34,8 @@ import io.seata.metrics.Measurement;
 import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.SessionHolder;
 
-
 import static io.seata.server.coordinator.DefaultCoordinatorTest.MockServerMessageSender;
+import static io.seata.server.util.WaitTestUtil.waitUntil;
 
 /**
  * Test Metrics
@@ -57,6 +57,10 @@ public class DefaultCoordinatorMetricsTest {
             GlobalBeginResponse response = new GlobalBeginResponse();
             coordinator.doGlobalBegin(request, response, new RpcContext());
 
+            //the events are dispatched on the thread of the event bus
+            waitUntil(() -> isMeasured(
+                "seata.transaction(applicationId=null,group=null,meter=counter,role=tc,status=active)", 1));
+
             Map<String, Measurement> measurements = new HashMap<>();
             MetricsManager.get().getRegistry().measure().forEach(
                     measurement -> measurements.put(measurement.getId().toString(), measurement));
@@ -71,8 +75,10 @@ public class DefaultCoordinatorMetricsTest {
             commitRequest.setXid(response.getXid());
             coordinator.doGlobalCommit(commitRequest, new GlobalCommitResponse(), new RpcContext());
 
-            //we need sleep for a short while because default canBeCommittedAsync() is true
-            Thread.sleep(200);
+            //we need wait for a short while because default canBeCommittedAsync() is true
+            waitUntil(() -> isMeasured(
+                "seata.transaction(applicationId=null,group=null,meter=timer,role=tc,statistic=count,status=committed)",
+                1));
 
             measurements.clear();
             MetricsManager.get().getRegistry().measure().forEach(
@@ -105,7 +111,9 @@ public class DefaultCoordinatorMetricsTest {
             rollbackRequest.setXid(response.getXid());
             coordinator.doGlobalRollback(rollbackRequest, new GlobalRollbackResponse(), new RpcContext());
 
-            Thread.sleep(200);
+            waitUntil(() -> isMeasured(
+                "seata.transaction(applicationId=null,group=null,meter=timer,role=tc,statistic=count,status=rollbacked)",
+                1));
 
             measurements.clear();
             MetricsManager.get().getRegistry().measure().forEach(
@@ -146,4 +154,12 @@ public class DefaultCoordinatorMetricsTest {
         }
     }
 
+    private static boolean isMeasured(String id, double value) {
+        for (Measurement measurement : MetricsManager.get().getRegistry().measure()) {
+            if (measurement.getId().toString().equals(id)) {
+                return measurement.getValue() == value;
+            }
+        }
+        return false;
+    }
 }
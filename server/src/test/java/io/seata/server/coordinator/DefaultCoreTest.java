@@ -16,6 +16,8 @@
 package io.seata.server.coordinator;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import io.seata.core.exception.TransactionException;
@@ -216,6 +218,37 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getStatus(), GlobalStatus.CommitRetrying);
     }
 
+    /**
+     * Do global commit async test, the session is finished when the RM responds.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void doGlobalCommitAsyncTest(String xid) throws Exception {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, resourceId,
+            applicationData, "t1:1", clientId);
+        globalSession.addBranch(branchSession);
+        globalSession.changeBranchStatus(branchSession, BranchStatus.PhaseOne_Done);
+        CompletableFuture<BranchStatus> response = new CompletableFuture<>();
+        core.mockCore(BranchType.AT, new MockCore(BranchStatus.PhaseTwo_Committed, BranchStatus.PhaseOne_Done) {
+            @Override
+            public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                                     BranchSession branchSession) {
+                return response;
+            }
+        });
+        CompletableFuture<Boolean> result = core.doGlobalCommitAsync(globalSession, true);
+        Assertions.assertFalse(result.isDone());
+        Assertions.assertTrue(globalSession.hasBranch());
+
+        response.complete(BranchStatus.PhaseTwo_Committed);
+        Assertions.assertTrue(result.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(GlobalStatus.Committed, globalSession.getStatus());
+    }
+
     /**
      * Roll back test.
      *
@@ -363,6 +396,18 @@ public class DefaultCoreTest {
             return rollbackStatus;
         }
 
+        @Override
+        public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                                 BranchSession branchSession) {
+            return CompletableFuture.completedFuture(commitStatus);
+        }
+
+        @Override
+        public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                                   BranchSession branchSession) {
+            return CompletableFuture.completedFuture(rollbackStatus);
+        }
+
         @Override
         public BranchType getHandleBranchType() {
             return BranchType.AT;
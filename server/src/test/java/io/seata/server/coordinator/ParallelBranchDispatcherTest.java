@@ -0,0 +1,120 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.util.CompletableFutureUtils;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.server.session.SessionTestUtil.newBranchSession;
+import static io.seata.server.util.WaitTestUtil.waitUntil;
+
+/**
+ * The type ParallelBranchDispatcher test.
+ */
+public class ParallelBranchDispatcherTest {
+
+    @Test
+    public void testSingleResourceNotDispatched() {
+        ParallelBranchDispatcher dispatcher = new ParallelBranchDispatcher(4);
+        try {
+            Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatch(
+                Arrays.asList(newBranchSession(1L, 1L, "r1"), newBranchSession(1L, 2L, "r1")),
+                branchSession -> CompletableFuture.completedFuture(BranchStatus.PhaseTwo_Committed));
+            Assertions.assertTrue(results.isEmpty());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void testDispatchByResource() throws TransactionException {
+        ParallelBranchDispatcher dispatcher = new ParallelBranchDispatcher(4);
+        try {
+            CountDownLatch r2Started = new CountDownLatch(1);
+            List<Long> r1Order = new CopyOnWriteArrayList<>();
+            List<BranchSession> branches = Arrays.asList(newBranchSession(1L, 3L, "r1"), newBranchSession(1L, 2L, "r2"),
+                newBranchSession(1L, 1L, "r1"));
+            Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatch(branches, branchSession -> {
+                if ("r1".equals(branchSession.getResourceId())) {
+                    // r1 can only go on when r2 is sent concurrently
+                    try {
+                        if (!r2Started.await(5, TimeUnit.SECONDS)) {
+                            return CompletableFuture.completedFuture(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    r1Order.add(branchSession.getBranchId());
+                    return CompletableFuture.completedFuture(BranchStatus.PhaseTwo_Rollbacked);
+                }
+                r2Started.countDown();
+                return CompletableFutureUtils.failedFuture(new TransactionException("r2 failed"));
+            });
+            Assertions.assertEquals(3, results.size());
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, ParallelBranchDispatcher.join(results.get(3L)));
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, ParallelBranchDispatcher.join(results.get(1L)));
+            Assertions.assertThrows(TransactionException.class, () -> ParallelBranchDispatcher.join(results.get(2L)));
+            Assertions.assertEquals(Arrays.asList(3L, 1L), r1Order);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void testNextBranchSentAfterResponse() throws TransactionException {
+        ParallelBranchDispatcher dispatcher = new ParallelBranchDispatcher(1);
+        try {
+            // the responses are completed later by another thread, no dispatcher thread waits for them
+            Map<Long, CompletableFuture<BranchStatus>> responses = new ConcurrentHashMap<>();
+            List<Long> sent = new CopyOnWriteArrayList<>();
+            List<BranchSession> branches = Arrays.asList(newBranchSession(1L, 1L, "r1"), newBranchSession(1L, 2L, "r1"),
+                newBranchSession(1L, 3L, "r2"));
+            Map<Long, CompletableFuture<BranchStatus>> results = dispatcher.dispatch(branches, branchSession -> {
+                sent.add(branchSession.getBranchId());
+                CompletableFuture<BranchStatus> response = new CompletableFuture<>();
+                responses.put(branchSession.getBranchId(), response);
+                return response;
+            });
+            waitUntil(() -> sent.size() == 2);
+            Assertions.assertFalse(sent.contains(2L));
+
+            responses.get(3L).complete(BranchStatus.PhaseTwo_Committed);
+            responses.get(1L).complete(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+            waitUntil(() -> responses.containsKey(2L));
+            responses.get(2L).complete(BranchStatus.PhaseTwo_Committed);
+
+            Assertions.assertEquals(BranchStatus.PhaseTwo_CommitFailed_Retryable,
+                ParallelBranchDispatcher.join(results.get(1L)));
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, ParallelBranchDispatcher.join(results.get(2L)));
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, ParallelBranchDispatcher.join(results.get(3L)));
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+}
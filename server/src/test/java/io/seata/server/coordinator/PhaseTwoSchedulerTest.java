@@ -0,0 +1,138 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.server.session.SessionTestUtil.newGlobalSession;
+
+/**
+ * The type PhaseTwoScheduler test.
+ */
+public class PhaseTwoSchedulerTest {
+
+    @Test
+    public void testDispatchByTransactionId() throws InterruptedException {
+        PhaseTwoScheduler scheduler = new PhaseTwoScheduler(4, 100);
+        try {
+            List<GlobalSession> sessions = new ArrayList<>();
+            for (long i = 0; i < 16; i++) {
+                sessions.add(newGlobalSession(i));
+            }
+            Map<Long, String> threads = new ConcurrentHashMap<>();
+            CountDownLatch latch = new CountDownLatch(sessions.size());
+            int dispatched = scheduler.dispatchAsync(sessions, globalSession -> {
+                threads.put(globalSession.getTransactionId(), Thread.currentThread().getName());
+                latch.countDown();
+                return null;
+            });
+            Assertions.assertEquals(sessions.size(), dispatched);
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            for (long i = 4; i < 16; i++) {
+                Assertions.assertEquals(threads.get(i % 4), threads.get(i));
+            }
+            Assertions.assertNotEquals(threads.get(0L), threads.get(1L));
+        } finally {
+            scheduler.destroy();
+        }
+    }
+
+    @Test
+    public void testSkipPendingSession() throws InterruptedException {
+        PhaseTwoScheduler scheduler = new PhaseTwoScheduler(1, 100);
+        try {
+            GlobalSession session = newGlobalSession(1L);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+            Assertions.assertTrue(scheduler.dispatchAsync(session, globalSession -> {
+                await(blocker);
+                done.countDown();
+                return null;
+            }));
+            Assertions.assertFalse(scheduler.dispatchAsync(session, globalSession -> {
+                throw new AssertionError("repeated dispatch");
+            }));
+            Assertions.assertEquals(1, scheduler.getPendingSize());
+            blocker.countDown();
+            Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.destroy();
+        }
+        Assertions.assertEquals(0, scheduler.getPendingSize());
+    }
+
+    @Test
+    public void testAsyncSessionPendingUntilDone() throws InterruptedException {
+        PhaseTwoScheduler scheduler = new PhaseTwoScheduler(1, 100);
+        try {
+            GlobalSession session = newGlobalSession(1L);
+            CompletableFuture<Boolean> phaseTwo = new CompletableFuture<>();
+            CountDownLatch other = new CountDownLatch(1);
+            Assertions.assertTrue(scheduler.dispatchAsync(session, globalSession -> phaseTwo));
+            // the worker is released while the phase two of the session is in flight
+            Assertions.assertTrue(scheduler.dispatchAsync(newGlobalSession(2L), globalSession -> {
+                other.countDown();
+                return null;
+            }));
+            Assertions.assertTrue(other.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(scheduler.dispatchAsync(session, globalSession -> phaseTwo));
+
+            phaseTwo.complete(true);
+            Assertions.assertTrue(scheduler.dispatchAsync(session, globalSession -> null));
+        } finally {
+            scheduler.destroy();
+        }
+    }
+
+    @Test
+    public void testRejectWhenQueueIsFull() throws InterruptedException {
+        PhaseTwoScheduler scheduler = new PhaseTwoScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        try {
+            Assertions.assertTrue(scheduler.dispatchAsync(newGlobalSession(1L), globalSession -> {
+                started.countDown();
+                await(blocker);
+                return null;
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(scheduler.dispatchAsync(newGlobalSession(2L), globalSession -> null));
+            Assertions.assertFalse(scheduler.dispatchAsync(newGlobalSession(3L), globalSession -> null));
+            Assertions.assertEquals(2, scheduler.getPendingSize());
+        } finally {
+            blocker.countDown();
+            scheduler.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
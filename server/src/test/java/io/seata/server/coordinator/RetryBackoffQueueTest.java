@@ -0,0 +1,93 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.seata.server.UUIDGenerator;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.server.session.SessionTestUtil.newGlobalSession;
+
+/**
+ * The type RetryBackoffQueue test.
+ */
+public class RetryBackoffQueueTest {
+
+    @Test
+    public void testBackoff() {
+        RetryBackoffQueue queue = newQueue();
+        GlobalSession session = newGlobalSession(UUIDGenerator.generateUUID());
+        long now = System.currentTimeMillis();
+
+        queue.onFailure(session.getXid(), now);
+        long first = queue.getNextAttemptTime(session.getXid()) - now;
+        Assertions.assertTrue(first >= 800 && first <= 1200, "first delay " + first);
+        Assertions.assertTrue(queue.poll(Collections.singletonList(session), now).isEmpty());
+        Assertions.assertEquals(1, queue.poll(Collections.singletonList(session), now + 1200).size());
+
+        queue.onFailure(session.getXid(), now);
+        queue.onFailure(session.getXid(), now);
+        Assertions.assertEquals(3, queue.getAttempts(session.getXid()));
+        long third = queue.getNextAttemptTime(session.getXid()) - now;
+        Assertions.assertTrue(third >= 3200 && third <= 4800, "third delay " + third);
+
+        for (int i = 0; i < 10; i++) {
+            queue.onFailure(session.getXid(), now);
+        }
+        Assertions.assertTrue(queue.getNextAttemptTime(session.getXid()) - now <= 12000);
+
+        queue.onSuccess(session.getXid());
+        Assertions.assertEquals(0, queue.getAttempts(session.getXid()));
+        Assertions.assertEquals(0L, queue.getNextAttemptTime(session.getXid()));
+    }
+
+    @Test
+    public void testPollOrder() {
+        RetryBackoffQueue queue = newQueue();
+        GlobalSession failedTwice = newGlobalSession(UUIDGenerator.generateUUID());
+        GlobalSession failedOnce = newGlobalSession(UUIDGenerator.generateUUID());
+        GlobalSession fresh = newGlobalSession(UUIDGenerator.generateUUID());
+        long now = System.currentTimeMillis();
+        queue.onFailure(failedTwice.getXid(), now);
+        queue.onFailure(failedTwice.getXid(), now);
+        queue.onFailure(failedOnce.getXid(), now);
+
+        List<GlobalSession> due = queue.poll(Arrays.asList(failedTwice, failedOnce, fresh), now + 5000);
+        Assertions.assertEquals(Arrays.asList(fresh, failedOnce, failedTwice), due);
+    }
+
+    @Test
+    public void testEvictStale() {
+        RetryBackoffQueue queue = newQueue();
+        GlobalSession session = newGlobalSession(UUIDGenerator.generateUUID());
+        long now = System.currentTimeMillis();
+        queue.onFailure(session.getXid(), now);
+
+        queue.poll(Collections.emptyList(), now + 30000);
+        Assertions.assertEquals(0, queue.getAttempts(session.getXid()));
+    }
+
+    private static RetryBackoffQueue newQueue() {
+        return new RetryBackoffQueue(1000L, 10000L, MeterIdConstants.COUNTER_RETRY_ROLLBACKING_SUCCESS,
+            MeterIdConstants.COUNTER_RETRY_ROLLBACKING_FAILED);
+    }
+}
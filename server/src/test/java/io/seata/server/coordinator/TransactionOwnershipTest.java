@@ -0,0 +1,166 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.common.util.IdWorker;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.server.session.SessionTestUtil.newGlobalSession;
+
+/**
+ * The type TransactionOwnership test.
+ */
+public class TransactionOwnershipTest {
+
+    private static final long HEARTBEAT_TIMEOUT = 1000L;
+
+    @Test
+    public void testOwnedWithoutHeartbeat() {
+        TransactionOwnership ownership = new TransactionOwnership(1L, HEARTBEAT_TIMEOUT);
+        Assertions.assertTrue(ownership.isOwner(transactionId(2L)));
+
+        ownership.refresh(null, System.currentTimeMillis());
+        Assertions.assertTrue(ownership.isOwner(transactionId(1L)));
+        Assertions.assertTrue(ownership.isOwner(transactionId(2L)));
+    }
+
+    @Test
+    public void testOwnership() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> heartbeats = new HashMap<>();
+        heartbeats.put(1L, now);
+        heartbeats.put(2L, now);
+        heartbeats.put(3L, now);
+        TransactionOwnership ownership1 = newOwnership(1L, heartbeats, now);
+        TransactionOwnership ownership3 = newOwnership(3L, heartbeats, now);
+
+        Assertions.assertTrue(ownership1.isOwner(transactionId(1L)));
+        Assertions.assertFalse(ownership1.isOwner(transactionId(2L)));
+        Assertions.assertFalse(ownership1.isOwner(transactionId(3L)));
+        Assertions.assertTrue(ownership3.isOwner(transactionId(3L)));
+
+        // the transactions of a node never seen are taken over by the alive node following it, wrapping around
+        Assertions.assertTrue(ownership1.isOwner(transactionId(0L)));
+        Assertions.assertTrue(ownership1.isOwner(transactionId(5L)));
+        Assertions.assertFalse(ownership3.isOwner(transactionId(5L)));
+    }
+
+    @Test
+    public void testTakeOverLapsedNode() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> heartbeats = new HashMap<>();
+        heartbeats.put(1L, now);
+        heartbeats.put(2L, now - HEARTBEAT_TIMEOUT - 1);
+        heartbeats.put(3L, now);
+        TransactionOwnership ownership1 = newOwnership(1L, heartbeats, now);
+        TransactionOwnership ownership3 = newOwnership(3L, heartbeats, now);
+
+        Assertions.assertFalse(ownership1.isOwner(transactionId(2L)));
+        Assertions.assertTrue(ownership3.isOwner(transactionId(2L)));
+
+        // the node is back
+        heartbeats.put(2L, now);
+        ownership3.refresh(heartbeats, now);
+        Assertions.assertFalse(ownership3.isOwner(transactionId(2L)));
+    }
+
+    @Test
+    public void testOwnedTransactionIdRanges() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> heartbeats = new HashMap<>();
+        heartbeats.put(1L, now);
+        heartbeats.put(2L, now - HEARTBEAT_TIMEOUT - 1);
+        heartbeats.put(3L, now);
+        TransactionOwnership ownership1 = newOwnership(1L, heartbeats, now);
+        TransactionOwnership ownership3 = newOwnership(3L, heartbeats, now);
+
+        IdWorker idWorker = new IdWorker(1L);
+        Assertions.assertArrayEquals(new long[] {idWorker.getMinId(2L), idWorker.getMaxId(3L)},
+            ownership3.getOwnedTransactionIdRanges());
+        Assertions.assertArrayEquals(new long[] {idWorker.getMinId(0L), idWorker.getMaxId(1L), idWorker.getMinId(4L),
+            idWorker.getMaxId(idWorker.getMaxWorkerId())}, ownership1.getOwnedTransactionIdRanges());
+
+        // every transaction is owned by exactly one node, in its ranges
+        for (long node = 0; node <= idWorker.getMaxWorkerId(); node += 7) {
+            long transactionId = transactionId(node);
+            boolean owned1 = ownership1.isOwner(transactionId);
+            Assertions.assertNotEquals(owned1, ownership3.isOwner(transactionId));
+            Assertions.assertEquals(owned1, isInRanges(transactionId, ownership1.getOwnedTransactionIdRanges()));
+            Assertions.assertEquals(!owned1, isInRanges(transactionId, ownership3.getOwnedTransactionIdRanges()));
+        }
+
+        // the only alive node owns every transaction
+        Assertions.assertNull(newOwnership(1L, new HashMap<>(), now).getOwnedTransactionIdRanges());
+        Assertions.assertNull(new TransactionOwnership(1L, HEARTBEAT_TIMEOUT).getOwnedTransactionIdRanges());
+    }
+
+    @Test
+    public void testExpired() {
+        long heartbeatTime = System.currentTimeMillis() - HEARTBEAT_TIMEOUT - 1;
+        Map<Long, Long> heartbeats = new HashMap<>();
+        heartbeats.put(1L, heartbeatTime);
+        heartbeats.put(2L, heartbeatTime);
+        TransactionOwnership ownership = newOwnership(1L, heartbeats, heartbeatTime);
+
+        // the other nodes may have taken over the transactions of this node since its heartbeat is lapsed
+        Assertions.assertFalse(ownership.isOwner(transactionId(1L)));
+        Assertions.assertEquals(0, ownership.getOwnedTransactionIdRanges().length);
+
+        ownership.refresh(heartbeats, System.currentTimeMillis());
+        Assertions.assertTrue(ownership.isOwner(transactionId(1L)));
+    }
+
+    @Test
+    public void testFilter() {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> heartbeats = new HashMap<>();
+        heartbeats.put(1L, now);
+        heartbeats.put(2L, now);
+        TransactionOwnership ownership = newOwnership(1L, heartbeats, now);
+
+        GlobalSession owned = newGlobalSession(transactionId(1L));
+        GlobalSession notOwned = newGlobalSession(transactionId(2L));
+        List<GlobalSession> sessions = ownership.filter(Arrays.asList(owned, notOwned));
+        Assertions.assertEquals(1, sessions.size());
+        Assertions.assertSame(owned, sessions.get(0));
+    }
+
+    private static TransactionOwnership newOwnership(long nodeId, Map<Long, Long> heartbeats, long now) {
+        TransactionOwnership ownership = new TransactionOwnership(nodeId, HEARTBEAT_TIMEOUT);
+        ownership.refresh(heartbeats, now);
+        return ownership;
+    }
+
+    private static boolean isInRanges(long transactionId, long[] transactionIdRanges) {
+        for (int i = 0; i < transactionIdRanges.length; i += 2) {
+            if (transactionId >= transactionIdRanges[i] && transactionId <= transactionIdRanges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long transactionId(long nodeId) {
+        return new IdWorker(nodeId).nextId();
+    }
+}
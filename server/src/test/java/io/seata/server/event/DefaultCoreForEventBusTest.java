@@ -32,6 +32,8 @@ import io.seata.server.session.SessionHolder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import static io.seata.server.util.WaitTestUtil.waitUntil;
+
 /**
  * Test events come from Default Core.
  *
@@ -73,13 +75,16 @@ public class DefaultCoreForEventBusTest {
             //start a transaction
             String xid = core.begin("test_app_id", "default_group", "test_tran_name", 30000);
 
+            //the events are dispatched on the thread of the event bus
+            waitUntil(() -> subscriber.getEventCounters().containsKey(GlobalStatus.Begin));
+
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
 
             //commit this transaction
             core.commit(xid);
 
-            //we need sleep for a short while because default canBeCommittedAsync() is true
-            Thread.sleep(1000);
+            //we need wait for a short while because default canBeCommittedAsync() is true
+            waitUntil(() -> subscriber.getEventCounters().containsKey(GlobalStatus.Committed));
 
             //check
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.AsyncCommitting).get());
@@ -87,10 +92,12 @@ public class DefaultCoreForEventBusTest {
 
             //start another new transaction
             xid = core.begin("test_app_id", "default_group", "test_tran_name2", 30000);
+            waitUntil(() -> subscriber.getEventCounters().get(GlobalStatus.Begin).get() == 2);
 
             Assertions.assertEquals(2, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
 
             core.rollback(xid);
+            waitUntil(() -> subscriber.getEventCounters().containsKey(GlobalStatus.Rollbacked));
 
             //check
             Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Rollbacking).get());
@@ -99,8 +106,8 @@ public class DefaultCoreForEventBusTest {
             //start more one new transaction for test timeout and let this transaction immediately timeout
             xid = core.begin("test_app_id", "default_group", "test_tran_name3", 0);
 
-            //sleep for check ->  DefaultCoordinator.timeoutCheck
-            Thread.sleep(1000);
+            //wait for check ->  DefaultCoordinator.timeoutCheck
+            waitUntil(() -> subscriber.getEventCounters().containsKey(GlobalStatus.TimeoutRollbacking));
 
             //at lease retry once because DefaultCoordinator.timeoutCheck is 1 second
             Assertions.assertTrue(subscriber.getEventCounters().get(GlobalStatus.TimeoutRollbacking).get() >= 1);
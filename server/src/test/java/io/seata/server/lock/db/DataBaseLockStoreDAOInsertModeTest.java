@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.common.Constants;
+import io.seata.core.store.LockDO;
+import io.seata.server.storage.db.lock.LockStoreDataBaseDAO;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.h2.store.fs.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The lock store dao test of the insert mode.
+ */
+public class DataBaseLockStoreDAOInsertModeTest {
+
+    static LockStoreDataBaseDAO dataBaseLockStoreDAO = null;
+
+    static BasicDataSource dataSource = null;
+
+    @BeforeAll
+    public static void start() throws SQLException {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:./db_store/lock_insert_mode");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+
+        dataBaseLockStoreDAO = newLockStoreDAO();
+
+        try (Connection conn = dataSource.getConnection(); Statement s = conn.createStatement()) {
+            s.execute("drop table if exists lock_table");
+            s.execute("CREATE TABLE lock_table ( xid varchar(96) ,  transaction_id long , branch_id long, "
+                + "resource_id varchar(32) ,table_name varchar(32) ,pk varchar(32) ,  row_key  varchar(128) primary key "
+                + "not null, gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+        }
+    }
+
+    @Test
+    public void testAcquireAndConflict() throws SQLException {
+        List<LockDO> lockDOs = newLockDOs("abc-123:1001", 1001L, "0", "1", "2");
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+        Assertions.assertEquals(3, countLocks("abc-123:1001"));
+        // held by the branch, told by the cache
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+        Assertions.assertTrue(dataBaseLockStoreDAO.isLockable(lockDOs));
+
+        // the insert fails on row 2, nothing of the other xid is locked
+        List<LockDO> otherLockDOs = newLockDOs("abc-123:1002", 1002L, "3", "2");
+        Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(otherLockDOs));
+        Assertions.assertFalse(dataBaseLockStoreDAO.isLockable(otherLockDOs));
+        Assertions.assertEquals(0, countLocks("abc-123:1002"));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(lockDOs));
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(otherLockDOs));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(otherLockDOs));
+    }
+
+    @Test
+    public void testReacquireThroughAnotherServer() throws SQLException {
+        List<LockDO> lockDOs = newLockDOs("abc-123:1003", 1003L, "10", "11");
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+
+        // not in the cache of the other server, the duplicated rows are queried and the new one is inserted
+        LockStoreDataBaseDAO anotherLockStoreDAO = newLockStoreDAO();
+        Assertions.assertTrue(anotherLockStoreDAO.acquireLock(newLockDOs("abc-123:1003", 1003L, "11", "12")));
+        Assertions.assertEquals(3, countLocks("abc-123:1003"));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock("abc-123:1003", 1003L));
+        Assertions.assertEquals(0, countLocks("abc-123:1003"));
+    }
+
+    @Test
+    public void testReacquireAfterReleasedThroughAnotherServer() throws SQLException {
+        List<LockDO> lockDOs = newLockDOs("abc-123:1007", 1007L, "30", "31");
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+
+        // the branch is released through the other server, the cache of this server is not told
+        LockStoreDataBaseDAO anotherLockStoreDAO = newLockStoreDAO();
+        Assertions.assertTrue(anotherLockStoreDAO.unLock("abc-123:1007", 1007L));
+        Assertions.assertEquals(0, countLocks("abc-123:1007"));
+
+        // another branch of the same xid locks the rows again in the database
+        List<LockDO> nextBranchLockDOs = newLockDOs("abc-123:1007", 1007L, "30", "31");
+        nextBranchLockDOs.forEach(lockDO -> lockDO.setBranchId(1008L));
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(nextBranchLockDOs));
+        Assertions.assertEquals(2, countLocks("abc-123:1007"));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock("abc-123:1007", 1008L));
+    }
+
+    @Test
+    public void testTableLock() {
+        List<LockDO> rowLockDOs = newLockDOs("abc-123:1004", 1004L, "20");
+        List<LockDO> tableLockDOs = newLockDOs("abc-123:1005", 1005L, Constants.TABLE_LOCK_PK);
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(rowLockDOs));
+        Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(tableLockDOs));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(rowLockDOs));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(tableLockDOs));
+        Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(newLockDOs("abc-123:1006", 1006L, "21")));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(tableLockDOs));
+    }
+
+    @AfterAll
+    public static void clearStoreDB() {
+        FileUtils.deleteRecursive("db_store", true);
+    }
+
+    private static LockStoreDataBaseDAO newLockStoreDAO() {
+        LockStoreDataBaseDAO lockStoreDataBaseDAO = new LockStoreDataBaseDAO(dataSource);
+        lockStoreDataBaseDAO.setDbType("h2");
+        lockStoreDataBaseDAO.setLockTable("lock_table");
+        lockStoreDataBaseDAO.setInsertMode(true);
+        return lockStoreDataBaseDAO;
+    }
+
+    private static List<LockDO> newLockDOs(String xid, long transactionId, String... pks) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (String pk : pks) {
+            LockDO lock = new LockDO();
+            lock.setResourceId("abc");
+            lock.setXid(xid);
+            lock.setTransactionId(transactionId);
+            lock.setBranchId(transactionId);
+            lock.setRowKey("abc^^^t^^^" + pk);
+            lock.setPk(pk);
+            lock.setTableName("t");
+            lockDOs.add(lock);
+        }
+        return lockDOs;
+    }
+
+    private static int countLocks(String xid) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement s = conn.createStatement();
+             ResultSet rs = s.executeQuery("select count(1) from lock_table where xid = '" + xid + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
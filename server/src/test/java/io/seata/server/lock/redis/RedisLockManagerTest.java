@@ -18,6 +18,7 @@ package io.seata.server.lock.redis;
 
 import io.seata.server.storage.redis.lock.RedisLockManager;
 import java.io.IOException;
+import java.lang.reflect.Field;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -94,6 +95,65 @@ public class RedisLockManagerTest {
             branchSession2.getLockKey()));
     }
 
+    @Test
+    public void acquireLockConflict() throws TransactionException {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid("abc-123:9863421");
+        branchSession.setTransactionId(9863421);
+        branchSession.setBranchId(9863422);
+        branchSession.setResourceId("abcss");
+        branchSession.setLockKey("t3:1,2");
+        Assertions.assertTrue(lockManager.acquireLock(branchSession));
+        BranchSession branchSession2 = new BranchSession();
+        branchSession2.setXid("abc-123:9863423");
+        branchSession2.setTransactionId(9863423);
+        branchSession2.setBranchId(9863424);
+        branchSession2.setResourceId("abcss");
+        branchSession2.setLockKey("t3:3,2");
+        Assertions.assertFalse(lockManager.acquireLock(branchSession2));
+        // nothing of the failed branch is locked
+        Assertions.assertTrue(lockManager.isLockable("abc-123:9863425", "abcss", "t3:3"));
+        Assertions.assertTrue(lockManager.releaseLock(branchSession));
+        branchSession2.setLockKey("t3:3,2");
+        Assertions.assertTrue(lockManager.acquireLock(branchSession2));
+        Assertions.assertTrue(lockManager.releaseLock(branchSession2));
+    }
+
+    @Test
+    public void luaMode() throws Exception {
+        new RedisLocker();
+        Field acquireLockSha = RedisLocker.class.getDeclaredField("ACQUIRE_LOCK_SHA");
+        acquireLockSha.setAccessible(true);
+        // the script is loaded by the server, so the locks of the other tests are acquired by the script
+        Assertions.assertNotNull(acquireLockSha.get(null));
+    }
+
+    @Test
+    public void acquireTableLockConflict() throws TransactionException {
+        BranchSession rowBranchSession = new BranchSession();
+        rowBranchSession.setXid("abc-123:9863431");
+        rowBranchSession.setTransactionId(9863431);
+        rowBranchSession.setBranchId(9863432);
+        rowBranchSession.setResourceId("abcss");
+        rowBranchSession.setLockKey("t5:1");
+        Assertions.assertTrue(lockManager.acquireLock(rowBranchSession));
+        BranchSession tableBranchSession = new BranchSession();
+        tableBranchSession.setXid("abc-123:9863433");
+        tableBranchSession.setTransactionId(9863433);
+        tableBranchSession.setBranchId(9863434);
+        tableBranchSession.setResourceId("abcss");
+        tableBranchSession.setLockKey("t5:");
+        // the rows of the table are found by the row index of the table
+        Assertions.assertFalse(lockManager.acquireLock(tableBranchSession));
+        Assertions.assertTrue(lockManager.releaseLock(rowBranchSession));
+        Assertions.assertTrue(lockManager.acquireLock(tableBranchSession));
+        rowBranchSession.setLockKey("t5:2");
+        Assertions.assertFalse(lockManager.acquireLock(rowBranchSession));
+        Assertions.assertTrue(lockManager.releaseLock(tableBranchSession));
+        Assertions.assertTrue(lockManager.acquireLock(rowBranchSession));
+        Assertions.assertTrue(lockManager.releaseLock(rowBranchSession));
+    }
+
     @AfterAll
     public static void after() {
         server.stop();
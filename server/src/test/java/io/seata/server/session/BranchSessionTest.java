@@ -22,6 +22,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 /**
@@ -53,6 +54,30 @@ public class BranchSessionTest {
 
     }
 
+    /**
+     * Encode into buffer test.
+     *
+     * @param branchSession the branch session
+     */
+    @ParameterizedTest
+    @MethodSource("branchSessionProvider")
+    public void encodeIntoBufferTest(BranchSession branchSession) {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+        byteBuffer.putInt(0);
+        branchSession.encode(byteBuffer);
+        byteBuffer.flip();
+        byteBuffer.getInt();
+        byte[] result = new byte[byteBuffer.remaining()];
+        byteBuffer.get(result);
+        Assertions.assertArrayEquals(branchSession.encode(), result);
+
+        // the cached bytes are not used for another value
+        branchSession.setResourceId("tb_2");
+        BranchSession expected = new BranchSession();
+        expected.decode(branchSession.encode());
+        Assertions.assertEquals("tb_2", expected.getResourceId());
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.common.XID;
+import io.seata.core.lock.RowLock;
+import io.seata.core.model.BranchType;
+
+/**
+ * The sessions and the row locks shared by the tests.
+ *
+ * @since 1.5.0
+ */
+public final class SessionTestUtil {
+
+    private SessionTestUtil() {
+    }
+
+    /**
+     * A global session with only its transaction id and xid.
+     *
+     * @param transactionId the transaction id
+     * @return the global session
+     */
+    public static GlobalSession newGlobalSession(long transactionId) {
+        GlobalSession globalSession = new GlobalSession();
+        globalSession.setTransactionId(transactionId);
+        globalSession.setXid(XID.generateXID(transactionId));
+        return globalSession;
+    }
+
+    /**
+     * An AT branch session of a global transaction.
+     *
+     * @param transactionId the transaction id
+     * @param branchId      the branch id
+     * @param resourceId    the resource id
+     * @return the branch session
+     */
+    public static BranchSession newBranchSession(long transactionId, long branchId, String resourceId) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(XID.generateXID(transactionId));
+        branchSession.setTransactionId(transactionId);
+        branchSession.setBranchId(branchId);
+        branchSession.setResourceId(resourceId);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+
+    /**
+     * The row locks of a branch on the rows of a table.
+     *
+     * @param branchSession the branch session
+     * @param tableName     the table name
+     * @param pks           the pks of the rows
+     * @return the row locks
+     */
+    public static List<RowLock> newRowLocks(BranchSession branchSession, String tableName, String... pks) {
+        List<RowLock> rowLocks = new ArrayList<>(pks.length);
+        for (String pk : pks) {
+            RowLock rowLock = new RowLock();
+            rowLock.setXid(branchSession.getXid());
+            rowLock.setTransactionId(branchSession.getTransactionId());
+            rowLock.setBranchId(branchSession.getBranchId());
+            rowLock.setResourceId(branchSession.getResourceId());
+            rowLock.setTableName(tableName);
+            rowLock.setPk(pk);
+            rowLocks.add(rowLock);
+        }
+        return rowLocks;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type SessionTimeoutWheel test.
+ */
+public class SessionTimeoutWheelTest {
+
+    @Test
+    public void testAdvance() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 8);
+        long now = System.currentTimeMillis();
+        wheel.add("xid-1", now + 20);
+        wheel.add("xid-2", now + 200);
+        Assertions.assertEquals(2, wheel.size());
+
+        Assertions.assertTrue(wheel.advance(now).isEmpty());
+        Assertions.assertEquals(Collections.singletonList("xid-1"), wheel.advance(now + 40));
+        // xid-2 is more than one round away, its bucket is visited before it expires
+        Assertions.assertTrue(wheel.advance(now + 120).isEmpty());
+        Assertions.assertEquals(Collections.singletonList("xid-2"), wheel.advance(now + 220));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRemoveAndReplace() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 8);
+        long now = System.currentTimeMillis();
+        wheel.add("xid-1", now + 20);
+        wheel.add("xid-2", now + 20);
+        wheel.remove("xid-1");
+        wheel.add("xid-2", now + 60);
+
+        Assertions.assertTrue(wheel.advance(now + 40).isEmpty());
+        Assertions.assertEquals(Collections.singletonList("xid-2"), wheel.advance(now + 80));
+    }
+
+    @Test
+    public void testAddExpired() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 8);
+        long now = System.currentTimeMillis();
+        Assertions.assertTrue(wheel.advance(now + 1000).isEmpty());
+        wheel.add("xid-1", now);
+        List<String> expired = wheel.advance(now + 1010);
+        Assertions.assertEquals(Collections.singletonList("xid-1"), expired);
+    }
+}
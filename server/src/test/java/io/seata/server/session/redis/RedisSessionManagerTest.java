@@ -294,6 +294,29 @@ public class RedisSessionManagerTest {
         sessionManager.removeGlobalSession(session);
     }
 
+    @Test
+    public void testReadSessionOfTransactionIdRanges() throws TransactionException {
+        GlobalSession session = GlobalSession.createGlobalSession("test", "test", "test123", 100);
+        String xid = XID.generateXID(session.getTransactionId());
+        session.setXid(xid);
+        session.setBeginTime(System.currentTimeMillis());
+        session.setStatus(GlobalStatus.Begin);
+        sessionManager.addGlobalSession(session);
+
+        long transactionId = session.getTransactionId();
+        GlobalStatus[] statuses = {GlobalStatus.Begin};
+        RedisTransactionStoreManager transactionStoreManager = RedisTransactionStoreManager.getInstance();
+        List<GlobalSession> globalSessions = transactionStoreManager.readSession(statuses,
+            new long[] {transactionId - 2, transactionId - 1, transactionId, transactionId});
+        Assertions.assertEquals(1, globalSessions.size());
+        Assertions.assertEquals(xid, globalSessions.get(0).getXid());
+        Assertions.assertTrue(transactionStoreManager.readSession(statuses,
+            new long[] {transactionId + 1, Long.MAX_VALUE}).isEmpty());
+        Assertions.assertTrue(transactionStoreManager.readSession(statuses, new long[0]).isEmpty());
+
+        sessionManager.removeGlobalSession(session);
+    }
+
     @Test
     public void testReadSessionWithBranch() throws TransactionException {
         GlobalSession session = GlobalSession.createGlobalSession("test", "test", "test123", 100);
@@ -0,0 +1,168 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.db.store;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.exception.StoreException;
+import io.seata.core.store.GlobalTransactionDO;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The committer thread of the database group commit.
+ *
+ * @since 1.5.0
+ */
+public class DataBaseGroupCommitterTest {
+
+    private LogStoreDataBaseDAO logStore;
+
+    private ExecutorService callers;
+
+    private CountDownLatch committing;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        logStore = mock(LogStoreDataBaseDAO.class);
+        callers = Executors.newCachedThreadPool();
+        committing = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        AtomicInteger committed = new AtomicInteger();
+        when(logStore.writeBatch(anyList())).thenAnswer(invocation -> {
+            List<SessionWrite> writes = invocation.getArgument(0);
+            committed.addAndGet(writes.size());
+            boolean[] results = new boolean[writes.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = !"bad".equals(writes.get(i).getXid());
+            }
+            return results;
+        });
+        DataBaseGroupCommitter committer = new DataBaseGroupCommitter(logStore, 16, 10);
+        try {
+            Future<Boolean> first = callers.submit(() -> committer.write(newWrite("xid1")));
+            Future<Boolean> second = callers.submit(() -> committer.write(newWrite("xid2")));
+            Future<Boolean> bad = callers.submit(() -> committer.write(newWrite("bad")));
+
+            Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(second.get(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(bad.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(3, committed.get());
+        } finally {
+            committer.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteOneByOneWhenGroupFailed() throws Exception {
+        when(logStore.writeBatch(anyList())).thenThrow(new StoreException("batch failed"));
+        when(logStore.insertGlobalTransactionDO(any())).thenReturn(true);
+        DataBaseGroupCommitter committer = new DataBaseGroupCommitter(logStore, 16, 0);
+        try {
+            Assertions.assertTrue(committer.write(newWrite("xid1")));
+        } finally {
+            committer.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteTimeout() throws Exception {
+        blockCommit();
+        DataBaseGroupCommitter committer = new DataBaseGroupCommitter(logStore, 1, 0, 100);
+        try {
+            Future<Boolean> inFlight = callers.submit(() -> committer.write(newWrite("xid1")));
+            Assertions.assertTrue(committing.await(5, TimeUnit.SECONDS));
+            // queued behind the blocked group, and never committed after the timeout
+            Assertions.assertThrows(StoreException.class, () -> committer.write(newWrite("xid2")));
+            assertStoreException(inFlight);
+        } finally {
+            committer.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownFailsPendingWrites() throws Exception {
+        blockCommit();
+        DataBaseGroupCommitter committer = new DataBaseGroupCommitter(logStore, 1, 0);
+        Future<Boolean> inFlight = callers.submit(() -> committer.write(newWrite("xid1")));
+        Assertions.assertTrue(committing.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> committer.write(newWrite("xid2")));
+
+        committer.shutdown();
+
+        assertStoreException(inFlight);
+        assertStoreException(queued);
+        Assertions.assertThrows(StoreException.class, () -> committer.write(newWrite("xid3")));
+    }
+
+    /**
+     * Block the group commit, ignoring the interrupt of the shutdown, until the test ends.
+     */
+    private void blockCommit() {
+        when(logStore.writeBatch(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            boolean released = false;
+            while (!released) {
+                try {
+                    released = release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignore) {
+                    // keep the writer busy
+                }
+            }
+            List<SessionWrite> writes = invocation.getArgument(0);
+            return new boolean[writes.size()];
+        });
+    }
+
+    private static void assertStoreException(Future<Boolean> future) throws Exception {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+            () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof StoreException);
+    }
+
+    private static SessionWrite newWrite(String xid) {
+        GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+        globalTransactionDO.setXid(xid);
+        return new SessionWrite(LogOperation.GLOBAL_ADD, globalTransactionDO);
+    }
+}
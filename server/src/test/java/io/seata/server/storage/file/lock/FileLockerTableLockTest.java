@@ -0,0 +1,82 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.List;
+
+import io.seata.common.Constants;
+import io.seata.core.lock.RowLock;
+import io.seata.server.UUIDGenerator;
+import io.seata.server.session.BranchSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.server.session.SessionTestUtil.newBranchSession;
+import static io.seata.server.session.SessionTestUtil.newRowLocks;
+
+/**
+ * The type FileLocker table lock test.
+ */
+public class FileLockerTableLockTest {
+
+    private static final String RESOURCE_ID = "tb_table_lock";
+
+    @Test
+    public void testTableLockConflictsWithRows() {
+        BranchSession rowBranch = newBranchSession(UUIDGenerator.generateUUID(), UUIDGenerator.generateUUID(),
+            RESOURCE_ID);
+        BranchSession tableBranch = newBranchSession(UUIDGenerator.generateUUID(), UUIDGenerator.generateUUID(),
+            RESOURCE_ID);
+        List<RowLock> rows = newRowLocks(rowBranch, "t", "1", "2");
+        List<RowLock> table = newRowLocks(tableBranch, "t", Constants.TABLE_LOCK_PK);
+
+        Assertions.assertTrue(new FileLocker(rowBranch).acquireLock(rows));
+        Assertions.assertFalse(new FileLocker(tableBranch).isLockable(table));
+        Assertions.assertFalse(new FileLocker(tableBranch).acquireLock(table));
+        Assertions.assertEquals(0, tableBranch.getLockHolder().size());
+        // the table lock of another table is not blocked
+        Assertions.assertTrue(new FileLocker(tableBranch).isLockable(newRowLocks(tableBranch, "t2",
+            Constants.TABLE_LOCK_PK)));
+
+        new FileLocker(rowBranch).releaseLock(rows);
+        Assertions.assertTrue(new FileLocker(tableBranch).acquireLock(table));
+        Assertions.assertFalse(new FileLocker(rowBranch).isLockable(rows));
+        Assertions.assertFalse(new FileLocker(rowBranch).acquireLock(rows));
+        Assertions.assertEquals(0, rowBranch.getLockHolder().size());
+
+        new FileLocker(tableBranch).releaseLock(table);
+        Assertions.assertTrue(new FileLocker(rowBranch).acquireLock(rows));
+        new FileLocker(rowBranch).releaseLock(rows);
+    }
+
+    @Test
+    public void testTableLockWithOwnRows() {
+        long transactionId = UUIDGenerator.generateUUID();
+        BranchSession rowBranch = newBranchSession(transactionId, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        BranchSession tableBranch = newBranchSession(transactionId, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        List<RowLock> rows = newRowLocks(rowBranch, "t", "1");
+        List<RowLock> table = newRowLocks(tableBranch, "t", Constants.TABLE_LOCK_PK);
+
+        Assertions.assertTrue(new FileLocker(rowBranch).acquireLock(rows));
+        Assertions.assertTrue(new FileLocker(tableBranch).acquireLock(table));
+        BranchSession laterRowBranch = newBranchSession(transactionId, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        Assertions.assertTrue(new FileLocker(laterRowBranch).acquireLock(newRowLocks(laterRowBranch, "t", "3")));
+
+        new FileLocker(rowBranch).releaseLock(rows);
+        new FileLocker(tableBranch).releaseLock(table);
+        new FileLocker(laterRowBranch).releaseLock(newRowLocks(laterRowBranch, "t", "3"));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.exception.BranchTransactionException;
+import io.seata.core.exception.GlobalTransactionException;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.RowLock;
+import io.seata.server.UUIDGenerator;
+import io.seata.server.session.BranchSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.core.exception.TransactionExceptionCode.GlobalTransactionNotActive;
+import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflict;
+import static io.seata.server.session.SessionTestUtil.newBranchSession;
+import static io.seata.server.session.SessionTestUtil.newRowLocks;
+
+/**
+ * The type FileLocker wait test.
+ */
+public class FileLockerWaitTest {
+
+    private static final String RESOURCE_ID = "tb_wait";
+
+    @Test
+    public void testWaitUntilUnlocked() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID());
+        BranchSession waiter = newBranchSession(UUIDGenerator.generateUUID());
+        List<RowLock> holderLocks = newRowLocks(holder, "t", "1");
+        Assertions.assertTrue(new FileLocker(holder).acquireLock(holderLocks));
+
+        // the conflict is returned at once when not waiting, and after the timeout when waiting
+        Assertions.assertFalse(new FileLocker(waiter).acquireLock(newRowLocks(waiter, "t", "1")));
+        Assertions.assertFalse(acquireLock(waiter, newRowLocks(waiter, "t", "1"), 50));
+
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(
+            () -> acquireLock(waiter, newRowLocks(waiter, "t", "1"), 10000));
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertFalse(acquired.isDone());
+        Assertions.assertTrue(new FileLocker(holder).releaseLock(holderLocks));
+        Assertions.assertTrue(acquired.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, waiter.getLockHolder().size());
+        new FileLocker(waiter).releaseLock(newRowLocks(waiter, "t", "1"));
+    }
+
+    @Test
+    public void testDeadlock() throws Exception {
+        long transactionIdA = UUIDGenerator.generateUUID();
+        long transactionIdB = UUIDGenerator.generateUUID();
+        BranchSession branchA1 = newBranchSession(transactionIdA, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        BranchSession branchB1 = newBranchSession(transactionIdB, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        Assertions.assertTrue(new FileLocker(branchA1).acquireLock(newRowLocks(branchA1, "t", "2")));
+        Assertions.assertTrue(new FileLocker(branchB1).acquireLock(newRowLocks(branchB1, "t", "3")));
+
+        BranchSession branchA2 = newBranchSession(transactionIdA, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(
+            () -> acquireLock(branchA2, newRowLocks(branchA2, "t", "3"), 10000));
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // B waiting for A which is waiting for B
+        BranchSession branchB2 = newBranchSession(transactionIdB, UUIDGenerator.generateUUID(), RESOURCE_ID);
+        long start = System.currentTimeMillis();
+        Assertions.assertFalse(acquireLock(branchB2, newRowLocks(branchB2, "t", "2"), 10000));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+
+        new FileLocker(branchB1).releaseLock(newRowLocks(branchB1, "t", "3"));
+        Assertions.assertTrue(acquired.get(5, TimeUnit.SECONDS));
+        new FileLocker(branchA1).releaseLock(newRowLocks(branchA1, "t", "2"));
+        new FileLocker(branchA2).releaseLock(newRowLocks(branchA2, "t", "3"));
+    }
+
+    @Test
+    public void testNotWaitOnOtherFailure() {
+        BranchSession branch = newBranchSession(UUIDGenerator.generateUUID());
+        AtomicInteger tries = new AtomicInteger();
+        // a registration failing for another reason, such as the global session not active, is not tried again
+        Assertions.assertThrows(GlobalTransactionException.class, () -> new FileLocker(branch).executeWithLockWait(
+            () -> {
+                tries.incrementAndGet();
+                throw new GlobalTransactionException(GlobalTransactionNotActive, "not active");
+            }, 10000));
+        Assertions.assertEquals(1, tries.get());
+    }
+
+    /**
+     * Acquire the locks as a branch registration does, waiting for the conflicting rows.
+     */
+    private static boolean acquireLock(BranchSession branchSession, List<RowLock> rowLocks, long waitTimeoutMills) {
+        try {
+            return new FileLocker(branchSession).executeWithLockWait(() -> {
+                if (!new FileLocker(branchSession).acquireLock(rowLocks)) {
+                    throw new BranchTransactionException(LockKeyConflict, "lock conflict");
+                }
+                return true;
+            }, waitTimeoutMills);
+        } catch (TransactionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type LockTable test.
+ */
+public class LockTableTest {
+
+    @Test
+    public void testLockAndUnlock() {
+        LockTable lockTable = new LockTable(4);
+        long scope = lockTable.scope("jdbc:mysql://127.0.0.1:3306/seata", "t_order");
+        LockHolder holder1 = new LockHolder();
+        LockHolder holder2 = new LockHolder();
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertEquals(1L, lockTable.lock(scope, String.valueOf(i), 1L, holder1));
+        }
+        // locked by me before, not added to the holder again
+        Assertions.assertEquals(1L, lockTable.lock(scope, "0", 1L, holder1));
+        Assertions.assertEquals(10000, holder1.size());
+        Assertions.assertEquals(1L, lockTable.lock(scope, "0", 2L, holder2));
+        Assertions.assertEquals(1L, lockTable.getOwner(scope, "9999", 2L));
+        Assertions.assertTrue(holder2.isEmpty());
+
+        // the same pk of another table is not locked
+        long otherScope = lockTable.scope("jdbc:mysql://127.0.0.1:3306/seata", "t_stock");
+        Assertions.assertEquals(2L, lockTable.lock(otherScope, "0", 2L, holder2));
+        Assertions.assertEquals(10001, lockTable.size());
+
+        lockTable.unlock(holder1, 1L);
+        Assertions.assertTrue(holder1.isEmpty());
+        Assertions.assertEquals(1, lockTable.size());
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertEquals(2L, lockTable.getOwner(scope, String.valueOf(i), 2L));
+        }
+        Assertions.assertEquals(2L, lockTable.getOwner(otherScope, "0", 3L));
+
+        lockTable.unlock(holder2, 2L);
+        Assertions.assertEquals(0, lockTable.size());
+    }
+
+    @Test
+    public void testUnlockKeepsProbeSequence() {
+        // a single stripe, so the removals shift the rows of the long probe sequences back
+        LockTable lockTable = new LockTable(1);
+        long scope = lockTable.scope("resource", "table");
+        LockHolder[] holders = new LockHolder[1000];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = new LockHolder();
+            Assertions.assertEquals(i, lockTable.lock(scope, "pk" + i, i, holders[i]));
+        }
+        for (int i = 0; i < holders.length; i += 2) {
+            lockTable.unlock(holders[i], i);
+        }
+        for (int i = 0; i < holders.length; i++) {
+            long expected = i % 2 == 0 ? -1L : i;
+            Assertions.assertEquals(expected, lockTable.getOwner(scope, "pk" + i, -1L));
+        }
+    }
+
+    @Test
+    public void testFindOtherLock() {
+        LockTable lockTable = new LockTable(4);
+        long scope = lockTable.scope("resource", "table");
+        long otherScope = lockTable.scope("resource", "other_table");
+        LockHolder holder1 = new LockHolder();
+        LockHolder holder2 = new LockHolder();
+        for (int i = 0; i < 100; i++) {
+            lockTable.lock(scope, "pk" + i, 1L, holder1);
+        }
+        lockTable.lock(otherScope, "pk0", 2L, holder2);
+        Assertions.assertEquals(100, lockTable.rowCount(scope, 1L));
+        Assertions.assertEquals(0, lockTable.rowCount(scope, 2L));
+        Assertions.assertNull(lockTable.findOtherLock(scope, 1L));
+
+        long[] otherLock = lockTable.findOtherLock(scope, 2L);
+        Assertions.assertNotNull(otherLock);
+        Assertions.assertEquals(1L, otherLock[1]);
+        Assertions.assertEquals(1L, lockTable.getOwner(scope, "pk0", 2L));
+
+        lockTable.unlock(holder1, 1L);
+        Assertions.assertEquals(0, lockTable.rowCount(scope, 1L));
+        Assertions.assertNull(lockTable.findOtherLock(scope, 2L));
+        Assertions.assertEquals(1, lockTable.rowCount(otherScope, 2L));
+        lockTable.clear();
+        Assertions.assertEquals(0, lockTable.rowCount(otherScope, 2L));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type LockWaitQueue test.
+ */
+public class LockWaitQueueTest {
+
+    @Test
+    public void testClear() {
+        LockWaitQueue waitQueue = new LockWaitQueue();
+        LockWaitQueue.Waiter waiter = new LockWaitQueue.Waiter(1L);
+        Assertions.assertTrue(waitQueue.enqueue(waiter, 100L, 2L));
+        Assertions.assertTrue(waiter.isWaiting(100L));
+
+        waitQueue.clear();
+        Assertions.assertFalse(waiter.isWaiting(100L));
+        // the edge of the wait-for graph is gone, so the transaction 2 waiting for the transaction 1 is no deadlock
+        LockWaitQueue.Waiter other = new LockWaitQueue.Waiter(2L);
+        Assertions.assertTrue(waitQueue.enqueue(other, 200L, 1L));
+        waitQueue.leave(other);
+
+        // the cleared waiter is woken, and it is queued again on the same row
+        long start = System.nanoTime();
+        waiter.await(start + TimeUnit.SECONDS.toNanos(10));
+        Assertions.assertTrue(waitQueue.enqueue(waiter, 100L, 2L));
+        Assertions.assertTrue(waiter.isWaiting(100L));
+        waitQueue.wake(new long[] {100L});
+        waiter.await(System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        waitQueue.leave(waiter);
+        Assertions.assertFalse(waiter.isWaiting(100L));
+    }
+}
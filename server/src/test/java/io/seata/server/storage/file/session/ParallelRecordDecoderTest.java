@@ -0,0 +1,109 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.session;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.storage.file.ReloadableStore;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.storage.file.store.SegmentedFileTransactionStoreManager;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type ParallelRecordDecoder test.
+ */
+public class ParallelRecordDecoderTest {
+
+    @Test
+    public void testDecodeInOrder() throws Exception {
+        File dir = Files.createTempDirectory("parallelReload").toFile();
+        String fullFileName = dir.getAbsolutePath() + File.separator + "root.data";
+        List<String> expectedXids = new ArrayList<>();
+        SegmentedFileTransactionStoreManager storeManager = new SegmentedFileTransactionStoreManager(fullFileName,
+            64 * 1024, FlushDiskMode.ASYNC_MODEL, 0);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", 60000);
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+                expectedXids.add(globalSession.getXid());
+            }
+        } finally {
+            storeManager.shutdown();
+        }
+
+        storeManager = new SegmentedFileTransactionStoreManager(fullFileName, 64 * 1024, FlushDiskMode.ASYNC_MODEL,
+            0);
+        List<String> xids = new ArrayList<>();
+        try (ParallelRecordDecoder decoder = new ParallelRecordDecoder(4)) {
+            decoder.decode(storeManager, false, 7, stores -> {
+                for (TransactionWriteStore store : stores) {
+                    xids.add(((GlobalSession)store.getSessionRequest()).getXid());
+                }
+            });
+        } finally {
+            storeManager.shutdown();
+        }
+        Assertions.assertEquals(expectedXids, xids);
+    }
+
+    @Test
+    public void testSkipUndecodableRecord() {
+        GlobalSession first = new GlobalSession("demo-app", "my_test_tx_group", "test", 60000);
+        GlobalSession second = new GlobalSession("demo-app", "my_test_tx_group", "test", 60000);
+        GlobalSession third = new GlobalSession("demo-app", "my_test_tx_group", "test", 60000);
+        Deque<List<byte[]>> chunks = new ArrayDeque<>();
+        chunks.add(Arrays.asList(new TransactionWriteStore(first, LogOperation.GLOBAL_ADD).encode(), new byte[0],
+            new TransactionWriteStore(second, LogOperation.GLOBAL_ADD).encode()));
+        chunks.add(Arrays.asList(new TransactionWriteStore(third, LogOperation.GLOBAL_ADD).encode()));
+        ReloadableStore store = new ReloadableStore() {
+            @Override
+            public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<byte[]> readRecords(int readSize, boolean isHistory) {
+                return chunks.poll();
+            }
+
+            @Override
+            public boolean hasRemaining(boolean isHistory) {
+                return !chunks.isEmpty();
+            }
+        };
+
+        List<String> xids = new ArrayList<>();
+        try (ParallelRecordDecoder decoder = new ParallelRecordDecoder(2)) {
+            decoder.decode(store, false, 3, stores -> {
+                for (TransactionWriteStore writeStore : stores) {
+                    xids.add(((GlobalSession)writeStore.getSessionRequest()).getXid());
+                }
+            });
+        }
+        // the bad record is skipped, the records after it, in the same chunk or not, are still restored in order
+        Assertions.assertEquals(Arrays.asList(first.getXid(), second.getXid(), third.getXid()), xids);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import org.assertj.core.util.Files;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+/**
+ * The group commit of the sync flush requests.
+ *
+ * @since 1.5.0
+ */
+public class FileTransactionStoreManagerGroupCommitTest {
+
+    private static final long TRX_NUM = 1L << 40;
+
+    private File seataFile;
+
+    private FileTransactionStoreManager storeManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        seataFile = Files.newTemporaryFile();
+        storeManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storeManager.shutdown();
+        Assertions.assertTrue(seataFile.delete());
+    }
+
+    @Test
+    public void testOneFsyncPerGroup() throws Exception {
+        FileTransactionStoreManager.WriteDataFileRunnable runnable = storeManager.new WriteDataFileRunnable();
+        FileChannel channel = Mockito.mock(FileChannel.class);
+        FileTransactionStoreManager.SyncFlushRequest first = storeManager.new SyncFlushRequest(TRX_NUM, channel);
+        FileTransactionStoreManager.SyncFlushRequest second = storeManager.new SyncFlushRequest(TRX_NUM + 1, channel);
+        FileTransactionStoreManager.SyncFlushRequest third = storeManager.new SyncFlushRequest(TRX_NUM + 2, channel);
+        runnable.putRequest(second);
+        runnable.putRequest(third);
+
+        runnable.handleStoreRequest(first);
+
+        Mockito.verify(channel, Mockito.times(1)).force(false);
+        Assertions.assertTrue(first.waitForFlush(0));
+        Assertions.assertTrue(second.waitForFlush(0));
+        Assertions.assertTrue(third.waitForFlush(0));
+        Assertions.assertTrue(first.isFlushed());
+        Assertions.assertTrue(third.isFlushed());
+    }
+
+    @Test
+    public void testGroupFlushedBeforeNextRequest() throws Exception {
+        FileTransactionStoreManager.WriteDataFileRunnable runnable = storeManager.new WriteDataFileRunnable();
+        FileChannel channel = Mockito.mock(FileChannel.class);
+        FileChannel closingChannel = Mockito.mock(FileChannel.class);
+        FileTransactionStoreManager.SyncFlushRequest first = storeManager.new SyncFlushRequest(TRX_NUM, channel);
+        FileTransactionStoreManager.SyncFlushRequest second = storeManager.new SyncFlushRequest(TRX_NUM + 1, channel);
+        FileTransactionStoreManager.CloseFileRequest close =
+            new FileTransactionStoreManager.CloseFileRequest(closingChannel, null);
+        FileTransactionStoreManager.SyncFlushRequest afterClose =
+            storeManager.new SyncFlushRequest(TRX_NUM + 2, channel);
+        runnable.putRequest(second);
+        runnable.putRequest(close);
+        runnable.putRequest(afterClose);
+
+        runnable.handleStoreRequest(first);
+
+        // the group stops at the close request, which is handled right after the group is forced
+        InOrder inOrder = Mockito.inOrder(channel, closingChannel);
+        inOrder.verify(channel).force(false);
+        inOrder.verify(closingChannel).force(false);
+        Assertions.assertTrue(first.waitForFlush(0));
+        Assertions.assertTrue(second.waitForFlush(0));
+        Assertions.assertFalse(afterClose.waitForFlush(0));
+        Mockito.verify(channel, Mockito.times(1)).force(false);
+    }
+
+    @Test
+    public void testWaitersReleasedWhenFlushFailed() throws Exception {
+        FileTransactionStoreManager.WriteDataFileRunnable runnable = storeManager.new WriteDataFileRunnable();
+        FileChannel brokenChannel = Mockito.mock(FileChannel.class);
+        Mockito.doThrow(new IOException("disk failure")).when(brokenChannel).force(false);
+        FileTransactionStoreManager.SyncFlushRequest first = storeManager.new SyncFlushRequest(TRX_NUM, brokenChannel);
+        FileTransactionStoreManager.SyncFlushRequest second =
+            storeManager.new SyncFlushRequest(TRX_NUM + 1, brokenChannel);
+        runnable.putRequest(second);
+
+        runnable.handleStoreRequest(first);
+
+        // released, but told the write is not flushed
+        Assertions.assertTrue(first.waitForFlush(0));
+        Assertions.assertTrue(second.waitForFlush(0));
+        Assertions.assertFalse(first.isFlushed());
+        Assertions.assertFalse(second.isFlushed());
+
+        FileChannel crashingChannel = Mockito.mock(FileChannel.class);
+        Mockito.doThrow(new IllegalStateException("channel crashed")).when(crashingChannel).force(false);
+        FileTransactionStoreManager.SyncFlushRequest third =
+            storeManager.new SyncFlushRequest(TRX_NUM + 2, crashingChannel);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> runnable.handleStoreRequest(third));
+        Assertions.assertTrue(third.waitForFlush(0));
+        Assertions.assertFalse(third.isFlushed());
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The raft nodes of a cluster of three servers in the same process.
+ *
+ * @since 1.5.0
+ */
+public class RaftNodeTest {
+
+    private static final List<String> NODE_IDS = Arrays.asList("node1", "node2", "node3");
+
+    private static final long ELECTION_TIMEOUT_MILLS = 300L;
+
+    private static final long WAIT_MILLS = 5000L;
+
+    private final LocalRaftTransport transport = new LocalRaftTransport();
+
+    private final Map<String, RaftNode> nodes = new LinkedHashMap<>();
+
+    private final Map<String, ListStateMachine> stateMachines = new LinkedHashMap<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String nodeId : NODE_IDS) {
+            ListStateMachine stateMachine = new ListStateMachine();
+            stateMachines.put(nodeId, stateMachine);
+            nodes.put(nodeId, new RaftNode(nodeId, NODE_IDS, stateMachine, transport, ELECTION_TIMEOUT_MILLS, 20));
+        }
+        for (RaftNode node : nodes.values()) {
+            node.start();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        nodes.values().forEach(RaftNode::shutdown);
+    }
+
+    @Test
+    public void testReplicate() throws Exception {
+        RaftNode leader = waitLeader(null);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(leader.propose(entry(i), WAIT_MILLS));
+        }
+        for (ListStateMachine stateMachine : stateMachines.values()) {
+            waitApplied(stateMachine, 10);
+        }
+        waitUntil(() -> stateMachines.get(leader.getNodeId()).leaderStarted);
+        for (RaftNode node : nodes.values()) {
+            Assertions.assertEquals(leader.getNodeId(), node.getLeaderId());
+            if (node != leader) {
+                Assertions.assertFalse(node.propose(entry(10), WAIT_MILLS));
+            }
+        }
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        RaftNode leader = waitLeader(null);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(leader.propose(entry(i), WAIT_MILLS));
+        }
+        long term = leader.getCurrentTerm();
+        transport.isolate(leader.getNodeId());
+
+        RaftNode newLeader = waitLeader(leader);
+        Assertions.assertTrue(newLeader.getCurrentTerm() > term);
+        waitUntil(() -> stateMachines.get(newLeader.getNodeId()).leaderStarted);
+        Assertions.assertEquals(10, stateMachines.get(newLeader.getNodeId()).copyApplied().size());
+        // the isolated leader can not commit any entry, and steps down without the acks of the majority
+        Assertions.assertFalse(leader.propose(entry(-1), ELECTION_TIMEOUT_MILLS));
+        waitUntil(() -> !leader.isLeader() && stateMachines.get(leader.getNodeId()).leaderStopped);
+
+        for (int i = 10; i < 20; i++) {
+            Assertions.assertTrue(newLeader.propose(entry(i), WAIT_MILLS));
+        }
+        transport.reconnect(leader.getNodeId());
+        for (ListStateMachine stateMachine : stateMachines.values()) {
+            waitApplied(stateMachine, 20);
+        }
+        for (ListStateMachine stateMachine : stateMachines.values()) {
+            List<String> applied = stateMachine.copyApplied();
+            for (int i = 0; i < applied.size(); i++) {
+                Assertions.assertEquals("entry" + i, applied.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testInstallSnapshot() throws Exception {
+        RaftNode leader = waitLeader(null);
+        RaftNode lagging = nodes.values().stream().filter(node -> node != leader).findFirst().get();
+        transport.isolate(lagging.getNodeId());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(leader.propose(entry(i), WAIT_MILLS));
+        }
+        waitUntil(() -> leader.getSnapshotIndex() > 0);
+
+        transport.reconnect(lagging.getNodeId());
+        waitApplied(stateMachines.get(lagging.getNodeId()), 100);
+        Assertions.assertTrue(lagging.getSnapshotIndex() > 0);
+        Assertions.assertEquals(stateMachines.get(leader.getNodeId()).copyApplied(),
+            stateMachines.get(lagging.getNodeId()).copyApplied());
+    }
+
+    private RaftNode waitLeader(RaftNode excluded) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLS;
+        while (System.currentTimeMillis() < deadline) {
+            for (RaftNode node : nodes.values()) {
+                if (node != excluded && node.isLeader()) {
+                    return node;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("no leader is elected");
+    }
+
+    private static void waitApplied(ListStateMachine stateMachine, int size) throws InterruptedException {
+        waitUntil(() -> stateMachine.copyApplied().size() >= size);
+    }
+
+    private static void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLS;
+        while (!condition.test()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "timeout");
+            Thread.sleep(10);
+        }
+    }
+
+    private static byte[] entry(int i) {
+        return ("entry" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+
+    private static class ListStateMachine implements RaftStateMachine {
+
+        private final List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean leaderStarted;
+
+        private volatile boolean leaderStopped;
+
+        @Override
+        public void apply(byte[] data) {
+            applied.add(new String(data, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public byte[] snapshot() {
+            return String.join(",", copyApplied()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void restore(byte[] snapshot) {
+            String entries = new String(snapshot, StandardCharsets.UTF_8);
+            applied.clear();
+            if (!entries.isEmpty()) {
+                applied.addAll(Arrays.asList(entries.split(",")));
+            }
+        }
+
+        @Override
+        public void onLeaderStart(long term) {
+            leaderStarted = true;
+        }
+
+        @Override
+        public void onLeaderStop(long term) {
+            leaderStopped = true;
+        }
+
+        List<String> copyApplied() {
+            synchronized (applied) {
+                return new ArrayList<>(applied);
+            }
+        }
+    }
+}
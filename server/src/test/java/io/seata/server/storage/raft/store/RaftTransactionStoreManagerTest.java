@@ -0,0 +1,189 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.raft.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.GlobalStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionTestUtil;
+import io.seata.server.storage.raft.LocalRaftTransport;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The sessions replicated to a cluster of three servers in the same process.
+ *
+ * @since 1.5.0
+ */
+public class RaftTransactionStoreManagerTest {
+
+    private static final List<String> NODE_IDS = Arrays.asList("node1", "node2", "node3");
+
+    private static final long WAIT_MILLS = 5000L;
+
+    private static final long TRX_ID = 1L << 40;
+
+    private final LocalRaftTransport transport = new LocalRaftTransport();
+
+    private final Map<String, RaftTransactionStoreManager> storeManagers = new LinkedHashMap<>();
+
+    private final Map<String, RecordingListener> listeners = new LinkedHashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (String nodeId : NODE_IDS) {
+            RaftTransactionStoreManager storeManager = new RaftTransactionStoreManager(nodeId, NODE_IDS, transport,
+                300L, WAIT_MILLS, 100);
+            RecordingListener listener = new RecordingListener(storeManager.getStateMachine());
+            storeManager.getStateMachine().addLeadershipListener(listener);
+            storeManagers.put(nodeId, storeManager);
+            listeners.put(nodeId, listener);
+        }
+        storeManagers.values().forEach(RaftTransactionStoreManager::start);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storeManagers.values().forEach(RaftTransactionStoreManager::shutdown);
+    }
+
+    @Test
+    public void testReplicateSessions() throws Exception {
+        RaftTransactionStoreManager leader = waitLeader(null);
+        GlobalSession globalSession = newGlobalSession();
+        BranchSession branchSession = newBranchSession();
+        Assertions.assertTrue(leader.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        Assertions.assertTrue(leader.writeSession(LogOperation.BRANCH_ADD, branchSession));
+        branchSession.setStatus(BranchStatus.PhaseOne_Done);
+        Assertions.assertTrue(leader.writeSession(LogOperation.BRANCH_UPDATE, branchSession));
+        globalSession.setStatus(GlobalStatus.Committing);
+        Assertions.assertTrue(leader.writeSession(LogOperation.GLOBAL_UPDATE, globalSession));
+
+        for (RaftTransactionStoreManager storeManager : storeManagers.values()) {
+            waitUntil(() -> {
+                GlobalSession found = storeManager.getStateMachine().findGlobalSession(globalSession.getXid());
+                return found != null && found.getStatus() == GlobalStatus.Committing;
+            });
+            GlobalSession found = storeManager.getStateMachine().findGlobalSession(globalSession.getXid());
+            Assertions.assertEquals(1, found.getBranchSessions().size());
+            Assertions.assertEquals(BranchStatus.PhaseOne_Done, found.getBranchSessions().get(0).getStatus());
+        }
+
+        Assertions.assertTrue(leader.writeSession(LogOperation.BRANCH_REMOVE, branchSession));
+        Assertions.assertTrue(leader.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+        for (RaftTransactionStoreManager storeManager : storeManagers.values()) {
+            waitUntil(() -> storeManager.getStateMachine().findGlobalSession(globalSession.getXid()) == null);
+        }
+    }
+
+    @Test
+    public void testTakeOverSessions() throws Exception {
+        RaftTransactionStoreManager leader = waitLeader(null);
+        GlobalSession globalSession = newGlobalSession();
+        Assertions.assertTrue(leader.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        Assertions.assertTrue(leader.writeSession(LogOperation.BRANCH_ADD, newBranchSession()));
+        String leaderId = storeManagers.entrySet().stream().filter(entry -> entry.getValue() == leader)
+            .findFirst().get().getKey();
+        transport.isolate(leaderId);
+
+        RaftTransactionStoreManager newLeader = waitLeader(leader);
+        RecordingListener listener = listeners.values().stream()
+            .filter(recording -> recording.stateMachine == newLeader.getStateMachine()).findFirst().get();
+        waitUntil(() -> listener.takenOverSessions != null);
+        Assertions.assertEquals(1, listener.takenOverSessions.size());
+        GlobalSession takenOver = listener.takenOverSessions.get(0);
+        Assertions.assertEquals(globalSession.getXid(), takenOver.getXid());
+        Assertions.assertEquals(1, takenOver.getBranchSessions().size());
+
+        // the writes of the isolated leader are not committed by the majority
+        globalSession.setStatus(GlobalStatus.Rollbacking);
+        Assertions.assertFalse(leader.writeSession(LogOperation.GLOBAL_UPDATE, globalSession));
+        waitUntil(() -> listeners.get(leaderId).leaderStopped);
+        Assertions.assertFalse(leader.isLeader());
+    }
+
+    private RaftTransactionStoreManager waitLeader(RaftTransactionStoreManager excluded) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLS;
+        while (System.currentTimeMillis() < deadline) {
+            for (RaftTransactionStoreManager storeManager : storeManagers.values()) {
+                if (storeManager != excluded && storeManager.isLeader()) {
+                    return storeManager;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("no leader is elected");
+    }
+
+    private static void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLS;
+        while (!condition.test()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "timeout");
+            Thread.sleep(10);
+        }
+    }
+
+    private static GlobalSession newGlobalSession() {
+        GlobalSession globalSession = SessionTestUtil.newGlobalSession(TRX_ID);
+        globalSession.setStatus(GlobalStatus.Begin);
+        return globalSession;
+    }
+
+    private static BranchSession newBranchSession() {
+        BranchSession branchSession = SessionTestUtil.newBranchSession(TRX_ID, TRX_ID + 1, "jdbc:mysql://127.0.0.1/db");
+        branchSession.setStatus(BranchStatus.Registered);
+        return branchSession;
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+
+    private static class RecordingListener implements SessionStateMachine.LeadershipListener {
+
+        private final SessionStateMachine stateMachine;
+
+        private volatile List<GlobalSession> takenOverSessions;
+
+        private volatile boolean leaderStopped;
+
+        RecordingListener(SessionStateMachine stateMachine) {
+            this.stateMachine = stateMachine;
+        }
+
+        @Override
+        public void onLeaderStart() {
+            Collection<GlobalSession> sessions = stateMachine.copySessions();
+            takenOverSessions = new ArrayList<>(sessions);
+        }
+
+        @Override
+        public void onLeaderStop() {
+            leaderStopped = true;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import io.seata.common.util.IOUtil;
 import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
 import io.seata.server.storage.db.store.LogStoreDataBaseDAO;
+import io.seata.server.storage.db.store.SessionWrite;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
 import org.apache.commons.dbcp2.BasicDataSource;
 
 import org.h2.store.fs.FileUtils;
@@ -32,7 +34,11 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -56,6 +62,7 @@ public class LogStoreDataBaseDAOTest {
         logStoreDataBaseDAO.setDbType("h2");
         logStoreDataBaseDAO.setGlobalTable("global_table");
         logStoreDataBaseDAO.setBranchTable("branch_table");
+        logStoreDataBaseDAO.setNodeTable("node_table");
 
         prepareTable(dataSource);
     }
@@ -81,6 +88,13 @@ public class LogStoreDataBaseDAOTest {
             s.execute("CREATE TABLE branch_table ( xid varchar(96),  transaction_id long , branch_id long primary key, resource_group_id varchar(32), resource_id varchar(32) ,lock_key varchar(64) ,branch_type varchar(32) ,  status int , client_id varchar(128),  application_data varchar(500),  gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
             System.out.println("create table branch_table success.");
 
+            try {
+                s.execute("drop table node_table");
+            } catch (Exception e) {
+            }
+            s.execute("CREATE TABLE node_table ( node_id long primary key, heartbeat_time long ) ");
+            System.out.println("create table node_table success.");
+
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
@@ -626,6 +640,145 @@ public class LogStoreDataBaseDAOTest {
         }
     }
 
+    @Test
+    public void queryGlobalTransactionDO_by_statuses_after() throws SQLException {
+        for (int i = 1; i <= 3; i++) {
+            GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+            globalTransactionDO.setXid("abc-123:777" + i);
+            globalTransactionDO.setTransactionServiceGroup("abc");
+            globalTransactionDO.setTransactionName("test");
+            globalTransactionDO.setTransactionId(7770 + i);
+            globalTransactionDO.setTimeout(20);
+            globalTransactionDO.setBeginTime(System.currentTimeMillis());
+            globalTransactionDO.setApplicationId("test");
+            globalTransactionDO.setStatus(13);
+            Assertions.assertTrue(logStoreDataBaseDAO.insertGlobalTransactionDO(globalTransactionDO));
+        }
+
+        // the pages are ordered by gmt_modified and xid, and every page starts after the last one of the previous
+        List<GlobalTransactionDO> firstPage = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {13}, null, 2);
+        Assertions.assertEquals(2, firstPage.size());
+        List<GlobalTransactionDO> secondPage = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {13},
+            firstPage.get(1), 2);
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertNotEquals(firstPage.get(0).getXid(), secondPage.get(0).getXid());
+        Assertions.assertNotEquals(firstPage.get(1).getXid(), secondPage.get(0).getXid());
+        Assertions.assertTrue(logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {13}, secondPage.get(0), 2)
+            .isEmpty());
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.createStatement().execute("delete from global_table where status = 13");
+        } finally {
+            IOUtil.close(conn);
+        }
+    }
+
+    @Test
+    public void queryGlobalTransactionDO_by_statuses_in_ranges() throws SQLException {
+        for (int i = 1; i <= 4; i++) {
+            GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+            globalTransactionDO.setXid("abc-123:888" + i);
+            globalTransactionDO.setTransactionServiceGroup("abc");
+            globalTransactionDO.setTransactionName("test");
+            globalTransactionDO.setTransactionId(8880 + i);
+            globalTransactionDO.setTimeout(20);
+            globalTransactionDO.setBeginTime(System.currentTimeMillis());
+            globalTransactionDO.setApplicationId("test");
+            globalTransactionDO.setStatus(14);
+            Assertions.assertTrue(logStoreDataBaseDAO.insertGlobalTransactionDO(globalTransactionDO));
+        }
+
+        // only the transactions of the ranges are queried, on the first page and after it
+        long[] ranges = new long[] {8881L, 8881L, 8883L, 8884L};
+        List<GlobalTransactionDO> firstPage = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {14}, null,
+            ranges, 2);
+        Assertions.assertEquals(2, firstPage.size());
+        List<GlobalTransactionDO> secondPage = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {14},
+            firstPage.get(1), ranges, 2);
+        Assertions.assertEquals(1, secondPage.size());
+        Set<Long> transactionIds = new HashSet<>();
+        firstPage.forEach(globalTransactionDO -> transactionIds.add(globalTransactionDO.getTransactionId()));
+        transactionIds.add(secondPage.get(0).getTransactionId());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(8881L, 8883L, 8884L)), transactionIds);
+        // no range, no transaction
+        Assertions.assertTrue(logStoreDataBaseDAO.queryGlobalTransactionDO(new int[] {14}, null, new long[0], 2)
+            .isEmpty());
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.createStatement().execute("delete from global_table where status = 14");
+        } finally {
+            IOUtil.close(conn);
+        }
+    }
+
+    @Test
+    public void writeBatch() throws SQLException {
+        GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+        globalTransactionDO.setXid("abc-123:5252");
+        globalTransactionDO.setTransactionServiceGroup("abc");
+        globalTransactionDO.setTransactionName("test");
+        globalTransactionDO.setTransactionId(5252);
+        globalTransactionDO.setTimeout(20);
+        globalTransactionDO.setBeginTime(System.currentTimeMillis());
+        globalTransactionDO.setApplicationId("test");
+        globalTransactionDO.setStatus(1);
+
+        BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+        branchTransactionDO.setXid("abc-123:5252");
+        branchTransactionDO.setTransactionId(5252);
+        branchTransactionDO.setBranchId(525201);
+        branchTransactionDO.setResourceId("qqqq");
+        branchTransactionDO.setLockKey("t:1");
+        branchTransactionDO.setBranchType("AT");
+        branchTransactionDO.setStatus(1);
+        branchTransactionDO.setClientId("abc");
+
+        GlobalTransactionDO committing = new GlobalTransactionDO();
+        committing.setXid("abc-123:5252");
+        committing.setStatus(2);
+
+        GlobalTransactionDO absent = new GlobalTransactionDO();
+        absent.setXid("abc-123:5253");
+        absent.setStatus(2);
+
+        // the writes of a transaction are applied in order, an update of no row fails alone
+        boolean[] results = logStoreDataBaseDAO.writeBatch(Arrays.asList(
+            new SessionWrite(LogOperation.GLOBAL_ADD, globalTransactionDO),
+            new SessionWrite(LogOperation.BRANCH_ADD, branchTransactionDO),
+            new SessionWrite(LogOperation.GLOBAL_UPDATE, absent),
+            new SessionWrite(LogOperation.GLOBAL_UPDATE, committing)));
+        Assertions.assertArrayEquals(new boolean[] {true, true, false, true}, results);
+        Assertions.assertEquals(2, logStoreDataBaseDAO.queryGlobalTransactionDO("abc-123:5252").getStatus());
+        Assertions.assertEquals(1, logStoreDataBaseDAO.queryBranchTransactionDO("abc-123:5252").size());
+
+        results = logStoreDataBaseDAO.writeBatch(Arrays.asList(
+            new SessionWrite(LogOperation.BRANCH_REMOVE, branchTransactionDO),
+            new SessionWrite(LogOperation.GLOBAL_REMOVE, globalTransactionDO)));
+        Assertions.assertArrayEquals(new boolean[] {true, true}, results);
+        Assertions.assertNull(logStoreDataBaseDAO.queryGlobalTransactionDO("abc-123:5252"));
+        Assertions.assertTrue(logStoreDataBaseDAO.queryBranchTransactionDO("abc-123:5252").isEmpty());
+    }
+
+    @Test
+    public void heartbeat() {
+        Map<Long, Long> heartbeats = logStoreDataBaseDAO.heartbeat(1L, 1000L);
+        Assertions.assertEquals(1, heartbeats.size());
+        Assertions.assertEquals(1000L, heartbeats.get(1L).longValue());
+
+        heartbeats = logStoreDataBaseDAO.heartbeat(2L, 1500L);
+        Assertions.assertEquals(2, heartbeats.size());
+
+        // renewed by the update
+        heartbeats = logStoreDataBaseDAO.heartbeat(1L, 2000L);
+        Assertions.assertEquals(2, heartbeats.size());
+        Assertions.assertEquals(2000L, heartbeats.get(1L).longValue());
+        Assertions.assertEquals(1500L, heartbeats.get(2L).longValue());
+    }
+
     @AfterAll
     public static void clearStoreDB(){
         FileUtils.deleteRecursive("db_store", true);
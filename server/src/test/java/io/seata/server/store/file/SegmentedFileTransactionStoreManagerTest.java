@@ -0,0 +1,124 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.storage.file.store.SegmentedFileTransactionStoreManager;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type SegmentedFileTransactionStoreManager test.
+ */
+public class SegmentedFileTransactionStoreManagerTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @Test
+    public void testRecoverFromSnapshotAndTail() throws Exception {
+        File dir = Files.createTempDirectory("segmentedStore").toFile();
+        String fullFileName = dir.getAbsolutePath() + File.separator + "root.data";
+        SegmentedFileTransactionStoreManager storeManager = new SegmentedFileTransactionStoreManager(fullFileName,
+            SEGMENT_SIZE, FlushDiskMode.SYNC_MODEL, 0);
+        try {
+            List<GlobalSession> globalSessions = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                globalSessions.add(writeGlobalSession(storeManager));
+            }
+            for (int i = 0; i < 450; i++) {
+                GlobalSession globalSession = globalSessions.get(i);
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_REMOVE,
+                    globalSession.getBranchSessions().get(0)));
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+            }
+            Assertions.assertTrue(countFiles(dir, ".log") > 1);
+            Assertions.assertTrue(storeManager.checkpoint());
+            // the tail after the checkpoint
+            for (int i = 0; i < 10; i++) {
+                writeGlobalSession(storeManager);
+            }
+        } finally {
+            storeManager.shutdown();
+        }
+
+        storeManager = new SegmentedFileTransactionStoreManager(fullFileName, SEGMENT_SIZE, FlushDiskMode.SYNC_MODEL,
+            0);
+        try {
+            List<TransactionWriteStore> snapshot = readAll(storeManager, true);
+            Assertions.assertEquals(100, snapshot.size());
+            Assertions.assertEquals(50, countOperation(snapshot, LogOperation.GLOBAL_ADD));
+            Assertions.assertEquals(50, countOperation(snapshot, LogOperation.BRANCH_ADD));
+            List<TransactionWriteStore> tail = readAll(storeManager, false);
+            Assertions.assertEquals(20, tail.size());
+            Assertions.assertEquals(10, countOperation(tail, LogOperation.GLOBAL_ADD));
+
+            // the covered files are deleted once the sessions are restored
+            Assertions.assertTrue(storeManager.checkpoint());
+            Assertions.assertEquals(1, countFiles(dir, ".log"));
+            Assertions.assertEquals(1, countFiles(dir, ".snapshot"));
+        } finally {
+            storeManager.shutdown();
+        }
+    }
+
+    private static GlobalSession writeGlobalSession(SegmentedFileTransactionStoreManager storeManager) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", 60000);
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(globalSession.getXid());
+        branchSession.setTransactionId(globalSession.getTransactionId());
+        branchSession.setBranchId(globalSession.getTransactionId() + 1);
+        branchSession.setResourceId("tb_1");
+        branchSession.setLockKey("t_1:1");
+        branchSession.setBranchType(BranchType.AT);
+        globalSession.add(branchSession);
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, branchSession));
+        return globalSession;
+    }
+
+    private static List<TransactionWriteStore> readAll(SegmentedFileTransactionStoreManager storeManager,
+                                                       boolean isHistory) {
+        List<TransactionWriteStore> writeStores = new ArrayList<>();
+        while (storeManager.hasRemaining(isHistory)) {
+            writeStores.addAll(storeManager.readWriteStore(100, isHistory));
+        }
+        return writeStores;
+    }
+
+    private static long countOperation(List<TransactionWriteStore> writeStores, LogOperation logOperation) {
+        return writeStores.stream().filter(writeStore -> writeStore.getOperate() == logOperation).count();
+    }
+
+    private static int countFiles(File dir, String postfix) throws IOException {
+        File segmentDir = new File(dir, "root.data.segments");
+        File[] files = segmentDir.listFiles((parent, name) -> name.endsWith(postfix));
+        if (files == null) {
+            throw new IOException("segment dir not found");
+        }
+        return files.length;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Waiting for the work done on the other threads in the tests.
+ *
+ * @since 1.5.0
+ */
+public final class WaitTestUtil {
+
+    private static final long MAX_WAIT_TIME_MILLS = 5 * 1000;
+
+    private static final long POLL_INTERVAL_MILLS = 10;
+
+    private WaitTestUtil() {
+    }
+
+    /**
+     * Poll the condition until it holds, and fail the test if it does not hold within 5 seconds.
+     *
+     * @param condition the condition
+     */
+    public static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_TIME_MILLS;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "wait timeout");
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assertions.fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty.v2;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RegisterRMRequest;
+import io.seata.core.protocol.RegisterRMResponse;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.SerializerType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type ProtocolV2 codec test.
+ */
+public class ProtocolV2CodecTest {
+
+    private static final String RESOURCE_ID =
+        "jdbc:mysql://127.0.0.1:3306/seata_order?useUnicode=true&characterEncoding=utf8&useSSL=false";
+
+    private static final String XID = "192.168.0.1:8091:2612341234123412";
+
+    @Test
+    public void testNegotiateAndCompact() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+
+        RpcMessage register = transfer(client, server, newRpcMessage(1, new RegisterRMRequest("app", "group")));
+        Assertions.assertTrue(register.getBody() instanceof RegisterRMRequest);
+        Assertions.assertNull(register.getHead(ProtocolConstants.HEAD_PROTOCOL_VERSION));
+        transfer(server, client, newRpcMessage(1, new RegisterRMResponse()));
+
+        // the first request adds the strings to the dictionaries, and the second refers to them
+        client.writeOutbound(newRpcMessage(2, newBranchRegisterRequest()));
+        ByteBuf first = client.readOutbound();
+        client.writeOutbound(newRpcMessage(3, newBranchRegisterRequest()));
+        ByteBuf second = client.readOutbound();
+        Assertions.assertEquals(ProtocolConstants.VERSION_2, first.getByte(2));
+        Assertions.assertTrue(second.readableBytes() < first.readableBytes() - RESOURCE_ID.length());
+
+        server.writeInbound(first, second);
+        RpcMessage firstRequest = server.readInbound();
+        RpcMessage secondRequest = server.readInbound();
+        Assertions.assertEquals(2, firstRequest.getId());
+        Assertions.assertEquals(3, secondRequest.getId());
+        BranchRegisterRequest branchRegisterRequest = (BranchRegisterRequest) secondRequest.getBody();
+        Assertions.assertEquals(XID, branchRegisterRequest.getXid());
+        Assertions.assertEquals(BranchType.AT, branchRegisterRequest.getBranchType());
+        Assertions.assertEquals(RESOURCE_ID, branchRegisterRequest.getResourceId());
+        Assertions.assertEquals("t:1,2", branchRegisterRequest.getLockKey());
+        Assertions.assertNull(branchRegisterRequest.getApplicationData());
+    }
+
+    @Test
+    public void testMerged() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        transfer(client, server, newRpcMessage(1, new RegisterRMRequest("app", "group")));
+        transfer(server, client, newRpcMessage(1, new RegisterRMResponse()));
+
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        mergedWarpMessage.msgs.add(newBranchRegisterRequest());
+        BranchCommitRequest branchCommitRequest = new BranchCommitRequest();
+        branchCommitRequest.setXid(XID);
+        branchCommitRequest.setBranchId(2612341234123413L);
+        branchCommitRequest.setBranchType(BranchType.AT);
+        branchCommitRequest.setResourceId(RESOURCE_ID);
+        mergedWarpMessage.msgs.add(branchCommitRequest);
+        MergedWarpMessage decoded = (MergedWarpMessage) transfer(client, server, newRpcMessage(2, mergedWarpMessage))
+            .getBody();
+        Assertions.assertEquals(2, decoded.msgs.size());
+        BranchCommitRequest decodedCommitRequest = (BranchCommitRequest) decoded.msgs.get(1);
+        Assertions.assertEquals(XID, decodedCommitRequest.getXid());
+        Assertions.assertEquals(2612341234123413L, decodedCommitRequest.getBranchId());
+        Assertions.assertEquals(RESOURCE_ID, decodedCommitRequest.getResourceId());
+    }
+
+    @Test
+    public void testCloseOnDecodeFailure() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        transfer(client, server, newRpcMessage(1, new RegisterRMRequest("app", "group")));
+        transfer(server, client, newRpcMessage(1, new RegisterRMResponse()));
+
+        client.writeOutbound(newRpcMessage(2, newBranchRegisterRequest()));
+        ByteBuf frame = client.readOutbound();
+        // an unknown codec, after the head is read
+        frame.setByte(8, 0x7f);
+        Assertions.assertThrows(DecoderException.class, () -> server.writeInbound(frame));
+        // the strings added by the frame are missing in the dictionary of the server, so the connection is closed
+        Assertions.assertFalse(server.isOpen());
+    }
+
+    @Test
+    public void testStayV1WithV1Peer() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV2Decoder(), new ProtocolV2Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV1Decoder(), new ProtocolV1Encoder());
+        transfer(client, server, newRpcMessage(1, new RegisterRMRequest("app", "group")));
+        transfer(server, client, newRpcMessage(1, new RegisterRMResponse()));
+
+        client.writeOutbound(newRpcMessage(2, newBranchRegisterRequest()));
+        ByteBuf frame = client.readOutbound();
+        Assertions.assertEquals(ProtocolConstants.VERSION, frame.getByte(2));
+        server.writeInbound(frame);
+        RpcMessage request = server.readInbound();
+        Assertions.assertEquals(RESOURCE_ID, ((BranchRegisterRequest) request.getBody()).getResourceId());
+    }
+
+    private static RpcMessage transfer(EmbeddedChannel from, EmbeddedChannel to, RpcMessage rpcMessage) {
+        from.writeOutbound(rpcMessage);
+        to.writeInbound((ByteBuf) from.readOutbound());
+        return to.readInbound();
+    }
+
+    private static RpcMessage newRpcMessage(int id, Object body) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.NONE.getCode());
+        rpcMessage.setBody(body);
+        return rpcMessage;
+    }
+
+    private static BranchRegisterRequest newBranchRegisterRequest() {
+        BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+        branchRegisterRequest.setXid(XID);
+        branchRegisterRequest.setBranchType(BranchType.AT);
+        branchRegisterRequest.setResourceId(RESOURCE_ID);
+        branchRegisterRequest.setLockKey("t:1,2");
+        return branchRegisterRequest;
+    }
+}